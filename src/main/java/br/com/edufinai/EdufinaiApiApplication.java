@@ -0,0 +1,24 @@
+package br.com.edufinai;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Ponto de entrada da API HTTP do EduFinAI.
+ *
+ * Observações:
+ * - As requisições são atendidas em threads virtuais ({@code spring.threads.virtual.enabled}
+ *   em {@code application.properties}): uma requisição bloqueada (ex.: aguardando o log)
+ *   não ocupa uma thread de plataforma.
+ * - Os serviços são os mesmos usados pela {@link br.com.edufinai.cli.EduFinApp}, em memória,
+ *   registrados em {@link br.com.edufinai.api.ConfiguracaoServicos}.
+ *
+ * @see br.com.edufinai.api
+ */
+@SpringBootApplication
+public class EdufinaiApiApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(EdufinaiApiApplication.class, args);
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.edufinai.api;
+
+import br.com.edufinai.model.gamification.GamificationEngine;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.SimuladorFinanceiro;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra os serviços do EduFinAI como beans da aplicação.
+ * As classes de serviço não dependem do Spring; aqui apenas se decide uma instância de cada.
+ */
+@Configuration
+public class ConfiguracaoServicos {
+
+    @Bean
+    public GerenciadorFinanceiroService gerenciadorFinanceiroService() {
+        return new GerenciadorFinanceiroService();
+    }
+
+    @Bean
+    public SimuladorFinanceiro simuladorFinanceiro() {
+        return new SimuladorFinanceiro();
+    }
+
+    @Bean
+    public GamificationEngine gamificationEngine() {
+        return new GamificationEngine();
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.edufinai.api;
+
+import br.com.edufinai.model.gamification.Challenge;
+import br.com.edufinai.model.gamification.GamificationEngine;
+import br.com.edufinai.model.gamification.Goal;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Estado e operações do {@link GamificationEngine}.
+ *
+ * Endpoints:
+ * - {@code GET /api/gamificacao}: metas, desafios, recompensas e notificações.
+ * - {@code POST /api/gamificacao/metas} e {@code POST /api/gamificacao/desafios}: cadastram metas e desafios.
+ * - {@code POST /api/gamificacao/progresso?saldo=}: avalia metas pendentes e desafios com o saldo
+ *   informado; metas já alcançadas não são pagas de novo.
+ */
+@RestController
+@RequestMapping("/api/gamificacao")
+public class GamificacaoController {
+
+    private final GamificationEngine engine;
+
+    public GamificacaoController(GamificationEngine engine) {
+        this.engine = engine;
+    }
+
+    @GetMapping
+    public Map<String, Object> estado() {
+        // Cada lista é uma cópia feita sob o bloqueio do motor
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("metas", engine.getGoals());
+        estado.put("desafios", engine.getChallenges());
+        estado.put("recompensas", engine.getRewards());
+        estado.put("notificacoes", engine.getNotifications());
+        return estado;
+    }
+
+    @PostMapping("/metas")
+    @ResponseStatus(HttpStatus.CREATED)
+    public void adicionarMeta(@RequestBody Goal meta) {
+        if (meta.getTitle() == null || meta.getTargetAmount() == null) {
+            throw new IllegalArgumentException("Meta sem título ou valor alvo");
+        }
+        engine.addGoal(meta);
+    }
+
+    @PostMapping("/desafios")
+    @ResponseStatus(HttpStatus.CREATED)
+    public void adicionarDesafio(@RequestBody Challenge desafio) {
+        if (desafio.getTitle() == null) {
+            throw new IllegalArgumentException("Desafio sem título");
+        }
+        engine.addChallenge(desafio);
+    }
+
+    @PostMapping("/progresso")
+    public Map<String, Object> avaliarProgresso(@RequestParam BigDecimal saldo) {
+        engine.checkPendingGoals(saldo);
+        engine.checkChallengesStatus();
+        return estado();
+    }
+}
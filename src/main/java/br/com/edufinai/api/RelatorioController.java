@@ -0,0 +1,65 @@
+package br.com.edufinai.api;
+
+import br.com.edufinai.model.User;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.ResumoMensal;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Relatórios mensais de um usuário.
+ *
+ * Endpoints:
+ * - {@code GET /api/usuarios/{userId}/relatorio?nome=&de=&ate=}: texto de
+ *   {@link GerenciadorFinanceiroService#generateMonthlyReport(User, YearMonth, YearMonth)},
+ *   servido pelo cache de relatórios. Meses no formato {@code yyyy-MM}.
+ * - {@code GET /api/usuarios/{userId}/resumos?de=&ate=}: os mesmos totais em JSON, até
+ *   {@link #MAXIMO_RESUMOS} meses por requisição (acima disso, 400 pedindo um intervalo menor).
+ *
+ * Observações:
+ * - O serviço não guarda cadastro de usuários; o nome exibido no cabeçalho vem do parâmetro {@code nome}.
+ */
+@RestController
+@RequestMapping("/api/usuarios/{userId}")
+public class RelatorioController {
+
+    /** Meses com transações devolvidos por requisição em {@code /resumos} (100 anos). */
+    static final int MAXIMO_RESUMOS = 1_200;
+
+    private final GerenciadorFinanceiroService service;
+
+    public RelatorioController(GerenciadorFinanceiroService service) {
+        this.service = service;
+    }
+
+    @GetMapping(value = "/relatorio", produces = "text/plain;charset=UTF-8")
+    public String relatorio(@PathVariable Long userId,
+                            @RequestParam(required = false) String nome,
+                            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth de,
+                            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth ate) {
+        User user = new User();
+        user.setId(userId);
+        user.setName(nome == null ? "usuário " + userId : nome);
+        return service.generateMonthlyReport(user, de, ate);
+    }
+
+    @GetMapping("/resumos")
+    public List<ResumoMensal> resumos(@PathVariable Long userId,
+                                      @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth de,
+                                      @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth ate) {
+        // O stream lê um mês por vez: no máximo um mês além do limite é lido
+        List<ResumoMensal> resumos = service.streamResumosMensais(userId, de, ate).limit(MAXIMO_RESUMOS + 1L).toList();
+        if (resumos.size() > MAXIMO_RESUMOS) {
+            throw new IllegalArgumentException("Intervalo com mais de " + MAXIMO_RESUMOS
+                    + " meses com transações; informe de/ate para restringi-lo");
+        }
+        return resumos;
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.edufinai.api;
+
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.ResultadoMonteCarlo;
+import br.com.edufinai.service.ResumoMensal;
+import br.com.edufinai.service.SimulacaoMonteCarlo;
+import br.com.edufinai.service.SimuladorFinanceiro;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Projeções do {@link SimuladorFinanceiro} sobre os resumos mensais de um usuário.
+ *
+ * Endpoints:
+ * - {@code GET /api/usuarios/{userId}/simulacao?meses=12&inflacaoAnual=0.045&objetivo=10000}:
+ *   saldo projetado para {@code meses}; com {@code inflacaoAnual}, também o valor ajustado pela
+ *   inflação; com {@code objetivo}, os meses estimados para alcançá-lo (-1 se inalcançável).
+ * - {@code GET /api/usuarios/{userId}/simulacao/monte-carlo?meses=120&inflacaoAnual=0.045&objetivo=10000&trajetorias=10000&semente=42}:
+ *   percentis P5/P50/P95 do saldo (em valores de hoje) e dos meses para o objetivo, pela
+ *   {@link SimulacaoMonteCarlo}; a mesma semente repete o resultado.
+ * - {@code GET /api/usuarios/{userId}/simulacao/sazonal?meses=12&inicio=2025-01}: saldo acumulado
+ *   mês a mês pela projeção sazonal; sem {@code inicio}, a partir do mês seguinte ao atual.
+ *
+ * Observações:
+ * - Todos os endpoints aceitam horizontes de 0 a {@link #MAXIMO_MESES} meses.
+ */
+@RestController
+public class SimuladorController {
+
+    /** Limite de trajetórias por requisição, para que uma chamada não ocupe todos os processadores por muito tempo. */
+    private static final int MAXIMO_TRAJETORIAS = 1_000_000;
+
+    /** Maior horizonte aceito, em meses (100 anos): o custo das projeções cresce com ele. */
+    private static final int MAXIMO_MESES = 1_200;
+
+    private final GerenciadorFinanceiroService service;
+    private final SimuladorFinanceiro simulador;
+
+    public SimuladorController(GerenciadorFinanceiroService service, SimuladorFinanceiro simulador) {
+        this.service = service;
+        this.simulador = simulador;
+    }
+
+    @GetMapping("/api/usuarios/{userId}/simulacao")
+    public Map<String, Object> simular(@PathVariable Long userId,
+                                       @RequestParam(defaultValue = "12") int meses,
+                                       @RequestParam(required = false) Double inflacaoAnual,
+                                       @RequestParam(required = false) BigDecimal objetivo) {
+        validarMeses(meses);
+        Collection<ResumoMensal> resumos = service.getResumosMensais(userId).values();
+        BigDecimal saldoProjetado = simulador.projetarSaldoFuturo(resumos, meses);
+        Map<String, Object> simulacao = new LinkedHashMap<>();
+        simulacao.put("meses", meses);
+        simulacao.put("saldoProjetado", saldoProjetado);
+        if (inflacaoAnual != null) {
+            simulacao.put("saldoAjustadoPorInflacao", simulador.ajustarPorInflacao(saldoProjetado, inflacaoAnual, meses));
+        }
+        if (objetivo != null) {
+            simulacao.put("mesesParaObjetivo", simulador.estimarMesesParaObjetivo(objetivo, resumos));
+        }
+        return simulacao;
+    }
+
+    @GetMapping("/api/usuarios/{userId}/simulacao/monte-carlo")
+    public Map<String, Object> simularMonteCarlo(@PathVariable Long userId,
+                                                 @RequestParam(defaultValue = "12") int meses,
+                                                 @RequestParam(defaultValue = "0") double inflacaoAnual,
+                                                 @RequestParam(defaultValue = "0") BigDecimal objetivo,
+                                                 @RequestParam(defaultValue = "10000") int trajetorias,
+                                                 @RequestParam(defaultValue = "42") long semente) {
+        validarMeses(meses);
+        if (trajetorias > MAXIMO_TRAJETORIAS) {
+            throw new IllegalArgumentException("No máximo " + MAXIMO_TRAJETORIAS + " trajetórias por simulação");
+        }
+        SimulacaoMonteCarlo monteCarlo = new SimulacaoMonteCarlo();
+        monteCarlo.setTrajetorias(trajetorias);
+        monteCarlo.setSemente(semente);
+        ResultadoMonteCarlo resultado = monteCarlo.simular(service.getResumosMensais(userId).values(), meses,
+                inflacaoAnual, objetivo);
+        Map<String, Object> simulacao = new LinkedHashMap<>();
+        simulacao.put("meses", meses);
+        simulacao.put("trajetorias", resultado.getTrajetorias());
+        simulacao.put("saldoP5", resultado.getSaldoP5());
+        simulacao.put("saldoP50", resultado.getSaldoP50());
+        simulacao.put("saldoP95", resultado.getSaldoP95());
+        simulacao.put("mesesParaObjetivoP5", resultado.getMesesParaObjetivoP5());
+        simulacao.put("mesesParaObjetivoP50", resultado.getMesesParaObjetivoP50());
+        simulacao.put("mesesParaObjetivoP95", resultado.getMesesParaObjetivoP95());
+        simulacao.put("probabilidadeObjetivo", resultado.getProbabilidadeObjetivo());
+        return simulacao;
+    }
+
+    @GetMapping("/api/usuarios/{userId}/simulacao/sazonal")
+    public Map<String, Object> simularSazonal(@PathVariable Long userId,
+                                              @RequestParam(defaultValue = "12") int meses,
+                                              @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth inicio) {
+        validarMeses(meses);
+        YearMonth primeiroMes = inicio != null ? inicio : YearMonth.now().plusMonths(1);
+        Map<String, BigDecimal> saldos = new LinkedHashMap<>();
+        simulador.projetarSaldoSazonal(service.getEstatisticasSazonais(userId), primeiroMes, meses)
+                .forEach((mes, saldo) -> saldos.put(mes.toString(), saldo));
+        Map<String, Object> simulacao = new LinkedHashMap<>();
+        simulacao.put("meses", meses);
+        simulacao.put("inicio", primeiroMes.toString());
+        simulacao.put("saldoAcumulado", saldos);
+        return simulacao;
+    }
+
+    private static void validarMeses(int meses) {
+        if (meses < 0 || meses > MAXIMO_MESES) {
+            throw new IllegalArgumentException("Quantidade de meses deve estar entre 0 e " + MAXIMO_MESES + ": " + meses);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.edufinai.api;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.service.CursorTransacoes;
+import br.com.edufinai.service.DirecaoPaginacao;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.PaginaTransacoes;
+import br.com.edufinai.service.ResultadoLote;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registro e consulta de transações de um usuário.
+ *
+ * Endpoints:
+ * - {@code POST /api/usuarios/{userId}/transacoes}: registra uma transação; 201 se registrada,
+ *   200 com {@code registrada=false} se já estava registrada (reenvio idempotente).
+ * - {@code POST /api/usuarios/{userId}/transacoes/lote}: registra várias de uma vez e devolve o {@link ResultadoLote};
+ *   até {@link #MAXIMO_LOTE} transações por requisição (acima disso, 400 pedindo lotes menores).
+ * - {@code GET /api/usuarios/{userId}/transacoes?limite=100&direcao=PARA_TRAS&cursor=}: uma página do
+ *   histórico por {@link GerenciadorFinanceiroService#paginarTransacoes} (sem cursor, a partir da mais
+ *   recente; com {@code direcao=PARA_FRENTE}, da mais antiga). A resposta traz os cursores das pontas
+ *   para pedir a página seguinte ({@code cursorFim}) ou a anterior ({@code cursorInicio}, no sentido oposto).
+ *
+ * Observações:
+ * - O tamanho da página é limitado a {@link GerenciadorFinanceiroService#TAMANHO_MAXIMO_PAGINA}: uma
+ *   requisição nunca monta o histórico inteiro do usuário.
+ */
+@RestController
+@RequestMapping("/api/usuarios/{userId}/transacoes")
+public class TransacaoController {
+
+    /** Transações aceitas por requisição em {@code /lote}. */
+    static final int MAXIMO_LOTE = 10_000;
+
+    private final GerenciadorFinanceiroService service;
+
+    public TransacaoController(GerenciadorFinanceiroService service) {
+        this.service = service;
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Boolean>> registrar(@PathVariable Long userId,
+                                                          @RequestBody TransacaoRequest transacao) {
+        boolean registrada = service.registerTransaction(transacao.paraTransacao(userId));
+        return ResponseEntity.status(registrada ? HttpStatus.CREATED : HttpStatus.OK)
+                .body(Map.of("registrada", registrada));
+    }
+
+    @PostMapping("/lote")
+    public ResultadoLote registrarLote(@PathVariable Long userId, @RequestBody List<TransacaoRequest> lote) {
+        if (lote.size() > MAXIMO_LOTE) {
+            throw new IllegalArgumentException("Lote com " + lote.size() + " transações; envie no máximo "
+                    + MAXIMO_LOTE + " por requisição");
+        }
+        List<Transaction> transacoes = new ArrayList<>(lote.size());
+        for (TransacaoRequest transacao : lote) {
+            transacoes.add(transacao.paraTransacao(userId));
+        }
+        return service.registerTransactions(transacoes);
+    }
+
+    @GetMapping
+    public Map<String, Object> listar(@PathVariable Long userId,
+                                      @RequestParam(defaultValue = "100") int limite,
+                                      @RequestParam(defaultValue = "PARA_TRAS") DirecaoPaginacao direcao,
+                                      @RequestParam(required = false) String cursor) {
+        PaginaTransacoes pagina = service.paginarTransacoes(userId,
+                cursor == null || cursor.isEmpty() ? null : CursorTransacoes.de(cursor), limite, direcao);
+        Map<String, Object> resposta = new LinkedHashMap<>();
+        resposta.put("transacoes", pagina.getTransacoes());
+        resposta.put("direcao", pagina.getDirecao());
+        resposta.put("cursorInicio", pagina.getCursorInicio() == null ? null : pagina.getCursorInicio().toString());
+        resposta.put("cursorFim", pagina.getCursorFim() == null ? null : pagina.getCursorFim().toString());
+        resposta.put("temMais", pagina.isTemMais());
+        return resposta;
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.edufinai.api;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Corpo JSON de uma transação recebida pela API.
+ * O usuário vem do caminho da requisição, e não do corpo.
+ */
+public class TransacaoRequest {
+
+    private Long id;
+    private Long accountId;
+    private Long categoryId;
+    private TransactionType type;
+    private BigDecimal amount;
+    private LocalDate date;
+    private String description;
+
+    /**
+     * @param userId usuário dono da transação
+     * @return transação do modelo, validada depois pelo serviço
+     */
+    public Transaction paraTransacao(Long userId) {
+        return new Transaction(id, userId, accountId, categoryId, type, amount, date, description);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+}
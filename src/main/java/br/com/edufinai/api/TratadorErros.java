@@ -0,0 +1,22 @@
+package br.com.edufinai.api;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Converte erros de validação dos serviços ({@link IllegalArgumentException}) em respostas 400,
+ * com a mensagem no corpo.
+ */
+@RestControllerAdvice
+public class TratadorErros {
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> argumentoInvalido(IllegalArgumentException e) {
+        return Map.of("erro", String.valueOf(e.getMessage()));
+    }
+}
@@ -3,10 +3,17 @@ package br.com.edufinai.cli;
 import br.com.edufinai.model.*;
 import br.com.edufinai.model.gamification.*;
 import br.com.edufinai.service.*;
+import br.com.edufinai.service.eventos.AvaliadorGamificacao;
+import br.com.edufinai.service.eventos.BarramentoEventos;
+import br.com.edufinai.service.eventos.NotificadorTransacoes;
+import br.com.edufinai.service.eventos.ProcessadorEventos;
+import br.com.edufinai.service.eventos.SaldosUsuarios;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Aplicação de linha de comando (CLI) do EduFinAI.
@@ -14,6 +21,8 @@ import java.util.List;
  *
  * Fluxo principal:
  * - Autentica um usuário de demonstração.
+ * - Liga o serviço a um {@link BarramentoEventos}: saldos, gamificação e notificações são
+ *   atualizados de forma assíncrona a cada transação registrada.
  * - Simula transações e imprime um relatório mensal.
  * - Processa gamificação (metas, desafios, notificações e recompensas).
  * - Simula operações bancárias (conta corrente e poupança).
@@ -40,6 +49,7 @@ public class EduFinApp {
      * Etapas:
      * - Instancia serviços e cria um usuário de exemplo.
      * - Autentica o usuário.
+     * - Cadastra metas e desafio e inicia o barramento de eventos com seus consumidores.
      * - Chama os cenários de transações, gamificação e contas.
      * - Exibe mensagens de sucesso ou falha.
      *
@@ -59,8 +69,21 @@ public class EduFinApp {
         if (autenticado) {
             System.out.println("✅ Usuário autenticado com sucesso.\n");
 
-            simularTransacoes(service, user);
-            processarGamificacao(service);
+            GamificationEngine engine = new GamificationEngine();
+            engine.addGoal(new Goal("Viagem para o Nordeste", new BigDecimal("5000")));
+            engine.addGoal(new Goal("Reserva inicial", new BigDecimal("1000")));
+            engine.addChallenge(new Challenge("Economizar R$500 este mês", new BigDecimal("500")));
+
+            // Saldos lidos antes de configurar o barramento: o histórico já registrado não é publicado
+            SaldosUsuarios saldos = new SaldosUsuarios(saldosRegistrados(service));
+            try (BarramentoEventos barramento = iniciarBarramento(service, engine, user, saldos)) {
+                simularTransacoes(service, user);
+                // Os consumidores trabalham em outras threads; espera-se por eles só para exibir o resultado
+                barramento.aguardarConsumo();
+                System.out.println("💰 Saldo acumulado (barramento): R$ " + saldos.getSaldo(user.getId()));
+                processarGamificacao(service, engine, user);
+                System.out.println("\n📊 " + barramento.getEstatisticas());
+            }
             simularContasBancarias();
 
             System.out.println("\n✔️ Processo concluído com sucesso!\n");
@@ -70,6 +93,52 @@ public class EduFinApp {
         }
     }
 
+    /**
+     * Cria e inicia o barramento de eventos do serviço.
+     *
+     * Consumidores:
+     * - Saldos: soma receitas e subtrai despesas de cada usuário.
+     * - Gamificação: depende dos saldos; avalia as metas pendentes com o saldo atualizado.
+     * - Notificações: avisa despesas a partir de R$ 200,00.
+     *
+     * @param service serviço que passa a publicar as transações registradas
+     * @param engine motor de gamificação do usuário de demonstração
+     * @param user usuário de demonstração
+     * @param saldos consumidor de saldos, consultado depois pela aplicação
+     * @return barramento iniciado
+     */
+    private static BarramentoEventos iniciarBarramento(GerenciadorFinanceiroService service, GamificationEngine engine,
+                                                       User user, SaldosUsuarios saldos) {
+        BarramentoEventos barramento = new BarramentoEventos(1024);
+        ProcessadorEventos processadorSaldos = barramento.adicionarConsumidor("saldos", saldos);
+        barramento.adicionarConsumidor("gamificacao",
+                new AvaliadorGamificacao(saldos, userId -> userId.equals(user.getId()) ? engine : null),
+                processadorSaldos);
+        barramento.adicionarConsumidor("notificacoes",
+                new NotificadorTransacoes(new BigDecimal("200.00"), userId -> userId.equals(user.getId()) ? engine : null));
+        barramento.iniciar();
+        service.configurarBarramento(barramento);
+        return barramento;
+    }
+
+    /**
+     * Saldo (receitas - despesas) de cada usuário já registrado, ponto de partida do consumidor
+     * de saldos: as transações anteriores ao barramento (inclusive as reproduzidas do log) não
+     * são publicadas.
+     *
+     * @param service serviço ainda sem barramento configurado
+     * @return saldo em centavos por usuário
+     */
+    private static Map<Long, Long> saldosRegistrados(GerenciadorFinanceiroService service) {
+        Map<Long, Long> saldos = new HashMap<>();
+        for (long userId : service.getUsuarios()) {
+            saldos.put(userId, service.streamResumosMensais(userId)
+                    .mapToLong(r -> r.getReceitasCentavos() - r.getDespesasCentavos())
+                    .sum());
+        }
+        return saldos;
+    }
+
     /**
      * Simula o registro de transações financeiras do usuário e gera um relatório mensal.
      *
@@ -78,6 +147,7 @@ public class EduFinApp {
      * - Cria uma transação de receita (ex.: salário).
      * - Registra as transações no {@link GerenciadorFinanceiroService}.
      * - Gera e imprime um relatório mensal consolidado.
+     * - Lista a página mais recente do histórico de transações.
      *
      * @param service instância do {@link GerenciadorFinanceiroService} responsável por gerenciar as transações
      * @param user usuário dono das transações simuladas
@@ -106,34 +176,38 @@ public class EduFinApp {
         // Relatório mensal
         String relatorio = service.generateMonthlyReport(user);
         System.out.println(relatorio);
+
+        // Últimas transações, uma página por vez (sem carregar o histórico inteiro)
+        System.out.println("🧾 Últimas transações:");
+        PaginaTransacoes pagina = service.paginarTransacoes(user.getId(), null, 10, DirecaoPaginacao.PARA_TRAS);
+        for (Transaction t : pagina.getTransacoes()) {
+            System.out.println("  " + t.getDate() + " | " + t.getType() + " | R$ " + t.getAmount()
+                    + " | " + t.getDescription());
+        }
     }
 
     /**
      * Processa a lógica de gamificação a partir das transações financeiras registradas.
      *
      * O que faz:
-     * - Obtém as transações via {@link GerenciadorFinanceiroService}.
+     * - Obtém os resumos mensais pré-agregados do usuário via {@link GerenciadorFinanceiroService}.
      * - Projeta o saldo para 6 meses com {@link SimuladorFinanceiro}.
-     * - Cria uma meta e um desafio de economia.
-     * - Adiciona tudo ao {@link GamificationEngine} e verifica progresso e status.
+     * - Verifica no {@link GamificationEngine} o progresso das metas com o saldo projetado e o
+     *   status dos desafios (o saldo atual já foi avaliado pelo barramento).
      * - Imprime notificações e recompensas geradas.
      * - Exibe projeções: saldo projetado, saldo ajustado pela inflação e meses para atingir a meta.
      *
-     * @param service instância do {@link GerenciadorFinanceiroService} que fornece as transações do usuário
+     * @param service instância do {@link GerenciadorFinanceiroService} que fornece os resumos do usuário
+     * @param engine motor de gamificação do usuário, já alimentado pelo barramento
+     * @param user usuário cujas projeções serão calculadas
      */
-    private static void processarGamificacao(GerenciadorFinanceiroService service) {
+    private static void processarGamificacao(GerenciadorFinanceiroService service, GamificationEngine engine,
+                                             User user) {
         SimuladorFinanceiro simulador = new SimuladorFinanceiro();
-        List<Transaction> transacoes = service.getTransacoes();
-        BigDecimal saldoProjetado = simulador.projetarSaldoFuturo(transacoes, 6);
-
-        Goal metaViagem = new Goal("Viagem para o Nordeste", new BigDecimal("5000"));
-        Challenge desafioEconomia = new Challenge("Economizar R$500 este mês", new BigDecimal("500"));
-
-        GamificationEngine engine = new GamificationEngine();
-        engine.addGoal(metaViagem);
-        engine.addChallenge(desafioEconomia);
+        Collection<ResumoMensal> resumos = service.getResumosMensais(user.getId()).values();
+        BigDecimal saldoProjetado = simulador.projetarSaldoFuturo(resumos, 6);
 
-        engine.checkGoalsProgress(saldoProjetado);
+        engine.checkPendingGoals(saldoProjetado);
         engine.checkChallengesStatus();
 
         // Notificações
@@ -159,7 +233,7 @@ public class EduFinApp {
         BigDecimal saldoComInflacao = simulador.ajustarPorInflacao(saldoProjetado, 0.06, 6);
         System.out.println("📉 Saldo ajustado pela inflação: R$ " + saldoComInflacao);
 
-        int mesesParaMeta = simulador.estimarMesesParaObjetivo(new BigDecimal("5000"), transacoes);
+        int mesesParaMeta = simulador.estimarMesesParaObjetivo(new BigDecimal("5000"), resumos);
         System.out.println("🎯 Meses para atingir R$5000: " +
                 (mesesParaMeta >= 0 ? mesesParaMeta + " meses" : "Não alcançável com saldo atual"));
     }
@@ -105,14 +105,14 @@ public class Transaction {
     @Override
     public String toString() {
         return "Transaction{" +
-                "id=" + id +
-                ", userId=" + userId +
-                ", accountId=" + accountId +
-                ", categoryId=" + categoryId +
-                ", type=" + type +
-                ", amount=R$ " + amount +
-                ", date=" + date +
-                ", description='" + description + '\'' +
+                "id=" + getId() +
+                ", userId=" + getUserId() +
+                ", accountId=" + getAccountId() +
+                ", categoryId=" + getCategoryId() +
+                ", type=" + getType() +
+                ", amount=R$ " + getAmount() +
+                ", date=" + getDate() +
+                ", description='" + getDescription() + '\'' +
                 '}';
     }
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ import java.util.List;
  * - Registrar metas e desafios ativos.
  * - Avaliar progresso com base em saldos/projeções.
  * - Gerar recompensas e notificações.
+ * - Permitir captura e restauração de metas, desafios e recompensas (snapshots).
  *
  * Fluxo típico:
  * - Adicionar metas e desafios.
@@ -41,7 +42,7 @@ public class GamificationEngine {
      *
      * @param goal meta a ser adicionada
      */
-    public void addGoal(Goal goal) {
+    public synchronized void addGoal(Goal goal) {
         goals.add(goal);
         notifications.add(new Notification("Nova meta adicionada: " + goal.getTitle()));
     }
@@ -63,7 +64,7 @@ public class GamificationEngine {
      *
      * @param currentBalance saldo atual ou projetado utilizado na verificação das metas
      */
-    public void checkGoalsProgress(BigDecimal currentBalance) {
+    public synchronized void checkGoalsProgress(BigDecimal currentBalance) {
         for (Goal goal : goals) {
             if (goal.checkIfAchieved(currentBalance)) {
                 Reward reward = new Reward("Meta Alcançada: " + goal.getTitle(),
@@ -74,12 +75,44 @@ public class GamificationEngine {
         }
     }
 
+    /**
+     * Avalia apenas as metas ainda não atingidas com base no saldo informado.
+     * Ao contrário de {@link #checkGoalsProgress(BigDecimal)}, pode ser chamado a cada
+     * mudança de saldo sem repetir recompensas: cada meta gera recompensa e notificação
+     * uma única vez, quando é atingida.
+     *
+     * @param currentBalance saldo atual do usuário
+     * @return quantidade de metas atingidas nesta chamada
+     */
+    public synchronized int checkPendingGoals(BigDecimal currentBalance) {
+        int atingidas = 0;
+        for (Goal goal : goals) {
+            if (!goal.isAchieved() && goal.checkIfAchieved(currentBalance)) {
+                Reward reward = new Reward("Meta Alcançada: " + goal.getTitle(),
+                                                        new BigDecimal("100.00"));
+                rewards.add(reward);
+                notifications.add(new Notification("🎉 " + reward.getDescription()));
+                atingidas++;
+            }
+        }
+        return atingidas;
+    }
+
+    /**
+     * Acrescenta uma notificação gerada fora do motor (ex.: alertas sobre transações).
+     *
+     * @param notification notificação a ser exibida ao usuário
+     */
+    public synchronized void addNotification(Notification notification) {
+        notifications.add(notification);
+    }
+
     /**
      * Adiciona um novo desafio ao motor.
      *
      * @param challenge desafio a ser adicionado
      */
-    public void addChallenge(Challenge challenge) {
+    public synchronized void addChallenge(Challenge challenge) {
         challenges.add(challenge);
         notifications.add(new Notification("Novo desafio iniciado: " + challenge.getTitle()));
     }
@@ -87,7 +120,7 @@ public class GamificationEngine {
      * Verifica o status dos desafios (janelas de tempo, valores) e
      * atualiza o campo de conclusão quando aplicável.
      */
-    public void checkChallengesStatus() {
+    public synchronized void checkChallengesStatus() {
         for (Challenge challenge : challenges) {
             if (challenge.isCompleted()) {
                 notifications.add(new Notification("📅 Desafio em andamento: " + challenge.getTitle()));
@@ -96,32 +129,64 @@ public class GamificationEngine {
     }
 
     /**
-     * Retorna a lista de recompensas concedidas até o momento.
+     * Retorna uma cópia das recompensas concedidas até o momento.
      * Útil para exibir em relatórios ou dashboards.
      *
      * @return lista de recompensas
      */
-    public List<Reward> getRewards() {
-        return rewards;
+    public synchronized List<Reward> getRewards() {
+        return new ArrayList<>(rewards);
     }
     /**
-     * Retorna a lista de notificações geradas.
+     * Retorna uma cópia das notificações geradas.
      * Pode ser usada para exibir histórico ao usuário.
      *
      * @return lista de notificações
      */
-    public List<Notification> getNotifications() {
-        return notifications;
+    public synchronized List<Notification> getNotifications() {
+        return new ArrayList<>(notifications);
     }
     /**
      * Limpa as notificações pendentes.
      * Útil após exibição em interfaces para evitar repetição.
      */
-    public void clearNotifications() {
+    public synchronized void clearNotifications() {
         notifications.clear();
     }
 
-    public void printStatus() {
+    /**
+     * Retorna uma cópia das metas cadastradas.
+     *
+     * @return lista de metas
+     */
+    public synchronized List<Goal> getGoals() {
+        return new ArrayList<>(goals);
+    }
+
+    /**
+     * Retorna uma cópia dos desafios cadastrados.
+     *
+     * @return lista de desafios
+     */
+    public synchronized List<Challenge> getChallenges() {
+        return new ArrayList<>(challenges);
+    }
+
+    /**
+     * Substitui metas, desafios e recompensas pelo conteúdo de um snapshot.
+     * Não gera notificações, pois os itens já haviam sido notificados antes.
+     *
+     * @param goals metas restauradas
+     * @param challenges desafios restaurados
+     * @param rewards recompensas restauradas
+     */
+    public synchronized void restaurar(List<Goal> goals, List<Challenge> challenges, List<Reward> rewards) {
+        this.goals = new ArrayList<>(goals);
+        this.challenges = new ArrayList<>(challenges);
+        this.rewards = new ArrayList<>(rewards);
+    }
+
+    public synchronized void printStatus() {
         System.out.println("🏆 Metas:");
         goals.forEach(System.out::println);
         System.out.println("\n🎯 Desafios:");
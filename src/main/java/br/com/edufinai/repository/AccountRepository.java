@@ -0,0 +1,83 @@
+package br.com.edufinai.repository;
+
+import br.com.edufinai.model.Account;
+import br.com.edufinai.model.CheckingAccount;
+import br.com.edufinai.model.SavingsAccount;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório de {@link Account} na tabela {@code contas}.
+ *
+ * Observações:
+ * - A coluna {@code tipo} indica a subclasse ({@code CORRENTE} ou {@code POUPANCA});
+ *   {@code limite} e {@code taxa_juros} só são preenchidos no tipo correspondente.
+ * - Outras subclasses de {@link Account} não são suportadas.
+ */
+public class AccountRepository extends RepositorioJdbc<Account> {
+
+    private static final String CORRENTE = "CORRENTE";
+    private static final String POUPANCA = "POUPANCA";
+
+    private static final String SQL_INSERCAO =
+            "INSERT INTO contas (id, numero, tipo, saldo, limite, taxa_juros) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SQL_POR_ID = "SELECT * FROM contas WHERE id = ?";
+    private static final String SQL_TODOS = "SELECT * FROM contas ORDER BY id";
+
+    public AccountRepository(BancoDados banco) {
+        super(banco);
+    }
+
+    @Override
+    protected String tabela() {
+        return "contas";
+    }
+
+    @Override
+    protected String sqlInsercao() {
+        return SQL_INSERCAO;
+    }
+
+    @Override
+    protected void vincular(PreparedStatement comando, Account conta) throws SQLException {
+        comando.setLong(1, exigirId(conta.getId(), conta));
+        comando.setString(2, conta.getNumber());
+        comando.setDouble(4, conta.getBalance());
+        if (conta instanceof CheckingAccount corrente) {
+            comando.setString(3, CORRENTE);
+            comando.setDouble(5, corrente.getLimit());
+            comando.setNull(6, Types.DOUBLE);
+        } else if (conta instanceof SavingsAccount poupanca) {
+            comando.setString(3, POUPANCA);
+            comando.setNull(5, Types.DOUBLE);
+            comando.setDouble(6, poupanca.getInterestRate());
+        } else {
+            throw new IllegalArgumentException("Tipo de conta não suportado: " + conta.getClass().getName());
+        }
+    }
+
+    @Override
+    protected Account mapear(ResultSet linha) throws SQLException {
+        String tipo = linha.getString("tipo");
+        return switch (tipo) {
+            case CORRENTE -> new CheckingAccount(linha.getLong("id"), linha.getString("numero"),
+                    linha.getDouble("saldo"), linha.getDouble("limite"));
+            case POUPANCA -> new SavingsAccount(linha.getLong("id"), linha.getString("numero"),
+                    linha.getDouble("saldo"), linha.getDouble("taxa_juros"));
+            default -> throw new IllegalStateException("Tipo de conta desconhecido no banco: " + tipo);
+        };
+    }
+
+    public Optional<Account> buscarPorId(Long id) throws SQLException {
+        return buscarUm(SQL_POR_ID, id);
+    }
+
+    public List<Account> listar() throws SQLException {
+        return buscarLista(SQL_TODOS);
+    }
+}
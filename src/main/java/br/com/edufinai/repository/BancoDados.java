@@ -0,0 +1,160 @@
+package br.com.edufinai.repository;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Acesso a um banco H2 embarcado usado como armazenamento persistente do EduFinAI.
+ *
+ * Responsabilidades:
+ * - Abrir conexões JDBC para os repositórios ({@link #conectar()}).
+ * - Criar o esquema (tabelas e índices) se ainda não existir ({@link #criarEsquema()}).
+ * - Manter o banco aberto enquanto a instância existir: o H2 embarcado fecha o banco
+ *   quando a última conexão é encerrada, e reabri-lo a cada operação custaria caro.
+ *
+ * Esquema:
+ * - {@code transacoes}: valor em centavos ({@code BIGINT}) e tipo pelo ordinal de
+ *   {@link br.com.edufinai.model.TransactionType}, como no armazenamento colunar. A chave
+ *   {@code seq} é gerada pelo banco, pois o id da transação é opcional. A descrição comporta o
+ *   mesmo máximo do serviço e do log ({@link br.com.edufinai.service.persistence.TransactionJournal#MAX_DESCRICAO}
+ *   bytes, portanto no máximo o mesmo número de caracteres).
+ * - Índice {@code (user_id, data_transacao, tipo, centavos)}: atende consultas por período e
+ *   contém todas as colunas lidas pela agregação mensal, que dispensa a leitura das linhas.
+ * - {@code usuarios}, {@code contas}, {@code metas} e {@code recompensas}, com id obrigatório;
+ *   metas e recompensas indexadas por usuário.
+ *
+ * Observações:
+ * - O driver do H2 é dependência de execução: este código usa apenas a API {@code java.sql}.
+ */
+public class BancoDados implements AutoCloseable {
+
+    private static final String[] ESQUEMA = {
+            """
+            CREATE TABLE IF NOT EXISTS transacoes (
+                seq BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                id BIGINT,
+                user_id BIGINT NOT NULL,
+                account_id BIGINT,
+                category_id BIGINT,
+                tipo TINYINT NOT NULL,
+                centavos BIGINT NOT NULL,
+                data_transacao DATE NOT NULL,
+                descricao VARCHAR(32767)
+            )""",
+            // Bancos criados com VARCHAR(1000) passam a aceitar as mesmas descrições que o serviço
+            "ALTER TABLE transacoes ALTER COLUMN descricao SET DATA TYPE VARCHAR(32767)",
+            "CREATE INDEX IF NOT EXISTS idx_transacoes_usuario_data ON transacoes (user_id, data_transacao, tipo, centavos)",
+            """
+            CREATE TABLE IF NOT EXISTS usuarios (
+                id BIGINT PRIMARY KEY,
+                nome VARCHAR(255),
+                email VARCHAR(255),
+                senha_hash VARCHAR(255)
+            )""",
+            """
+            CREATE TABLE IF NOT EXISTS contas (
+                id BIGINT PRIMARY KEY,
+                numero VARCHAR(64),
+                tipo VARCHAR(16) NOT NULL,
+                saldo DOUBLE PRECISION NOT NULL,
+                limite DOUBLE PRECISION,
+                taxa_juros DOUBLE PRECISION
+            )""",
+            """
+            CREATE TABLE IF NOT EXISTS metas (
+                id BIGINT PRIMARY KEY,
+                user_id BIGINT,
+                titulo VARCHAR(255),
+                valor_alvo DECIMAL(19, 2),
+                prazo DATE,
+                atingida BOOLEAN NOT NULL
+            )""",
+            "CREATE INDEX IF NOT EXISTS idx_metas_usuario ON metas (user_id)",
+            """
+            CREATE TABLE IF NOT EXISTS recompensas (
+                id BIGINT PRIMARY KEY,
+                user_id BIGINT,
+                descricao VARCHAR(1000),
+                valor DECIMAL(19, 2),
+                resgatada BOOLEAN NOT NULL
+            )""",
+            "CREATE INDEX IF NOT EXISTS idx_recompensas_usuario ON recompensas (user_id)"
+    };
+
+    private final String url;
+    private final String usuario;
+    private final String senha;
+    private final Connection guardia;
+
+    /**
+     * @param url URL JDBC do H2 (ex.: {@code jdbc:h2:file:/dados/edufinai})
+     * @param usuario usuário do banco
+     * @param senha senha do banco
+     * @throws SQLException se o banco não puder ser aberto
+     */
+    public BancoDados(String url, String usuario, String senha) throws SQLException {
+        this.url = url;
+        this.usuario = usuario;
+        this.senha = senha;
+        this.guardia = DriverManager.getConnection(url, usuario, senha);
+    }
+
+    /**
+     * Abre (ou cria) um banco em arquivo.
+     *
+     * @param arquivo caminho do banco, sem a extensão {@code .mv.db} acrescentada pelo H2
+     * @return banco aberto, com o esquema criado
+     * @throws SQLException se o banco não puder ser aberto
+     */
+    public static BancoDados emArquivo(Path arquivo) throws SQLException {
+        BancoDados banco = new BancoDados("jdbc:h2:file:" + arquivo.toAbsolutePath(), "sa", "");
+        banco.criarEsquema();
+        return banco;
+    }
+
+    /**
+     * Abre um banco em memória, descartado ao fechar esta instância.
+     *
+     * @param nome nome do banco, único por processo
+     * @return banco aberto, com o esquema criado
+     * @throws SQLException se o banco não puder ser aberto
+     */
+    public static BancoDados emMemoria(String nome) throws SQLException {
+        BancoDados banco = new BancoDados("jdbc:h2:mem:" + nome, "sa", "");
+        banco.criarEsquema();
+        return banco;
+    }
+
+    /**
+     * @return nova conexão, que deve ser fechada por quem a abriu
+     * @throws SQLException se a conexão falhar
+     */
+    public Connection conectar() throws SQLException {
+        return DriverManager.getConnection(url, usuario, senha);
+    }
+
+    /**
+     * Cria tabelas e índices ausentes. Pode ser chamado mais de uma vez.
+     *
+     * @throws SQLException se algum comando falhar
+     */
+    public void criarEsquema() throws SQLException {
+        try (Statement comando = guardia.createStatement()) {
+            for (String sql : ESQUEMA) {
+                comando.execute(sql);
+            }
+        }
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        guardia.close();
+    }
+}
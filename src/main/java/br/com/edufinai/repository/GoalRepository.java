@@ -0,0 +1,61 @@
+package br.com.edufinai.repository;
+
+import br.com.edufinai.model.gamification.Goal;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório de {@link Goal} na tabela {@code metas}, consultado por usuário.
+ */
+public class GoalRepository extends RepositorioJdbc<Goal> {
+
+    private static final String SQL_INSERCAO =
+            "INSERT INTO metas (id, user_id, titulo, valor_alvo, prazo, atingida) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SQL_POR_ID = "SELECT * FROM metas WHERE id = ?";
+    private static final String SQL_POR_USUARIO = "SELECT * FROM metas WHERE user_id = ? ORDER BY id";
+
+    public GoalRepository(BancoDados banco) {
+        super(banco);
+    }
+
+    @Override
+    protected String tabela() {
+        return "metas";
+    }
+
+    @Override
+    protected String sqlInsercao() {
+        return SQL_INSERCAO;
+    }
+
+    @Override
+    protected void vincular(PreparedStatement comando, Goal meta) throws SQLException {
+        comando.setLong(1, exigirId(meta.getId(), meta));
+        comando.setObject(2, meta.getUserId());
+        comando.setString(3, meta.getTitle());
+        comando.setBigDecimal(4, meta.getTargetAmount());
+        comando.setObject(5, meta.getDeadline());
+        comando.setBoolean(6, meta.isAchieved());
+    }
+
+    @Override
+    protected Goal mapear(ResultSet linha) throws SQLException {
+        Goal meta = new Goal(linha.getLong("id"), getLongOuNulo(linha, "user_id"), linha.getString("titulo"),
+                linha.getBigDecimal("valor_alvo"), linha.getObject("prazo", LocalDate.class));
+        meta.setAchieved(linha.getBoolean("atingida"));
+        return meta;
+    }
+
+    public Optional<Goal> buscarPorId(Long id) throws SQLException {
+        return buscarUm(SQL_POR_ID, id);
+    }
+
+    public List<Goal> buscarPorUsuario(Long userId) throws SQLException {
+        return buscarLista(SQL_POR_USUARIO, userId);
+    }
+}
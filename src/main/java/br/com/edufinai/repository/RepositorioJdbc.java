@@ -0,0 +1,163 @@
+package br.com.edufinai.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Base dos repositórios JDBC: inserção em lotes e consultas simples com mapeamento de linhas.
+ *
+ * Como funciona:
+ * - {@link #salvarTodos(Collection)} usa um único {@link PreparedStatement} e uma única
+ *   transação: as entidades são acumuladas com {@code addBatch} e enviadas a cada
+ *   {@link #getTamanhoLote()} linhas, com um commit ao final.
+ * - As subclasses informam o SQL de inserção, como vincular uma entidade aos parâmetros
+ *   e como montar uma entidade a partir de uma linha do resultado.
+ *
+ * Observações:
+ * - A gravação é tudo ou nada: entidade inválida ({@link IllegalArgumentException}) ou erro
+ *   do banco desfazem o lote inteiro.
+ * - Lotes maiores reduzem idas e vindas ao banco, mas seguram mais parâmetros em memória.
+ *
+ * @param <T> tipo da entidade
+ */
+public abstract class RepositorioJdbc<T> {
+
+    /** Linhas por {@code executeBatch} quando não configurado. */
+    public static final int TAMANHO_LOTE_PADRAO = 1_000;
+
+    protected final BancoDados banco;
+    private int tamanhoLote = TAMANHO_LOTE_PADRAO;
+
+    protected RepositorioJdbc(BancoDados banco) {
+        this.banco = banco;
+    }
+
+    /** @return nome da tabela da entidade */
+    protected abstract String tabela();
+
+    /** @return {@code INSERT} com um parâmetro por coluna gravada */
+    protected abstract String sqlInsercao();
+
+    /**
+     * Preenche os parâmetros de {@link #sqlInsercao()} com os campos da entidade.
+     *
+     * @throws IllegalArgumentException se a entidade não puder ser gravada
+     */
+    protected abstract void vincular(PreparedStatement comando, T entidade) throws SQLException;
+
+    /** Monta uma entidade a partir da linha atual do resultado. */
+    protected abstract T mapear(ResultSet linha) throws SQLException;
+
+    /**
+     * Grava uma entidade em sua própria transação.
+     *
+     * @param entidade entidade a gravar
+     * @throws SQLException se o banco falhar
+     */
+    public void salvar(T entidade) throws SQLException {
+        salvarTodos(List.of(entidade));
+    }
+
+    /**
+     * Grava as entidades em lotes de {@link #getTamanhoLote()}, em uma única transação.
+     *
+     * @param entidades entidades a gravar
+     * @return quantidade de entidades gravadas
+     * @throws SQLException se o banco falhar (nada é gravado)
+     */
+    public int salvarTodos(Collection<? extends T> entidades) throws SQLException {
+        try (Connection conexao = banco.conectar()) {
+            conexao.setAutoCommit(false);
+            try (PreparedStatement comando = conexao.prepareStatement(sqlInsercao())) {
+                int pendentes = 0;
+                for (T entidade : entidades) {
+                    vincular(comando, entidade);
+                    comando.addBatch();
+                    if (++pendentes == tamanhoLote) {
+                        comando.executeBatch();
+                        pendentes = 0;
+                    }
+                }
+                if (pendentes > 0) {
+                    comando.executeBatch();
+                }
+                conexao.commit();
+            } catch (SQLException | RuntimeException e) {
+                conexao.rollback();
+                throw e;
+            }
+        }
+        return entidades.size();
+    }
+
+    /**
+     * @return quantidade de linhas da tabela
+     * @throws SQLException se o banco falhar
+     */
+    public long contar() throws SQLException {
+        try (Connection conexao = banco.conectar();
+             Statement comando = conexao.createStatement();
+             ResultSet resultado = comando.executeQuery("SELECT COUNT(*) FROM " + tabela())) {
+            resultado.next();
+            return resultado.getLong(1);
+        }
+    }
+
+    /** Executa uma consulta parametrizada e mapeia todas as linhas. */
+    protected List<T> buscarLista(String sql, Object... parametros) throws SQLException {
+        try (Connection conexao = banco.conectar();
+             PreparedStatement comando = conexao.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                comando.setObject(i + 1, parametros[i]);
+            }
+            List<T> entidades = new ArrayList<>();
+            try (ResultSet resultado = comando.executeQuery()) {
+                while (resultado.next()) {
+                    entidades.add(mapear(resultado));
+                }
+            }
+            return entidades;
+        }
+    }
+
+    /** Executa uma consulta parametrizada que retorna no máximo uma linha. */
+    protected Optional<T> buscarUm(String sql, Object... parametros) throws SQLException {
+        List<T> entidades = buscarLista(sql, parametros);
+        return entidades.isEmpty() ? Optional.empty() : Optional.of(entidades.get(0));
+    }
+
+    /** Lê um {@code BIGINT} que pode ser nulo. */
+    protected static Long getLongOuNulo(ResultSet linha, String coluna) throws SQLException {
+        long valor = linha.getLong(coluna);
+        return linha.wasNull() ? null : valor;
+    }
+
+    /** Exige id preenchido nas entidades cuja tabela usa o id como chave primária. */
+    protected static long exigirId(Long id, Object entidade) {
+        if (id == null) {
+            throw new IllegalArgumentException("Id obrigatório para gravar: " + entidade);
+        }
+        return id;
+    }
+
+    public int getTamanhoLote() {
+        return tamanhoLote;
+    }
+
+    /**
+     * @param tamanhoLote linhas por {@code executeBatch} (1 envia cada linha separadamente)
+     */
+    public void setTamanhoLote(int tamanhoLote) {
+        if (tamanhoLote < 1) {
+            throw new IllegalArgumentException("Tamanho de lote inválido: " + tamanhoLote);
+        }
+        this.tamanhoLote = tamanhoLote;
+    }
+}
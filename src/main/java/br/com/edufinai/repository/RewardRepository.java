@@ -0,0 +1,59 @@
+package br.com.edufinai.repository;
+
+import br.com.edufinai.model.gamification.Reward;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório de {@link Reward} na tabela {@code recompensas}, consultado por usuário.
+ */
+public class RewardRepository extends RepositorioJdbc<Reward> {
+
+    private static final String SQL_INSERCAO =
+            "INSERT INTO recompensas (id, user_id, descricao, valor, resgatada) VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_POR_ID = "SELECT * FROM recompensas WHERE id = ?";
+    private static final String SQL_POR_USUARIO = "SELECT * FROM recompensas WHERE user_id = ? ORDER BY id";
+
+    public RewardRepository(BancoDados banco) {
+        super(banco);
+    }
+
+    @Override
+    protected String tabela() {
+        return "recompensas";
+    }
+
+    @Override
+    protected String sqlInsercao() {
+        return SQL_INSERCAO;
+    }
+
+    @Override
+    protected void vincular(PreparedStatement comando, Reward recompensa) throws SQLException {
+        comando.setLong(1, exigirId(recompensa.getId(), recompensa));
+        comando.setObject(2, recompensa.getUserId());
+        comando.setString(3, recompensa.getDescription());
+        comando.setBigDecimal(4, recompensa.getValue());
+        comando.setBoolean(5, recompensa.isRedeemed());
+    }
+
+    @Override
+    protected Reward mapear(ResultSet linha) throws SQLException {
+        Reward recompensa = new Reward(linha.getLong("id"), getLongOuNulo(linha, "user_id"),
+                linha.getString("descricao"), linha.getBigDecimal("valor"));
+        recompensa.setRedeemed(linha.getBoolean("resgatada"));
+        return recompensa;
+    }
+
+    public Optional<Reward> buscarPorId(Long id) throws SQLException {
+        return buscarUm(SQL_POR_ID, id);
+    }
+
+    public List<Reward> buscarPorUsuario(Long userId) throws SQLException {
+        return buscarLista(SQL_POR_USUARIO, userId);
+    }
+}
@@ -0,0 +1,167 @@
+package br.com.edufinai.repository;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.model.User;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.ResumoMensal;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repositório de {@link Transaction} na tabela {@code transacoes}.
+ *
+ * Responsabilidades:
+ * - Gravar transações em lotes JDBC ({@link #salvarTodos(java.util.Collection)}).
+ * - Consultar as transações de um usuário por período, pelo índice {@code (user_id, data_transacao)}.
+ * - Calcular os resumos mensais no próprio banco ({@link #resumirPorMes(Long, YearMonth, YearMonth)}):
+ *   um {@code GROUP BY} por mês devolve uma linha por mês, em vez de trazer cada transação
+ *   para somar em Java.
+ * - Gerar o relatório mensal a partir desses resumos, no formato de
+ *   {@link GerenciadorFinanceiroService#generateMonthlyReport(User)}.
+ *
+ * Observações:
+ * - Valores são gravados em centavos, arredondados como em {@link ColumnarTransactionStore#paraCentavos}.
+ * - Não há detecção de duplicatas: cada chamada grava todas as transações recebidas.
+ */
+public class TransactionRepository extends RepositorioJdbc<Transaction> {
+
+    private static final TransactionType[] TIPOS = TransactionType.values();
+
+    private static final String SQL_INSERCAO =
+            "INSERT INTO transacoes (id, user_id, account_id, category_id, tipo, centavos, data_transacao, descricao)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_PERIODO =
+            "SELECT id, user_id, account_id, category_id, tipo, centavos, data_transacao, descricao FROM transacoes"
+                    + " WHERE user_id = ? AND data_transacao BETWEEN ? AND ? ORDER BY data_transacao, seq";
+
+    // Agrupa por ano e mês; as somas por tipo saem de uma única passada sobre o índice
+    private static final String SQL_RESUMO =
+            "SELECT YEAR(data_transacao) AS ano, MONTH(data_transacao) AS mes,"
+                    + " SUM(CASE WHEN tipo = " + TransactionType.INCOME.ordinal() + " THEN centavos ELSE 0 END),"
+                    + " SUM(CASE WHEN tipo = " + TransactionType.EXPENSE.ordinal() + " THEN centavos ELSE 0 END),"
+                    + " SUM(CASE WHEN tipo = " + TransactionType.INVESTMENT.ordinal() + " THEN centavos ELSE 0 END),"
+                    + " COUNT(*)"
+                    + " FROM transacoes WHERE user_id = ? AND data_transacao BETWEEN ? AND ?"
+                    + " GROUP BY YEAR(data_transacao), MONTH(data_transacao) ORDER BY ano, mes";
+
+    // Limites do tipo DATE usados quando o intervalo é aberto
+    private static final LocalDate PRIMEIRO_DIA = LocalDate.of(1, 1, 1);
+    private static final LocalDate ULTIMO_DIA = LocalDate.of(9999, 12, 31);
+
+    public TransactionRepository(BancoDados banco) {
+        super(banco);
+    }
+
+    @Override
+    protected String tabela() {
+        return "transacoes";
+    }
+
+    @Override
+    protected String sqlInsercao() {
+        return SQL_INSERCAO;
+    }
+
+    @Override
+    protected void vincular(PreparedStatement comando, Transaction t) throws SQLException {
+        if (t.getUserId() == null || t.getType() == null || t.getAmount() == null || t.getDate() == null) {
+            throw new IllegalArgumentException("Transação incompleta: " + t);
+        }
+        definirLong(comando, 1, t.getId());
+        comando.setLong(2, t.getUserId());
+        definirLong(comando, 3, t.getAccountId());
+        definirLong(comando, 4, t.getCategoryId());
+        comando.setByte(5, (byte) t.getType().ordinal());
+        comando.setLong(6, ColumnarTransactionStore.paraCentavos(t.getAmount()));
+        comando.setObject(7, t.getDate());
+        comando.setString(8, t.getDescription());
+    }
+
+    private static void definirLong(PreparedStatement comando, int parametro, Long valor) throws SQLException {
+        if (valor == null) {
+            comando.setNull(parametro, Types.BIGINT);
+        } else {
+            comando.setLong(parametro, valor);
+        }
+    }
+
+    @Override
+    protected Transaction mapear(ResultSet linha) throws SQLException {
+        return new Transaction(getLongOuNulo(linha, "id"), linha.getLong("user_id"),
+                getLongOuNulo(linha, "account_id"), getLongOuNulo(linha, "category_id"),
+                TIPOS[linha.getByte("tipo")], ColumnarTransactionStore.deCentavos(linha.getLong("centavos")),
+                linha.getObject("data_transacao", LocalDate.class), linha.getString("descricao"));
+    }
+
+    /**
+     * Transações de um usuário em um período, em ordem de data (e de gravação no mesmo dia).
+     *
+     * @param userId id do usuário
+     * @param de primeiro dia (inclusive)
+     * @param ate último dia (inclusive)
+     * @return transações do período
+     * @throws SQLException se o banco falhar
+     */
+    public List<Transaction> buscarPorPeriodo(Long userId, LocalDate de, LocalDate ate) throws SQLException {
+        return buscarLista(SQL_PERIODO, userId, de, ate);
+    }
+
+    /**
+     * Resumos mensais de um usuário calculados pelo banco, em ordem cronológica.
+     * Os valores coincidem com os de {@link GerenciadorFinanceiroService#getResumosMensais(Long)}
+     * para as mesmas transações.
+     *
+     * @param userId id do usuário
+     * @param de primeiro mês (inclusive), ou null para desde o início
+     * @param ate último mês (inclusive), ou null para até o fim
+     * @return um resumo por mês com transações
+     * @throws SQLException se o banco falhar
+     */
+    public List<ResumoMensal> resumirPorMes(Long userId, YearMonth de, YearMonth ate) throws SQLException {
+        try (Connection conexao = banco.conectar();
+             PreparedStatement comando = conexao.prepareStatement(SQL_RESUMO)) {
+            comando.setLong(1, userId);
+            comando.setObject(2, de == null ? PRIMEIRO_DIA : de.atDay(1));
+            comando.setObject(3, ate == null ? ULTIMO_DIA : ate.atEndOfMonth());
+            List<ResumoMensal> resumos = new ArrayList<>();
+            try (ResultSet linha = comando.executeQuery()) {
+                while (linha.next()) {
+                    resumos.add(new ResumoMensal(YearMonth.of(linha.getInt(1), linha.getInt(2)),
+                            linha.getLong(3), linha.getLong(4), linha.getLong(5), linha.getInt(6)));
+                }
+            }
+            return resumos;
+        }
+    }
+
+    /**
+     * Relatório mensal de um usuário com os totais agregados pelo banco.
+     *
+     * @param user usuário dono das transações
+     * @return relatório no formato de {@link GerenciadorFinanceiroService#generateMonthlyReport(User)}
+     * @throws SQLException se o banco falhar
+     */
+    public String gerarRelatorioMensal(User user) throws SQLException {
+        StringBuilder relatorio = new StringBuilder();
+        try {
+            GerenciadorFinanceiroService.escreverRelatorio(user, resumirPorMes(user.getId(), null, null), relatorio);
+        } catch (IOException e) {
+            // StringBuilder não lança IOException
+            throw new UncheckedIOException(e);
+        }
+        return relatorio.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.edufinai.repository;
+
+import br.com.edufinai.model.User;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório de {@link User} na tabela {@code usuarios}.
+ * Grava o hash da senha, nunca a senha em texto.
+ */
+public class UserRepository extends RepositorioJdbc<User> {
+
+    private static final String SQL_INSERCAO = "INSERT INTO usuarios (id, nome, email, senha_hash) VALUES (?, ?, ?, ?)";
+    private static final String SQL_POR_ID = "SELECT id, nome, email, senha_hash FROM usuarios WHERE id = ?";
+    private static final String SQL_POR_EMAIL = "SELECT id, nome, email, senha_hash FROM usuarios WHERE email = ?";
+    private static final String SQL_TODOS = "SELECT id, nome, email, senha_hash FROM usuarios ORDER BY id";
+
+    public UserRepository(BancoDados banco) {
+        super(banco);
+    }
+
+    @Override
+    protected String tabela() {
+        return "usuarios";
+    }
+
+    @Override
+    protected String sqlInsercao() {
+        return SQL_INSERCAO;
+    }
+
+    @Override
+    protected void vincular(PreparedStatement comando, User user) throws SQLException {
+        comando.setLong(1, exigirId(user.getId(), user));
+        comando.setString(2, user.getName());
+        comando.setString(3, user.getEmail());
+        comando.setString(4, user.getPasswordHash());
+    }
+
+    @Override
+    protected User mapear(ResultSet linha) throws SQLException {
+        User user = new User();
+        user.setId(linha.getLong("id"));
+        user.setName(linha.getString("nome"));
+        user.setEmail(linha.getString("email"));
+        user.setPasswordHash(linha.getString("senha_hash"));
+        return user;
+    }
+
+    public Optional<User> buscarPorId(Long id) throws SQLException {
+        return buscarUm(SQL_POR_ID, id);
+    }
+
+    public Optional<User> buscarPorEmail(String email) throws SQLException {
+        return buscarUm(SQL_POR_EMAIL, email);
+    }
+
+    public List<User> listar() throws SQLException {
+        return buscarLista(SQL_TODOS);
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.edufinai.service;
+
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+import java.math.BigDecimal;
+
+/**
+ * Total de uma célula (ou de um conjunto de células) do {@link RollupCube}.
+ */
+public class AgregadoCubo {
+
+    private long centavos;
+    private int quantidade;
+
+    AgregadoCubo() {
+    }
+
+    public AgregadoCubo(long centavos, int quantidade) {
+        this.centavos = centavos;
+        this.quantidade = quantidade;
+    }
+
+    void somar(long centavos, int quantidade) {
+        this.centavos += centavos;
+        this.quantidade += quantidade;
+    }
+
+    public long getCentavos() {
+        return centavos;
+    }
+
+    public BigDecimal getValor() {
+        return ColumnarTransactionStore.deCentavos(centavos);
+    }
+
+    /**
+     * @return quantidade de transações somadas
+     */
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    @Override
+    public String toString() {
+        return "R$ " + getValor() + " (" + quantidade + ")";
+    }
+}
@@ -0,0 +1,144 @@
+package br.com.edufinai.service;
+
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Células pré-agregadas de um usuário: mês × categoria × tipo.
+ *
+ * Como funciona:
+ * - Cada mês guarda os totais por tipo (para consultas sem filtro de categoria) e,
+ *   por categoria, os totais por tipo (para filtros e drill-down).
+ * - Trimestres e anos são obtidos somando os meses do período (no máximo 12 células por período).
+ *
+ * Observações:
+ * - Não é thread-safe; a {@link ParticaoUsuarios} dona do usuário controla o acesso.
+ */
+class CuboUsuario {
+
+    private static final TransactionType[] TIPOS = TransactionType.values();
+
+    /**
+     * Células de um mês. Cada {@code long[]} guarda, para cada tipo {@code t}, os centavos em
+     * {@code [t]} e a quantidade em {@code [TIPOS.length + t]}.
+     */
+    private static class Mes {
+        private final long[] totais = new long[TIPOS.length * 2];
+        private final Map<Long, long[]> porCategoria = new HashMap<>(8);
+    }
+
+    /** Meses codificados como {@code ano * 12 + (mês - 1)}. */
+    private final NavigableMap<Integer, Mes> meses = new TreeMap<>();
+    private int ultimoIndice = Integer.MIN_VALUE;
+    private Mes ultimoMes;
+
+    /**
+     * Soma uma transação às células do mês, categoria e tipo.
+     *
+     * @param indiceMes mês codificado como {@code ano * 12 + (mês - 1)}
+     * @param categoryId categoria ou {@link ColumnarTransactionStore#NULO}
+     * @param tipo tipo da transação
+     * @param centavos valor em centavos
+     */
+    void adicionar(int indiceMes, long categoryId, TransactionType tipo, long centavos) {
+        // Registros costumam chegar em sequência no mesmo mês
+        if (indiceMes != ultimoIndice) {
+            ultimoMes = meses.computeIfAbsent(indiceMes, m -> new Mes());
+            ultimoIndice = indiceMes;
+        }
+        int t = tipo.ordinal();
+        ultimoMes.totais[t] += centavos;
+        ultimoMes.totais[TIPOS.length + t]++;
+        long[] categoria = ultimoMes.porCategoria.computeIfAbsent(categoryId, c -> new long[TIPOS.length * 2]);
+        categoria[t] += centavos;
+        categoria[TIPOS.length + t]++;
+    }
+
+    /**
+     * Série temporal de um tipo (ou de todos) em uma categoria (ou em todas).
+     *
+     * @param granularidade mês, trimestre ou ano
+     * @param de primeiro mês (inclusive), ou null para desde o início
+     * @param ate último mês (inclusive), ou null para até o fim
+     * @param tipo tipo filtrado, ou null para todos
+     * @param todasCategorias true para ignorar {@code categoryId}
+     * @param categoryId categoria filtrada ({@link ColumnarTransactionStore#NULO} para "sem categoria")
+     * @return períodos (pelo primeiro mês) com seus totais, em ordem cronológica; períodos sem movimento são omitidos
+     */
+    NavigableMap<YearMonth, AgregadoCubo> serie(Granularidade granularidade, YearMonth de, YearMonth ate,
+                                                TransactionType tipo, boolean todasCategorias, long categoryId) {
+        NavigableMap<YearMonth, AgregadoCubo> serie = new TreeMap<>();
+        int periodoAtual = Integer.MIN_VALUE;
+        AgregadoCubo agregado = null;
+        for (Map.Entry<Integer, Mes> entrada : intervalo(de, ate).entrySet()) {
+            long[] celulas = todasCategorias ? entrada.getValue().totais : entrada.getValue().porCategoria.get(categoryId);
+            if (celulas == null) {
+                continue;
+            }
+            int periodo = granularidade.periodo(entrada.getKey());
+            if (periodo != periodoAtual) {
+                periodoAtual = periodo;
+                agregado = new AgregadoCubo();
+                serie.put(paraYearMonth(periodo), agregado);
+            }
+            somar(agregado, celulas, tipo);
+        }
+        serie.values().removeIf(a -> a.getQuantidade() == 0);
+        return serie;
+    }
+
+    /**
+     * Drill-down de um período por categoria.
+     *
+     * @param granularidade granularidade do período
+     * @param periodo qualquer mês do período
+     * @param tipo tipo filtrado, ou null para todos
+     * @return categoria (null para "sem categoria") → total, na ordem em que as categorias aparecem
+     */
+    Map<Long, AgregadoCubo> porCategoria(Granularidade granularidade, YearMonth periodo, TransactionType tipo) {
+        YearMonth inicio = granularidade.periodo(periodo);
+        YearMonth fim = inicio.plusMonths(granularidade.getMeses() - 1);
+        Map<Long, AgregadoCubo> categorias = new LinkedHashMap<>();
+        for (Mes mes : intervalo(inicio, fim).values()) {
+            mes.porCategoria.forEach((categoryId, celulas) -> somar(
+                    categorias.computeIfAbsent(categoryId == ColumnarTransactionStore.NULO ? null : categoryId,
+                            c -> new AgregadoCubo()), celulas, tipo));
+        }
+        categorias.values().removeIf(a -> a.getQuantidade() == 0);
+        return categorias;
+    }
+
+    private NavigableMap<Integer, Mes> intervalo(YearMonth de, YearMonth ate) {
+        if (de == null && ate == null) {
+            return meses;
+        }
+        int inicio = de == null ? Integer.MIN_VALUE : indice(de);
+        int fim = ate == null ? Integer.MAX_VALUE : indice(ate);
+        return inicio > fim ? new TreeMap<>() : meses.subMap(inicio, true, fim, true);
+    }
+
+    private static void somar(AgregadoCubo agregado, long[] celulas, TransactionType tipo) {
+        if (tipo != null) {
+            agregado.somar(celulas[tipo.ordinal()], (int) celulas[TIPOS.length + tipo.ordinal()]);
+            return;
+        }
+        for (int t = 0; t < TIPOS.length; t++) {
+            agregado.somar(celulas[t], (int) celulas[TIPOS.length + t]);
+        }
+    }
+
+    static int indice(YearMonth mes) {
+        return mes.getYear() * 12 + (mes.getMonthValue() - 1);
+    }
+
+    private static YearMonth paraYearMonth(int indice) {
+        return YearMonth.of(Math.floorDiv(indice, 12), Math.floorMod(indice, 12) + 1);
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.edufinai.service;
+
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+import java.time.LocalDate;
+
+/**
+ * Posição estável no histórico de transações de um usuário, usada na paginação por chave.
+ *
+ * Como funciona:
+ * - O histórico é ordenado por (data, id); o número da linha no armazenamento desempata
+ *   transações com a mesma data e o mesmo id (ou sem id).
+ * - Uma página começa imediatamente depois (ou antes) do cursor, sem contar as transações
+ *   anteriores: o custo não depende da profundidade no histórico.
+ *
+ * Observações:
+ * - {@link #toString()} gera um token opaco para clientes (HTTP, CLI); {@link #de(String)} o
+ *   interpreta de volta.
+ * - Transações registradas entre duas páginas aparecem na próxima página se ficarem depois
+ *   do cursor; nada é repetido nem pulado por causa delas.
+ */
+public final class CursorTransacoes {
+
+    private final int dia;
+    private final long id;
+    private final int linha;
+
+    CursorTransacoes(int dia, long id, int linha) {
+        this.dia = dia;
+        this.id = id;
+        this.linha = linha;
+    }
+
+    /**
+     * Interpreta um token gerado por {@link #toString()}.
+     *
+     * @param token token do cursor
+     * @return cursor correspondente
+     * @throws IllegalArgumentException se o token for inválido
+     */
+    public static CursorTransacoes de(String token) {
+        String[] partes = token == null ? new String[0] : token.split("\\.", -1);
+        if (partes.length != 3) {
+            throw new IllegalArgumentException("Cursor inválido: " + token);
+        }
+        try {
+            long id = partes[1].isEmpty() ? ColumnarTransactionStore.NULO : Long.parseLong(partes[1], 36);
+            return new CursorTransacoes(Integer.parseInt(partes[0], 36), id, Integer.parseInt(partes[2], 36));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + token, e);
+        }
+    }
+
+    int getDia() {
+        return dia;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    int getLinha() {
+        return linha;
+    }
+
+    /**
+     * @return data da transação na posição do cursor
+     */
+    public LocalDate getData() {
+        return LocalDate.ofEpochDay(dia);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CursorTransacoes)) {
+            return false;
+        }
+        CursorTransacoes outro = (CursorTransacoes) o;
+        return dia == outro.dia && id == outro.id && linha == outro.linha;
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * dia + Long.hashCode(id)) * 31 + linha;
+    }
+
+    @Override
+    public String toString() {
+        return Integer.toString(dia, 36) + '.'
+                + (id == ColumnarTransactionStore.NULO ? "" : Long.toString(id, 36)) + '.'
+                + Integer.toString(linha, 36);
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.edufinai.service;
+
+/**
+ * Sentido de leitura do histórico em {@link GerenciadorFinanceiroService#paginarTransacoes}.
+ */
+public enum DirecaoPaginacao {
+
+    /** Das transações mais antigas para as mais recentes. */
+    PARA_FRENTE,
+
+    /** Das transações mais recentes para as mais antigas. */
+    PARA_TRAS
+}
@@ -0,0 +1,86 @@
+package br.com.edufinai.service;
+
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * Retrato do estado do {@link GerenciadorFinanceiroService}, usado para gravar e carregar snapshots.
+ *
+ * Conteúdo:
+ * - Uma {@link Particao} por partição de usuários do serviço, cada uma consistente em seu próprio LSN
+ *   (as partições são capturadas uma de cada vez).
+ * - O LSN do estado: o menor entre as partições. Todo registro do log até ele está refletido
+ *   em todas as partições (0 sem log).
+ */
+public class EstadoServico {
+
+    private final long lsn;
+    private final List<Particao> particoes;
+
+    public EstadoServico(List<Particao> particoes) {
+        long menor = Long.MAX_VALUE;
+        for (Particao particao : particoes) {
+            menor = Math.min(menor, particao.getLsn());
+        }
+        this.lsn = particoes.isEmpty() ? 0 : menor;
+        this.particoes = particoes;
+    }
+
+    public long getLsn() {
+        return lsn;
+    }
+
+    public List<Particao> getParticoes() {
+        return particoes;
+    }
+
+    /**
+     * Estado de uma partição de usuários.
+     *
+     * Conteúdo:
+     * - LSN do último registro do log refletido na partição: registros da partição com LSN
+     *   maior ainda precisam ser reproduzidos.
+     * - Colunas do armazenamento de transações da partição.
+     * - Resumos mensais por usuário.
+     * - Índice por usuário e mês/ano (linhas do armazenamento da partição).
+     */
+    public static class Particao {
+
+        private final long lsn;
+        private final ColumnarTransactionStore.Colunas colunas;
+        private final Map<Long, NavigableMap<YearMonth, ResumoMensal>> resumos;
+        private final Map<Long, NavigableMap<YearMonth, int[]>> indice;
+
+        public Particao(long lsn, ColumnarTransactionStore.Colunas colunas,
+                        Map<Long, NavigableMap<YearMonth, ResumoMensal>> resumos,
+                        Map<Long, NavigableMap<YearMonth, int[]>> indice) {
+            this.lsn = lsn;
+            this.colunas = colunas;
+            this.resumos = resumos;
+            this.indice = indice;
+        }
+
+        public long getLsn() {
+            return lsn;
+        }
+
+        public ColumnarTransactionStore.Colunas getColunas() {
+            return colunas;
+        }
+
+        public Map<Long, NavigableMap<YearMonth, ResumoMensal>> getResumos() {
+            return resumos;
+        }
+
+        /**
+         * @return userId → (mês/ano → linhas do armazenamento daquele mês)
+         */
+        public Map<Long, NavigableMap<YearMonth, int[]>> getIndice() {
+            return indice;
+        }
+    }
+}
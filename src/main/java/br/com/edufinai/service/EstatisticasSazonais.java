@@ -0,0 +1,225 @@
+package br.com.edufinai.service;
+
+import br.com.edufinai.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.Arrays;
+
+/**
+ * Estatísticas incrementais de um usuário por mês do calendário (janeiro a dezembro), base das
+ * projeções sazonais do {@link SimuladorFinanceiro}.
+ *
+ * Como funciona:
+ * - Para cada mês do calendário, os totais de receitas e despesas do ano mais recente ficam em
+ *   aberto; os anos anteriores formam uma média móvel exponencial (EWMA) em que o ano {@code k}
+ *   anos antes do último consolidado pesa {@code (1 - ALFA)^k} (ver {@link #ALFA}).
+ * - A média é mantida como soma ponderada e soma dos pesos. Quando chega um ano posterior, as
+ *   duas são reescaladas pelo decaimento dos anos avançados e o ano aberto entra com peso 1.
+ * - Cada transação custa O(1), inclusive lançamentos retroativos, que somam ao seu ano com o peso
+ *   correspondente. O resultado não depende da ordem de chegada das transações (a menos de
+ *   arredondamentos de ponto flutuante).
+ * - Nas estimativas a partir de um mês, o ano aberto só conta quando aquele mês já terminou;
+ *   o mês em andamento (ou futuro) fica de fora.
+ *
+ * Observações:
+ * - Investimentos não entram nas estatísticas, como em {@link SimuladorFinanceiro#projetarSaldoFuturo}.
+ * - Anos com mais de {@link #ANOS_CONSIDERADOS} de distância do ano aberto são desprezados
+ *   (com {@code ALFA = 0.5}, seu peso seria inferior a 2^-63).
+ * - Instâncias são mantidas pela {@link ParticaoUsuarios} dona do usuário, que controla o acesso;
+ *   leitores recebem cópias ({@link GerenciadorFinanceiroService#getEstatisticasSazonais(Long)}).
+ * - Valores em centavos; as médias são {@code double} e arredondadas para centavos na leitura.
+ */
+public class EstatisticasSazonais {
+
+    /** Suavização: cada ano pesa {@code 1 - ALFA} vezes o ano seguinte na média. */
+    public static final double ALFA = 0.5;
+
+    /** Anos anteriores ao aberto considerados na média (um bit por ano em {@code anosObservados}). */
+    public static final int ANOS_CONSIDERADOS = 64;
+
+    private static final int SEM_ANO = Integer.MIN_VALUE;
+
+    private final int[] anoAberto;
+    private final long[] receitasAbertas;
+    private final long[] despesasAbertas;
+    private final double[] somaReceitas;
+    private final double[] somaDespesas;
+    private final double[] somaPesos;
+    /** Bit {@code k}: há transações do ano {@code anoAberto - 1 - k}. */
+    private final long[] anosObservados;
+    private final int[] quantidade;
+
+    EstatisticasSazonais() {
+        this.anoAberto = new int[12];
+        Arrays.fill(anoAberto, SEM_ANO);
+        this.receitasAbertas = new long[12];
+        this.despesasAbertas = new long[12];
+        this.somaReceitas = new double[12];
+        this.somaDespesas = new double[12];
+        this.somaPesos = new double[12];
+        this.anosObservados = new long[12];
+        this.quantidade = new int[12];
+    }
+
+    private EstatisticasSazonais(EstatisticasSazonais origem) {
+        this.anoAberto = origem.anoAberto.clone();
+        this.receitasAbertas = origem.receitasAbertas.clone();
+        this.despesasAbertas = origem.despesasAbertas.clone();
+        this.somaReceitas = origem.somaReceitas.clone();
+        this.somaDespesas = origem.somaDespesas.clone();
+        this.somaPesos = origem.somaPesos.clone();
+        this.anosObservados = origem.anosObservados.clone();
+        this.quantidade = origem.quantidade.clone();
+    }
+
+    EstatisticasSazonais copiar() {
+        return new EstatisticasSazonais(this);
+    }
+
+    /**
+     * Soma uma transação às estatísticas do seu mês do calendário.
+     *
+     * @param indiceMes mês codificado como {@code ano * 12 + (mês - 1)}
+     * @param tipo tipo da transação
+     * @param centavos valor em centavos
+     */
+    void adicionar(int indiceMes, TransactionType tipo, long centavos) {
+        if (tipo != TransactionType.INCOME && tipo != TransactionType.EXPENSE) {
+            return;
+        }
+        int ano = Math.floorDiv(indiceMes, 12);
+        int m = Math.floorMod(indiceMes, 12);
+        boolean receita = tipo == TransactionType.INCOME;
+        quantidade[m]++;
+        if (anoAberto[m] == SEM_ANO) {
+            anoAberto[m] = ano;
+        } else if (ano > anoAberto[m]) {
+            consolidar(m, ano);
+        }
+        if (ano == anoAberto[m]) {
+            if (receita) {
+                receitasAbertas[m] += centavos;
+            } else {
+                despesasAbertas[m] += centavos;
+            }
+            return;
+        }
+        // Lançamento retroativo: soma ao seu ano, com o peso que ele tem na média
+        long distancia = (long) anoAberto[m] - 1 - ano;
+        if (distancia >= ANOS_CONSIDERADOS) {
+            return;
+        }
+        double peso = Math.pow(1 - ALFA, distancia);
+        long bit = 1L << distancia;
+        if ((anosObservados[m] & bit) == 0) {
+            anosObservados[m] |= bit;
+            somaPesos[m] += peso;
+        }
+        if (receita) {
+            somaReceitas[m] += peso * centavos;
+        } else {
+            somaDespesas[m] += peso * centavos;
+        }
+    }
+
+    /**
+     * Avança o mês {@code m} para {@code novoAno}: reescala a média e inclui nela o ano aberto.
+     */
+    private void consolidar(int m, int novoAno) {
+        long anos = (long) novoAno - anoAberto[m];
+        double decaimento = Math.pow(1 - ALFA, anos);
+        double pesoAberto = Math.pow(1 - ALFA, anos - 1);
+        somaReceitas[m] = somaReceitas[m] * decaimento + pesoAberto * receitasAbertas[m];
+        somaDespesas[m] = somaDespesas[m] * decaimento + pesoAberto * despesasAbertas[m];
+        somaPesos[m] = somaPesos[m] * decaimento + pesoAberto;
+        anosObservados[m] = anos >= ANOS_CONSIDERADOS ? 0 : anosObservados[m] << anos;
+        if (anos <= ANOS_CONSIDERADOS) {
+            anosObservados[m] |= 1L << (anos - 1);
+        }
+        anoAberto[m] = novoAno;
+        receitasAbertas[m] = 0;
+        despesasAbertas[m] = 0;
+    }
+
+    /**
+     * Saldo mensal estimado (receitas - despesas) de cada mês do calendário para uma projeção
+     * que começa em {@code inicio}. Meses do calendário sem nenhum ano completo usam a média
+     * dos demais; sem nenhum mês observado, o saldo estimado é zero.
+     *
+     * @param inicio primeiro mês projetado
+     * @return saldo estimado em centavos, indexado por mês do calendário (0 = janeiro)
+     */
+    long[] saldosEstimadosCentavos(YearMonth inicio) {
+        double[] saldos = new double[12];
+        boolean[] observado = new boolean[12];
+        double soma = 0;
+        int observados = 0;
+        for (int m = 0; m < 12; m++) {
+            // O ano aberto entra como o mais recente, com peso 1 e os demais um ano mais antigos
+            boolean abertoCompleto = anoAberto[m] != SEM_ANO && YearMonth.of(anoAberto[m], m + 1).isBefore(inicio);
+            double fator = abertoCompleto ? 1 - ALFA : 1;
+            double pesos = somaPesos[m] * fator + (abertoCompleto ? 1 : 0);
+            if (pesos == 0) {
+                continue;
+            }
+            double receitas = somaReceitas[m] * fator + (abertoCompleto ? receitasAbertas[m] : 0);
+            double despesas = somaDespesas[m] * fator + (abertoCompleto ? despesasAbertas[m] : 0);
+            saldos[m] = (receitas - despesas) / pesos;
+            observado[m] = true;
+            soma += saldos[m];
+            observados++;
+        }
+        long[] centavos = new long[12];
+        for (int m = 0; m < 12; m++) {
+            double saldo = observado[m] ? saldos[m] : observados == 0 ? 0 : soma / observados;
+            centavos[m] = Math.round(saldo);
+        }
+        return centavos;
+    }
+
+    /**
+     * @param mes mês do calendário
+     * @return média móvel das receitas dos anos anteriores ao aberto nesse mês (zero sem anos anteriores)
+     */
+    public BigDecimal getMediaReceitas(Month mes) {
+        return media(somaReceitas, mes.ordinal());
+    }
+
+    /**
+     * @param mes mês do calendário
+     * @return média móvel das despesas dos anos anteriores ao aberto nesse mês (zero sem anos anteriores)
+     */
+    public BigDecimal getMediaDespesas(Month mes) {
+        return media(somaDespesas, mes.ordinal());
+    }
+
+    private BigDecimal media(double[] somas, int m) {
+        return somaPesos[m] == 0 ? BigDecimal.ZERO.setScale(2) : BigDecimal.valueOf(Math.round(somas[m] / somaPesos[m]), 2);
+    }
+
+    /**
+     * @param mes mês do calendário
+     * @return quantidade de anos anteriores ao aberto com transações nesse mês
+     */
+    public int getAnos(Month mes) {
+        return Long.bitCount(anosObservados[mes.ordinal()]);
+    }
+
+    /**
+     * @param mes mês do calendário
+     * @return ano aberto desse mês, ou null se ainda não houver transações nele
+     */
+    public Integer getAnoAberto(Month mes) {
+        return anoAberto[mes.ordinal()] == SEM_ANO ? null : anoAberto[mes.ordinal()];
+    }
+
+    /**
+     * @param mes mês do calendário
+     * @return quantidade de receitas e despesas registradas nesse mês, em todos os anos
+     */
+    public int getQuantidade(Month mes) {
+        return quantidade[mes.ordinal()];
+    }
+}
@@ -1,46 +1,498 @@
 package br.com.edufinai.service;
 
 import br.com.edufinai.model.*;
+import br.com.edufinai.service.cache.CacheRelatorios;
+import br.com.edufinai.service.dedup.EstatisticasDuplicatas;
+import br.com.edufinai.service.eventos.BarramentoEventos;
+import br.com.edufinai.service.persistence.TransactionJournal;
+import br.com.edufinai.service.storage.CamadaFria;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+import br.com.edufinai.service.storage.IntList;
+import br.com.edufinai.service.storage.VisitanteLinhas;
 
-import java.math.BigDecimal;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.NavigableMap;
+import java.util.stream.Stream;
 
 /**
  * Serviço responsável pelo gerenciamento de transações financeiras.
  *
  * Responsabilidades:
- * - Registrar transações associadas a usuários.
- * - Gerar relatórios mensais agregando receitas e despesas.
- * - Fornecer acesso à lista de transações registradas.
+ * - Registrar transações associadas a usuários em um {@link ColumnarTransactionStore}.
+ * - Distribuir os usuários em partições independentes ({@link ParticaoUsuarios}), permitindo
+ *   registros concorrentes de usuários diferentes sem disputa por um bloqueio global.
+ * - Manter um índice por usuário e mês/ano, com cada segmento em ordem de data, para consultas
+ *   por mês, por período ({@link #streamTransacoes(Long, LocalDate, LocalDate)}) ou por página
+ *   ({@link #paginarTransacoes}).
+ * - Manter um índice invertido das descrições para busca textual ({@link #buscarTransacoes}).
+ * - Percorrer as transações linha a linha sobre as colunas ({@link #percorrerTransacoes}),
+ *   para exportações sem montar objetos por linha.
+ * - Manter totais mensais pré-agregados ({@link ResumoMensal}) atualizados a cada registro.
+ * - Manter um {@link RollupCube} (usuário × mês × categoria × tipo) para consultas analíticas.
+ * - Gerar relatórios mensais a partir desses totais, guardando-os em um {@link CacheRelatorios}
+ *   invalidado por usuário e mês a cada registro.
+ * - Descartar transações já registradas, tornando registros repetidos idempotentes.
+ * - Fornecer aos leitores visões consistentes das transações e resumos.
+ * - Opcionalmente, gravar cada transação em um {@link TransactionJournal} antes de aplicá-la,
+ *   reconstruindo o estado a partir do log na inicialização.
+ * - Capturar e restaurar o estado completo ({@link EstadoServico}) para snapshots.
+ * - Opcionalmente, manter em heap apenas as transações recentes, selando as antigas em
+ *   segmentos mapeados em memória ({@link #configurarCamadaFria(Path, long)}).
+ * - Opcionalmente, publicar cada transação registrada em um {@link BarramentoEventos}, cujos
+ *   consumidores (saldos, gamificação, notificações) trabalham fora do caminho de escrita
+ *   ({@link #configurarBarramento(BarramentoEventos)}).
  *
  * Fluxo típico:
- * - Chamar {@link #registerTransaction(Transaction)} para registrar lançamentos.
- * - Consultar {@link #generateMonthlyReport(User)} para obter relatório textual.
+ * - Chamar {@link #registerTransaction(Transaction)} para registrar lançamentos, ou
+ *   {@link #registerTransactions(Collection)} para lotes (bem mais rápido por transação).
+ * - Consultar {@link #generateMonthlyReport(User)} para obter relatório textual, ou
+ *   {@link #generateMonthlyReport(User, Appendable)} para escrevê-lo mês a mês em um destino.
  */
 public class GerenciadorFinanceiroService {
 
-    private List<Transaction> transactions = new ArrayList<>();
+    private static final DateTimeFormatter FORMATO_MES = DateTimeFormatter.ofPattern("MM/yyyy");
+    private static final String FORA_DO_INTERVALO = "Valor ou data fora do intervalo suportado";
+
+    /** Tamanho dos blocos em que {@link #registerTransactions(Stream)} divide o stream. */
+    public static final int TAMANHO_BLOCO_STREAM = 65_536;
+
+    /** Maior página aceita por {@link #paginarTransacoes} e maior limite de {@link #buscarTransacoes}. */
+    public static final int TAMANHO_MAXIMO_PAGINA = 1_000;
+
+    /**
+     * Quantidade padrão de partições: a menor potência de 2 maior ou igual a
+     * 4 × processadores disponíveis (mínimo 16), para que usuários distintos raramente
+     * caiam na mesma partição ao mesmo tempo.
+     */
+    public static final int PARTICOES_PADRAO =
+            Math.max(16, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1);
+
+    /**
+     * Partições de usuários. Cada usuário pertence sempre à mesma partição
+     * ({@link #particao(Long)}), que guarda suas transações, índice e resumos sob um bloqueio próprio.
+     */
+    private final ParticaoUsuarios[] particoes;
+
+    /**
+     * Log de escrita antecipada; null quando o serviço opera apenas em memória.
+     */
+    private final TransactionJournal journal;
+
+    /**
+     * Relatórios já renderizados, invalidados por usuário e mês a cada registro.
+     */
+    private final CacheRelatorios cacheRelatorios = new CacheRelatorios();
+
+    /**
+     * Consultas ao cubo de agregados usuário × mês × categoria × tipo mantido pelas partições.
+     */
+    private final RollupCube cubo = new RollupCube(this);
+
+    /**
+     * Barramento onde as transações registradas são publicadas; null quando não configurado.
+     */
+    private volatile BarramentoEventos barramento;
+
+    /**
+     * Cria um serviço somente em memória (os dados se perdem ao encerrar).
+     */
+    public GerenciadorFinanceiroService() {
+        this(PARTICOES_PADRAO);
+    }
+
+    /**
+     * Cria um serviço somente em memória com a quantidade de partições informada.
+     *
+     * @param particoes quantidade de partições de usuários (potência de 2)
+     */
+    public GerenciadorFinanceiroService(int particoes) {
+        this.journal = null;
+        this.particoes = criarParticoes(particoes);
+    }
+
+    /**
+     * Cria um serviço durável: reproduz o conteúdo do log para reconstruir
+     * transações, índices e resumos, e passa a gravar no log cada novo registro.
+     *
+     * @param journal log de transações já aberto
+     * @throws IOException se o log não puder ser lido
+     */
+    public GerenciadorFinanceiroService(TransactionJournal journal) throws IOException {
+        this(journal, PARTICOES_PADRAO);
+    }
+
+    /**
+     * Cria um serviço durável com a quantidade de partições informada.
+     *
+     * @param journal log de transações já aberto
+     * @param particoes quantidade de partições de usuários (potência de 2)
+     * @throws IOException se o log não puder ser lido
+     */
+    public GerenciadorFinanceiroService(TransactionJournal journal, int particoes) throws IOException {
+        this.journal = journal;
+        this.particoes = criarParticoes(particoes);
+        journal.reproduzir(0, this::aplicar);
+    }
+
+    /**
+     * Cria um serviço durável a partir de um snapshot: carrega o estado capturado e
+     * reproduz apenas os registros do log posteriores ao LSN de cada partição.
+     * O serviço mantém a quantidade de partições do snapshot.
+     *
+     * @param journal log de transações já aberto
+     * @param estado estado lido do snapshot mais recente
+     * @throws IOException se o log não puder ser lido
+     */
+    public GerenciadorFinanceiroService(TransactionJournal journal, EstadoServico estado) throws IOException {
+        this.journal = journal;
+        this.particoes = new ParticaoUsuarios[estado.getParticoes().size()];
+        if (Integer.bitCount(particoes.length) != 1) {
+            throw new IllegalArgumentException("Quantidade de partições do snapshot inválida: " + particoes.length);
+        }
+        long[] lsnParticoes = new long[particoes.length];
+        for (int i = 0; i < particoes.length; i++) {
+            particoes[i] = new ParticaoUsuarios(estado.getParticoes().get(i));
+            lsnParticoes[i] = estado.getParticoes().get(i).getLsn();
+        }
+        // Partições capturadas depois do LSN do estado já refletem parte dos registros seguintes
+        journal.reproduzir(estado.getLsn(), (t, lsn) -> {
+            int indice = indiceParticao(t.getUserId());
+            if (lsn > lsnParticoes[indice]) {
+                particoes[indice].aplicar(t);
+            }
+        });
+    }
+
+    private static ParticaoUsuarios[] criarParticoes(int quantidade) {
+        if (quantidade < 1 || Integer.bitCount(quantidade) != 1) {
+            throw new IllegalArgumentException("A quantidade de partições deve ser potência de 2: " + quantidade);
+        }
+        ParticaoUsuarios[] particoes = new ParticaoUsuarios[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            particoes[i] = new ParticaoUsuarios();
+        }
+        return particoes;
+    }
+
+    ParticaoUsuarios particao(Long userId) {
+        return particoes[indiceParticao(userId)];
+    }
+
+    private int indiceParticao(Long userId) {
+        int h = Long.hashCode(userId);
+        return (h ^ (h >>> 16)) & (particoes.length - 1);
+    }
+
     /**
      * Registra uma nova transação no sistema.
+     * A transação é copiada para o armazenamento colunar da partição do usuário; em seguida
+     * o índice por mês/ano é atualizado e o valor é somado ao {@link ResumoMensal} correspondente.
+     *
+     * Concorrência:
+     * - Pode ser chamado por várias threads; apenas registros de usuários da mesma
+     *   partição disputam o mesmo bloqueio.
+     * - Com log configurado, a transação é anexada ao log e aplicada em memória de forma
+     *   atômica em relação a outros registros da partição; em seguida o método aguarda a
+     *   durabilidade conforme o {@link br.com.edufinai.service.persistence.DurabilityMode} do log.
+     * - Se o lote do log falhar, o método lança {@link UncheckedIOException} sem publicar a transação.
+     *   O log fica marcado como falho ({@link TransactionJournal#getFalha()}) e recusa novos registros;
+     *   a transação já aplicada em memória só é descartada ao reconstruir o serviço a partir do log.
+     *
+     * Idempotência:
+     * - Uma transação já registrada (mesmo usuário e id; sem id, mesmo usuário, conta, tipo, valor,
+     *   data e descrição) é descartada sem erro e sem ir para o log, de modo que reenvios e
+     *   reimportações não contam o mesmo lançamento duas vezes.
      *
      * @param t transação a ser registrada
+     * @return true se a transação foi registrada; false se já estava registrada
+     * @throws IllegalArgumentException se a transação não tiver usuário, data, tipo ou valor, se valor
+     *                                  ou data estiverem fora do intervalo suportado pelas colunas, ou se
+     *                                  a descrição passar de {@link TransactionJournal#MAX_DESCRICAO} bytes
+     */
+    public boolean registerTransaction(Transaction t) {
+        validar(t);
+        long lsn = particao(t.getUserId()).registrar(t, journal);
+        if (lsn == ParticaoUsuarios.DUPLICADA) {
+            return false;
+        }
+        cacheRelatorios.invalidar(t.getUserId(), YearMonth.from(t.getDate()));
+        if (journal != null) {
+            journal.aguardarDurabilidade(lsn);
+        }
+        // Só depois de durável: um consumidor nunca vê uma transação que um crash desfaria
+        BarramentoEventos eventos = barramento;
+        if (eventos != null) {
+            eventos.publicar(t);
+        }
+        return true;
+    }
+
+    /**
+     * Registra um lote de transações por meio de um pipeline em etapas.
+     *
+     * Etapas:
+     * - Validação: transações nulas ou sem usuário, data, tipo ou valor (ou com valor/data fora
+     *   do intervalo suportado, ou descrição acima de {@link TransactionJournal#MAX_DESCRICAO} bytes)
+     *   são rejeitadas e reportadas no {@link ResultadoLote}, sem interromper o restante do lote.
+     * - Enriquecimento: descrições são normalizadas (espaços nas pontas removidos, vazias viram null)
+     *   e os campos derivados (centavos, dia, mês/ano) são calculados fora de qualquer bloqueio.
+     * - Agrupamento: as transações são separadas por partição e por usuário, e as de cada
+     *   usuário são ordenadas por data.
+     * - Aplicação: cada partição é bloqueada uma única vez e cada usuário é aplicado em uma
+     *   passada, reaproveitando o índice e o resumo do mês enquanto o mês não muda.
+     *   Transações já registradas (inclusive repetidas no próprio lote) são descartadas e
+     *   contadas em {@link ResultadoLote#getDuplicadas()}, como em {@link #registerTransaction(Transaction)}.
+     *
+     * Com log configurado, o lote inteiro aguarda uma única confirmação de durabilidade, e só
+     * então as transações são publicadas no barramento de eventos.
+     *
+     * @param lote transações a registrar
+     * @return resumo do lote (registradas, rejeitadas e motivos, vazão)
+     */
+    public ResultadoLote registerTransactions(Collection<? extends Transaction> lote) {
+        ResultadoLote resultado = new ResultadoLote();
+        processarBloco(lote, lote.size(), 0, resultado);
+        return resultado;
+    }
+
+    /**
+     * Registra as transações de um {@code Stream}, processando-as em blocos de
+     * {@link #TAMANHO_BLOCO_STREAM} pelo mesmo pipeline de
+     * {@link #registerTransactions(Collection)}; a memória usada não depende do tamanho do stream.
+     * Com log configurado, cada bloco aguarda a durabilidade antes de ser publicado no barramento.
+     *
+     * @param transacoes transações a registrar
+     * @return resumo de todos os blocos
+     */
+    public ResultadoLote registerTransactions(Stream<? extends Transaction> transacoes) {
+        ResultadoLote resultado = new ResultadoLote();
+        List<Transaction> bloco = new ArrayList<>(TAMANHO_BLOCO_STREAM);
+        long posicao = 0;
+        Iterator<? extends Transaction> iterador = transacoes.iterator();
+        while (iterador.hasNext()) {
+            bloco.add(iterador.next());
+            if (bloco.size() == TAMANHO_BLOCO_STREAM || !iterador.hasNext()) {
+                processarBloco(bloco, bloco.size(), posicao, resultado);
+                posicao += bloco.size();
+                bloco.clear();
+            }
+        }
+        return resultado;
+    }
+
+    private void processarBloco(Iterable<? extends Transaction> bloco, int tamanho, long posicaoInicial,
+                                ResultadoLote resultado) {
+        long inicio = System.nanoTime();
+        resultado.somarRecebidas(tamanho);
+
+        // Validação e enriquecimento
+        LotePreparado preparado = new LotePreparado(tamanho);
+        long posicao = posicaoInicial;
+        for (Transaction original : bloco) {
+            String motivo = motivoRejeicao(original);
+            if (motivo != null) {
+                resultado.rejeitar(posicao++, motivo);
+                continue;
+            }
+            Transaction t = enriquecer(original);
+            try {
+                preparado.adicionar(t, indiceParticao(t.getUserId()));
+            } catch (ArithmeticException e) {
+                resultado.rejeitar(posicao, FORA_DO_INTERVALO);
+            }
+            posicao++;
+        }
+
+        // Agrupamento por partição, usuário e data
+        LotePreparado.Ordem ordem = preparado.ordenar(particoes.length);
+        int[] posicoes = ordem.getPosicoes();
+        int usuarios = 0;
+        for (int i = 0; i < posicoes.length; i++) {
+            if (i == 0 || preparado.userId(posicoes[i - 1]) != preparado.userId(posicoes[i])) {
+                usuarios++;
+            }
+        }
+
+        // Aplicação, uma partição por vez
+        long duplicadasAntes = resultado.getDuplicadas();
+        long lsn = 0;
+        for (int p = 0; p < particoes.length; p++) {
+            if (ordem.inicio(p) < ordem.inicio(p + 1)) {
+                lsn = Math.max(lsn, particoes[p].registrar(preparado, posicoes, ordem.inicio(p), ordem.inicio(p + 1),
+                        journal, resultado));
+            }
+        }
+        invalidarRelatorios(preparado, posicoes);
+        if (journal != null) {
+            journal.aguardarDurabilidade(lsn);
+        }
+        publicar(preparado, posicoes, preparado.size() - (int) (resultado.getDuplicadas() - duplicadasAntes));
+        resultado.somarRegistradas(preparado.size() - (int) (resultado.getDuplicadas() - duplicadasAntes), usuarios);
+        resultado.somarDuracao(System.nanoTime() - inicio);
+    }
+
+    /**
+     * Invalida, no cache de relatórios, cada par usuário/mês presente no lote
+     * (as posições estão agrupadas por usuário e data, então cada par aparece em sequência).
+     */
+    private void invalidarRelatorios(LotePreparado lote, int[] posicoes) {
+        for (int i = 0; i < posicoes.length; i++) {
+            int p = posicoes[i];
+            if (i > 0 && lote.userId(posicoes[i - 1]) == lote.userId(p) && lote.mes(posicoes[i - 1]) == lote.mes(p)) {
+                continue;
+            }
+            cacheRelatorios.invalidar(lote.userId(p), YearMonth.from(lote.transacao(p).getDate()));
+        }
+    }
+
+    /**
+     * Publica no barramento as transações registradas (e já duráveis) do lote, na ordem de
+     * aplicação (por usuário e data), reservando as posições do anel em blocos. Com o barramento
+     * encerrado, os eventos restantes são descartados e contados nas estatísticas do barramento.
+     */
+    private void publicar(LotePreparado lote, int[] posicoes, int registradas) {
+        BarramentoEventos eventos = barramento;
+        if (eventos == null || registradas == 0) {
+            return;
+        }
+        int i = 0;
+        while (registradas > 0) {
+            int quantidade = Math.min(registradas, eventos.getCapacidade());
+            long inicio = eventos.tentarReservar(quantidade);
+            if (inicio < 0) {
+                registradas -= quantidade;
+                continue;
+            }
+            for (int preenchidas = 0; preenchidas < quantidade; i++) {
+                int p = posicoes[i];
+                if (!lote.descartada(p)) {
+                    eventos.get(inicio + preenchidas++).preencher(lote.transacao(p), lote.centavos(p));
+                }
+            }
+            eventos.publicar(inicio, quantidade);
+            registradas -= quantidade;
+        }
+    }
+
+    /**
+     * Valida uma transação avulsa, incluindo a conversão de valor e data para as colunas
+     * (no lote, a conversão é feita uma única vez ao preparar o lote).
+     */
+    private void validar(Transaction t) {
+        String motivo = motivoRejeicao(t);
+        if (motivo == null) {
+            try {
+                ColumnarTransactionStore.paraCentavos(t.getAmount());
+                Math.toIntExact(t.getDate().toEpochDay());
+            } catch (ArithmeticException e) {
+                motivo = FORA_DO_INTERVALO;
+            }
+        }
+        if (motivo != null) {
+            throw new IllegalArgumentException(motivo + ": " + t);
+        }
+    }
+
+    private static String motivoRejeicao(Transaction t) {
+        if (t == null) {
+            return "Transação nula";
+        }
+        if (t.getUserId() == null) {
+            return "Transação sem usuário";
+        }
+        if (t.getDate() == null) {
+            return "Transação sem data";
+        }
+        if (t.getType() == null) {
+            return "Transação sem tipo";
+        }
+        if (t.getAmount() == null) {
+            return "Transação sem valor";
+        }
+        if (t.getDescription() != null && descricaoExcedeLimite(t.getDescription())) {
+            return "Descrição excede " + TransactionJournal.MAX_DESCRICAO + " bytes";
+        }
+        return null;
+    }
+
+    /**
+     * Indica se a descrição passa de {@link TransactionJournal#MAX_DESCRICAO} bytes em UTF-8, sem
+     * codificá-la. Textos curtos demais para isso (até 3 bytes por caractere) nem são percorridos.
+     */
+    private static boolean descricaoExcedeLimite(String texto) {
+        if (texto.length() <= TransactionJournal.MAX_DESCRICAO / 3) {
+            return false;
+        }
+        int bytes = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                    && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                bytes++; // substituído por '?' na codificação
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes > TransactionJournal.MAX_DESCRICAO;
+    }
+
+    /**
+     * Normaliza a descrição (sem espaços nas pontas; vazia vira null).
+     * Só cria uma nova transação quando a descrição realmente muda.
      */
-    public void registerTransaction(Transaction t) {
-        transactions.add(t);
+    private static Transaction enriquecer(Transaction t) {
+        String descricao = t.getDescription();
+        if (descricao == null) {
+            return t;
+        }
+        String normalizada = descricao.strip();
+        if (normalizada.isEmpty()) {
+            normalizada = null;
+        } else if (normalizada.length() == descricao.length()) {
+            return t;
+        }
+        return new Transaction(t.getId(), t.getUserId(), t.getAccountId(), t.getCategoryId(), t.getType(),
+                t.getAmount(), t.getDate(), normalizada);
+    }
+
+    private void aplicar(Transaction t) {
+        particao(t.getUserId()).aplicar(t);
     }
+
     /**
      * Gera um relatório mensal das transações de um usuário.
      * O relatório é agrupado por mês/ano e apresenta receitas, despesas e saldo.
      *
      * Regras:
-     * - Filtra apenas as transações do usuário informado.
-     * - Agrupa pelo mês/ano da data da transação.
-     * - Calcula totais de receitas e despesas em cada mês.
-     * - Apresenta o saldo (receitas - despesas).
+     * - Consulta apenas os totais pré-agregados do usuário informado (custo proporcional ao número de meses).
+     * - Os meses são apresentados em ordem cronológica.
+     * - Apresenta receitas, despesas e o saldo (receitas - despesas) de cada mês.
+     * - O texto é reaproveitado do {@link CacheRelatorios} até um novo registro do usuário.
      *
      * Exemplo de saída:
      * <pre>
@@ -56,43 +508,627 @@ public class GerenciadorFinanceiroService {
      * @return relatório formatado em String
      */
     public String generateMonthlyReport(User user) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/yyyy");
+        return generateMonthlyReport(user, null, null);
+    }
 
-        // Filtrar as transações do usuário e agrupar por mês/ano
-        Map<String, List<Transaction>> transacoesPorMes = transactions.stream()
-                .filter(t -> t.getUserId().equals(user.getId()))
-                .collect(Collectors.groupingBy(t -> t.getDate().format(formatter)));
+    /**
+     * Gera o relatório mensal de um usuário restrito a um intervalo de meses,
+     * no mesmo formato de {@link #generateMonthlyReport(User)}.
+     *
+     * Cache:
+     * - O texto dos meses fica no {@link CacheRelatorios} do serviço, por usuário e intervalo,
+     *   e é reaproveitado até que um registro do usuário em um mês do intervalo o invalide.
+     * - O cabeçalho (nome do usuário) é montado a cada chamada.
+     * - Um usuário sem id não tem transações: o relatório é só o cabeçalho, sem passar pelo cache.
+     *
+     * @param user usuário dono das transações
+     * @param de primeiro mês (inclusive), ou null para desde o início
+     * @param ate último mês (inclusive), ou null para até o fim
+     * @return relatório formatado em String
+     */
+    public String generateMonthlyReport(User user, YearMonth de, YearMonth ate) {
+        if (user.getId() == null) {
+            return cabecalho(user);
+        }
+        long userId = user.getId();
+        String meses = cacheRelatorios.get(userId, de, ate);
+        if (meses == null) {
+            long geracao = cacheRelatorios.geracao(userId);
+            StringBuilder texto = new StringBuilder();
+            try {
+                escreverMeses(texto, userId, de, ate);
+            } catch (IOException e) {
+                // StringBuilder não lança IOException
+                throw new UncheckedIOException(e);
+            }
+            meses = texto.toString();
+            cacheRelatorios.put(userId, de, ate, meses, geracao);
+        }
+        return cabecalho(user) + meses;
+    }
 
-        // Montar o relatório em String
-        StringBuilder relatorio = new StringBuilder();
-        relatorio.append("Relatório mensal de ").append(user.getName()).append(":\n\n");
+    /**
+     * Escreve o relatório mensal de um usuário diretamente no destino, mês a mês,
+     * no mesmo formato de {@link #generateMonthlyReport(User)}.
+     *
+     * Observações:
+     * - Apenas o resumo do mês em escrita fica em memória; o relatório inteiro nunca é montado.
+     * - Não usa o {@link CacheRelatorios}, justamente para não reter o texto completo.
+     * - Serve para qualquer {@link Appendable}: {@link java.io.Writer}, {@link StringBuilder},
+     *   {@link java.io.PrintStream}, etc. O destino não é fechado nem descarregado.
+     *
+     * @param user usuário dono das transações
+     * @param destino onde escrever o relatório
+     * @throws IOException se o destino falhar
+     */
+    public void generateMonthlyReport(User user, Appendable destino) throws IOException {
+        generateMonthlyReport(user, null, null, destino);
+    }
 
-        for (String mes : transacoesPorMes.keySet()) {
-            relatorio.append("📅 Mês: ").append(mes).append("\n");
+    /**
+     * Como {@link #generateMonthlyReport(User, Appendable)}, restrito a um intervalo de meses.
+     *
+     * @param user usuário dono das transações
+     * @param de primeiro mês (inclusive), ou null para desde o início
+     * @param ate último mês (inclusive), ou null para até o fim
+     * @param destino onde escrever o relatório
+     * @throws IOException se o destino falhar
+     */
+    public void generateMonthlyReport(User user, YearMonth de, YearMonth ate, Appendable destino) throws IOException {
+        destino.append(cabecalho(user));
+        escreverMeses(destino, user.getId(), de, ate);
+    }
 
-            BigDecimal totalReceitas = BigDecimal.ZERO;
-            BigDecimal totalDespesas = BigDecimal.ZERO;
+    private static String cabecalho(User user) {
+        return "Relatório mensal de " + user.getName() + ":\n\n";
+    }
 
-            for (Transaction t : transacoesPorMes.get(mes)) {
-                if (t.getType() == TransactionType.INCOME) {
-                    totalReceitas = totalReceitas.add(t.getAmount());
-                } else if (t.getType() == TransactionType.EXPENSE) {
-                    totalDespesas = totalDespesas.add(t.getAmount());
-                }
+    /**
+     * Escreve um relatório no formato de {@link #generateMonthlyReport(User)} a partir de resumos
+     * obtidos fora do serviço (ex.: agregados pelo banco de dados).
+     *
+     * @param user usuário dono das transações
+     * @param resumos resumos mensais em ordem cronológica
+     * @param destino onde escrever o relatório
+     * @throws IOException se o destino falhar
+     */
+    public static void escreverRelatorio(User user, Iterable<ResumoMensal> resumos, Appendable destino)
+            throws IOException {
+        destino.append(cabecalho(user));
+        escreverMeses(destino, resumos.iterator());
+    }
+
+    private void escreverMeses(Appendable destino, Long userId, YearMonth de, YearMonth ate) throws IOException {
+        escreverMeses(destino, streamResumosMensais(userId, de, ate).iterator());
+    }
+
+    private static void escreverMeses(Appendable destino, Iterator<ResumoMensal> meses) throws IOException {
+        // Texto de um mês por vez; o buffer é reaproveitado entre os meses
+        StringBuilder mes = new StringBuilder(128);
+        while (meses.hasNext()) {
+            ResumoMensal resumo = meses.next();
+            mes.setLength(0);
+            mes.append("📅 Mês: ");
+            FORMATO_MES.formatTo(resumo.getMes(), mes);
+            mes.append("\n  ✅ Receitas: R$ ");
+            anexarReais(mes, resumo.getReceitasCentavos());
+            mes.append("\n  ❌ Despesas: R$ ");
+            anexarReais(mes, resumo.getDespesasCentavos());
+            mes.append("\n  💰 Saldo: R$ ");
+            anexarReais(mes, resumo.getReceitasCentavos() - resumo.getDespesasCentavos());
+            mes.append("\n\n");
+            destino.append(mes);
+        }
+    }
+
+    /**
+     * Escreve um valor em centavos no formato de {@link java.math.BigDecimal#toPlainString()}
+     * com duas casas (ex.: {@code -0.05}, {@code 3000.00}), sem criar objetos intermediários.
+     */
+    private static void anexarReais(StringBuilder destino, long centavos) {
+        if (centavos < 0) {
+            destino.append('-');
+            centavos = -centavos;
+        }
+        long resto = centavos % 100;
+        destino.append(centavos / 100).append('.');
+        if (resto < 10) {
+            destino.append('0');
+        }
+        destino.append(resto);
+    }
+
+    /**
+     * Escreve o relatório mensal de um usuário em um {@link OutputStream}, em UTF-8.
+     * O texto passa por um buffer de tamanho fixo, descarregado ao final; o stream não é fechado.
+     *
+     * @param user usuário dono das transações
+     * @param destino stream de saída (arquivo, resposta HTTP, etc.)
+     * @throws IOException se o destino falhar
+     */
+    public void generateMonthlyReport(User user, OutputStream destino) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8));
+        generateMonthlyReport(user, escritor);
+        escritor.flush();
+    }
+
+    /**
+     * Saída estruturada do relatório: os resumos mensais do usuário em ordem cronológica,
+     * obtidos um mês por vez.
+     *
+     * Observações:
+     * - Cada elemento é uma cópia do resumo lida no momento em que o stream chega àquele mês;
+     *   meses registrados durante a iteração podem ou não aparecer.
+     * - Ao contrário de {@link #getResumosMensais(Long)}, não copia o histórico inteiro.
+     *
+     * @param userId id do usuário
+     * @return stream sequencial de resumos, um por mês com transações
+     */
+    public Stream<ResumoMensal> streamResumosMensais(Long userId) {
+        return streamResumosMensais(userId, null, null);
+    }
+
+    /**
+     * Como {@link #streamResumosMensais(Long)}, restrito a um intervalo de meses.
+     *
+     * @param userId id do usuário
+     * @param de primeiro mês (inclusive), ou null para desde o início
+     * @param ate último mês (inclusive), ou null para até o fim
+     * @return stream sequencial de resumos do intervalo
+     */
+    public Stream<ResumoMensal> streamResumosMensais(Long userId, YearMonth de, YearMonth ate) {
+        ParticaoUsuarios particao = particao(userId);
+        ResumoMensal primeiro = particao.proximoResumo(userId, de == null ? null : de.minusMonths(1));
+        if (primeiro == null) {
+            return Stream.empty();
+        }
+        return Stream.iterate(primeiro, r -> r != null && (ate == null || !r.getMes().isAfter(ate)),
+                anterior -> particao.proximoResumo(userId, anterior.getMes()));
+    }
+
+    /**
+     * Lista os usuários com ao menos uma transação, percorrendo cada partição uma única vez.
+     *
+     * @return ids dos usuários em ordem crescente
+     */
+    public long[] getUsuarios() {
+        long[][] porParticao = new long[particoes.length][];
+        int total = 0;
+        for (int i = 0; i < particoes.length; i++) {
+            porParticao[i] = particoes[i].usuarios();
+            total += porParticao[i].length;
+        }
+        long[] usuarios = new long[total];
+        int posicao = 0;
+        for (long[] ids : porParticao) {
+            System.arraycopy(ids, 0, usuarios, posicao, ids.length);
+            posicao += ids.length;
+        }
+        Arrays.sort(usuarios);
+        return usuarios;
+    }
+
+    /**
+     * Totais de receitas e despesas de todos os usuários, em centavos, para projeções em lote
+     * ({@link ProjetorSaldos}). Cada partição é lida sob seu bloqueio de leitura, uma de cada vez;
+     * os usuários saem agrupados por partição, sem ordem definida.
+     *
+     * @return totais do histórico completo de cada usuário com transações
+     */
+    public TotaisUsuarios getTotaisUsuarios() {
+        TotaisUsuarios[] porParticao = new TotaisUsuarios[particoes.length];
+        int total = 0;
+        for (int i = 0; i < particoes.length; i++) {
+            porParticao[i] = particoes[i].totais();
+            total += porParticao[i].size();
+        }
+        long[] ids = new long[total];
+        long[] receitas = new long[total];
+        long[] despesas = new long[total];
+        int posicao = 0;
+        for (TotaisUsuarios totais : porParticao) {
+            for (int i = 0; i < totais.size(); i++, posicao++) {
+                ids[posicao] = totais.userId(i);
+                receitas[posicao] = totais.receitasCentavos(i);
+                despesas[posicao] = totais.despesasCentavos(i);
             }
-            relatorio.append("  ✅ Receitas: R$ ").append(totalReceitas).append("\n");
-            relatorio.append("  ❌ Despesas: R$ ").append(totalDespesas).append("\n");
-            relatorio.append("  💰 Saldo: R$ ").append(totalReceitas.subtract(totalDespesas)).append("\n\n");
         }
-        return relatorio.toString();
+        return new TotaisUsuarios(ids, receitas, despesas);
+    }
+
+    /**
+     * @return cubo de agregados por usuário, mês, categoria e tipo (atualizado a cada registro)
+     */
+    public RollupCube getCubo() {
+        return cubo;
+    }
+
+    /**
+     * Soma os contadores de detecção de duplicatas de todas as partições
+     * (chaves guardadas, duplicatas descartadas, taxa de falsos positivos do filtro de Bloom).
+     *
+     * @return estatísticas no instante da chamada
+     */
+    public EstatisticasDuplicatas getEstatisticasDuplicatas() {
+        EstatisticasDuplicatas estatisticas = new EstatisticasDuplicatas();
+        for (ParticaoUsuarios particao : particoes) {
+            particao.somarEstatisticasDuplicatas(estatisticas);
+        }
+        return estatisticas;
+    }
+
+    /**
+     * Limita o heap ocupado pelas colunas de transações, rebaixando as mais antigas para
+     * segmentos imutáveis mapeados em memória.
+     *
+     * Como funciona:
+     * - O orçamento é dividido igualmente entre as partições. Quando as colunas em heap de uma
+     *   partição passam da sua parte, as linhas mais antigas (na ordem de registro) são seladas
+     *   em um arquivo de colunas de largura fixa até restar metade da parte.
+     * - Índices, resumos, cubo, detecção de duplicatas e índice textual continuam em heap e
+     *   referenciam as linhas pelo mesmo número; relatórios, consultas por período, paginação
+     *   e busca funcionam sem mudança, lendo as linhas seladas do arquivo mapeado.
+     *
+     * Observações:
+     * - Os segmentos não substituem o log nem os snapshots: são descartados ao configurar a
+     *   camada novamente, e um snapshot monta temporariamente em heap as colunas seladas.
+     * - Cada linha selada deixa de ocupar {@link ColumnarTransactionStore#BYTES_POR_LINHA} bytes
+     *   de heap; as estruturas de índice por linha (cerca de 15 a 20 bytes) permanecem.
+     *
+     * @param diretorio diretório exclusivo dos segmentos (um subdiretório por partição)
+     * @param orcamentoHeapBytes bytes de heap permitidos para as colunas de todas as partições
+     * @throws IOException se os diretórios não puderem ser criados ou limpos
+     * @throws IllegalArgumentException se o orçamento for pequeno demais para as partições
+     */
+    public void configurarCamadaFria(Path diretorio, long orcamentoHeapBytes) throws IOException {
+        for (int i = 0; i < particoes.length; i++) {
+            particoes[i].configurarCamadaFria(
+                    new CamadaFria(diretorio.resolve("particao-" + i), orcamentoHeapBytes / particoes.length));
+        }
     }
+
     /**
-     * Retorna a lista de transações registradas no sistema.
-     * O retorno é a lista interna usada pelo serviço.
+     * Passa a publicar cada transação registrada no barramento informado.
+     *
+     * Como funciona:
+     * - A publicação acontece depois da aplicação em memória, fora dos bloqueios das partições;
+     *   transações descartadas como já registradas não são publicadas.
+     * - Lotes reservam as posições do anel em blocos e publicam na ordem de aplicação
+     *   (por usuário e data); registros concorrentes podem intercalar-se entre si.
+     * - Com o anel cheio, o registro espera os consumidores liberarem espaço (contrapressão).
+     *
+     * Observações:
+     * - Transações reproduzidas do log na inicialização não são publicadas: consumidores que
+     *   precisam do histórico devem partir de consultas ao serviço feitas antes desta chamada
+     *   (ex.: saldos iniciais de {@link br.com.edufinai.service.eventos.SaldosUsuarios}).
+     * - Consumidores não devem registrar transações no mesmo serviço.
+     *
+     * @param barramento barramento já iniciado, ou null para deixar de publicar
+     */
+    public void configurarBarramento(BarramentoEventos barramento) {
+        this.barramento = barramento;
+    }
+
+    /**
+     * @return barramento configurado, ou null
+     */
+    public BarramentoEventos getBarramento() {
+        return barramento;
+    }
+
+    /**
+     * @return transações cujas colunas estão seladas em segmentos fora do heap
+     */
+    public long getLinhasSeladas() {
+        long seladas = 0;
+        for (ParticaoUsuarios particao : particoes) {
+            seladas += particao.linhasSeladas();
+        }
+        return seladas;
+    }
+
+    /**
+     * @return cache de relatórios do serviço, com contadores de acertos, falhas, despejos e invalidações
+     */
+    public CacheRelatorios getCacheRelatorios() {
+        return cacheRelatorios;
+    }
+
+    /**
+     * Captura o estado atual do serviço para gravação em snapshot.
+     *
+     * Como funciona:
+     * - As partições são capturadas uma de cada vez ({@link ParticaoUsuarios#capturar(TransactionJournal)}):
+     *   cada uma fica sob bloqueio de leitura apenas o tempo de selar uma visão imutável das suas
+     *   linhas e ler o LSN do log; as cópias são feitas fora do bloqueio.
+     * - Cada partição guarda o seu LSN. O LSN do estado é o menor deles; na recuperação, os registros
+     *   posteriores a ele são reproduzidos apenas nas partições que ainda não os refletem.
+     *
+     * @return estado do serviço, consistente por partição
+     */
+    public EstadoServico capturarEstado() {
+        List<EstadoServico.Particao> estados = new ArrayList<>(particoes.length);
+        for (ParticaoUsuarios particao : particoes) {
+            estados.add(particao.capturar(journal));
+        }
+        return new EstadoServico(estados);
+    }
+
+    private void bloquearLeitura() {
+        for (ParticaoUsuarios particao : particoes) {
+            particao.leitura().lock();
+        }
+    }
+
+    private void liberarLeitura() {
+        for (int i = particoes.length - 1; i >= 0; i--) {
+            particoes[i].leitura().unlock();
+        }
+    }
+
+    /**
+     * @return log de transações do serviço, ou null se o serviço for somente em memória
+     */
+    public TransactionJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * @return quantidade de partições de usuários
+     */
+    public int getQuantidadeParticoes() {
+        return particoes.length;
+    }
+
+    /**
+     * Retorna os totais mensais pré-agregados de um usuário, em ordem cronológica.
+     * Usado por relatórios e pelo {@link SimuladorFinanceiro} para evitar reprocessar o histórico.
+     *
+     * @param userId id do usuário
+     * @return cópia dos resumos por mês/ano no instante da chamada (vazia se o usuário não tiver transações)
+     */
+    public NavigableMap<YearMonth, ResumoMensal> getResumosMensais(Long userId) {
+        return Collections.unmodifiableNavigableMap(particao(userId).resumos(userId));
+    }
+
+    /**
+     * Retorna as estatísticas por mês do calendário de um usuário, mantidas a cada registro,
+     * para projeções sazonais no {@link SimuladorFinanceiro} sem reprocessar o histórico.
+     *
+     * @param userId id do usuário
+     * @return cópia das estatísticas no instante da chamada (vazias se o usuário não tiver transações)
+     */
+    public EstatisticasSazonais getEstatisticasSazonais(Long userId) {
+        return particao(userId).sazonalidade(userId);
+    }
+
+    /**
+     * Retorna as transações de um usuário em um mês/ano, usando o índice secundário.
+     *
+     * @param userId id do usuário
+     * @param mes mês/ano desejado
+     * @return lista imutável com as transações do mês no instante da chamada, em ordem de (data, id) (vazia se não houver)
+     */
+    public List<Transaction> getTransacoes(Long userId, YearMonth mes) {
+        return particao(userId).transacoes(userId, mes);
+    }
+
+    /**
+     * Transações de um usuário em um período, em ordem de data (ex.: "últimos 90 dias").
+     *
+     * @param userId id do usuário
+     * @param de primeiro dia (inclusive), ou null para desde o início
+     * @param ate último dia (inclusive), ou null para até o fim
+     * @return stream preguiçoso com as transações do período
+     * @see #streamTransacoes(Long, LocalDate, LocalDate, TransactionType, Long)
+     */
+    public Stream<Transaction> streamTransacoes(Long userId, LocalDate de, LocalDate ate) {
+        return streamTransacoes(userId, de, ate, null, null);
+    }
+
+    /**
+     * Transações de um usuário em um período, filtradas por tipo e/ou categoria.
+     *
+     * Como funciona:
+     * - Cada segmento (usuário, mês) do índice é mantido em ordem de data; o período é
+     *   localizado por busca binária e apenas as linhas dele são visitadas: O(log n + k).
+     * - As linhas do período são selecionadas no instante da chamada; filtros e a montagem
+     *   das transações acontecem à medida que o stream é consumido.
+     *
+     * Observações:
+     * - Transações do mesmo dia seguem a ordem de id (ids iguais ou ausentes, a de registro).
+     * - Para as transações sem categoria, use {@link #getTransacoes(Long, YearMonth)} ou filtre o stream.
+     *
+     * @param userId id do usuário
+     * @param de primeiro dia (inclusive), ou null para desde o início
+     * @param ate último dia (inclusive), ou null para até o fim
+     * @param tipo tipo das transações, ou null para todos
+     * @param categoryId categoria das transações, ou null para todas
+     * @return stream sequencial e preguiçoso (vazio se não houver transações)
+     * @throws IllegalArgumentException se {@code de} for posterior a {@code ate}
+     */
+    public Stream<Transaction> streamTransacoes(Long userId, LocalDate de, LocalDate ate, TransactionType tipo,
+                                                Long categoryId) {
+        if (de != null && ate != null && de.isAfter(ate)) {
+            throw new IllegalArgumentException("Período inválido: " + de + " é posterior a " + ate);
+        }
+        return particao(userId).transacoes(userId, paraDia(de, Integer.MIN_VALUE + 1), paraDia(ate, Integer.MAX_VALUE),
+                tipo, categoryId);
+    }
+
+    /**
+     * Lê uma página do histórico de transações de um usuário, por cursor (paginação por chave).
+     *
+     * Exemplos:
+     * - Últimas 50 transações: {@code paginarTransacoes(userId, null, 50, PARA_TRAS)}.
+     * - Página seguinte: {@code paginarTransacoes(userId, pagina.getCursorFim(), 50, PARA_TRAS)}.
+     * - Voltar uma página: {@code paginarTransacoes(userId, pagina.getCursorInicio(), 50, PARA_FRENTE)}.
+     *
+     * Como funciona:
+     * - O histórico é ordenado por (data, id); o cursor guarda essa chave e é localizado por
+     *   busca binária no índice do usuário, então o custo de uma página depende apenas do
+     *   seu tamanho, não da profundidade no histórico.
+     *
+     * @param userId id do usuário
+     * @param cursor posição de partida (exclusiva), ou null para começar pela transação mais
+     *               antiga ({@link DirecaoPaginacao#PARA_FRENTE}) ou mais recente ({@link DirecaoPaginacao#PARA_TRAS})
+     * @param tamanho quantidade máxima de transações, entre 1 e {@link #TAMANHO_MAXIMO_PAGINA}
+     * @param direcao sentido de leitura
+     * @return página com as transações na ordem de leitura e os cursores das pontas
+     * @throws IllegalArgumentException se o tamanho estiver fora do intervalo ou a direção for nula
+     */
+    public PaginaTransacoes paginarTransacoes(Long userId, CursorTransacoes cursor, int tamanho,
+                                              DirecaoPaginacao direcao) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException(
+                    "Tamanho de página deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA + ": " + tamanho);
+        }
+        if (direcao == null) {
+            throw new IllegalArgumentException("Direção de paginação obrigatória");
+        }
+        return particao(userId).pagina(userId, cursor, tamanho, direcao);
+    }
+
+    /**
+     * Busca transações de um usuário pelo texto da descrição (ex.: "mercado", "farmacia drog*").
+     *
+     * Como funciona:
+     * - Cada partição mantém um índice invertido das descrições por usuário, atualizado a cada
+     *   registro; a consulta não percorre o histórico, apenas as listas dos termos pedidos.
+     * - Acentos e maiúsculas são ignorados ("cafe" encontra "Café") e palavras vazias
+     *   ("de", "para"...) são desconsideradas.
+     * - Todos os termos precisam estar na descrição; um termo terminado em {@code *} casa com
+     *   qualquer palavra que comece por ele.
+     *
+     * @param userId id do usuário
+     * @param consulta termos da busca
+     * @param limite quantidade máxima de transações, entre 1 e {@link #TAMANHO_MAXIMO_PAGINA}
+     * @return transações encontradas, da mais recente para a mais antiga (vazia se nada casar)
+     * @throws IllegalArgumentException se a consulta estiver vazia ou o limite fora do intervalo
+     */
+    public List<Transaction> buscarTransacoes(Long userId, String consulta, int limite) {
+        if (consulta == null || consulta.isBlank()) {
+            throw new IllegalArgumentException("Consulta de busca obrigatória");
+        }
+        if (limite < 1 || limite > TAMANHO_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException(
+                    "Limite de busca deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA + ": " + limite);
+        }
+        return particao(userId).buscar(userId, consulta, limite);
+    }
+
+    /**
+     * Converte uma data para dias desde 1970-01-01, limitada à faixa das colunas.
+     */
+    private static int paraDia(LocalDate data, int padrao) {
+        if (data == null) {
+            return padrao;
+        }
+        return (int) Math.max(Integer.MIN_VALUE + 1, Math.min(Integer.MAX_VALUE, data.toEpochDay()));
+    }
+
+    /**
+     * Retorna as transações registradas no sistema.
+     * O retorno é uma visão imutável e consistente (mesmo instante em todas as partições)
+     * sobre o armazenamento colunar, que não é afetada por registros posteriores:
+     * cada elemento é uma {@link Transaction} leve criada sob demanda.
+     *
+     * Ordem: as transações de cada usuário aparecem na ordem de registro; usuários de
+     * partições diferentes aparecem agrupados por partição.
      *
      * @return lista de transações
      */
     public List<Transaction> getTransacoes() {
-        return transactions;
+        ColumnarTransactionStore[] instantaneos = instantaneos();
+        int[] inicios = new int[particoes.length + 1];
+        for (int i = 0; i < particoes.length; i++) {
+            inicios[i + 1] = inicios[i] + instantaneos[i].size();
+        }
+        return new AbstractList<>() {
+            @Override
+            public Transaction get(int index) {
+                if (index < 0 || index >= inicios[instantaneos.length]) {
+                    throw new IndexOutOfBoundsException("Índice " + index + " fora do intervalo [0, " + size() + ")");
+                }
+                int p = Arrays.binarySearch(inicios, index);
+                // Partições vazias repetem o mesmo início: avança até a última com esse início
+                if (p < 0) {
+                    p = -p - 2;
+                } else {
+                    while (p + 1 < instantaneos.length && inicios[p + 1] == index) {
+                        p++;
+                    }
+                }
+                return instantaneos[p].get(index - inicios[p]);
+            }
+
+            @Override
+            public int size() {
+                return inicios[instantaneos.length];
+            }
+        };
+    }
+
+    /**
+     * Percorre todas as transações registradas, linha a linha, sobre as colunas, sem montar
+     * uma {@link Transaction} por linha (ex.: exportações do histórico completo).
+     *
+     * Observações:
+     * - As linhas vêm de visões tomadas no mesmo instante em todas as partições, na ordem de
+     *   {@link #getTransacoes()}; registros posteriores não aparecem.
+     * - As visões compartilham os arrays do armazenamento: a memória adicional não depende
+     *   do tamanho do histórico.
+     *
+     * @param visitante recebe cada linha
+     * @throws IOException se o visitante falhar (a varredura é interrompida)
+     */
+    public void percorrerTransacoes(VisitanteLinhas visitante) throws IOException {
+        for (ColumnarTransactionStore colunas : instantaneos()) {
+            for (int linha = 0, total = colunas.size(); linha < total; linha++) {
+                visitante.visitar(colunas, linha);
+            }
+        }
+    }
+
+    /**
+     * Percorre as transações de um usuário em ordem de (data, id), linha a linha.
+     *
+     * Observações:
+     * - O histórico é lido um mês por vez, cada mês de uma visão própria: apenas as linhas
+     *   de um mês ficam em memória. Registros feitos durante a varredura aparecem somente
+     *   se forem de um mês ainda não lido.
+     *
+     * @param userId id do usuário
+     * @param visitante recebe cada linha
+     * @throws IOException se o visitante falhar (a varredura é interrompida)
+     */
+    public void percorrerTransacoes(Long userId, VisitanteLinhas visitante) throws IOException {
+        ParticaoUsuarios particao = particao(userId);
+        IntList linhas = new IntList(1_024);
+        YearMonth mes = null;
+        ColumnarTransactionStore colunas;
+        while ((colunas = particao.linhasProximoMes(userId, mes, linhas)) != null) {
+            for (int i = 0; i < linhas.size(); i++) {
+                visitante.visitar(colunas, linhas.get(i));
+            }
+            // Segmentos mensais nunca ficam vazios: a primeira linha identifica o mês lido
+            mes = YearMonth.from(LocalDate.ofEpochDay(colunas.diaEpoca(linhas.get(0))));
+        }
+    }
+
+    /**
+     * @return visões imutáveis das partições, tomadas no mesmo instante
+     */
+    private ColumnarTransactionStore[] instantaneos() {
+        ColumnarTransactionStore[] instantaneos = new ColumnarTransactionStore[particoes.length];
+        bloquearLeitura();
+        try {
+            for (int i = 0; i < particoes.length; i++) {
+                instantaneos[i] = particoes[i].instantaneo();
+            }
+        } finally {
+            liberarLeitura();
+        }
+        return instantaneos;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package br.com.edufinai.service;
+
+import java.time.YearMonth;
+
+/**
+ * Granularidade de tempo das consultas ao {@link RollupCube}.
+ * Cada período é identificado pelo seu primeiro mês (ex.: o 2º trimestre de 2025 é 2025-04).
+ */
+public enum Granularidade {
+    MES(1),
+    TRIMESTRE(3),
+    ANO(12);
+
+    private final int meses;
+
+    Granularidade(int meses) {
+        this.meses = meses;
+    }
+
+    /**
+     * @return quantidade de meses de um período
+     */
+    public int getMeses() {
+        return meses;
+    }
+
+    /**
+     * @param mes um mês qualquer
+     * @return primeiro mês do período que contém {@code mes}
+     */
+    public YearMonth periodo(YearMonth mes) {
+        return mes.withMonth((mes.getMonthValue() - 1) / meses * meses + 1);
+    }
+
+    /**
+     * @param indiceMes mês codificado como {@code ano * 12 + (mês - 1)}
+     * @return primeiro mês do período, no mesmo formato
+     */
+    int periodo(int indiceMes) {
+        return indiceMes - Math.floorMod(indiceMes, 12) % meses;
+    }
+}
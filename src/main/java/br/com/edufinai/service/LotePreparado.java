@@ -0,0 +1,183 @@
+package br.com.edufinai.service;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+/**
+ * Lote de transações já validadas e enriquecidas, pronto para ser aplicado.
+ *
+ * Como funciona:
+ * - Os campos derivados (usuário, centavos, dia desde a época, mês/ano em inteiro e partição)
+ *   ficam em arrays primitivos, calculados uma única vez e fora de qualquer bloqueio.
+ * - {@link #ordenar(int)} produz a ordem de aplicação: agrupada por partição (contagem) e,
+ *   dentro de cada partição, por usuário e data (merge sort estável sobre {@code int[]}),
+ *   sem criar objetos por transação ou por usuário.
+ */
+class LotePreparado {
+
+    private final Transaction[] transacoes;
+    private final long[] userIds;
+    private final long[] centavos;
+    private final int[] dias;
+    private final int[] meses;
+    private final int[] particoes;
+    private final boolean[] descartadas;
+    private int tamanho;
+
+    LotePreparado(int capacidade) {
+        this.transacoes = new Transaction[capacidade];
+        this.userIds = new long[capacidade];
+        this.centavos = new long[capacidade];
+        this.dias = new int[capacidade];
+        this.meses = new int[capacidade];
+        this.particoes = new int[capacidade];
+        this.descartadas = new boolean[capacidade];
+    }
+
+    /**
+     * Acrescenta uma transação validada, calculando seus campos derivados.
+     *
+     * @param t transação validada
+     * @param particao índice da partição do usuário
+     * @throws ArithmeticException se o valor não couber em centavos ({@code long}) ou a data em {@code int}
+     */
+    void adicionar(Transaction t, int particao) {
+        int posicao = tamanho;
+        centavos[posicao] = ColumnarTransactionStore.paraCentavos(t.getAmount());
+        dias[posicao] = Math.toIntExact(t.getDate().toEpochDay());
+        meses[posicao] = t.getDate().getYear() * 12 + (t.getDate().getMonthValue() - 1);
+        userIds[posicao] = t.getUserId();
+        particoes[posicao] = particao;
+        transacoes[posicao] = t;
+        tamanho++;
+    }
+
+    Transaction transacao(int posicao) {
+        return transacoes[posicao];
+    }
+
+    long userId(int posicao) {
+        return userIds[posicao];
+    }
+
+    long centavos(int posicao) {
+        return centavos[posicao];
+    }
+
+    int dia(int posicao) {
+        return dias[posicao];
+    }
+
+    /**
+     * @return mês/ano codificado como {@code ano * 12 + (mês - 1)}
+     */
+    int mes(int posicao) {
+        return meses[posicao];
+    }
+
+    int size() {
+        return tamanho;
+    }
+
+    /**
+     * Marca a transação como descartada na aplicação (já estava registrada).
+     */
+    void descartar(int posicao) {
+        descartadas[posicao] = true;
+    }
+
+    boolean descartada(int posicao) {
+        return descartadas[posicao];
+    }
+
+    /**
+     * Calcula a ordem de aplicação do lote.
+     *
+     * @param quantidadeParticoes quantidade de partições do serviço
+     * @return posições do lote agrupadas por partição e ordenadas por usuário e data
+     */
+    Ordem ordenar(int quantidadeParticoes) {
+        int[] inicios = new int[quantidadeParticoes + 1];
+        for (int i = 0; i < tamanho; i++) {
+            inicios[particoes[i] + 1]++;
+        }
+        for (int p = 0; p < quantidadeParticoes; p++) {
+            inicios[p + 1] += inicios[p];
+        }
+        int[] ordem = new int[tamanho];
+        int[] proximo = inicios.clone();
+        for (int i = 0; i < tamanho; i++) {
+            ordem[proximo[particoes[i]]++] = i;
+        }
+        int[] auxiliar = new int[tamanho];
+        for (int p = 0; p < quantidadeParticoes; p++) {
+            if (!ordenado(ordem, inicios[p], inicios[p + 1])) {
+                mergeSort(ordem, auxiliar, inicios[p], inicios[p + 1]);
+            }
+        }
+        return new Ordem(inicios, ordem);
+    }
+
+    private int comparar(int a, int b) {
+        int c = Long.compare(userIds[a], userIds[b]);
+        return c != 0 ? c : Integer.compare(dias[a], dias[b]);
+    }
+
+    private boolean ordenado(int[] ordem, int inicio, int fim) {
+        for (int i = inicio + 1; i < fim; i++) {
+            if (comparar(ordem[i - 1], ordem[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Merge sort estável de {@code ordem[inicio, fim)}; empates mantêm a ordem original do lote.
+     */
+    private void mergeSort(int[] ordem, int[] auxiliar, int inicio, int fim) {
+        if (fim - inicio < 2) {
+            return;
+        }
+        int meio = (inicio + fim) >>> 1;
+        mergeSort(ordem, auxiliar, inicio, meio);
+        mergeSort(ordem, auxiliar, meio, fim);
+        if (comparar(ordem[meio - 1], ordem[meio]) <= 0) {
+            return;
+        }
+        System.arraycopy(ordem, inicio, auxiliar, inicio, fim - inicio);
+        int i = inicio;
+        int j = meio;
+        for (int k = inicio; k < fim; k++) {
+            if (j >= fim || (i < meio && comparar(auxiliar[i], auxiliar[j]) <= 0)) {
+                ordem[k] = auxiliar[i++];
+            } else {
+                ordem[k] = auxiliar[j++];
+            }
+        }
+    }
+
+    /**
+     * Ordem de aplicação de um lote, agrupada por partição.
+     */
+    static class Ordem {
+        private final int[] inicios;
+        private final int[] posicoes;
+
+        Ordem(int[] inicios, int[] posicoes) {
+            this.inicios = inicios;
+            this.posicoes = posicoes;
+        }
+
+        /**
+         * @return início da faixa da partição em {@link #getPosicoes()}; a faixa termina em {@code inicio(p + 1)}
+         */
+        int inicio(int particao) {
+            return inicios[particao];
+        }
+
+        int[] getPosicoes() {
+            return posicoes;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.edufinai.service;
+
+import br.com.edufinai.model.Transaction;
+
+import java.util.List;
+
+/**
+ * Página do histórico de transações de um usuário.
+ *
+ * Como navegar:
+ * - Próxima página no mesmo sentido: {@link #getCursorFim()} com a mesma {@link DirecaoPaginacao}.
+ * - Página anterior: {@link #getCursorInicio()} com o sentido oposto.
+ */
+public class PaginaTransacoes {
+
+    private final List<Transaction> transacoes;
+    private final DirecaoPaginacao direcao;
+    private final CursorTransacoes cursorInicio;
+    private final CursorTransacoes cursorFim;
+    private final boolean temMais;
+
+    PaginaTransacoes(List<Transaction> transacoes, DirecaoPaginacao direcao, CursorTransacoes cursorInicio,
+                     CursorTransacoes cursorFim, boolean temMais) {
+        this.transacoes = transacoes;
+        this.direcao = direcao;
+        this.cursorInicio = cursorInicio;
+        this.cursorFim = cursorFim;
+        this.temMais = temMais;
+    }
+
+    /**
+     * @return transações da página na ordem de leitura (decrescente quando {@link DirecaoPaginacao#PARA_TRAS})
+     */
+    public List<Transaction> getTransacoes() {
+        return transacoes;
+    }
+
+    public DirecaoPaginacao getDirecao() {
+        return direcao;
+    }
+
+    /**
+     * @return cursor da primeira transação da página, ou null se a página estiver vazia
+     */
+    public CursorTransacoes getCursorInicio() {
+        return cursorInicio;
+    }
+
+    /**
+     * @return cursor da última transação da página, ou null se a página estiver vazia
+     */
+    public CursorTransacoes getCursorFim() {
+        return cursorFim;
+    }
+
+    /**
+     * @return true se houver mais transações depois desta página, no mesmo sentido
+     */
+    public boolean isTemMais() {
+        return temMais;
+    }
+
+    @Override
+    public String toString() {
+        return "PaginaTransacoes{" + transacoes.size() + " transações, " + direcao
+                + ", inicio=" + cursorInicio + ", fim=" + cursorFim + ", temMais=" + temMais + "}";
+    }
+}
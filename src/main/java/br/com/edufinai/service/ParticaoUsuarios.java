@@ -0,0 +1,789 @@
+package br.com.edufinai.service;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.dedup.DetectorDuplicatas;
+import br.com.edufinai.service.dedup.EstatisticasDuplicatas;
+import br.com.edufinai.service.persistence.TransactionJournal;
+import br.com.edufinai.service.search.IndiceTextual;
+import br.com.edufinai.service.storage.CamadaFria;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+import br.com.edufinai.service.storage.IntList;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Partição do {@link GerenciadorFinanceiroService}: guarda as transações, o índice
+ * por usuário e mês/ano (segmentos ordenados por data), os resumos mensais, o cubo de agregados ({@link CuboUsuario}),
+ * as estatísticas por mês do calendário ({@link EstatisticasSazonais}) e o índice textual das descrições ({@link IndiceTextual}) de um subconjunto dos usuários.
+ *
+ * Responsabilidades:
+ * - Isolar o estado de cada grupo de usuários atrás de um bloqueio próprio,
+ *   de modo que registros de usuários em partições diferentes não disputem o mesmo lock.
+ * - Entregar aos leitores cópias consistentes (resumos) ou visões imutáveis (transações).
+ * - Descartar transações já registradas ({@link DetectorDuplicatas}) antes de anexá-las ao log.
+ * - Com uma {@link CamadaFria} configurada, selar as linhas mais antigas em segmentos mapeados
+ *   em memória quando as colunas em heap passam do orçamento da partição.
+ *
+ * Observações:
+ * - Escritas usam o bloqueio de escrita; consultas, o de leitura.
+ * - Com log, a transação é anexada ao log e aplicada sob o mesmo bloqueio, preservando
+ *   na partição a ordem do log.
+ * - Cada segmento (usuário, mês) do índice é mantido em ordem de (data, id, linha); a linha
+ *   desempata ids iguais ou ausentes. Consultas por período e paginação localizam as bordas
+ *   por busca binária.
+ */
+class ParticaoUsuarios {
+
+    /** Retorno de {@link #registrar(Transaction, TransactionJournal)} para transações já registradas. */
+    static final long DUPLICADA = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ColumnarTransactionStore transactions;
+    private final Map<Long, NavigableMap<YearMonth, IntList>> transacoesPorUsuario = new HashMap<>();
+    private final Map<Long, NavigableMap<YearMonth, ResumoMensal>> resumosPorUsuario = new HashMap<>();
+    private final Map<Long, CuboUsuario> cubosPorUsuario = new HashMap<>();
+    private final Map<Long, EstatisticasSazonais> sazonaisPorUsuario = new HashMap<>();
+    private final DetectorDuplicatas duplicatas;
+    private final IndiceTextual indiceTextual;
+    private CamadaFria camadaFria;
+
+    ParticaoUsuarios() {
+        this.transactions = new ColumnarTransactionStore();
+        this.duplicatas = new DetectorDuplicatas(transactions);
+        this.indiceTextual = new IndiceTextual(transactions);
+    }
+
+    /**
+     * Recria a partição a partir do estado capturado em um snapshot.
+     *
+     * @param estado estado da partição
+     */
+    ParticaoUsuarios(EstadoServico.Particao estado) {
+        this.transactions = new ColumnarTransactionStore(estado.getColunas());
+        this.duplicatas = new DetectorDuplicatas(transactions);
+        this.indiceTextual = new IndiceTextual(transactions);
+        for (Map.Entry<Long, NavigableMap<YearMonth, ResumoMensal>> usuario : estado.getResumos().entrySet()) {
+            resumosPorUsuario.put(usuario.getKey(), new TreeMap<>(usuario.getValue()));
+        }
+        for (Map.Entry<Long, NavigableMap<YearMonth, int[]>> usuario : estado.getIndice().entrySet()) {
+            NavigableMap<YearMonth, IntList> meses = new TreeMap<>();
+            usuario.getValue().forEach((mes, linhas) -> meses.put(mes, new IntList(ordenarPorChave(linhas), linhas.length)));
+            transacoesPorUsuario.put(usuario.getKey(), meses);
+        }
+        // O cubo, as estatísticas sazonais, as chaves de duplicidade e o índice textual não são gravados
+        // no snapshot: são recalculados a partir das colunas, na ordem de chegada
+        CuboUsuario cubo = null;
+        EstatisticasSazonais sazonais = null;
+        long userIdAtual = 0;
+        for (int linha = 0; linha < transactions.size(); linha++) {
+            long userId = transactions.userId(linha);
+            if (cubo == null || userId != userIdAtual) {
+                cubo = cubosPorUsuario.computeIfAbsent(userId, id -> new CuboUsuario());
+                sazonais = sazonaisPorUsuario.computeIfAbsent(userId, id -> new EstatisticasSazonais());
+                userIdAtual = userId;
+            }
+            LocalDate data = LocalDate.ofEpochDay(transactions.diaEpoca(linha));
+            int indiceMes = data.getYear() * 12 + (data.getMonthValue() - 1);
+            cubo.adicionar(indiceMes, transactions.categoryId(linha), transactions.tipo(linha),
+                    transactions.valorCentavos(linha));
+            sazonais.adicionar(indiceMes, transactions.tipo(linha), transactions.valorCentavos(linha));
+            duplicatas.adicionar(duplicatas.chave(linha), linha);
+            indiceTextual.adicionar(linha);
+        }
+    }
+
+    /**
+     * Registra uma transação já validada desta partição, se ela ainda não estiver registrada.
+     *
+     * @param t transação a registrar
+     * @param journal log onde anexar a transação (pode ser null)
+     * @return LSN da transação anexada, 0 sem log, ou {@link #DUPLICADA}
+     */
+    long registrar(Transaction t, TransactionJournal journal) {
+        lock.writeLock().lock();
+        try {
+            long id = ColumnarTransactionStore.paraColuna(t.getId());
+            long accountId = ColumnarTransactionStore.paraColuna(t.getAccountId());
+            long centavos = ColumnarTransactionStore.paraCentavos(t.getAmount());
+            int dia = Math.toIntExact(t.getDate().toEpochDay());
+            int descricaoId = transactions.getDescricoes().intern(t.getDescription());
+            long chave = DetectorDuplicatas.chave(t.getUserId(), id, accountId, t.getType(), centavos, dia, descricaoId);
+            if (duplicatas.contem(chave, t.getUserId(), id, accountId, t.getType(), centavos, dia, descricaoId)) {
+                return DUPLICADA;
+            }
+            long lsn = journal == null ? 0 : journal.anexar(t);
+            int linha = transactions.append(id, t.getUserId(), accountId,
+                    ColumnarTransactionStore.paraColuna(t.getCategoryId()), t.getType(), centavos, dia, descricaoId);
+            indexar(t, linha, chave);
+            if (camadaFria != null) {
+                camadaFria.verificar(transactions);
+            }
+            return lsn;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica a faixa desta partição de um lote preparado em uma passada: os mapas de cada
+     * usuário são consultados uma vez e o índice/resumo do mês só é buscado quando o mês muda
+     * (a faixa vem ordenada por usuário e data). Transações já registradas, inclusive repetidas
+     * dentro do próprio lote, são descartadas antes de chegar ao log e marcadas no lote.
+     *
+     * @param lote lote validado e enriquecido
+     * @param posicoes ordem de aplicação do lote
+     * @param inicio início da faixa desta partição em {@code posicoes}
+     * @param fim fim (exclusivo) da faixa
+     * @param journal log onde anexar cada transação (pode ser null)
+     * @param resultado onde contar as transações descartadas por já estarem registradas
+     * @return LSN da última transação anexada, ou 0 sem log
+     */
+    long registrar(LotePreparado lote, int[] posicoes, int inicio, int fim, TransactionJournal journal,
+                   ResultadoLote resultado) {
+        long lsn = 0;
+        lock.writeLock().lock();
+        try {
+            NavigableMap<YearMonth, IntList> indice = null;
+            NavigableMap<YearMonth, ResumoMensal> resumos = null;
+            CuboUsuario cubo = null;
+            EstatisticasSazonais sazonais = null;
+            IntList linhasMes = null;
+            ResumoMensal resumo = null;
+            int mesAtual = 0;
+            boolean usuarioCarregado = false;
+            boolean mesCarregado = false;
+            for (int i = inicio; i < fim; i++) {
+                int p = posicoes[i];
+                Transaction t = lote.transacao(p);
+                if (i == inicio || lote.userId(posicoes[i - 1]) != lote.userId(p)) {
+                    usuarioCarregado = false;
+                    mesCarregado = false;
+                }
+                long id = ColumnarTransactionStore.paraColuna(t.getId());
+                long accountId = ColumnarTransactionStore.paraColuna(t.getAccountId());
+                int descricaoId = transactions.getDescricoes().intern(t.getDescription());
+                long chave = DetectorDuplicatas.chave(lote.userId(p), id, accountId, t.getType(), lote.centavos(p),
+                        lote.dia(p), descricaoId);
+                if (duplicatas.contem(chave, lote.userId(p), id, accountId, t.getType(), lote.centavos(p),
+                        lote.dia(p), descricaoId)) {
+                    resultado.somarDuplicada();
+                    lote.descartar(p);
+                    continue;
+                }
+                if (journal != null) {
+                    lsn = journal.anexar(t);
+                }
+                int linha = transactions.append(id, lote.userId(p), accountId,
+                        ColumnarTransactionStore.paraColuna(t.getCategoryId()), t.getType(), lote.centavos(p),
+                        lote.dia(p), descricaoId);
+                duplicatas.adicionar(chave, linha);
+                indiceTextual.adicionar(linha);
+                // Mapas do usuário só são criados na primeira transação nova dele
+                if (!usuarioCarregado) {
+                    indice = transacoesPorUsuario.computeIfAbsent(t.getUserId(), u -> new TreeMap<>());
+                    resumos = resumosPorUsuario.computeIfAbsent(t.getUserId(), u -> new TreeMap<>());
+                    cubo = cubosPorUsuario.computeIfAbsent(t.getUserId(), u -> new CuboUsuario());
+                    sazonais = sazonaisPorUsuario.computeIfAbsent(t.getUserId(), u -> new EstatisticasSazonais());
+                    usuarioCarregado = true;
+                }
+                if (!mesCarregado || lote.mes(p) != mesAtual) {
+                    mesCarregado = true;
+                    mesAtual = lote.mes(p);
+                    YearMonth mes = YearMonth.of(Math.floorDiv(mesAtual, 12), Math.floorMod(mesAtual, 12) + 1);
+                    linhasMes = indice.computeIfAbsent(mes, m -> new IntList());
+                    resumo = resumos.computeIfAbsent(mes, ResumoMensal::new);
+                }
+                indexar(linhasMes, linha);
+                resumo.adicionar(t.getType(), lote.centavos(p));
+                cubo.adicionar(mesAtual, transactions.categoryId(linha), t.getType(), lote.centavos(p));
+                sazonais.adicionar(mesAtual, t.getType(), lote.centavos(p));
+            }
+            if (camadaFria != null) {
+                camadaFria.verificar(transactions);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return lsn;
+    }
+
+    /**
+     * Aplica uma transação ao estado em memória.
+     * Quem chama deve possuir o bloqueio de escrita ou ter acesso exclusivo à partição
+     * (ex.: reprodução do log na inicialização).
+     *
+     * @param t transação validada
+     */
+    void aplicar(Transaction t) {
+        int linha = transactions.append(t);
+        indexar(t, linha, duplicatas.chave(linha));
+    }
+
+    /**
+     * Inclui uma linha recém-gravada no índice, no resumo do mês, no cubo, nas estatísticas
+     * sazonais, nas chaves de duplicidade e no índice textual.
+     */
+    private void indexar(Transaction t, int linha, long chave) {
+        YearMonth mes = YearMonth.from(t.getDate());
+        indexar(transacoesPorUsuario
+                .computeIfAbsent(t.getUserId(), id -> new TreeMap<>())
+                .computeIfAbsent(mes, m -> new IntList()), linha);
+        resumosPorUsuario
+                .computeIfAbsent(t.getUserId(), id -> new TreeMap<>())
+                .computeIfAbsent(mes, ResumoMensal::new)
+                .adicionar(t.getType(), transactions.valorCentavos(linha));
+        cubosPorUsuario
+                .computeIfAbsent(t.getUserId(), id -> new CuboUsuario())
+                .adicionar(CuboUsuario.indice(mes), transactions.categoryId(linha), t.getType(),
+                        transactions.valorCentavos(linha));
+        sazonaisPorUsuario
+                .computeIfAbsent(t.getUserId(), id -> new EstatisticasSazonais())
+                .adicionar(CuboUsuario.indice(mes), t.getType(), transactions.valorCentavos(linha));
+        duplicatas.adicionar(chave, linha);
+        indiceTextual.adicionar(linha);
+    }
+
+    /**
+     * Passa a manter as colunas da partição dentro do orçamento da camada, selando de imediato
+     * o excedente.
+     *
+     * @param camada política de rebaixamento, ou null para manter tudo em heap daqui em diante
+     */
+    void configurarCamadaFria(CamadaFria camada) {
+        lock.writeLock().lock();
+        try {
+            this.camadaFria = camada;
+            if (camada != null) {
+                camada.verificar(transactions);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return linhas da partição seladas em segmentos fora do heap
+     */
+    int linhasSeladas() {
+        lock.readLock().lock();
+        try {
+            return transactions.getLinhasSeladas();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Soma os contadores de duplicatas da partição em {@code estatisticas}.
+     */
+    void somarEstatisticasDuplicatas(EstatisticasDuplicatas estatisticas) {
+        lock.readLock().lock();
+        try {
+            duplicatas.somarEm(estatisticas);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inclui a linha no segmento mantendo a ordem por (data, id, linha). O caso comum (chave
+     * igual ou posterior à última do segmento) é um simples anexo; retroativos são inseridos
+     * por busca binária.
+     */
+    private void indexar(IntList segmento, int linha) {
+        int dia = transactions.diaEpoca(linha);
+        long id = transactions.id(linha);
+        int tamanho = segmento.size();
+        if (tamanho == 0 || comparar(segmento.get(tamanho - 1), dia, id, linha) < 0) {
+            segmento.add(linha);
+        } else {
+            segmento.inserir(primeiraPosicaoApos(segmento, dia, id, linha), linha);
+        }
+    }
+
+    /**
+     * Compara a chave (data, id, linha) de uma linha do armazenamento com a chave informada.
+     */
+    private int comparar(int linhaSegmento, int dia, long id, int linha) {
+        int porDia = Integer.compare(transactions.diaEpoca(linhaSegmento), dia);
+        if (porDia != 0) {
+            return porDia;
+        }
+        int porId = Long.compare(transactions.id(linhaSegmento), id);
+        return porId != 0 ? porId : Integer.compare(linhaSegmento, linha);
+    }
+
+    /**
+     * @return primeira posição do segmento com chave posterior a (dia, id, linha), ou o tamanho
+     */
+    private int primeiraPosicaoApos(IntList segmento, int dia, long id, int linha) {
+        int baixo = 0;
+        int alto = segmento.size();
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (comparar(segmento.get(meio), dia, id, linha) <= 0) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    /**
+     * @return primeira posição do segmento com data posterior a {@code dia}, ou o tamanho
+     */
+    private int primeiraPosicaoApos(IntList segmento, int dia) {
+        return primeiraPosicaoApos(segmento, dia, Long.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Segmentos gravados por versões anteriores seguem a ordem de registro; reordena por
+     * chave apenas quando necessário (já ordenado, é uma única passada).
+     */
+    private int[] ordenarPorChave(int[] linhas) {
+        for (int i = 1; i < linhas.length; i++) {
+            int linha = linhas[i];
+            int dia = transactions.diaEpoca(linha);
+            long id = transactions.id(linha);
+            int j = i - 1;
+            while (j >= 0 && comparar(linhas[j], dia, id, linha) > 0) {
+                linhas[j + 1] = linhas[j];
+                j--;
+            }
+            linhas[j + 1] = linha;
+        }
+        return linhas;
+    }
+
+    /**
+     * Executa uma consulta sobre o cubo do usuário sob o bloqueio de leitura.
+     *
+     * @param userId id do usuário
+     * @param consulta consulta que monta um resultado novo a partir do cubo
+     * @param vazio resultado para usuários sem transações
+     * @return resultado da consulta
+     */
+    <R> R consultarCubo(Long userId, Function<CuboUsuario, R> consulta, R vazio) {
+        lock.readLock().lock();
+        try {
+            CuboUsuario cubo = cubosPorUsuario.get(userId);
+            return cubo == null ? vazio : consulta.apply(cubo);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return bloqueio de leitura, usado para tomar visões de todas as partições no mesmo instante
+     */
+    Lock leitura() {
+        return lock.readLock();
+    }
+
+    /**
+     * Captura o estado da partição para um snapshot.
+     *
+     * Como funciona:
+     * - Sob o bloqueio de leitura, sela uma visão imutável das linhas
+     *   ({@link ColumnarTransactionStore#instantaneo()}), lê o último LSN do log e copia os
+     *   resumos e os segmentos do índice por mês. Como cada registro é anexado ao log e aplicado
+     *   sob o bloqueio de escrita, tudo corresponde exatamente aos registros com LSN até o lido.
+     * - Os segmentos já estão na ordem (data, id, linha) e são copiados como arrays de primitivos,
+     *   sem reordenar nem recalcular o mês de cada linha; os resumos são cópias dos agregados.
+     * - Fora do bloqueio, só as colunas são copiadas da visão.
+     *
+     * @param journal log do serviço (pode ser null)
+     * @return estado da partição no LSN lido (0 sem log)
+     */
+    EstadoServico.Particao capturar(TransactionJournal journal) {
+        ColumnarTransactionStore instantaneo;
+        long lsn;
+        Map<Long, NavigableMap<YearMonth, ResumoMensal>> resumos = new HashMap<>();
+        Map<Long, NavigableMap<YearMonth, int[]>> indice = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            instantaneo = transactions.instantaneo();
+            lsn = journal == null ? 0 : journal.getUltimoLsn();
+            resumosPorUsuario.forEach((userId, meses) -> {
+                NavigableMap<YearMonth, ResumoMensal> copia = new TreeMap<>();
+                meses.forEach((mes, resumo) -> copia.put(mes, resumo.copiar()));
+                resumos.put(userId, copia);
+            });
+            transacoesPorUsuario.forEach((userId, meses) -> {
+                NavigableMap<YearMonth, int[]> copia = new TreeMap<>();
+                meses.forEach((mes, linhas) -> copia.put(mes, linhas.toArray()));
+                indice.put(userId, copia);
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new EstadoServico.Particao(lsn, instantaneo.capturar(), resumos, indice);
+    }
+
+    /**
+     * @param userId id do usuário
+     * @return cópia dos resumos mensais do usuário, em ordem cronológica
+     */
+    NavigableMap<YearMonth, ResumoMensal> resumos(Long userId) {
+        lock.readLock().lock();
+        try {
+            NavigableMap<YearMonth, ResumoMensal> meses = resumosPorUsuario.get(userId);
+            NavigableMap<YearMonth, ResumoMensal> copia = new TreeMap<>();
+            if (meses != null) {
+                meses.forEach((mes, resumo) -> copia.put(mes, resumo.copiar()));
+            }
+            return copia;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param userId id do usuário
+     * @return cópia das estatísticas sazonais do usuário (vazias se ele não tiver transações)
+     */
+    EstatisticasSazonais sazonalidade(Long userId) {
+        lock.readLock().lock();
+        try {
+            EstatisticasSazonais sazonais = sazonaisPorUsuario.get(userId);
+            return sazonais == null ? new EstatisticasSazonais() : sazonais.copiar();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return ids dos usuários com transações nesta partição
+     */
+    long[] usuarios() {
+        lock.readLock().lock();
+        try {
+            long[] ids = new long[resumosPorUsuario.size()];
+            int i = 0;
+            for (Long userId : resumosPorUsuario.keySet()) {
+                ids[i++] = userId;
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Soma receitas e despesas de todos os meses de cada usuário da partição.
+     *
+     * @return totais dos usuários da partição
+     */
+    TotaisUsuarios totais() {
+        lock.readLock().lock();
+        try {
+            int quantidade = resumosPorUsuario.size();
+            long[] ids = new long[quantidade];
+            long[] receitas = new long[quantidade];
+            long[] despesas = new long[quantidade];
+            int i = 0;
+            for (Map.Entry<Long, NavigableMap<YearMonth, ResumoMensal>> usuario : resumosPorUsuario.entrySet()) {
+                ids[i] = usuario.getKey();
+                for (ResumoMensal resumo : usuario.getValue().values()) {
+                    receitas[i] += resumo.getReceitasCentavos();
+                    despesas[i] += resumo.getDespesasCentavos();
+                }
+                i++;
+            }
+            return new TotaisUsuarios(ids, receitas, despesas);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna uma cópia do primeiro resumo do usuário posterior a {@code apos}.
+     * Permite percorrer os meses um a um, sem copiar o histórico inteiro.
+     *
+     * @param userId id do usuário
+     * @param apos mês/ano de referência (null para o primeiro mês)
+     * @return cópia do resumo seguinte, ou null se não houver
+     */
+    ResumoMensal proximoResumo(Long userId, YearMonth apos) {
+        lock.readLock().lock();
+        try {
+            NavigableMap<YearMonth, ResumoMensal> meses = resumosPorUsuario.get(userId);
+            if (meses == null) {
+                return null;
+            }
+            Map.Entry<YearMonth, ResumoMensal> proximo = apos == null ? meses.firstEntry() : meses.higherEntry(apos);
+            return proximo == null ? null : proximo.getValue().copiar();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param userId id do usuário
+     * @param mes mês/ano desejado
+     * @return lista imutável com as transações do usuário no mês, em ordem de (data, id)
+     */
+    List<Transaction> transacoes(Long userId, YearMonth mes) {
+        int[] linhas;
+        ColumnarTransactionStore instantaneo;
+        lock.readLock().lock();
+        try {
+            NavigableMap<YearMonth, IntList> meses = transacoesPorUsuario.get(userId);
+            IntList indice = meses == null ? null : meses.get(mes);
+            if (indice == null) {
+                return Collections.emptyList();
+            }
+            linhas = indice.toArray();
+            instantaneo = transactions.instantaneo();
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new AbstractList<>() {
+            @Override
+            public Transaction get(int index) {
+                return instantaneo.get(linhas[index]);
+            }
+
+            @Override
+            public int size() {
+                return linhas.length;
+            }
+        };
+    }
+
+    /**
+     * Transações do usuário em um período, em ordem de data.
+     *
+     * Como funciona:
+     * - Sob o bloqueio de leitura, percorre apenas os segmentos mensais do período; no
+     *   primeiro e no último mês as bordas são encontradas por busca binária. As linhas
+     *   selecionadas são copiadas (custo O(log n + k)).
+     * - Filtros de tipo e categoria e a montagem das transações acontecem de forma
+     *   preguiçosa, fora do bloqueio, sobre uma visão imutável das colunas.
+     *
+     * @param userId id do usuário
+     * @param diaDe primeiro dia (inclusive), em dias desde 1970-01-01
+     * @param diaAte último dia (inclusive), em dias desde 1970-01-01
+     * @param tipo tipo filtrado, ou null para todos
+     * @param categoryId categoria filtrada, ou null para todas
+     * @return stream sequencial e preguiçoso
+     */
+    Stream<Transaction> transacoes(Long userId, int diaDe, int diaAte, TransactionType tipo, Long categoryId) {
+        IntList selecionadas = new IntList();
+        ColumnarTransactionStore instantaneo;
+        lock.readLock().lock();
+        try {
+            NavigableMap<YearMonth, IntList> meses = transacoesPorUsuario.get(userId);
+            if (meses == null || diaDe > diaAte) {
+                return Stream.empty();
+            }
+            YearMonth primeiroMes = YearMonth.from(LocalDate.ofEpochDay(diaDe));
+            YearMonth ultimoMes = YearMonth.from(LocalDate.ofEpochDay(diaAte));
+            for (Map.Entry<YearMonth, IntList> entrada : meses.subMap(primeiroMes, true, ultimoMes, true).entrySet()) {
+                IntList segmento = entrada.getValue();
+                int inicio = entrada.getKey().equals(primeiroMes) ? primeiraPosicaoApos(segmento, diaDe - 1) : 0;
+                int fim = entrada.getKey().equals(ultimoMes) ? primeiraPosicaoApos(segmento, diaAte) : segmento.size();
+                for (int i = inicio; i < fim; i++) {
+                    selecionadas.add(segmento.get(i));
+                }
+            }
+            instantaneo = transactions.instantaneo();
+        } finally {
+            lock.readLock().unlock();
+        }
+        long categoria = categoryId == null ? ColumnarTransactionStore.NULO : categoryId;
+        IntStream linhas = IntStream.range(0, selecionadas.size()).map(selecionadas::get);
+        if (tipo != null) {
+            linhas = linhas.filter(linha -> instantaneo.tipo(linha) == tipo);
+        }
+        if (categoryId != null) {
+            linhas = linhas.filter(linha -> instantaneo.categoryId(linha) == categoria);
+        }
+        return linhas.mapToObj(instantaneo::get);
+    }
+
+    /**
+     * Lê uma página do histórico do usuário a partir de um cursor.
+     *
+     * Como funciona:
+     * - Sob o bloqueio de leitura, localiza o mês do cursor no índice e a posição dentro do
+     *   segmento por busca binária; depois percorre no máximo {@code tamanho + 1} linhas,
+     *   passando de mês em mês. O custo não depende de quantas transações ficam antes do cursor.
+     * - A linha extra indica se há mais transações; as transações são montadas fora do
+     *   bloqueio, sobre uma visão imutável das colunas.
+     *
+     * @param userId id do usuário
+     * @param cursor posição de partida (exclusiva), ou null para uma das pontas do histórico
+     * @param tamanho quantidade máxima de transações
+     * @param direcao sentido de leitura
+     * @return página lida
+     */
+    PaginaTransacoes pagina(Long userId, CursorTransacoes cursor, int tamanho, DirecaoPaginacao direcao) {
+        boolean paraFrente = direcao == DirecaoPaginacao.PARA_FRENTE;
+        IntList selecionadas = new IntList(Math.min(tamanho + 1, 1_024));
+        ColumnarTransactionStore instantaneo;
+        lock.readLock().lock();
+        try {
+            NavigableMap<YearMonth, IntList> meses = transacoesPorUsuario.get(userId);
+            if (meses == null) {
+                return new PaginaTransacoes(Collections.emptyList(), direcao, null, null, false);
+            }
+            Map.Entry<YearMonth, IntList> mes;
+            int posicao;
+            if (cursor == null) {
+                mes = paraFrente ? meses.firstEntry() : meses.lastEntry();
+                posicao = mes == null ? 0 : (paraFrente ? 0 : mes.getValue().size() - 1);
+            } else {
+                YearMonth mesCursor = YearMonth.from(cursor.getData());
+                mes = paraFrente ? meses.ceilingEntry(mesCursor) : meses.floorEntry(mesCursor);
+                posicao = mes == null ? 0 : (paraFrente ? 0 : mes.getValue().size() - 1);
+                if (mes != null && mes.getKey().equals(mesCursor)) {
+                    int apos = primeiraPosicaoApos(mes.getValue(), cursor.getDia(), cursor.getId(), cursor.getLinha());
+                    boolean noCursor = apos > 0 && comparar(mes.getValue().get(apos - 1),
+                            cursor.getDia(), cursor.getId(), cursor.getLinha()) == 0;
+                    posicao = paraFrente ? apos : (noCursor ? apos - 2 : apos - 1);
+                }
+            }
+            while (mes != null && selecionadas.size() <= tamanho) {
+                IntList segmento = mes.getValue();
+                if (paraFrente) {
+                    for (; posicao < segmento.size() && selecionadas.size() <= tamanho; posicao++) {
+                        selecionadas.add(segmento.get(posicao));
+                    }
+                    mes = meses.higherEntry(mes.getKey());
+                    posicao = 0;
+                } else {
+                    for (; posicao >= 0 && selecionadas.size() <= tamanho; posicao--) {
+                        selecionadas.add(segmento.get(posicao));
+                    }
+                    mes = meses.lowerEntry(mes.getKey());
+                    posicao = mes == null ? 0 : mes.getValue().size() - 1;
+                }
+            }
+            instantaneo = transactions.instantaneo();
+        } finally {
+            lock.readLock().unlock();
+        }
+        boolean temMais = selecionadas.size() > tamanho;
+        int quantidade = Math.min(selecionadas.size(), tamanho);
+        if (quantidade == 0) {
+            return new PaginaTransacoes(Collections.emptyList(), direcao, null, null, false);
+        }
+        int[] linhas = new int[quantidade];
+        Transaction[] transacoes = new Transaction[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            linhas[i] = selecionadas.get(i);
+            transacoes[i] = instantaneo.get(linhas[i]);
+        }
+        return new PaginaTransacoes(List.of(transacoes), direcao, cursor(instantaneo, linhas[0]),
+                cursor(instantaneo, linhas[quantidade - 1]), temMais);
+    }
+
+    /**
+     * Busca textual nas descrições das transações do usuário.
+     *
+     * Como funciona:
+     * - Sob o bloqueio de leitura, o {@link IndiceTextual} devolve as linhas que contêm todos os
+     *   termos da consulta.
+     * - Fora do bloqueio, as {@code limite} mais recentes por (data, id) são escolhidas com um
+     *   heap de tamanho {@code limite} (O(n log limite)) e montadas sobre uma visão imutável das colunas.
+     *
+     * @param userId id do usuário
+     * @param consulta termos da consulta ({@code *} no fim de um termo para prefixo)
+     * @param limite quantidade máxima de transações
+     * @return transações encontradas, da mais recente para a mais antiga
+     */
+    List<Transaction> buscar(Long userId, String consulta, int limite) {
+        int[] linhas;
+        ColumnarTransactionStore instantaneo;
+        lock.readLock().lock();
+        try {
+            linhas = indiceTextual.buscar(userId, consulta);
+            instantaneo = transactions.instantaneo();
+        } finally {
+            lock.readLock().unlock();
+        }
+        Comparator<Integer> porChave = (a, b) -> {
+            int porDia = Integer.compare(instantaneo.diaEpoca(a), instantaneo.diaEpoca(b));
+            if (porDia != 0) {
+                return porDia;
+            }
+            int porId = Long.compare(instantaneo.id(a), instantaneo.id(b));
+            return porId != 0 ? porId : Integer.compare(a, b);
+        };
+        PriorityQueue<Integer> maisRecentes = new PriorityQueue<>(Math.min(linhas.length, limite) + 1, porChave);
+        for (int linha : linhas) {
+            maisRecentes.add(linha);
+            if (maisRecentes.size() > limite) {
+                maisRecentes.poll();
+            }
+        }
+        Transaction[] transacoes = new Transaction[maisRecentes.size()];
+        for (int i = transacoes.length - 1; i >= 0; i--) {
+            transacoes[i] = instantaneo.get(maisRecentes.poll());
+        }
+        return List.of(transacoes);
+    }
+
+    private static CursorTransacoes cursor(ColumnarTransactionStore colunas, int linha) {
+        return new CursorTransacoes(colunas.diaEpoca(linha), colunas.id(linha), linha);
+    }
+
+    /**
+     * Copia as linhas do primeiro mês do usuário posterior a {@code apos}, em ordem de (data, id).
+     * Percorrer o histórico mês a mês mantém em memória apenas as linhas de um mês por vez.
+     *
+     * @param userId id do usuário
+     * @param apos mês já lido, ou null para começar pelo primeiro
+     * @param destino recebe as linhas do mês (é esvaziado antes)
+     * @return visão imutável das colunas que contém as linhas copiadas, ou null se não houver mês posterior
+     */
+    ColumnarTransactionStore linhasProximoMes(Long userId, YearMonth apos, IntList destino) {
+        destino.limpar();
+        lock.readLock().lock();
+        try {
+            NavigableMap<YearMonth, IntList> meses = transacoesPorUsuario.get(userId);
+            Map.Entry<YearMonth, IntList> mes = meses == null ? null
+                    : apos == null ? meses.firstEntry() : meses.higherEntry(apos);
+            if (mes == null) {
+                return null;
+            }
+            IntList segmento = mes.getValue();
+            for (int i = 0; i < segmento.size(); i++) {
+                destino.add(segmento.get(i));
+            }
+            return transactions.instantaneo();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return visão imutável de todas as transações da partição, na ordem de registro
+     */
+    ColumnarTransactionStore instantaneo() {
+        lock.readLock().lock();
+        try {
+            return transactions.instantaneo();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package br.com.edufinai.service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Projeções do {@link SimuladorFinanceiro} para muitos usuários de uma vez, sobre totais em
+ * centavos ({@link TotaisUsuarios}).
+ *
+ * Responsabilidades:
+ * - Calcular, em uma passada por usuário, o saldo projetado, o saldo ajustado pela inflação e
+ *   os meses para atingir um objetivo.
+ * - Dividir os usuários em blocos processados em paralelo em um {@link ForkJoinPool} com
+ *   paralelismo configurável.
+ *
+ * Como funciona:
+ * - O saldo e a projeção são aritmética de {@code long} em centavos (com verificação de estouro).
+ * - O fator de inflação é calculado uma única vez, pelo mesmo código do simulador, e a divisão
+ *   pelo fator é feita em inteiros de 128 bits: uma estimativa em {@code double} é corrigida até
+ *   o quociente arredondado HALF_UP exato, como em {@link BigDecimal#divide(BigDecimal, int, RoundingMode)}.
+ * - Meses para o objetivo: divisão inteira com arredondamento para cima, como no simulador.
+ *
+ * Observações:
+ * - Os resultados são idênticos aos dos métodos escalares aplicados aos resumos mensais do
+ *   usuário, em centavos (um usuário sem histórico tem saldo 0).
+ * - Fatores sem representação em {@code long} (casos extremos de taxa ou prazo) usam
+ *   {@link BigDecimal} por usuário, com o mesmo resultado.
+ */
+public class ProjetorSaldos {
+
+    private int paralelismo = Runtime.getRuntime().availableProcessors();
+    private int usuariosPorTarefa = 16_384;
+
+    /**
+     * @param paralelismo quantidade de threads do {@link ForkJoinPool} (padrão: processadores disponíveis)
+     */
+    public void setParalelismo(int paralelismo) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("Paralelismo deve ser positivo");
+        }
+        this.paralelismo = paralelismo;
+    }
+
+    /**
+     * @param usuariosPorTarefa tamanho dos blocos de usuários processados por tarefa
+     */
+    public void setUsuariosPorTarefa(int usuariosPorTarefa) {
+        if (usuariosPorTarefa < 1) {
+            throw new IllegalArgumentException("Usuários por tarefa deve ser positivo");
+        }
+        this.usuariosPorTarefa = usuariosPorTarefa;
+    }
+
+    /**
+     * Projeta todos os usuários com o mesmo objetivo.
+     *
+     * @param totais totais de receitas e despesas por usuário
+     * @param meses quantidade de meses a projetar (e de inflação a descontar)
+     * @param taxaInflacaoAnual taxa anual de inflação (ex.: 0.06 = 6%)
+     * @param objetivoCentavos objetivo de todos os usuários, em centavos
+     * @return projeções na ordem dos totais
+     * @throws ArithmeticException se algum resultado não couber em centavos ({@code long})
+     */
+    public ResultadoProjecao projetar(TotaisUsuarios totais, int meses, double taxaInflacaoAnual,
+                                      long objetivoCentavos) {
+        return projetar(totais, meses, taxaInflacaoAnual, null, objetivoCentavos);
+    }
+
+    /**
+     * Projeta todos os usuários, cada um com seu objetivo.
+     *
+     * @param totais totais de receitas e despesas por usuário
+     * @param meses quantidade de meses a projetar (e de inflação a descontar)
+     * @param taxaInflacaoAnual taxa anual de inflação (ex.: 0.06 = 6%)
+     * @param objetivosCentavos objetivo de cada usuário, em centavos, na ordem dos totais
+     * @return projeções na ordem dos totais
+     * @throws ArithmeticException se algum resultado não couber em centavos ({@code long})
+     */
+    public ResultadoProjecao projetar(TotaisUsuarios totais, int meses, double taxaInflacaoAnual,
+                                      long[] objetivosCentavos) {
+        if (objetivosCentavos.length != totais.size()) {
+            throw new IllegalArgumentException("Esperados " + totais.size() + " objetivos, recebidos "
+                    + objetivosCentavos.length);
+        }
+        return projetar(totais, meses, taxaInflacaoAnual, objetivosCentavos, 0);
+    }
+
+    private ResultadoProjecao projetar(TotaisUsuarios totais, int meses, double taxaInflacaoAnual,
+                                       long[] objetivos, long objetivoUnico) {
+        long inicio = System.nanoTime();
+        long[] userIds = new long[totais.size()];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = totais.userId(i);
+        }
+        ResultadoProjecao resultado = new ResultadoProjecao(userIds, totais.size());
+        Projecao projecao = new Projecao(totais, meses,
+                new DivisorFator(SimuladorFinanceiro.fatorInflacao(taxaInflacaoAnual, meses)), objetivos,
+                objetivoUnico, resultado);
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            pool.invoke(new Tarefa(projecao, 0, totais.size()));
+        } finally {
+            pool.shutdown();
+        }
+        resultado.finalizar(System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    /** Parâmetros comuns a todas as tarefas de uma projeção. */
+    private static final class Projecao {
+        private final TotaisUsuarios totais;
+        private final int meses;
+        private final DivisorFator divisor;
+        private final long[] objetivos;
+        private final long objetivoUnico;
+        private final ResultadoProjecao resultado;
+
+        Projecao(TotaisUsuarios totais, int meses, DivisorFator divisor, long[] objetivos, long objetivoUnico,
+                 ResultadoProjecao resultado) {
+            this.totais = totais;
+            this.meses = meses;
+            this.divisor = divisor;
+            this.objetivos = objetivos;
+            this.objetivoUnico = objetivoUnico;
+            this.resultado = resultado;
+        }
+
+        void projetar(int inicio, int fim) {
+            for (int i = inicio; i < fim; i++) {
+                long saldo = totais.saldoCentavos(i);
+                long projetado = Math.multiplyExact(saldo, (long) meses);
+                long objetivo = objetivos == null ? objetivoUnico : objetivos[i];
+                resultado.definir(i, projetado, divisor.dividir(projetado), mesesParaObjetivo(objetivo, saldo));
+            }
+        }
+    }
+
+    /**
+     * Mesma regra de {@code SimuladorFinanceiro.estimarMeses}: -1 sem saldo positivo; senão,
+     * objetivo / saldo arredondado para cima (e truncado para {@code int} como {@link BigDecimal#intValue()}).
+     */
+    static int mesesParaObjetivo(long objetivoCentavos, long saldoCentavos) {
+        if (saldoCentavos <= 0) {
+            return -1;
+        }
+        long meses = objetivoCentavos / saldoCentavos;
+        if (objetivoCentavos % saldoCentavos > 0) {
+            meses++;
+        }
+        return (int) meses;
+    }
+
+    private final class Tarefa extends RecursiveAction {
+        private final Projecao projecao;
+        private final int inicio;
+        private final int fim;
+
+        Tarefa(Projecao projecao, int inicio, int fim) {
+            this.projecao = projecao;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio <= usuariosPorTarefa) {
+                projecao.projetar(inicio, fim);
+                return;
+            }
+            int meio = (inicio + fim) >>> 1;
+            invokeAll(new Tarefa(projecao, inicio, meio), new Tarefa(projecao, meio, fim));
+        }
+    }
+
+    /**
+     * Divisão de valores em centavos por um fator decimal, com duas casas e arredondamento HALF_UP.
+     *
+     * Com o fator escrito como {@code m / p} (m e p inteiros, p potência de 10), o resultado em
+     * centavos é o inteiro mais próximo de {@code c * p / m}. O quociente estimado em
+     * {@code double} é ajustado comparando {@code 2 * q * m} com {@code 2 * |c| * p + m} em 128 bits.
+     */
+    static final class DivisorFator {
+        private static final long[] POTENCIAS_10 = new long[19];
+
+        static {
+            POTENCIAS_10[0] = 1;
+            for (int i = 1; i < POTENCIAS_10.length; i++) {
+                POTENCIAS_10[i] = POTENCIAS_10[i - 1] * 10;
+            }
+        }
+
+        /** Maior quociente estimado tratado em inteiros; acima disso, usa-se BigDecimal. */
+        private static final double MAXIMO_ESTIMADO = 0x1p61;
+
+        private final BigDecimal fator;
+        private final boolean exato;
+        private final long m;
+        private final long p;
+        private final double razao;
+
+        DivisorFator(BigDecimal fator) {
+            this.fator = fator;
+            BigDecimal normalizado = fator.stripTrailingZeros();
+            BigInteger numerador = normalizado.unscaledValue();
+            int escala = normalizado.scale();
+            if (escala < 0 && -escala < POTENCIAS_10.length) {
+                numerador = numerador.multiply(BigInteger.valueOf(POTENCIAS_10[-escala]));
+                escala = 0;
+            }
+            this.exato = numerador.signum() > 0 && numerador.bitLength() <= 62
+                    && escala >= 0 && escala < POTENCIAS_10.length;
+            this.m = exato ? numerador.longValue() : 0;
+            this.p = exato ? POTENCIAS_10[escala] : 0;
+            this.razao = exato ? (double) p / m : 0;
+        }
+
+        long dividir(long centavos) {
+            if (exato && centavos != Long.MIN_VALUE) {
+                long c = Math.abs(centavos);
+                double estimado = c * razao + 0.5;
+                if (estimado < MAXIMO_ESTIMADO) {
+                    long q = (long) estimado;
+                    while (q > 0 && excede(q, c)) {
+                        q--;
+                    }
+                    while (!excede(q + 1, c)) {
+                        q++;
+                    }
+                    return centavos < 0 ? -q : q;
+                }
+            }
+            return BigDecimal.valueOf(centavos, 2).divide(fator, 2, RoundingMode.HALF_UP)
+                    .unscaledValue().longValueExact();
+        }
+
+        /**
+         * @return true se {@code 2 * q * m > 2 * c * p + m}, isto é, se q passa do arredondamento de c * p / m
+         */
+        private boolean excede(long q, long c) {
+            long esquerdaAlto = Math.multiplyHigh(q, m);
+            long esquerdaBaixo = q * m;
+            esquerdaAlto = (esquerdaAlto << 1) | (esquerdaBaixo >>> 63);
+            esquerdaBaixo <<= 1;
+
+            long direitaAlto = Math.multiplyHigh(c, p);
+            long direitaBaixo = c * p;
+            direitaAlto = (direitaAlto << 1) | (direitaBaixo >>> 63);
+            direitaBaixo <<= 1;
+            long soma = direitaBaixo + m;
+            if (Long.compareUnsigned(soma, direitaBaixo) < 0) {
+                direitaAlto++;
+            }
+            direitaBaixo = soma;
+
+            return esquerdaAlto != direitaAlto ? esquerdaAlto > direitaAlto
+                    : Long.compareUnsigned(esquerdaBaixo, direitaBaixo) > 0;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.edufinai.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resumo de uma chamada a {@link GerenciadorFinanceiroService#registerTransactions(java.util.Collection)}.
+ *
+ * Responsabilidades:
+ * - Contar transações recebidas, registradas, rejeitadas e duplicadas (já registradas antes,
+ *   descartadas sem erro para que reimportações e reenvios sejam idempotentes).
+ * - Guardar o motivo das primeiras rejeições, identificadas pela posição no lote.
+ * - Informar a vazão do lote (transações registradas por segundo).
+ */
+public class ResultadoLote {
+
+    /** Quantidade máxima de rejeições detalhadas guardadas por lote. */
+    public static final int MAX_REJEICOES_DETALHADAS = 100;
+
+    /**
+     * Transação do lote que não pôde ser registrada.
+     */
+    public static class Rejeicao {
+        private final long posicao;
+        private final String motivo;
+
+        public Rejeicao(long posicao, String motivo) {
+            this.posicao = posicao;
+            this.motivo = motivo;
+        }
+
+        /**
+         * @return posição da transação no lote, começando em 0
+         */
+        public long getPosicao() {
+            return posicao;
+        }
+
+        public String getMotivo() {
+            return motivo;
+        }
+
+        @Override
+        public String toString() {
+            return "Posição " + posicao + ": " + motivo;
+        }
+    }
+
+    private final List<Rejeicao> rejeicoes = new ArrayList<>();
+    private long recebidas;
+    private long registradas;
+    private long rejeitadas;
+    private long duplicadas;
+    private long usuarios;
+    private long duracaoNanos;
+
+    void somarRecebidas(int quantidade) {
+        recebidas += quantidade;
+    }
+
+    void somarRegistradas(int quantidade, int usuarios) {
+        this.registradas += quantidade;
+        this.usuarios += usuarios;
+    }
+
+    void rejeitar(long posicao, String motivo) {
+        rejeitadas++;
+        if (rejeicoes.size() < MAX_REJEICOES_DETALHADAS) {
+            rejeicoes.add(new Rejeicao(posicao, motivo));
+        }
+    }
+
+    void somarDuplicada() {
+        duplicadas++;
+    }
+
+    void somarDuracao(long nanos) {
+        duracaoNanos += nanos;
+    }
+
+    public long getRecebidas() {
+        return recebidas;
+    }
+
+    public long getRegistradas() {
+        return registradas;
+    }
+
+    public long getRejeitadas() {
+        return rejeitadas;
+    }
+
+    /**
+     * @return transações descartadas por já estarem registradas (mesmo id, ou mesmo conteúdo sem id)
+     */
+    public long getDuplicadas() {
+        return duplicadas;
+    }
+
+    /**
+     * @return usuários distintos afetados (somados por bloco, em lotes vindos de {@code Stream})
+     */
+    public long getUsuarios() {
+        return usuarios;
+    }
+
+    /**
+     * @return detalhes das primeiras rejeições (até {@link #MAX_REJEICOES_DETALHADAS})
+     */
+    public List<Rejeicao> getRejeicoes() {
+        return Collections.unmodifiableList(rejeicoes);
+    }
+
+    public long getDuracaoNanos() {
+        return duracaoNanos;
+    }
+
+    /**
+     * @return transações registradas por segundo
+     */
+    public double getTransacoesPorSegundo() {
+        return duracaoNanos == 0 ? 0 : registradas * 1e9 / duracaoNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResultadoLote{recebidas=%d, registradas=%d, rejeitadas=%d, duplicadas=%d, usuarios=%d, %.0f transações/s}",
+                recebidas, registradas, rejeitadas, duplicadas, usuarios, getTransacoesPorSegundo());
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.edufinai.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Distribuição dos resultados de uma {@link SimulacaoMonteCarlo}.
+ *
+ * Observações:
+ * - Percentis pelo método do posto mais próximo sobre todas as trajetórias.
+ * - Saldos em valores de hoje, arredondados para centavos.
+ * - Meses para o objetivo: -1 quando, no percentil pedido, o objetivo não é alcançado dentro do horizonte.
+ */
+public class ResultadoMonteCarlo {
+
+    /** Marca, nas trajetórias, o objetivo não alcançado no horizonte (ordena depois de qualquer mês). */
+    static final int NAO_ATINGIDO = Integer.MAX_VALUE;
+
+    private final double[] saldosOrdenados;
+    private final int[] mesesOrdenados;
+    private final int meses;
+    private final long duracaoNanos;
+
+    ResultadoMonteCarlo(double[] saldosOrdenados, int[] mesesOrdenados, int meses, long duracaoNanos) {
+        this.saldosOrdenados = saldosOrdenados;
+        this.mesesOrdenados = mesesOrdenados;
+        this.meses = meses;
+        this.duracaoNanos = duracaoNanos;
+    }
+
+    public int getTrajetorias() {
+        return saldosOrdenados.length;
+    }
+
+    /**
+     * @return horizonte simulado, em meses
+     */
+    public int getMeses() {
+        return meses;
+    }
+
+    /**
+     * @param percentil percentil entre 0 (exclusivo) e 100
+     * @return saldo final no percentil, em valores de hoje
+     */
+    public BigDecimal getSaldo(double percentil) {
+        return BigDecimal.valueOf(Math.round(saldosOrdenados[posto(percentil)]), 2);
+    }
+
+    /**
+     * @param percentil percentil entre 0 (exclusivo) e 100
+     * @return meses para o objetivo no percentil, ou -1 se não alcançado no horizonte
+     */
+    public int getMesesParaObjetivo(double percentil) {
+        int valor = mesesOrdenados[posto(percentil)];
+        return valor == NAO_ATINGIDO ? -1 : valor;
+    }
+
+    public BigDecimal getSaldoP5() {
+        return getSaldo(5);
+    }
+
+    public BigDecimal getSaldoP50() {
+        return getSaldo(50);
+    }
+
+    public BigDecimal getSaldoP95() {
+        return getSaldo(95);
+    }
+
+    public int getMesesParaObjetivoP5() {
+        return getMesesParaObjetivo(5);
+    }
+
+    public int getMesesParaObjetivoP50() {
+        return getMesesParaObjetivo(50);
+    }
+
+    public int getMesesParaObjetivoP95() {
+        return getMesesParaObjetivo(95);
+    }
+
+    /**
+     * @return fração das trajetórias que alcançam o objetivo dentro do horizonte
+     */
+    public double getProbabilidadeObjetivo() {
+        int atingidas = 0;
+        while (atingidas < mesesOrdenados.length && mesesOrdenados[atingidas] != NAO_ATINGIDO) {
+            atingidas++;
+        }
+        return (double) atingidas / mesesOrdenados.length;
+    }
+
+    public long getDuracaoNanos() {
+        return duracaoNanos;
+    }
+
+    private int posto(double percentil) {
+        if (!(percentil > 0 && percentil <= 100)) {
+            throw new IllegalArgumentException("Percentil fora do intervalo (0, 100]: " + percentil);
+        }
+        return Math.max(0, (int) Math.ceil(percentil / 100 * saldosOrdenados.length) - 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResultadoMonteCarlo{trajetorias=%d, meses=%d, saldo P5/P50/P95=%s/%s/%s, "
+                        + "mesesParaObjetivo P5/P50/P95=%d/%d/%d, probabilidadeObjetivo=%.1f%%, %.1f ms}",
+                getTrajetorias(), meses, getSaldoP5(), getSaldoP50(), getSaldoP95(), getMesesParaObjetivoP5(),
+                getMesesParaObjetivoP50(), getMesesParaObjetivoP95(), 100 * getProbabilidadeObjetivo(),
+                duracaoNanos / 1e6);
+    }
+}
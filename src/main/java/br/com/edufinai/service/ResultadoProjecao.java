@@ -0,0 +1,85 @@
+package br.com.edufinai.service;
+
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+import java.math.BigDecimal;
+
+/**
+ * Resultado de uma projeção em lote ({@link ProjetorSaldos}), na mesma ordem dos
+ * {@link TotaisUsuarios} de entrada.
+ *
+ * Para cada usuário:
+ * - saldo projetado, igual a {@link SimuladorFinanceiro#projetarSaldoFuturo};
+ * - saldo projetado ajustado pela inflação, igual a {@link SimuladorFinanceiro#ajustarPorInflacao};
+ * - meses para o objetivo, igual a {@link SimuladorFinanceiro#estimarMesesParaObjetivo} (-1 se não alcançável).
+ */
+public class ResultadoProjecao {
+
+    private final long[] userIds;
+    private final long[] saldoProjetadoCentavos;
+    private final long[] saldoAjustadoCentavos;
+    private final int[] mesesParaObjetivo;
+    private long duracaoNanos;
+
+    ResultadoProjecao(long[] userIds, int tamanho) {
+        this.userIds = userIds;
+        this.saldoProjetadoCentavos = new long[tamanho];
+        this.saldoAjustadoCentavos = new long[tamanho];
+        this.mesesParaObjetivo = new int[tamanho];
+    }
+
+    void definir(int indice, long projetado, long ajustado, int meses) {
+        saldoProjetadoCentavos[indice] = projetado;
+        saldoAjustadoCentavos[indice] = ajustado;
+        mesesParaObjetivo[indice] = meses;
+    }
+
+    void finalizar(long duracaoNanos) {
+        this.duracaoNanos = duracaoNanos;
+    }
+
+    public int size() {
+        return mesesParaObjetivo.length;
+    }
+
+    public long userId(int indice) {
+        return userIds[indice];
+    }
+
+    public long saldoProjetadoCentavos(int indice) {
+        return saldoProjetadoCentavos[indice];
+    }
+
+    public long saldoAjustadoCentavos(int indice) {
+        return saldoAjustadoCentavos[indice];
+    }
+
+    public int mesesParaObjetivo(int indice) {
+        return mesesParaObjetivo[indice];
+    }
+
+    public BigDecimal getSaldoProjetado(int indice) {
+        return ColumnarTransactionStore.deCentavos(saldoProjetadoCentavos[indice]);
+    }
+
+    public BigDecimal getSaldoAjustado(int indice) {
+        return ColumnarTransactionStore.deCentavos(saldoAjustadoCentavos[indice]);
+    }
+
+    public long getDuracaoNanos() {
+        return duracaoNanos;
+    }
+
+    /**
+     * @return usuários projetados por segundo
+     */
+    public double getUsuariosPorSegundo() {
+        return duracaoNanos == 0 ? 0 : size() * 1e9 / duracaoNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResultadoProjecao{usuarios=%d, %.1f ms, %.0f usuários/s}",
+                size(), duracaoNanos / 1e6, getUsuariosPorSegundo());
+    }
+}
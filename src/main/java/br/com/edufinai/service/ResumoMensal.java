@@ -0,0 +1,124 @@
+package br.com.edufinai.service;
+
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Totais pré-agregados de um usuário em um mês/ano.
+ *
+ * Responsabilidades:
+ * - Acumular receitas, despesas e investimentos à medida que as transações chegam.
+ * - Contar quantas transações compõem o mês.
+ * - Servir de base para relatórios e projeções sem reprocessar o histórico.
+ *
+ * Observações:
+ * - Instâncias são mantidas pelo {@link GerenciadorFinanceiroService};
+ *   apenas o serviço atualiza os totais.
+ * - Os totais são acumulados em centavos ({@code long}) e convertidos para
+ *   {@link BigDecimal} com duas casas apenas na leitura.
+ */
+public class ResumoMensal {
+
+    private final YearMonth mes;
+    private long receitasCentavos;
+    private long despesasCentavos;
+    private long investimentosCentavos;
+    private int quantidade;
+
+    ResumoMensal(YearMonth mes) {
+        this.mes = mes;
+    }
+
+    /**
+     * Recria um resumo com totais já conhecidos (ex.: lidos de um snapshot).
+     *
+     * @param mes mês/ano do resumo
+     * @param receitasCentavos total de receitas em centavos
+     * @param despesasCentavos total de despesas em centavos
+     * @param investimentosCentavos total de investimentos em centavos
+     * @param quantidade quantidade de transações do mês
+     */
+    public ResumoMensal(YearMonth mes, long receitasCentavos, long despesasCentavos,
+                        long investimentosCentavos, int quantidade) {
+        this.mes = mes;
+        this.receitasCentavos = receitasCentavos;
+        this.despesasCentavos = despesasCentavos;
+        this.investimentosCentavos = investimentosCentavos;
+        this.quantidade = quantidade;
+    }
+
+    ResumoMensal copiar() {
+        return new ResumoMensal(mes, receitasCentavos, despesasCentavos, investimentosCentavos, quantidade);
+    }
+
+    /**
+     * Soma um lançamento ao total correspondente ao seu tipo.
+     *
+     * @param tipo tipo da transação
+     * @param valorCentavos valor da transação em centavos
+     */
+    void adicionar(TransactionType tipo, long valorCentavos) {
+        switch (tipo) {
+            case INCOME -> receitasCentavos += valorCentavos;
+            case EXPENSE -> despesasCentavos += valorCentavos;
+            case INVESTMENT -> investimentosCentavos += valorCentavos;
+        }
+        quantidade++;
+    }
+
+    public YearMonth getMes() {
+        return mes;
+    }
+
+    public BigDecimal getReceitas() {
+        return ColumnarTransactionStore.deCentavos(receitasCentavos);
+    }
+
+    public BigDecimal getDespesas() {
+        return ColumnarTransactionStore.deCentavos(despesasCentavos);
+    }
+
+    public BigDecimal getInvestimentos() {
+        return ColumnarTransactionStore.deCentavos(investimentosCentavos);
+    }
+
+    public long getReceitasCentavos() {
+        return receitasCentavos;
+    }
+
+    public long getDespesasCentavos() {
+        return despesasCentavos;
+    }
+
+    public long getInvestimentosCentavos() {
+        return investimentosCentavos;
+    }
+
+    /**
+     * Retorna o saldo do mês (receitas - despesas).
+     * Investimentos não entram no saldo, assim como no relatório mensal.
+     *
+     * @return saldo do mês
+     */
+    public BigDecimal getSaldo() {
+        return ColumnarTransactionStore.deCentavos(receitasCentavos - despesasCentavos);
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    @Override
+    public String toString() {
+        return "ResumoMensal{" +
+                "mes=" + mes +
+                ", receitas=R$ " + getReceitas() +
+                ", despesas=R$ " + getDespesas() +
+                ", investimentos=R$ " + getInvestimentos() +
+                ", quantidade=" + quantidade +
+                '}';
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.edufinai.service;
+
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * Cubo de agregados usuário × mês × categoria × tipo, mantido pelo
+ * {@link GerenciadorFinanceiroService} a cada registro.
+ *
+ * Responsabilidades:
+ * - Responder a fatias como "despesas por categoria no mês" ou "aportes em investimento
+ *   por trimestre" sem tocar nas transações.
+ * - Permitir roll-up (mês → trimestre → ano, todas as categorias, todos os tipos) e
+ *   drill-down (período → categorias).
+ *
+ * Como funciona:
+ * - Cada usuário tem um {@link CuboUsuario} na sua partição, atualizado sob o mesmo bloqueio
+ *   das transações; as consultas usam o bloqueio de leitura da partição.
+ * - O custo de uma consulta depende da quantidade de meses do intervalo e de categorias
+ *   do usuário, nunca da quantidade de transações.
+ *
+ * Observações:
+ * - Não faz parte dos snapshots: ao restaurar um snapshot o cubo é recalculado a partir
+ *   das colunas de transações (varredura sequencial de arrays primitivos).
+ * - Parâmetros {@code tipo} null significam "todos os tipos"; meses {@code de}/{@code ate}
+ *   null significam intervalo aberto.
+ */
+public class RollupCube {
+
+    private final GerenciadorFinanceiroService service;
+
+    RollupCube(GerenciadorFinanceiroService service) {
+        this.service = service;
+    }
+
+    /**
+     * Série de totais do usuário, somando todas as categorias.
+     * Ex.: aportes em investimento por trimestre: {@code serie(id, TRIMESTRE, INVESTMENT, null, null)}.
+     *
+     * @param userId id do usuário
+     * @param granularidade mês, trimestre ou ano
+     * @param tipo tipo de transação, ou null para todos
+     * @param de primeiro mês, ou null
+     * @param ate último mês, ou null
+     * @return primeiro mês de cada período → total, em ordem cronológica
+     */
+    public NavigableMap<YearMonth, AgregadoCubo> serie(Long userId, Granularidade granularidade, TransactionType tipo,
+                                                       YearMonth de, YearMonth ate) {
+        return service.particao(userId).consultarCubo(userId,
+                cubo -> cubo.serie(granularidade, de, ate, tipo, true, ColumnarTransactionStore.NULO),
+                Collections.emptyNavigableMap());
+    }
+
+    /**
+     * Série de totais do usuário em uma única categoria.
+     * Ex.: gasto com a categoria 10 por mês: {@code serieCategoria(id, 10L, MES, EXPENSE, null, null)}.
+     *
+     * @param userId id do usuário
+     * @param categoryId categoria, ou null para transações sem categoria
+     * @param granularidade mês, trimestre ou ano
+     * @param tipo tipo de transação, ou null para todos
+     * @param de primeiro mês, ou null
+     * @param ate último mês, ou null
+     * @return primeiro mês de cada período → total, em ordem cronológica
+     */
+    public NavigableMap<YearMonth, AgregadoCubo> serieCategoria(Long userId, Long categoryId,
+                                                                Granularidade granularidade, TransactionType tipo,
+                                                                YearMonth de, YearMonth ate) {
+        long categoria = ColumnarTransactionStore.paraColuna(categoryId);
+        return service.particao(userId).consultarCubo(userId,
+                cubo -> cubo.serie(granularidade, de, ate, tipo, false, categoria),
+                Collections.emptyNavigableMap());
+    }
+
+    /**
+     * Drill-down de um período por categoria.
+     * Ex.: despesas por categoria em março/2025: {@code porCategoria(id, MES, YearMonth.of(2025, 3), EXPENSE)}.
+     *
+     * @param userId id do usuário
+     * @param granularidade granularidade do período
+     * @param periodo qualquer mês do período
+     * @param tipo tipo de transação, ou null para todos
+     * @return categoria (null para "sem categoria") → total
+     */
+    public Map<Long, AgregadoCubo> porCategoria(Long userId, Granularidade granularidade, YearMonth periodo,
+                                                TransactionType tipo) {
+        return service.particao(userId).consultarCubo(userId,
+                cubo -> cubo.porCategoria(granularidade, periodo, tipo), Collections.emptyMap());
+    }
+}
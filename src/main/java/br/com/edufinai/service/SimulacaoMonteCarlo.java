@@ -0,0 +1,232 @@
+package br.com.edufinai.service;
+
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Simulação de Monte Carlo do saldo de um usuário, como alternativa à projeção linear de
+ * {@link SimuladorFinanceiro#projetarSaldoFuturo}.
+ *
+ * Como funciona:
+ * - Cada trajetória parte do saldo inicial e avança mês a mês. A cada mês sorteia um mês do
+ *   histórico do usuário (bootstrap) e usa suas receitas e despesas, o que preserva a variação
+ *   e a correlação entre elas.
+ * - A inflação mensal segue uma trajetória log-normal, com média equivalente à taxa anual
+ *   informada e volatilidade anual configurável. As despesas sorteadas são corrigidas pela
+ *   inflação acumulada; as receitas não.
+ * - Ao final, o saldo é expresso em valores de hoje (dividido pela inflação acumulada da
+ *   trajetória), como em {@link SimuladorFinanceiro#ajustarPorInflacao}. O mês para o objetivo
+ *   é o primeiro em que o saldo nominal o alcança.
+ * - O resultado traz percentis (P5/P50/P95) do saldo e dos meses para o objetivo entre as trajetórias.
+ *
+ * Paralelismo e reprodutibilidade:
+ * - As trajetórias são divididas em blocos fixos de {@link #TRAJETORIAS_POR_BLOCO}. Cada bloco
+ *   recebe um {@link SplittableRandom} derivado da semente, em ordem, antes da execução paralela
+ *   em um {@link ForkJoinPool}. A mesma semente dá o mesmo resultado com qualquer paralelismo.
+ * - O passo mensal usa apenas variáveis primitivas; a memória é um {@code double} e um
+ *   {@code int} por trajetória.
+ */
+public class SimulacaoMonteCarlo {
+
+    /** Trajetórias de cada bloco (e de cada gerador de números aleatórios). */
+    public static final int TRAJETORIAS_POR_BLOCO = 1_024;
+
+    private int trajetorias = 10_000;
+    private long semente = 42;
+    private double volatilidadeInflacaoAnual = 0.015;
+    private int paralelismo = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * @param trajetorias quantidade de trajetórias simuladas (padrão: 10.000)
+     */
+    public void setTrajetorias(int trajetorias) {
+        if (trajetorias < 1) {
+            throw new IllegalArgumentException("Quantidade de trajetórias deve ser positiva");
+        }
+        this.trajetorias = trajetorias;
+    }
+
+    /**
+     * @param semente semente dos números aleatórios; a mesma semente reproduz o mesmo resultado
+     */
+    public void setSemente(long semente) {
+        this.semente = semente;
+    }
+
+    /**
+     * @param volatilidadeInflacaoAnual desvio-padrão anual da inflação (ex.: 0.015 = 1,5 p.p.; 0 = inflação fixa)
+     */
+    public void setVolatilidadeInflacaoAnual(double volatilidadeInflacaoAnual) {
+        if (!(volatilidadeInflacaoAnual >= 0)) {
+            throw new IllegalArgumentException("Volatilidade da inflação inválida: " + volatilidadeInflacaoAnual);
+        }
+        this.volatilidadeInflacaoAnual = volatilidadeInflacaoAnual;
+    }
+
+    /**
+     * @param paralelismo quantidade de threads do {@link ForkJoinPool} (padrão: processadores disponíveis)
+     */
+    public void setParalelismo(int paralelismo) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("Paralelismo deve ser positivo");
+        }
+        this.paralelismo = paralelismo;
+    }
+
+    /**
+     * Simula a partir dos resumos mensais do usuário, com saldo inicial igual ao saldo acumulado
+     * do histórico (receitas - despesas).
+     *
+     * @param resumos resumos mensais do usuário (ex.: {@link GerenciadorFinanceiroService#getResumosMensais(Long)})
+     * @param meses horizonte da simulação, em meses
+     * @param taxaInflacaoAnual taxa anual média da inflação (ex.: 0.06 = 6%)
+     * @param objetivo valor alvo para os meses até o objetivo
+     * @return percentis de saldo e de meses para o objetivo
+     */
+    public ResultadoMonteCarlo simular(Collection<ResumoMensal> resumos, int meses, double taxaInflacaoAnual,
+                                       BigDecimal objetivo) {
+        long[] receitas = new long[resumos.size()];
+        long[] despesas = new long[resumos.size()];
+        long saldoInicial = 0;
+        int i = 0;
+        for (ResumoMensal resumo : resumos) {
+            receitas[i] = resumo.getReceitasCentavos();
+            despesas[i] = resumo.getDespesasCentavos();
+            saldoInicial += receitas[i] - despesas[i];
+            i++;
+        }
+        return simular(receitas, despesas, saldoInicial, meses, taxaInflacaoAnual,
+                ColumnarTransactionStore.paraCentavos(objetivo));
+    }
+
+    /**
+     * Simula a partir de receitas e despesas mensais históricas, em centavos.
+     *
+     * @param receitasCentavos receitas de cada mês do histórico
+     * @param despesasCentavos despesas de cada mês do histórico (mesmo tamanho)
+     * @param saldoInicialCentavos saldo no início da simulação
+     * @param meses horizonte da simulação, em meses
+     * @param taxaInflacaoAnual taxa anual média da inflação (ex.: 0.06 = 6%)
+     * @param objetivoCentavos valor alvo para os meses até o objetivo
+     * @return percentis de saldo e de meses para o objetivo
+     */
+    public ResultadoMonteCarlo simular(long[] receitasCentavos, long[] despesasCentavos, long saldoInicialCentavos,
+                                       int meses, double taxaInflacaoAnual, long objetivoCentavos) {
+        if (receitasCentavos.length != despesasCentavos.length) {
+            throw new IllegalArgumentException("Receitas e despesas com quantidades de meses diferentes");
+        }
+        if (meses < 0) {
+            throw new IllegalArgumentException("Quantidade de meses inválida: " + meses);
+        }
+        if (!(taxaInflacaoAnual > -1)) {
+            throw new IllegalArgumentException("Taxa de inflação inválida: " + taxaInflacaoAnual);
+        }
+        long inicio = System.nanoTime();
+        // Sem histórico, todo mês é sorteado como receita e despesa zero
+        double[] receitas = receitasCentavos.length == 0 ? new double[1] : new double[receitasCentavos.length];
+        double[] despesas = new double[receitas.length];
+        for (int i = 0; i < receitasCentavos.length; i++) {
+            receitas[i] = receitasCentavos[i];
+            despesas[i] = despesasCentavos[i];
+        }
+        // Inflação mensal log-normal: média de ln(1 + taxa) / 12 e desvio anual / raiz de 12
+        double media = Math.log1p(taxaInflacaoAnual) / 12;
+        double desvio = volatilidadeInflacaoAnual / Math.sqrt(12);
+
+        int blocos = (trajetorias + TRAJETORIAS_POR_BLOCO - 1) / TRAJETORIAS_POR_BLOCO;
+        SplittableRandom raiz = new SplittableRandom(semente);
+        SplittableRandom[] geradores = new SplittableRandom[blocos];
+        for (int b = 0; b < blocos; b++) {
+            geradores[b] = raiz.split();
+        }
+        Simulacao simulacao = new Simulacao(receitas, despesas, saldoInicialCentavos, meses, media, desvio,
+                objetivoCentavos, geradores, new double[trajetorias], new int[trajetorias]);
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            pool.invoke(new Tarefa(simulacao, 0, blocos));
+        } finally {
+            pool.shutdown();
+        }
+        Arrays.sort(simulacao.saldos);
+        Arrays.sort(simulacao.mesesObjetivo);
+        return new ResultadoMonteCarlo(simulacao.saldos, simulacao.mesesObjetivo, meses, System.nanoTime() - inicio);
+    }
+
+    /** Entradas da simulação e arrays de saída, compartilhados pelos blocos. */
+    private static final class Simulacao {
+        private final double[] receitas;
+        private final double[] despesas;
+        private final long saldoInicial;
+        private final int meses;
+        private final double media;
+        private final double desvio;
+        private final long objetivo;
+        private final SplittableRandom[] geradores;
+        private final double[] saldos;
+        private final int[] mesesObjetivo;
+
+        Simulacao(double[] receitas, double[] despesas, long saldoInicial, int meses, double media, double desvio,
+                  long objetivo, SplittableRandom[] geradores, double[] saldos, int[] mesesObjetivo) {
+            this.receitas = receitas;
+            this.despesas = despesas;
+            this.saldoInicial = saldoInicial;
+            this.meses = meses;
+            this.media = media;
+            this.desvio = desvio;
+            this.objetivo = objetivo;
+            this.geradores = geradores;
+            this.saldos = saldos;
+            this.mesesObjetivo = mesesObjetivo;
+        }
+
+        void simularBloco(int bloco) {
+            SplittableRandom aleatorio = geradores[bloco];
+            int historico = receitas.length;
+            double fatorFixo = Math.exp(media);
+            int fim = Math.min(saldos.length, (bloco + 1) * TRAJETORIAS_POR_BLOCO);
+            for (int trajetoria = bloco * TRAJETORIAS_POR_BLOCO; trajetoria < fim; trajetoria++) {
+                double saldo = saldoInicial;
+                double inflacao = 1;
+                int atingido = saldo >= objetivo ? 0 : ResultadoMonteCarlo.NAO_ATINGIDO;
+                for (int mes = 1; mes <= meses; mes++) {
+                    int sorteado = aleatorio.nextInt(historico);
+                    inflacao *= desvio == 0 ? fatorFixo : Math.exp(media + desvio * aleatorio.nextGaussian());
+                    saldo += receitas[sorteado] - despesas[sorteado] * inflacao;
+                    if (atingido == ResultadoMonteCarlo.NAO_ATINGIDO && saldo >= objetivo) {
+                        atingido = mes;
+                    }
+                }
+                saldos[trajetoria] = saldo / inflacao;
+                mesesObjetivo[trajetoria] = atingido;
+            }
+        }
+    }
+
+    private static final class Tarefa extends RecursiveAction {
+        private final Simulacao simulacao;
+        private final int inicio;
+        private final int fim;
+
+        Tarefa(Simulacao simulacao, int inicio, int fim) {
+            this.simulacao = simulacao;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio == 1) {
+                simulacao.simularBloco(inicio);
+                return;
+            }
+            int meio = (inicio + fim) >>> 1;
+            invokeAll(new Tarefa(simulacao, inicio, meio), new Tarefa(simulacao, meio, fim));
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package br.com.edufinai.service;
 
 import br.com.edufinai.model.*;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 /**
  * Serviço de simulação financeira do EduFinAI.
@@ -13,10 +18,15 @@ import java.util.List;
  * e estimativa de tempo para atingir um objetivo.
  *
  * Responsabilidades:
- * - Projetar saldo futuro com base no histórico de transações.
+ * - Projetar saldo futuro com base no histórico de transações
+ *   ou nos totais mensais pré-agregados ({@link ResumoMensal}).
+ * - Projetar o saldo mês a mês considerando a sazonalidade ({@link EstatisticasSazonais}).
  * - Ajustar valores pela inflação acumulada.
  * - Estimar meses necessários para alcançar um valor alvo.
  *
+ * Para projetar muitos usuários de uma vez, com os mesmos resultados, veja {@link ProjetorSaldos}.
+ * Para a distribuição dos resultados possíveis (percentis), veja {@link SimulacaoMonteCarlo}.
+ *
  * Observações:
  * - Todas as operações com dinheiro utilizam BigDecimal.
  * - Recomenda-se definir escala e arredondamento para resultados previsíveis.
@@ -32,7 +42,7 @@ public class SimuladorFinanceiro {
      * - Projeta o saldo adicionando a média mensal pelos próximos "monthsAhead" meses.
      *
      * Premissas:
-     * - Projeção linear e simplificada (sem sazonalidade).
+     * - Projeção linear e simplificada (sem sazonalidade; veja {@link #projetarSaldoSazonal}).
      * - Se não houver histórico suficiente, o método pode considerar a soma atual como base.
      *
      * @param transacoes lista de transações históricas
@@ -44,6 +54,55 @@ public class SimuladorFinanceiro {
         return saldoMensal.multiply(BigDecimal.valueOf(meses));
     }
 
+    /**
+     * Projeta o saldo para os próximos N meses a partir dos totais mensais pré-agregados.
+     * Produz o mesmo resultado de {@link #projetarSaldoFuturo(List, int)}, mas com custo
+     * proporcional ao número de meses, e não ao número de transações.
+     *
+     * @param resumos resumos mensais do usuário (ex.: {@link GerenciadorFinanceiroService#getResumosMensais(Long)})
+     * @param meses quantidade de meses a projetar à frente
+     * @return saldo projetado após o período informado
+     */
+    public BigDecimal projetarSaldoFuturo(Collection<ResumoMensal> resumos, int meses) {
+        BigDecimal saldoMensal = calcularSaldoMensal(resumos);
+        return saldoMensal.multiply(BigDecimal.valueOf(meses));
+    }
+
+    /**
+     * Projeta o saldo mês a mês considerando a sazonalidade do usuário.
+     *
+     * Como funciona:
+     * - Cada mês projetado recebe o saldo estimado para o seu mês do calendário: a média móvel
+     *   exponencial de receitas - despesas desse mês nos anos anteriores ({@link EstatisticasSazonais}).
+     * - Meses do calendário ainda sem histórico usam a média dos demais.
+     * - O saldo é acumulado a partir de zero, como em {@link #projetarSaldoFuturo(Collection, int)}.
+     *
+     * Observações:
+     * - Custo proporcional ao número de meses projetados; as estatísticas já vêm agregadas.
+     * - O mês em andamento não entra nas estimativas: projetar a partir do mês seguinte ao atual
+     *   usa todos os meses completos do histórico.
+     *
+     * @param estatisticas estatísticas do usuário (ex.: {@link GerenciadorFinanceiroService#getEstatisticasSazonais(Long)})
+     * @param inicio primeiro mês projetado
+     * @param meses quantidade de meses a projetar
+     * @return saldo acumulado ao final de cada mês projetado, em ordem cronológica
+     */
+    public NavigableMap<YearMonth, BigDecimal> projetarSaldoSazonal(EstatisticasSazonais estatisticas,
+                                                                   YearMonth inicio, int meses) {
+        if (meses < 0) {
+            throw new IllegalArgumentException("Quantidade de meses inválida: " + meses);
+        }
+        long[] saldosMensais = estatisticas.saldosEstimadosCentavos(inicio);
+        NavigableMap<YearMonth, BigDecimal> projecao = new TreeMap<>();
+        long acumulado = 0;
+        for (int i = 0; i < meses; i++) {
+            YearMonth mes = inicio.plusMonths(i);
+            acumulado = Math.addExact(acumulado, saldosMensais[mes.getMonthValue() - 1]);
+            projecao.put(mes, ColumnarTransactionStore.deCentavos(acumulado));
+        }
+        return projecao;
+    }
+
     /**
      * Ajusta um valor pela inflação acumulada ao longo de N períodos mensais.
      *
@@ -65,9 +124,20 @@ public class SimuladorFinanceiro {
      * @return valor ajustado pela inflação
      */
     public BigDecimal ajustarPorInflacao(BigDecimal saldoProjetado, double taxaInflacaoAnual, int meses) {
+        return saldoProjetado.divide(fatorInflacao(taxaInflacaoAnual, meses), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Fator de inflação acumulada em N meses, a partir da taxa anual convertida em mensal.
+     * Compartilhado com {@link ProjetorSaldos} para que as projeções em lote usem exatamente o mesmo fator.
+     *
+     * @param taxaInflacaoAnual taxa anual da inflação
+     * @param meses quantidade de meses
+     * @return fator pelo qual o valor é dividido
+     */
+    static BigDecimal fatorInflacao(double taxaInflacaoAnual, int meses) {
         double taxaMensal = Math.pow(1 + taxaInflacaoAnual, 1.0 / 12) - 1;
-        BigDecimal fatorDesconto = BigDecimal.valueOf(Math.pow(1 + taxaMensal, meses));
-        return saldoProjetado.divide(fatorDesconto, 2, RoundingMode.HALF_UP);
+        return BigDecimal.valueOf(Math.pow(1 + taxaMensal, meses));
     }
 
     /**
@@ -88,8 +158,23 @@ public class SimuladorFinanceiro {
      * @return meses estimados para atingir o objetivo; -1 se não alcançável
      */
     public int estimarMesesParaObjetivo(BigDecimal objetivo, List<Transaction> transacoes) {
-        BigDecimal saldoMensal = calcularSaldoMensal(transacoes);
+        return estimarMeses(objetivo, calcularSaldoMensal(transacoes));
+    }
+
+    /**
+     * Estima em quantos meses um usuário alcançará um objetivo financeiro
+     * a partir dos totais mensais pré-agregados.
+     * Mesmas regras de {@link #estimarMesesParaObjetivo(BigDecimal, List)}.
+     *
+     * @param objetivo valor alvo a ser atingido
+     * @param resumos resumos mensais do usuário
+     * @return meses estimados para atingir o objetivo; -1 se não alcançável
+     */
+    public int estimarMesesParaObjetivo(BigDecimal objetivo, Collection<ResumoMensal> resumos) {
+        return estimarMeses(objetivo, calcularSaldoMensal(resumos));
+    }
 
+    private int estimarMeses(BigDecimal objetivo, BigDecimal saldoMensal) {
         if (saldoMensal.compareTo(BigDecimal.ZERO) <= 0) {
             return -1; // impossível atingir a meta com saldo mensal negativo
         }
@@ -126,5 +211,23 @@ public class SimuladorFinanceiro {
         }
         return receita.subtract(despesa);
     }
-}
 
+    /**
+     * Calcula o saldo mensal a partir dos totais pré-agregados.
+     * Equivalente a {@link #calcularSaldoMensal(List)}, mas soma um valor por mês
+     * em vez de um valor por transação.
+     *
+     * @param resumos resumos mensais do usuário
+     * @return saldo estimado
+     */
+    private BigDecimal calcularSaldoMensal(Collection<ResumoMensal> resumos) {
+        BigDecimal receita = BigDecimal.ZERO;
+        BigDecimal despesa = BigDecimal.ZERO;
+
+        for (ResumoMensal r : resumos) {
+            receita = receita.add(r.getReceitas());
+            despesa = despesa.add(r.getDespesas());
+        }
+        return receita.subtract(despesa);
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.edufinai.service;
+
+/**
+ * Totais de receitas e despesas de muitos usuários, em arrays paralelos de centavos.
+ * Entrada do {@link ProjetorSaldos}.
+ *
+ * Observações:
+ * - Pode ser obtido do serviço em uma passada pelas partições
+ *   ({@link GerenciadorFinanceiroService#getTotaisUsuarios()}) ou montado a partir de outra
+ *   fonte (ex.: uma agregação SQL), desde que os totais cubram o histórico de cada usuário.
+ * - Os arrays são usados sem cópia.
+ */
+public class TotaisUsuarios {
+
+    private final long[] userIds;
+    private final long[] receitasCentavos;
+    private final long[] despesasCentavos;
+
+    /**
+     * @param userIds id de cada usuário
+     * @param receitasCentavos total de receitas de cada usuário, em centavos
+     * @param despesasCentavos total de despesas de cada usuário, em centavos
+     */
+    public TotaisUsuarios(long[] userIds, long[] receitasCentavos, long[] despesasCentavos) {
+        if (receitasCentavos.length != userIds.length || despesasCentavos.length != userIds.length) {
+            throw new IllegalArgumentException("Arrays de totais com tamanhos diferentes: " + userIds.length + ", "
+                    + receitasCentavos.length + ", " + despesasCentavos.length);
+        }
+        this.userIds = userIds;
+        this.receitasCentavos = receitasCentavos;
+        this.despesasCentavos = despesasCentavos;
+    }
+
+    public int size() {
+        return userIds.length;
+    }
+
+    public long userId(int indice) {
+        return userIds[indice];
+    }
+
+    public long receitasCentavos(int indice) {
+        return receitasCentavos[indice];
+    }
+
+    public long despesasCentavos(int indice) {
+        return despesasCentavos[indice];
+    }
+
+    /**
+     * @return receitas - despesas do usuário, em centavos
+     * @throws ArithmeticException se a diferença não couber em {@code long}
+     */
+    public long saldoCentavos(int indice) {
+        return Math.subtractExact(receitasCentavos[indice], despesasCentavos[indice]);
+    }
+}
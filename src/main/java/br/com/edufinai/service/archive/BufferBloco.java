@@ -0,0 +1,200 @@
+package br.com.edufinai.service.archive;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Buffer de bytes redimensionável usado para codificar e decodificar o corpo dos blocos
+ * do arquivo de transações.
+ *
+ * Como funciona:
+ * - Inteiros são gravados como varint (7 bits por byte, bit alto indicando continuação);
+ *   valores com sinal passam antes por zigzag, para que números pequenos negativos também
+ *   ocupem poucos bytes.
+ * - Índices de dicionário são empacotados com a quantidade mínima de bits por valor.
+ */
+class BufferBloco {
+
+    private byte[] dados;
+    private int posicao;
+    private int limite;
+
+    BufferBloco(int capacidade) {
+        this.dados = new byte[capacidade];
+    }
+
+    /**
+     * Prepara o buffer para escrita a partir do início.
+     */
+    void limpar() {
+        posicao = 0;
+        limite = 0;
+    }
+
+    /**
+     * Prepara o buffer para ler {@code tamanho} bytes já copiados para {@link #garantirCapacidade(int)}.
+     */
+    void paraLeitura(int tamanho) {
+        posicao = 0;
+        limite = tamanho;
+    }
+
+    /**
+     * @return array interno com capacidade para ao menos {@code tamanho} bytes
+     */
+    byte[] garantirCapacidade(int tamanho) {
+        if (dados.length < tamanho) {
+            dados = Arrays.copyOf(dados, Math.max(tamanho, dados.length * 2));
+        }
+        return dados;
+    }
+
+    byte[] dados() {
+        return dados;
+    }
+
+    int tamanho() {
+        return posicao;
+    }
+
+    boolean esgotado() {
+        return posicao == limite;
+    }
+
+    // --- Escrita ---
+
+    void putVarint(long valor) {
+        garantirCapacidade(posicao + 10);
+        while ((valor & ~0x7FL) != 0) {
+            dados[posicao++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        dados[posicao++] = (byte) valor;
+    }
+
+    void putZigzag(long valor) {
+        putVarint((valor << 1) ^ (valor >> 63));
+    }
+
+    void putBytes(byte[] bytes) {
+        garantirCapacidade(posicao + bytes.length);
+        System.arraycopy(bytes, 0, dados, posicao, bytes.length);
+        posicao += bytes.length;
+    }
+
+    /**
+     * Texto como varint (tamanho em bytes + 1, com 0 para null) seguido do UTF-8.
+     */
+    void putTexto(String texto) {
+        if (texto == null) {
+            putVarint(0);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        putVarint(bytes.length + 1L);
+        putBytes(bytes);
+    }
+
+    /**
+     * Empacota {@code quantidade} valores não negativos com {@code bits} bits cada (0 a 32).
+     */
+    void putBits(int[] valores, int quantidade, int bits) {
+        if (bits == 0) {
+            return;
+        }
+        int bytes = (int) (((long) quantidade * bits + 7) >>> 3);
+        garantirCapacidade(posicao + bytes);
+        Arrays.fill(dados, posicao, posicao + bytes, (byte) 0);
+        long acumulado = 0;
+        int pendentes = 0;
+        int destino = posicao;
+        for (int i = 0; i < quantidade; i++) {
+            acumulado |= (valores[i] & 0xFFFFFFFFL) << pendentes;
+            pendentes += bits;
+            while (pendentes >= 8) {
+                dados[destino++] = (byte) acumulado;
+                acumulado >>>= 8;
+                pendentes -= 8;
+            }
+        }
+        if (pendentes > 0) {
+            dados[destino] = (byte) acumulado;
+        }
+        posicao += bytes;
+    }
+
+    // --- Leitura ---
+
+    long getVarint() {
+        long valor = 0;
+        int deslocamento = 0;
+        byte b;
+        do {
+            if (posicao >= limite || deslocamento > 63) {
+                throw new IllegalStateException("varint inválido na posição " + posicao);
+            }
+            b = dados[posicao++];
+            valor |= (long) (b & 0x7F) << deslocamento;
+            deslocamento += 7;
+        } while (b < 0);
+        return valor;
+    }
+
+    long getZigzag() {
+        long valor = getVarint();
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    int getTamanho(int maximo) {
+        long valor = getVarint();
+        if (valor < 0 || valor > maximo) {
+            throw new IllegalStateException("tamanho inválido: " + valor);
+        }
+        return (int) valor;
+    }
+
+    String getTexto() {
+        int tamanho = getTamanho(limite - posicao + 1);
+        if (tamanho == 0) {
+            return null;
+        }
+        String texto = new String(dados, posicao, tamanho - 1, StandardCharsets.UTF_8);
+        posicao += tamanho - 1;
+        return texto;
+    }
+
+    /**
+     * Lê {@code quantidade} valores empacotados com {@code bits} bits cada.
+     */
+    void getBits(int[] destino, int quantidade, int bits) {
+        if (bits == 0) {
+            Arrays.fill(destino, 0, quantidade, 0);
+            return;
+        }
+        int bytes = (int) (((long) quantidade * bits + 7) >>> 3);
+        if (limite - posicao < bytes) {
+            throw new IllegalStateException("fim inesperado do bloco");
+        }
+        long mascara = (1L << bits) - 1;
+        long acumulado = 0;
+        int disponiveis = 0;
+        int origem = posicao;
+        for (int i = 0; i < quantidade; i++) {
+            while (disponiveis < bits) {
+                acumulado |= (dados[origem++] & 0xFFL) << disponiveis;
+                disponiveis += 8;
+            }
+            destino[i] = (int) (acumulado & mascara);
+            acumulado >>>= bits;
+            disponiveis -= bits;
+        }
+        posicao += bytes;
+    }
+
+    /**
+     * @return bits necessários para representar índices de 0 a {@code quantidade - 1}
+     */
+    static int bitsPara(int quantidade) {
+        return quantidade <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(quantidade - 1);
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.edufinai.service.archive;
+
+import java.time.LocalDate;
+
+/**
+ * Rodapé de um bloco do arquivo de transações: faixas de usuário e de data cobertas pelo
+ * bloco, usadas para descartar blocos inteiros em leituras filtradas.
+ */
+public class RodapeBloco {
+
+    /** Tamanho do rodapé em disco, em bytes. */
+    static final int TAMANHO = 40;
+
+    private final long posicao;
+    private final long userIdMinimo;
+    private final long userIdMaximo;
+    private final int diaMinimo;
+    private final int diaMaximo;
+    private final int linhas;
+    private final int tamanhoCorpo;
+    private final int crc;
+
+    RodapeBloco(long posicao, long userIdMinimo, long userIdMaximo, int diaMinimo, int diaMaximo, int linhas,
+                int tamanhoCorpo, int crc) {
+        this.posicao = posicao;
+        this.userIdMinimo = userIdMinimo;
+        this.userIdMaximo = userIdMaximo;
+        this.diaMinimo = diaMinimo;
+        this.diaMaximo = diaMaximo;
+        this.linhas = linhas;
+        this.tamanhoCorpo = tamanhoCorpo;
+        this.crc = crc;
+    }
+
+    /**
+     * @return se o bloco pode conter transações do usuário no período (limites inclusivos)
+     */
+    boolean intersecta(long userIdDe, long userIdAte, int diaDe, int diaAte) {
+        return userIdMaximo >= userIdDe && userIdMinimo <= userIdAte && diaMaximo >= diaDe && diaMinimo <= diaAte;
+    }
+
+    /**
+     * @return posição do corpo do bloco no arquivo
+     */
+    long getPosicao() {
+        return posicao;
+    }
+
+    int getCrc() {
+        return crc;
+    }
+
+    public long getUserIdMinimo() {
+        return userIdMinimo;
+    }
+
+    public long getUserIdMaximo() {
+        return userIdMaximo;
+    }
+
+    public LocalDate getDataMinima() {
+        return LocalDate.ofEpochDay(diaMinimo);
+    }
+
+    public LocalDate getDataMaxima() {
+        return LocalDate.ofEpochDay(diaMaximo);
+    }
+
+    int getDiaMinimo() {
+        return diaMinimo;
+    }
+
+    int getDiaMaximo() {
+        return diaMaximo;
+    }
+
+    public int getLinhas() {
+        return linhas;
+    }
+
+    /**
+     * @return bytes do corpo do bloco (sem o rodapé)
+     */
+    public int getTamanhoCorpo() {
+        return tamanhoCorpo;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RodapeBloco{usuarios=%d..%d, datas=%s..%s, linhas=%d, bytes=%d}",
+                userIdMinimo, userIdMaximo, getDataMinima(), getDataMaxima(), linhas, tamanhoCorpo);
+    }
+}
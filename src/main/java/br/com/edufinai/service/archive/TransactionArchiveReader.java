@@ -0,0 +1,339 @@
+package br.com.edufinai.service.archive;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Lê arquivos gravados pelo {@link TransactionArchiveWriter}.
+ *
+ * Responsabilidades:
+ * - Validar cabeçalho, diretório e rodapés ao abrir o arquivo.
+ * - Entregar as transações em ordem de (usuário, data), todas ou filtradas por usuário e
+ *   período, descartando pelos rodapés ({@link RodapeBloco}) os blocos fora do filtro sem lê-los.
+ * - Verificar o CRC32C de cada bloco lido (corpo e campos do rodapé).
+ *
+ * Observações:
+ * - Os buffers de decodificação são reaproveitados entre blocos; a instância não é thread-safe.
+ * - Descrições repetidas em um bloco são entregues como a mesma instância de {@link String}.
+ */
+public class TransactionArchiveReader implements Closeable {
+
+    private static final TransactionType[] TIPOS = TransactionArchiveWriter.TIPOS;
+
+    private final FileChannel canal;
+    private final List<RodapeBloco> blocos;
+    private final long linhas;
+    private final BufferBloco corpo = new BufferBloco(1 << 16);
+    private final CRC32C crc = new CRC32C();
+
+    private long[] userIds = new long[0];
+    private long[] ids = new long[0];
+    private long[] accountIds = new long[0];
+    private long[] categoryIds = new long[0];
+    private int[] dias = new int[0];
+    private int[] tipos = new int[0];
+    private int[] indicesDescricao = new int[0];
+    private int[] auxiliar = new int[0];
+    private BigDecimal[] valores = new BigDecimal[0];
+    private String[] textos = new String[0];
+    private long blocosLidos;
+    private long blocosIgnorados;
+
+    /**
+     * @param arquivo arquivo gravado pelo {@link TransactionArchiveWriter}
+     * @throws IOException se o arquivo não puder ser lido ou não estiver no formato esperado
+     */
+    public TransactionArchiveReader(Path arquivo) throws IOException {
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+        try {
+            long tamanho = canal.size();
+            if (tamanho < 8 + 4 + 12) {
+                throw invalido("arquivo truncado");
+            }
+            ByteBuffer cabecalho = ler(0, 8);
+            if (cabecalho.getInt() != TransactionArchiveWriter.MAGIA
+                    || cabecalho.getInt() != TransactionArchiveWriter.VERSAO) {
+                throw invalido("cabeçalho desconhecido");
+            }
+            ByteBuffer fim = ler(tamanho - 12, 12);
+            long posicaoDiretorio = fim.getLong();
+            if (fim.getInt() != TransactionArchiveWriter.MAGIA || posicaoDiretorio < 8
+                    || posicaoDiretorio > tamanho - 16) {
+                throw invalido("diretório ausente (gravação incompleta)");
+            }
+            int quantidade = ler(posicaoDiretorio, 4).getInt();
+            if (quantidade < 0 || posicaoDiretorio + 4 + quantidade * 8L != tamanho - 12) {
+                throw invalido("diretório inválido");
+            }
+            ByteBuffer diretorio = ler(posicaoDiretorio + 4, quantidade * 8);
+            List<RodapeBloco> lidos = new ArrayList<>(quantidade);
+            long total = 0;
+            for (int i = 0; i < quantidade; i++) {
+                long posicaoRodape = diretorio.getLong();
+                if (posicaoRodape < 8 || posicaoRodape + RodapeBloco.TAMANHO > posicaoDiretorio) {
+                    throw invalido("posição de bloco inválida");
+                }
+                ByteBuffer rodape = ler(posicaoRodape, RodapeBloco.TAMANHO);
+                long userIdMinimo = rodape.getLong();
+                long userIdMaximo = rodape.getLong();
+                int diaMinimo = rodape.getInt();
+                int diaMaximo = rodape.getInt();
+                int linhasBloco = rodape.getInt();
+                int tamanhoCorpo = rodape.getInt();
+                int crcBloco = rodape.getInt();
+                if (rodape.getInt() != TransactionArchiveWriter.MAGIA_BLOCO || linhasBloco < 1
+                        || tamanhoCorpo < 0 || tamanhoCorpo > posicaoRodape - 8) {
+                    throw invalido("rodapé de bloco inválido");
+                }
+                lidos.add(new RodapeBloco(posicaoRodape - tamanhoCorpo, userIdMinimo, userIdMaximo, diaMinimo,
+                        diaMaximo, linhasBloco, tamanhoCorpo, crcBloco));
+                total += linhasBloco;
+            }
+            this.blocos = Collections.unmodifiableList(lidos);
+            this.linhas = total;
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return rodapés de todos os blocos, na ordem do arquivo
+     */
+    public List<RodapeBloco> getBlocos() {
+        return blocos;
+    }
+
+    /**
+     * @return total de transações no arquivo
+     */
+    public long getLinhas() {
+        return linhas;
+    }
+
+    /**
+     * @return blocos decodificados desde a abertura
+     */
+    public long getBlocosLidos() {
+        return blocosLidos;
+    }
+
+    /**
+     * @return blocos descartados pelos rodapés desde a abertura
+     */
+    public long getBlocosIgnorados() {
+        return blocosIgnorados;
+    }
+
+    /**
+     * Entrega todas as transações do arquivo.
+     *
+     * @param destino consumidor das transações, em ordem de (usuário, data)
+     * @return quantidade de transações entregues
+     * @throws IOException se a leitura falhar ou algum bloco estiver corrompido
+     */
+    public long ler(Consumer<? super Transaction> destino) throws IOException {
+        return ler(null, null, null, destino);
+    }
+
+    /**
+     * Entrega as transações de um usuário (ou de todos) em um período.
+     *
+     * @param userId id do usuário, ou null para todos
+     * @param de primeiro dia (inclusive), ou null para desde o início
+     * @param ate último dia (inclusive), ou null para até o fim
+     * @param destino consumidor das transações, em ordem de (usuário, data)
+     * @return quantidade de transações entregues
+     * @throws IOException se a leitura falhar ou algum bloco lido estiver corrompido
+     */
+    public long ler(Long userId, LocalDate de, LocalDate ate, Consumer<? super Transaction> destino)
+            throws IOException {
+        long userIdDe = userId == null ? Long.MIN_VALUE : userId;
+        long userIdAte = userId == null ? Long.MAX_VALUE : userId;
+        int diaDe = de == null ? Integer.MIN_VALUE : (int) Math.max(Integer.MIN_VALUE, de.toEpochDay());
+        int diaAte = ate == null ? Integer.MAX_VALUE : (int) Math.min(Integer.MAX_VALUE, ate.toEpochDay());
+        long entregues = 0;
+        for (RodapeBloco bloco : blocos) {
+            if (!bloco.intersecta(userIdDe, userIdAte, diaDe, diaAte)) {
+                blocosIgnorados++;
+                continue;
+            }
+            blocosLidos++;
+            int quantidade = decodificar(bloco);
+            for (int i = 0; i < quantidade; i++) {
+                if (userIds[i] < userIdDe || userIds[i] > userIdAte || dias[i] < diaDe || dias[i] > diaAte) {
+                    continue;
+                }
+                destino.accept(new Transaction(
+                        ids[i] == ColumnarTransactionStore.NULO ? null : ids[i], userIds[i],
+                        accountIds[i] == ColumnarTransactionStore.NULO ? null : accountIds[i],
+                        categoryIds[i] == ColumnarTransactionStore.NULO ? null : categoryIds[i],
+                        TIPOS[tipos[i]], valores[i], LocalDate.ofEpochDay(dias[i]), textos[indicesDescricao[i]]));
+                entregues++;
+            }
+        }
+        return entregues;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Lê o corpo do bloco, confere o CRC e decodifica as colunas nos buffers da instância.
+     *
+     * @return linhas do bloco
+     */
+    private int decodificar(RodapeBloco bloco) throws IOException {
+        int tamanho = bloco.getTamanhoCorpo();
+        ByteBuffer destino = ByteBuffer.wrap(corpo.garantirCapacidade(tamanho), 0, tamanho);
+        while (destino.hasRemaining()) {
+            if (canal.read(destino, bloco.getPosicao() + destino.position()) < 0) {
+                throw invalido("fim inesperado do arquivo");
+            }
+        }
+        crc.reset();
+        crc.update(corpo.dados(), 0, tamanho);
+        crc.update(ByteBuffer.allocate(RodapeBloco.TAMANHO - 8).putLong(bloco.getUserIdMinimo())
+                .putLong(bloco.getUserIdMaximo()).putInt(bloco.getDiaMinimo()).putInt(bloco.getDiaMaximo())
+                .putInt(bloco.getLinhas()).putInt(tamanho).flip());
+        if ((int) crc.getValue() != bloco.getCrc()) {
+            throw invalido("CRC do bloco não confere (" + bloco + ")");
+        }
+        corpo.paraLeitura(tamanho);
+        int n = bloco.getLinhas();
+        garantirLinhas(n);
+        try {
+            int linha = 0;
+            long userId = bloco.getUserIdMinimo();
+            for (int s = corpo.getTamanho(n); s > 0; s--) {
+                userId += corpo.getVarint();
+                int fim = linha + corpo.getTamanho(n - linha);
+                Arrays.fill(userIds, linha, fim, userId);
+                linha = fim;
+            }
+            if (linha != n) {
+                throw invalido("sequências de usuário não somam as linhas do bloco");
+            }
+            for (int i = 0; i < n; i++) {
+                boolean novoUsuario = i == 0 || userIds[i] != userIds[i - 1];
+                dias[i] = Math.toIntExact((novoUsuario ? bloco.getDiaMinimo() : dias[i - 1]) + corpo.getVarint());
+            }
+            decodificarOpcionais(ids, n);
+            decodificarDicionario(accountIds, n);
+            decodificarDicionario(categoryIds, n);
+            corpo.getBits(tipos, n, BufferBloco.bitsPara(TIPOS.length));
+            for (int i = 0; i < n; i++) {
+                if (tipos[i] >= TIPOS.length) {
+                    throw invalido("tipo desconhecido: " + tipos[i]);
+                }
+                valores[i] = ColumnarTransactionStore.deCentavos(corpo.getZigzag());
+            }
+            int quantidadeTextos = corpo.getTamanho(n);
+            if (textos.length < quantidadeTextos) {
+                textos = new String[Math.max(quantidadeTextos, textos.length * 2)];
+            }
+            for (int i = 0; i < quantidadeTextos; i++) {
+                textos[i] = corpo.getTexto();
+            }
+            corpo.getBits(indicesDescricao, n, BufferBloco.bitsPara(quantidadeTextos));
+            verificarIndices(indicesDescricao, n, quantidadeTextos);
+            if (!corpo.esgotado()) {
+                throw invalido("bytes sobrando no bloco");
+            }
+        } catch (RuntimeException e) {
+            // Tamanhos absurdos ou leitura além do fim: bloco corrompido
+            throw invalido("bloco inválido (" + e + ")");
+        }
+        return n;
+    }
+
+    private void decodificarOpcionais(long[] destino, int n) throws IOException {
+        int modo = corpo.getTamanho(2);
+        if (modo == 0) {
+            Arrays.fill(destino, 0, n, ColumnarTransactionStore.NULO);
+            return;
+        }
+        if (modo == 1) {
+            Arrays.fill(auxiliar, 0, n, 1);
+        } else {
+            corpo.getBits(auxiliar, n, 1);
+        }
+        long anterior = 0;
+        for (int i = 0; i < n; i++) {
+            if (auxiliar[i] == 0) {
+                destino[i] = ColumnarTransactionStore.NULO;
+            } else {
+                anterior += corpo.getZigzag();
+                destino[i] = anterior;
+            }
+        }
+    }
+
+    private void decodificarDicionario(long[] destino, int n) throws IOException {
+        int tamanho = corpo.getTamanho(n);
+        long[] dicionario = new long[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            dicionario[i] = corpo.getZigzag();
+        }
+        corpo.getBits(auxiliar, n, BufferBloco.bitsPara(tamanho));
+        verificarIndices(auxiliar, n, tamanho);
+        for (int i = 0; i < n; i++) {
+            destino[i] = dicionario[auxiliar[i]];
+        }
+    }
+
+    private static void verificarIndices(int[] indices, int n, int tamanhoDicionario) throws IOException {
+        for (int i = 0; i < n; i++) {
+            if (indices[i] >= tamanhoDicionario) {
+                throw invalido("índice de dicionário fora do intervalo");
+            }
+        }
+    }
+
+    private void garantirLinhas(int n) {
+        if (userIds.length >= n) {
+            return;
+        }
+        userIds = new long[n];
+        ids = new long[n];
+        accountIds = new long[n];
+        categoryIds = new long[n];
+        dias = new int[n];
+        tipos = new int[n];
+        indicesDescricao = new int[n];
+        auxiliar = new int[n];
+        valores = new BigDecimal[n];
+    }
+
+    private ByteBuffer ler(long posicao, int tamanho) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(tamanho);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, posicao + buffer.position()) < 0) {
+                throw invalido("fim inesperado do arquivo");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static IOException invalido(String motivo) {
+        return new IOException("Arquivo de transações inválido: " + motivo);
+    }
+}
@@ -0,0 +1,402 @@
+package br.com.edufinai.service.archive;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+import br.com.edufinai.service.storage.IntList;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.zip.CRC32C;
+
+/**
+ * Grava transações em um arquivo binário compacto, para backups e armazenamento frio.
+ *
+ * Responsabilidades:
+ * - Agrupar as transações, já ordenadas por (usuário, data), em blocos de até
+ *   {@code linhasPorBloco} linhas, codificados coluna a coluna.
+ * - Gravar ao fim de cada bloco um rodapé com as faixas de usuário e de data ({@link RodapeBloco}),
+ *   que permite ao {@link TransactionArchiveReader} pular blocos inteiros.
+ *
+ * Formato (big-endian; detalhes de cada coluna em {@link #codificarBloco()}):
+ * <pre>
+ * int magia | int versão
+ * blocos: corpo | rodapé (long userId mín. | long userId máx. | int dia mín. | int dia máx.
+ *         | int linhas | int bytes do corpo | int crc32c do corpo e dos campos anteriores | int magia do bloco)
+ * diretório: int blocos | long[] posição de cada rodapé
+ * fim: long posição do diretório | int magia
+ * </pre>
+ *
+ * Observações:
+ * - O arquivo é gravado em um temporário e renomeado atomicamente em {@link #close()}.
+ * - Não é thread-safe.
+ */
+public class TransactionArchiveWriter implements Closeable {
+
+    /** Linhas por bloco usadas por padrão. */
+    public static final int LINHAS_POR_BLOCO = 4_096;
+
+    static final int MAGIA = 0x45464131; // "EFA1"
+    static final int MAGIA_BLOCO = 0x45464142; // "EFAB"
+    static final int VERSAO = 1;
+    static final TransactionType[] TIPOS = TransactionType.values();
+
+    private final Path destino;
+    private final Path temporario;
+    private final FileChannel canal;
+    private final int linhasPorBloco;
+    private final BufferBloco corpo = new BufferBloco(1 << 16);
+    private final CRC32C crc = new CRC32C();
+    private final ByteBuffer rodape = ByteBuffer.allocate(RodapeBloco.TAMANHO);
+
+    private final long[] userIds;
+    private final long[] ids;
+    private final long[] accountIds;
+    private final long[] categoryIds;
+    private final long[] centavos;
+    private final int[] dias;
+    private final int[] tipos;
+    private final String[] descricoes;
+    private final int[] indices;
+    private final Map<Long, Integer> dicionario = new HashMap<>();
+    private final Map<String, Integer> dicionarioTextos = new HashMap<>();
+    private int pendentes;
+
+    private long[] posicoesRodapes = new long[64];
+    private int blocos;
+    private long posicao;
+    private long linhas;
+    private long ultimoUserId;
+    private int ultimoDia;
+    private boolean fechado;
+
+    /**
+     * @param arquivo arquivo de destino (substituído ao fechar)
+     * @throws IOException se o temporário não puder ser criado
+     */
+    public TransactionArchiveWriter(Path arquivo) throws IOException {
+        this(arquivo, LINHAS_POR_BLOCO);
+    }
+
+    /**
+     * @param arquivo arquivo de destino (substituído ao fechar)
+     * @param linhasPorBloco linhas por bloco (blocos menores pulam com mais precisão; maiores comprimem melhor)
+     * @throws IOException se o temporário não puder ser criado
+     */
+    public TransactionArchiveWriter(Path arquivo, int linhasPorBloco) throws IOException {
+        if (linhasPorBloco < 1) {
+            throw new IllegalArgumentException("Linhas por bloco deve ser positivo: " + linhasPorBloco);
+        }
+        this.destino = arquivo;
+        this.temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        this.linhasPorBloco = linhasPorBloco;
+        this.userIds = new long[linhasPorBloco];
+        this.ids = new long[linhasPorBloco];
+        this.accountIds = new long[linhasPorBloco];
+        this.categoryIds = new long[linhasPorBloco];
+        this.centavos = new long[linhasPorBloco];
+        this.dias = new int[linhasPorBloco];
+        this.tipos = new int[linhasPorBloco];
+        this.descricoes = new String[linhasPorBloco];
+        this.indices = new int[linhasPorBloco];
+        this.canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        ByteBuffer cabecalho = ByteBuffer.allocate(8).putInt(MAGIA).putInt(VERSAO).flip();
+        escrever(cabecalho);
+    }
+
+    /**
+     * Grava uma coleção de transações em qualquer ordem.
+     *
+     * Como funciona:
+     * - As posições são agrupadas por usuário e, dentro de cada usuário, ordenadas por uma
+     *   chave primitiva (dia, posição), sem comparadores sobre objetos. Transações do mesmo
+     *   usuário e dia mantêm a ordem da coleção.
+     *
+     * @param arquivo arquivo de destino
+     * @param transacoes transações a gravar
+     * @return tamanho do arquivo gravado, em bytes
+     * @throws IllegalArgumentException se alguma transação não tiver usuário, tipo, valor ou data
+     * @throws IOException se a gravação falhar
+     */
+    public static long gravar(Path arquivo, Collection<? extends Transaction> transacoes) throws IOException {
+        List<? extends Transaction> lista = transacoes instanceof List && transacoes instanceof RandomAccess
+                ? (List<? extends Transaction>) transacoes
+                : new ArrayList<>(transacoes);
+        Map<Long, IntList> posicoesPorUsuario = new HashMap<>();
+        for (int i = 0; i < lista.size(); i++) {
+            Transaction t = lista.get(i);
+            validar(t);
+            posicoesPorUsuario.computeIfAbsent(t.getUserId(), u -> new IntList()).add(i);
+        }
+        long[] usuarios = new long[posicoesPorUsuario.size()];
+        int u = 0;
+        for (Long userId : posicoesPorUsuario.keySet()) {
+            usuarios[u++] = userId;
+        }
+        Arrays.sort(usuarios);
+        try (TransactionArchiveWriter writer = new TransactionArchiveWriter(arquivo)) {
+            for (long userId : usuarios) {
+                IntList posicoes = posicoesPorUsuario.get(userId);
+                long[] chaves = new long[posicoes.size()];
+                for (int i = 0; i < chaves.length; i++) {
+                    int posicao = posicoes.get(i);
+                    chaves[i] = (lista.get(posicao).getDate().toEpochDay() << 32) | posicao;
+                }
+                Arrays.sort(chaves);
+                for (long chave : chaves) {
+                    writer.adicionar(lista.get((int) chave));
+                }
+            }
+        }
+        return Files.size(arquivo);
+    }
+
+    /**
+     * Acrescenta uma transação ao bloco atual, gravando o bloco quando ele enche.
+     *
+     * @param t transação com usuário, tipo, valor e data
+     * @throws IllegalArgumentException se faltar campo obrigatório ou a transação vier antes da
+     *                                  anterior na ordem (usuário, data)
+     * @throws IOException se a gravação do bloco falhar
+     */
+    public void adicionar(Transaction t) throws IOException {
+        if (fechado) {
+            throw new IllegalStateException("Arquivo já fechado");
+        }
+        validar(t);
+        long userId = t.getUserId();
+        int dia = Math.toIntExact(t.getDate().toEpochDay());
+        if (linhas > 0 && (userId < ultimoUserId || (userId == ultimoUserId && dia < ultimoDia))) {
+            throw new IllegalArgumentException("Transações devem vir ordenadas por usuário e data: " + t);
+        }
+        if (pendentes == linhasPorBloco) {
+            gravarBloco();
+        }
+        userIds[pendentes] = userId;
+        ids[pendentes] = ColumnarTransactionStore.paraColuna(t.getId());
+        accountIds[pendentes] = ColumnarTransactionStore.paraColuna(t.getAccountId());
+        categoryIds[pendentes] = ColumnarTransactionStore.paraColuna(t.getCategoryId());
+        centavos[pendentes] = ColumnarTransactionStore.paraCentavos(t.getAmount());
+        dias[pendentes] = dia;
+        tipos[pendentes] = t.getType().ordinal();
+        descricoes[pendentes] = t.getDescription();
+        pendentes++;
+        linhas++;
+        ultimoUserId = userId;
+        ultimoDia = dia;
+    }
+
+    /**
+     * @return transações acrescentadas até agora
+     */
+    public long getLinhas() {
+        return linhas;
+    }
+
+    /**
+     * Grava o último bloco e o diretório, e publica o arquivo no destino.
+     */
+    @Override
+    public void close() throws IOException {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+        try (canal) {
+            if (pendentes > 0) {
+                gravarBloco();
+            }
+            ByteBuffer diretorio = ByteBuffer.allocate(4 + blocos * 8 + 12);
+            long posicaoDiretorio = posicao;
+            diretorio.putInt(blocos);
+            for (int i = 0; i < blocos; i++) {
+                diretorio.putLong(posicoesRodapes[i]);
+            }
+            diretorio.putLong(posicaoDiretorio).putInt(MAGIA).flip();
+            escrever(diretorio);
+            canal.force(true);
+        }
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void validar(Transaction t) {
+        if (t.getUserId() == null || t.getType() == null || t.getAmount() == null || t.getDate() == null) {
+            throw new IllegalArgumentException("Transação sem usuário, tipo, valor ou data: " + t);
+        }
+    }
+
+    private void gravarBloco() throws IOException {
+        long userIdMinimo = userIds[0];
+        long userIdMaximo = userIds[pendentes - 1];
+        int diaMinimo = Integer.MAX_VALUE;
+        int diaMaximo = Integer.MIN_VALUE;
+        for (int i = 0; i < pendentes; i++) {
+            diaMinimo = Math.min(diaMinimo, dias[i]);
+            diaMaximo = Math.max(diaMaximo, dias[i]);
+        }
+        codificarBloco(userIdMinimo, diaMinimo);
+        escrever(ByteBuffer.wrap(corpo.dados(), 0, corpo.tamanho()));
+
+        if (blocos == posicoesRodapes.length) {
+            posicoesRodapes = Arrays.copyOf(posicoesRodapes, blocos * 2);
+        }
+        posicoesRodapes[blocos++] = posicao;
+        rodape.clear();
+        rodape.putLong(userIdMinimo).putLong(userIdMaximo).putInt(diaMinimo).putInt(diaMaximo)
+                .putInt(pendentes).putInt(corpo.tamanho());
+        crc.reset();
+        crc.update(corpo.dados(), 0, corpo.tamanho());
+        crc.update(rodape.array(), 0, rodape.position());
+        rodape.putInt((int) crc.getValue()).putInt(MAGIA_BLOCO).flip();
+        escrever(rodape);
+        pendentes = 0;
+    }
+
+    /**
+     * Codifica as linhas pendentes no corpo do bloco, uma coluna após a outra:
+     * <pre>
+     * usuários:   varint sequências | (varint delta do userId anterior | varint linhas)*
+     * datas:      varint por linha, delta do dia anterior do mesmo usuário (o 1º, do dia mínimo do bloco)
+     * ids:        varint modo (0 todos nulos, 1 nenhum nulo, 2 com bitmap de presença)
+     *             | bitmap? | zigzag do delta do id anterior presente
+     * contas:     dicionário (varint n | zigzag[n]) | índices empacotados em ⌈log2 n⌉ bits
+     * categorias: idem contas
+     * tipos:      ordinal de {@link TransactionType} empacotado em 2 bits
+     * centavos:   zigzag por linha
+     * descrições: dicionário (varint n | textos) | índices empacotados
+     * </pre>
+     */
+    private void codificarBloco(long userIdMinimo, int diaMinimo) {
+        corpo.limpar();
+        int sequencias = 1;
+        for (int i = 1; i < pendentes; i++) {
+            if (userIds[i] != userIds[i - 1]) {
+                sequencias++;
+            }
+        }
+        corpo.putVarint(sequencias);
+        long userIdAnterior = userIdMinimo;
+        for (int inicio = 0; inicio < pendentes; ) {
+            int fim = inicio + 1;
+            while (fim < pendentes && userIds[fim] == userIds[inicio]) {
+                fim++;
+            }
+            corpo.putVarint(userIds[inicio] - userIdAnterior);
+            corpo.putVarint(fim - inicio);
+            userIdAnterior = userIds[inicio];
+            inicio = fim;
+        }
+
+        for (int i = 0; i < pendentes; i++) {
+            boolean novoUsuario = i == 0 || userIds[i] != userIds[i - 1];
+            corpo.putVarint((long) dias[i] - (novoUsuario ? diaMinimo : dias[i - 1]));
+        }
+
+        codificarOpcionais(ids);
+        codificarDicionario(accountIds);
+        codificarDicionario(categoryIds);
+        corpo.putBits(tipos, pendentes, BufferBloco.bitsPara(TIPOS.length));
+        for (int i = 0; i < pendentes; i++) {
+            corpo.putZigzag(centavos[i]);
+        }
+        codificarTextos();
+    }
+
+    private void codificarOpcionais(long[] valores) {
+        int presentes = 0;
+        for (int i = 0; i < pendentes; i++) {
+            if (valores[i] != ColumnarTransactionStore.NULO) {
+                presentes++;
+            }
+        }
+        if (presentes == 0) {
+            corpo.putVarint(0);
+            return;
+        }
+        if (presentes == pendentes) {
+            corpo.putVarint(1);
+        } else {
+            corpo.putVarint(2);
+            for (int i = 0; i < pendentes; i++) {
+                indices[i] = valores[i] == ColumnarTransactionStore.NULO ? 0 : 1;
+            }
+            corpo.putBits(indices, pendentes, 1);
+        }
+        long anterior = 0;
+        for (int i = 0; i < pendentes; i++) {
+            if (valores[i] != ColumnarTransactionStore.NULO) {
+                corpo.putZigzag(valores[i] - anterior);
+                anterior = valores[i];
+            }
+        }
+    }
+
+    private void codificarDicionario(long[] valores) {
+        dicionario.clear();
+        List<Long> entradas = new ArrayList<>();
+        for (int i = 0; i < pendentes; i++) {
+            Integer indice = dicionario.get(valores[i]);
+            if (indice == null) {
+                indice = entradas.size();
+                dicionario.put(valores[i], indice);
+                entradas.add(valores[i]);
+            }
+            indices[i] = indice;
+        }
+        corpo.putVarint(entradas.size());
+        for (long valor : entradas) {
+            corpo.putZigzag(valor);
+        }
+        corpo.putBits(indices, pendentes, BufferBloco.bitsPara(entradas.size()));
+    }
+
+    private void codificarTextos() {
+        dicionarioTextos.clear();
+        List<String> entradas = new ArrayList<>();
+        int indiceNulo = -1;
+        for (int i = 0; i < pendentes; i++) {
+            String texto = descricoes[i];
+            Integer indice;
+            if (texto == null) {
+                if (indiceNulo < 0) {
+                    indiceNulo = entradas.size();
+                    entradas.add(null);
+                }
+                indice = indiceNulo;
+            } else {
+                indice = dicionarioTextos.get(texto);
+                if (indice == null) {
+                    indice = entradas.size();
+                    dicionarioTextos.put(texto, indice);
+                    entradas.add(texto);
+                }
+            }
+            indices[i] = indice;
+        }
+        corpo.putVarint(entradas.size());
+        for (String texto : entradas) {
+            corpo.putTexto(texto);
+        }
+        corpo.putBits(indices, pendentes, BufferBloco.bitsPara(entradas.size()));
+    }
+
+    private void escrever(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            posicao += canal.write(buffer);
+        }
+    }
+}
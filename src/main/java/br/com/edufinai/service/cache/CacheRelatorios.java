@@ -0,0 +1,359 @@
+package br.com.edufinai.service.cache;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cache de relatórios mensais já renderizados, com tamanho limitado e despejo LRU.
+ *
+ * Responsabilidades:
+ * - Guardar o texto de um relatório por usuário e intervalo de meses.
+ * - Invalidar apenas as entradas de um usuário cujo intervalo contém o mês alterado.
+ * - Contar acertos, falhas, despejos e invalidações para dimensionar o cache em produção.
+ *
+ * Como funciona:
+ * - O cache é dividido em faixas pelo hash do usuário, cada uma com seu próprio bloqueio,
+ *   seu {@link LinkedHashMap} em ordem de acesso e sua parte da capacidade. Escritas de usuários
+ *   em faixas diferentes não disputam o mesmo bloqueio, preservando o paralelismo das partições
+ *   do serviço. Ao passar da capacidade, a faixa despeja a entrada usada há mais tempo nela.
+ * - Em cada faixa, um índice userId → chaves permite invalidar um usuário sem varrer o cache.
+ * - Para que um relatório calculado durante uma escrita não seja guardado já desatualizado,
+ *   quem calcula obtém a {@link #geracao(long)} do usuário antes e a informa em
+ *   {@link #put(long, YearMonth, YearMonth, String, long)}: se houve invalidação no meio,
+ *   o texto é descartado. As gerações ficam em um {@link AtomicLongArray} de tamanho fixo
+ *   indexado pelo usuário (incrementado sem bloqueio), de modo que a memória não cresce com a
+ *   quantidade de usuários.
+ *
+ * Observações:
+ * - Todos os métodos são thread-safe.
+ * - Capacidade 0 desativa o cache (toda consulta é uma falha e nada é guardado).
+ * - O despejo é LRU dentro de cada faixa. Cada faixa recebe a capacidade dividida pela quantidade
+ *   de faixas, arredondada para cima (o total pode passar da capacidade em menos de uma entrada por faixa).
+ */
+public class CacheRelatorios {
+
+    /** Capacidade padrão, em quantidade de relatórios. */
+    public static final int CAPACIDADE_PADRAO = 10_000;
+
+    /** Quantidade padrão de faixas (cada uma com seu bloqueio). */
+    public static final int FAIXAS_PADRAO = 64;
+
+    private static final int FAIXAS_GERACAO = 1024;
+
+    private final Faixa[] faixas;
+    private final AtomicLongArray geracoes = new AtomicLongArray(FAIXAS_GERACAO);
+    private volatile int capacidade;
+
+    public CacheRelatorios() {
+        this(CAPACIDADE_PADRAO);
+    }
+
+    /**
+     * @param capacidade quantidade máxima de relatórios guardados (0 desativa o cache)
+     */
+    public CacheRelatorios(int capacidade) {
+        this(capacidade, FAIXAS_PADRAO);
+    }
+
+    /**
+     * @param capacidade quantidade máxima de relatórios guardados (0 desativa o cache)
+     * @param faixas quantidade de faixas independentes (potência de 2)
+     */
+    public CacheRelatorios(int capacidade, int faixas) {
+        if (capacidade < 0) {
+            throw new IllegalArgumentException("Capacidade do cache não pode ser negativa: " + capacidade);
+        }
+        if (faixas < 1 || Integer.bitCount(faixas) != 1) {
+            throw new IllegalArgumentException("Quantidade de faixas deve ser potência de 2: " + faixas);
+        }
+        this.faixas = new Faixa[faixas];
+        for (int i = 0; i < faixas; i++) {
+            this.faixas[i] = new Faixa();
+        }
+        setCapacidade(capacidade);
+    }
+
+    /**
+     * Consulta um relatório guardado.
+     *
+     * @param userId id do usuário
+     * @param de primeiro mês do intervalo (null para sem limite)
+     * @param ate último mês do intervalo (null para sem limite)
+     * @return texto do relatório, ou null em caso de falha
+     */
+    public String get(long userId, YearMonth de, YearMonth ate) {
+        Faixa faixa = faixa(userId);
+        synchronized (faixa) {
+            String texto = faixa.entradas.get(new Chave(userId, de, ate));
+            if (texto == null) {
+                faixa.falhas++;
+            } else {
+                faixa.acertos++;
+            }
+            return texto;
+        }
+    }
+
+    /**
+     * @param userId id do usuário
+     * @return geração atual do usuário, a ser informada em {@link #put(long, YearMonth, YearMonth, String, long)}
+     */
+    public long geracao(long userId) {
+        return geracoes.get(indiceGeracao(userId));
+    }
+
+    /**
+     * Guarda um relatório, desde que nenhuma escrita do usuário tenha ocorrido desde {@code geracao}.
+     *
+     * @param userId id do usuário
+     * @param de primeiro mês do intervalo (null para sem limite)
+     * @param ate último mês do intervalo (null para sem limite)
+     * @param texto relatório renderizado
+     * @param geracao valor de {@link #geracao(long)} obtido antes de calcular o relatório
+     */
+    public void put(long userId, YearMonth de, YearMonth ate, String texto, long geracao) {
+        Faixa faixa = faixa(userId);
+        synchronized (faixa) {
+            // A geração é conferida sob o bloqueio da faixa: uma invalidação que a incremente
+            // depois disso ainda passa por esta faixa e remove a entrada
+            if (faixa.capacidade == 0 || geracoes.get(indiceGeracao(userId)) != geracao) {
+                return;
+            }
+            Chave chave = new Chave(userId, de, ate);
+            if (faixa.entradas.put(chave, texto) == null) {
+                faixa.chavesPorUsuario.computeIfAbsent(userId, id -> new ArrayList<>(2)).add(chave);
+            }
+        }
+    }
+
+    /**
+     * Invalida os relatórios do usuário cujo intervalo contém o mês informado.
+     * Deve ser chamado depois que a escrita estiver visível para os leitores.
+     *
+     * @param userId id do usuário
+     * @param mes mês alterado
+     */
+    public void invalidar(long userId, YearMonth mes) {
+        geracoes.incrementAndGet(indiceGeracao(userId));
+        Faixa faixa = faixa(userId);
+        synchronized (faixa) {
+            List<Chave> chaves = faixa.chavesPorUsuario.get(userId);
+            if (chaves == null) {
+                return;
+            }
+            for (Iterator<Chave> it = chaves.iterator(); it.hasNext(); ) {
+                Chave chave = it.next();
+                if (chave.contem(mes)) {
+                    faixa.entradas.remove(chave);
+                    it.remove();
+                    faixa.invalidacoes++;
+                }
+            }
+            if (chaves.isEmpty()) {
+                faixa.chavesPorUsuario.remove(userId);
+            }
+        }
+    }
+
+    /**
+     * Remove todas as entradas (os contadores são mantidos).
+     */
+    public void limpar() {
+        for (int i = 0; i < geracoes.length(); i++) {
+            geracoes.incrementAndGet(i);
+        }
+        for (Faixa faixa : faixas) {
+            synchronized (faixa) {
+                faixa.entradas.clear();
+                faixa.chavesPorUsuario.clear();
+            }
+        }
+    }
+
+    /**
+     * Altera a capacidade, despejando as entradas menos usadas se necessário.
+     *
+     * @param capacidade nova capacidade (0 desativa o cache)
+     */
+    public synchronized void setCapacidade(int capacidade) {
+        if (capacidade < 0) {
+            throw new IllegalArgumentException("Capacidade do cache não pode ser negativa: " + capacidade);
+        }
+        this.capacidade = capacidade;
+        for (Faixa faixa : faixas) {
+            synchronized (faixa) {
+                faixa.capacidade = (capacidade + faixas.length - 1) / faixas.length;
+                Iterator<Chave> it = faixa.entradas.keySet().iterator();
+                while (faixa.entradas.size() > faixa.capacidade && it.hasNext()) {
+                    Chave chave = it.next();
+                    it.remove();
+                    faixa.desindexar(chave);
+                    faixa.despejos++;
+                }
+            }
+        }
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    public int getTamanho() {
+        int tamanho = 0;
+        for (Faixa faixa : faixas) {
+            synchronized (faixa) {
+                tamanho += faixa.entradas.size();
+            }
+        }
+        return tamanho;
+    }
+
+    public long getAcertos() {
+        long total = 0;
+        for (Faixa faixa : faixas) {
+            synchronized (faixa) {
+                total += faixa.acertos;
+            }
+        }
+        return total;
+    }
+
+    public long getFalhas() {
+        long total = 0;
+        for (Faixa faixa : faixas) {
+            synchronized (faixa) {
+                total += faixa.falhas;
+            }
+        }
+        return total;
+    }
+
+    public long getDespejos() {
+        long total = 0;
+        for (Faixa faixa : faixas) {
+            synchronized (faixa) {
+                total += faixa.despejos;
+            }
+        }
+        return total;
+    }
+
+    public long getInvalidacoes() {
+        long total = 0;
+        for (Faixa faixa : faixas) {
+            synchronized (faixa) {
+                total += faixa.invalidacoes;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return fração das consultas atendidas pelo cache (0 se ainda não houve consultas)
+     */
+    public double getTaxaAcerto() {
+        long acertos = getAcertos();
+        long consultas = acertos + getFalhas();
+        return consultas == 0 ? 0 : (double) acertos / consultas;
+    }
+
+    @Override
+    public String toString() {
+        long acertos = getAcertos();
+        long falhas = getFalhas();
+        double taxaAcerto = acertos + falhas == 0 ? 0 : (double) acertos / (acertos + falhas);
+        return String.format("CacheRelatorios{tamanho=%d/%d, faixas=%d, acertos=%d, falhas=%d, taxaAcerto=%.1f%%, despejos=%d, invalidacoes=%d}",
+                getTamanho(), capacidade, faixas.length, acertos, falhas, taxaAcerto * 100, getDespejos(),
+                getInvalidacoes());
+    }
+
+    private Faixa faixa(long userId) {
+        return faixas[espalhar(userId) & (faixas.length - 1)];
+    }
+
+    private static int indiceGeracao(long userId) {
+        return espalhar(userId) & (FAIXAS_GERACAO - 1);
+    }
+
+    private static int espalhar(long userId) {
+        int h = Long.hashCode(userId);
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Parte do cache com bloqueio próprio (o monitor da instância). Todos os campos são
+     * acessados sob esse bloqueio.
+     */
+    private static final class Faixa {
+        private final Map<Chave, String> entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Chave, String> maisAntiga) {
+                if (size() <= capacidade) {
+                    return false;
+                }
+                desindexar(maisAntiga.getKey());
+                despejos++;
+                return true;
+            }
+        };
+        private final Map<Long, List<Chave>> chavesPorUsuario = new HashMap<>();
+        private int capacidade;
+        private long acertos;
+        private long falhas;
+        private long despejos;
+        private long invalidacoes;
+
+        private void desindexar(Chave chave) {
+            List<Chave> chaves = chavesPorUsuario.get(chave.userId);
+            if (chaves != null) {
+                chaves.remove(chave);
+                if (chaves.isEmpty()) {
+                    chavesPorUsuario.remove(chave.userId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Usuário e intervalo de meses de um relatório.
+     */
+    private static final class Chave {
+        private final long userId;
+        private final YearMonth de;
+        private final YearMonth ate;
+
+        Chave(long userId, YearMonth de, YearMonth ate) {
+            this.userId = userId;
+            this.de = de;
+            this.ate = ate;
+        }
+
+        boolean contem(YearMonth mes) {
+            return (de == null || !mes.isBefore(de)) && (ate == null || !mes.isAfter(ate));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Chave)) {
+                return false;
+            }
+            Chave outra = (Chave) o;
+            return userId == outra.userId && Objects.equals(de, outra.de) && Objects.equals(ate, outra.ate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, de, ate);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package br.com.edufinai.service.dedup;
+
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+/**
+ * Detecta transações repetidas (reimportações de extrato, reenvios de clientes) entre as
+ * linhas de um {@link ColumnarTransactionStore}.
+ *
+ * Chave de duplicidade:
+ * - Com id: (usuário, id). Um id de transação é único por usuário.
+ * - Sem id: (usuário, conta, tipo, valor, data, descrição), ou seja, o conteúdo do lançamento.
+ *   O tipo distingue, por exemplo, uma compra e seu estorno no mesmo dia e valor.
+ *
+ * Como funciona:
+ * - Um {@link BloomFilter} responde primeiro: se a chave certamente é nova (o caso comum em
+ *   importações), nenhuma outra estrutura é consultada.
+ * - Quando o filtro indica "talvez", uma tabela hash exata (endereçamento aberto sobre um
+ *   {@code long[]}, sem objetos por linha) guarda em cada posição 32 bits do hash e a linha
+ *   da chave; a confirmação compara as colunas da linha encontrada.
+ * - Filtro e tabela dobram de tamanho ao atingir a capacidade; o filtro é refeito a partir
+ *   das colunas, em ordem de linha.
+ * - O filtro para de crescer em {@link BloomFilter#CAPACIDADE_MAXIMA}; daí em diante só a tabela
+ *   cresce e o filtro responde "talvez" com mais frequência. Os falsos positivos a mais custam
+ *   apenas consultas à tabela exata, que continua decidindo.
+ *
+ * Observações:
+ * - Não é thread-safe; a partição dona do armazenamento controla o acesso.
+ * - Sem id, dois lançamentos legítimos idênticos no mesmo dia também são tratados como
+ *   repetição; informe ids para distingui-los.
+ */
+public class DetectorDuplicatas {
+
+    private static final int CAPACIDADE_INICIAL = 1 << 12;
+
+    private final ColumnarTransactionStore transactions;
+    private BloomFilter filtro = new BloomFilter(CAPACIDADE_INICIAL);
+    /** Posições da tabela: 32 bits altos do hash e {@code linha + 1} (0 = vazia). */
+    private long[] tabela = new long[CAPACIDADE_INICIAL * 2];
+    private int quantidade;
+
+    private long consultas;
+    private long negativasFiltro;
+    private long falsosPositivos;
+    private long duplicatas;
+
+    public DetectorDuplicatas(ColumnarTransactionStore transactions) {
+        this.transactions = transactions;
+    }
+
+    /**
+     * Calcula a chave de duplicidade de uma transação ainda não gravada.
+     *
+     * @param userId id do usuário
+     * @param id id da transação ou {@link ColumnarTransactionStore#NULO}
+     * @param accountId id da conta ou {@link ColumnarTransactionStore#NULO}
+     * @param tipo tipo da transação
+     * @param centavos valor em centavos
+     * @param dia data em dias desde 1970-01-01
+     * @param descricaoId id da descrição no pool do armazenamento
+     * @return hash de 64 bits da chave
+     */
+    public static long chave(long userId, long id, long accountId, TransactionType tipo, long centavos, int dia,
+                             int descricaoId) {
+        long h = misturar(userId + 0x9E3779B97F4A7C15L);
+        if (id != ColumnarTransactionStore.NULO) {
+            return misturar(h ^ id);
+        }
+        h = misturar(h ^ accountId);
+        h = misturar(h ^ tipo.ordinal());
+        h = misturar(h ^ centavos);
+        return misturar(h ^ (((long) dia << 32) | (descricaoId & 0xFFFFFFFFL)));
+    }
+
+    /**
+     * @return chave de duplicidade de uma linha já gravada
+     */
+    public long chave(int linha) {
+        return chave(transactions.userId(linha), transactions.id(linha), transactions.accountId(linha),
+                transactions.tipo(linha), transactions.valorCentavos(linha), transactions.diaEpoca(linha), transactions.descricaoId(linha));
+    }
+
+    /**
+     * Verifica se uma transação já foi gravada.
+     *
+     * @param chave chave calculada por {@link #chave(long, long, long, TransactionType, long, int, int)}
+     * @return true se já existir uma linha com a mesma chave de duplicidade
+     */
+    public boolean contem(long chave, long userId, long id, long accountId, TransactionType tipo, long centavos, int dia,
+                          int descricaoId) {
+        consultas++;
+        if (!filtro.talvezContenha(chave)) {
+            negativasFiltro++;
+            return false;
+        }
+        int mascara = tabela.length - 1;
+        long assinatura = chave & 0xFFFFFFFF00000000L;
+        for (int i = posicao(chave); tabela[i] != 0; i = (i + 1) & mascara) {
+            long entrada = tabela[i];
+            if ((entrada & 0xFFFFFFFF00000000L) == assinatura
+                    && mesmaChave((int) entrada - 1, userId, id, accountId, tipo, centavos, dia, descricaoId)) {
+                duplicatas++;
+                return true;
+            }
+        }
+        falsosPositivos++;
+        return false;
+    }
+
+    private boolean mesmaChave(int linha, long userId, long id, long accountId, TransactionType tipo, long centavos,
+                               int dia, int descricaoId) {
+        if (transactions.userId(linha) != userId || transactions.id(linha) != id) {
+            return false;
+        }
+        return id != ColumnarTransactionStore.NULO
+                || (transactions.accountId(linha) == accountId && transactions.tipo(linha) == tipo
+                && transactions.valorCentavos(linha) == centavos && transactions.diaEpoca(linha) == dia
+                && transactions.descricaoId(linha) == descricaoId);
+    }
+
+    /**
+     * Registra a chave de uma linha gravada.
+     *
+     * @param chave chave de duplicidade da linha
+     * @param linha linha no armazenamento
+     */
+    public void adicionar(long chave, int linha) {
+        // Tabela com no máximo metade das posições ocupadas
+        if (quantidade == tabela.length / 2) {
+            crescer();
+        }
+        inserir(chave, linha);
+        filtro.adicionar(chave);
+        quantidade++;
+    }
+
+    private void inserir(long chave, int linha) {
+        int mascara = tabela.length - 1;
+        int i = posicao(chave);
+        while (tabela[i] != 0) {
+            i = (i + 1) & mascara;
+        }
+        tabela[i] = (chave & 0xFFFFFFFF00000000L) | (linha + 1L);
+    }
+
+    private int posicao(long chave) {
+        // 32 bits altos: os baixos escolhem o bloco do filtro
+        return (int) (chave >>> 32) & (tabela.length - 1);
+    }
+
+    private void crescer() {
+        long[] antiga = tabela;
+        tabela = new long[antiga.length * 2];
+        for (long entrada : antiga) {
+            if (entrada != 0) {
+                inserir(entrada, (int) entrada - 1);
+            }
+        }
+        if (filtro.getCapacidade() == BloomFilter.CAPACIDADE_MAXIMA) {
+            return;
+        }
+        // Toda linha gravada tem sua chave no detector; percorrê-las em ordem lê as colunas sequencialmente
+        filtro = new BloomFilter(Math.min(filtro.getCapacidade() * 2, BloomFilter.CAPACIDADE_MAXIMA));
+        for (int linha = 0; linha < transactions.size(); linha++) {
+            filtro.adicionar(chave(linha));
+        }
+    }
+
+    private static long misturar(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Soma os contadores deste detector em {@code estatisticas}.
+     */
+    public void somarEm(EstatisticasDuplicatas estatisticas) {
+        estatisticas.somar(quantidade, consultas, negativasFiltro, falsosPositivos, duplicatas,
+                filtro.getBytes() + (long) tabela.length * Long.BYTES);
+    }
+}
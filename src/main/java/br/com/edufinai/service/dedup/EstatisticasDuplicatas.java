@@ -0,0 +1,76 @@
+package br.com.edufinai.service.dedup;
+
+/**
+ * Contadores da detecção de duplicatas, somados entre as partições do serviço.
+ *
+ * Taxa de falsos positivos: fração das transações novas para as quais o {@link BloomFilter}
+ * respondeu "talvez" e a tabela exata precisou ser consultada.
+ */
+public class EstatisticasDuplicatas {
+
+    private long chaves;
+    private long consultas;
+    private long negativasFiltro;
+    private long falsosPositivos;
+    private long duplicatas;
+    private long bytes;
+
+    void somar(long chaves, long consultas, long negativasFiltro, long falsosPositivos, long duplicatas, long bytes) {
+        this.chaves += chaves;
+        this.consultas += consultas;
+        this.negativasFiltro += negativasFiltro;
+        this.falsosPositivos += falsosPositivos;
+        this.duplicatas += duplicatas;
+        this.bytes += bytes;
+    }
+
+    /**
+     * @return chaves guardadas (uma por transação registrada)
+     */
+    public long getChaves() {
+        return chaves;
+    }
+
+    public long getConsultas() {
+        return consultas;
+    }
+
+    /**
+     * @return consultas resolvidas só pelo filtro de Bloom (transações certamente novas)
+     */
+    public long getNegativasFiltro() {
+        return negativasFiltro;
+    }
+
+    public long getFalsosPositivos() {
+        return falsosPositivos;
+    }
+
+    /**
+     * @return transações descartadas por já estarem registradas
+     */
+    public long getDuplicatas() {
+        return duplicatas;
+    }
+
+    /**
+     * @return falsos positivos / transações novas consultadas
+     */
+    public double getTaxaFalsosPositivos() {
+        long novas = negativasFiltro + falsosPositivos;
+        return novas == 0 ? 0 : (double) falsosPositivos / novas;
+    }
+
+    /**
+     * @return memória do filtro e da tabela exata, em bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EstatisticasDuplicatas{chaves=%d, consultas=%d, duplicatas=%d, falsosPositivos=%d (%.3f%%), %.1f MB}",
+                chaves, consultas, duplicatas, falsosPositivos, 100 * getTaxaFalsosPositivos(), bytes / 1e6);
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.edufinai.service.eventos;
+
+import br.com.edufinai.model.gamification.GamificationEngine;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Consumidor que reavalia as metas de gamificação dos usuários cujas transações chegaram,
+ * com o saldo mantido por {@link SaldosUsuarios}.
+ *
+ * Como funciona:
+ * - Durante o lote, apenas anota os usuários tocados; no fim do lote, avalia cada um uma
+ *   única vez ({@link GamificationEngine#checkPendingGoals}), com o saldo após todo o lote.
+ * - Deve ser registrado dependendo do consumidor de saldos, para que o saldo lido já inclua
+ *   os eventos do lote.
+ */
+public class AvaliadorGamificacao implements ConsumidorEventos {
+
+    private final SaldosUsuarios saldos;
+    private final Function<Long, GamificationEngine> motores;
+    private final Set<Long> tocados = new HashSet<>();
+    private long metasAtingidas;
+
+    /**
+     * @param saldos saldos dos usuários (consumidor do qual este depende)
+     * @param motores motor de gamificação de cada usuário, ou null para usuários sem gamificação
+     */
+    public AvaliadorGamificacao(SaldosUsuarios saldos, Function<Long, GamificationEngine> motores) {
+        this.saldos = saldos;
+        this.motores = motores;
+    }
+
+    @Override
+    public void aoReceber(EventoTransacao evento, long sequencia, boolean fimDoLote) {
+        tocados.add(evento.getUserId());
+        if (!fimDoLote) {
+            return;
+        }
+        try {
+            for (Long userId : tocados) {
+                GamificationEngine motor = motores.apply(userId);
+                if (motor != null) {
+                    metasAtingidas += motor.checkPendingGoals(saldos.getSaldo(userId));
+                }
+            }
+        } finally {
+            tocados.clear();
+        }
+    }
+
+    /**
+     * @return metas atingidas desde a criação (lido fora da thread do consumidor, é aproximado)
+     */
+    public long getMetasAtingidas() {
+        return metasAtingidas;
+    }
+}
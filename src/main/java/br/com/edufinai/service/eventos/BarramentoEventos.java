@@ -0,0 +1,355 @@
+package br.com.edufinai.service.eventos;
+
+import br.com.edufinai.model.Transaction;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Barramento de eventos de transações registradas: um anel de tamanho fixo, pré-alocado, lido
+ * por consumidores assíncronos em lotes (no estilo do Disruptor).
+ *
+ * Como funciona:
+ * - O anel tem {@code capacidade} posições ({@link EventoTransacao}) criadas no construtor.
+ *   A sequência {@code s} ocupa a posição {@code s & (capacidade - 1)}.
+ * - Produtores reservam sequências com um CAS no cursor ({@link #reservar(int)}), preenchem as
+ *   posições e as publicam ({@link #publicar(long, int)}), marcando em um array paralelo a volta
+ *   do anel em que cada posição foi escrita. Cada posição tem um único escritor por volta, e
+ *   nenhum bloqueio é tomado.
+ * - Cada consumidor roda em uma thread própria ({@link ProcessadorEventos}) e tem sua própria
+ *   sequência, escrita só por ele. Ao ficar livre, processa de uma vez todos os eventos
+ *   publicados em sequência desde o último lote.
+ * - Um consumidor pode depender de outros ({@link #adicionarConsumidor}): só recebe um evento
+ *   depois que todas as dependências o processaram (ex.: gamificação após os saldos).
+ *
+ * Contrapressão:
+ * - Um produtor não sobrescreve posições ainda não lidas por todos os consumidores: com o anel
+ *   cheio, {@link #reservar(int)} espera o consumidor mais lento liberar espaço. As esperas e o
+ *   tempo esperado aparecem em {@link #getEstatisticas()}, junto do atraso de cada consumidor.
+ *
+ * Observações:
+ * - Consumidores são adicionados antes de {@link #iniciar()}; reservar antes disso, ou depois de
+ *   {@link #close()}, é um erro. Quem publica algo já confirmado (como o serviço, depois de gravar
+ *   a transação) usa {@link #tentarReservar(int)} ou {@link #publicar(Transaction)}, que descartam
+ *   o evento e o contam em {@link EstatisticasBarramento#getDescartados()}.
+ * - Um produtor esperando espaço quando o barramento é encerrado desiste da reserva: descarta os
+ *   eventos ({@link #tentarReservar(int)}) ou lança exceção ({@link #reservar(int)}). O
+ *   {@link #close()} espera as reservas em andamento terminarem antes de esvaziar o anel, de modo
+ *   que toda sequência reservada é processada pelos consumidores ou o evento é contado como descartado.
+ * - Um consumidor não deve publicar no próprio barramento (com o anel cheio, esperaria por si mesmo).
+ * - Exceções de um consumidor são contadas e não interrompem o processamento dos eventos seguintes.
+ */
+public class BarramentoEventos implements AutoCloseable {
+
+    /** Capacidade padrão do anel, em eventos. */
+    public static final int CAPACIDADE_PADRAO = 65_536;
+
+    private static final VarHandle DISPONIVEIS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /** Pausa de um produtor com o anel cheio, ou de um consumidor sem eventos, em nanossegundos. */
+    private static final long PAUSA_NANOS = 50_000;
+
+    private final EventoTransacao[] eventos;
+
+    /** Volta do anel em que cada posição foi publicada pela última vez (-1: nunca). */
+    private final int[] disponiveis;
+
+    private final int mascara;
+    private final int bitsIndice;
+
+    /** Última sequência reservada por um produtor. */
+    private final AtomicLong cursor = new AtomicLong(-1);
+
+    /** Menor sequência processada por todos os consumidores, na última vez em que foi calculada. */
+    private volatile long consumidaCache = -1;
+
+    private final List<ProcessadorEventos> consumidores = new ArrayList<>();
+    private volatile ProcessadorEventos[] ativos = new ProcessadorEventos[0];
+    private volatile boolean iniciado;
+    private volatile boolean encerrado;
+
+    /** Produtores entre a verificação de {@code encerrado} e o fim da reserva (ou a desistência). */
+    private final AtomicInteger reservasEmAndamento = new AtomicInteger();
+
+    private final LongAdder esperasProdutores = new LongAdder();
+    private final LongAdder nanosEsperaProdutores = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+
+    public BarramentoEventos() {
+        this(CAPACIDADE_PADRAO);
+    }
+
+    /**
+     * @param capacidade quantidade de posições do anel (potência de 2)
+     */
+    public BarramentoEventos(int capacidade) {
+        if (capacidade < 2 || Integer.bitCount(capacidade) != 1) {
+            throw new IllegalArgumentException("A capacidade deve ser potência de 2: " + capacidade);
+        }
+        this.eventos = new EventoTransacao[capacidade];
+        this.disponiveis = new int[capacidade];
+        for (int i = 0; i < capacidade; i++) {
+            eventos[i] = new EventoTransacao();
+            disponiveis[i] = -1;
+        }
+        this.mascara = capacidade - 1;
+        this.bitsIndice = Integer.numberOfTrailingZeros(capacidade);
+    }
+
+    /**
+     * Adiciona um consumidor, que passa a receber todos os eventos publicados após {@link #iniciar()}.
+     *
+     * @param nome nome do consumidor (usado na thread e nas estatísticas)
+     * @param consumidor código executado para cada evento
+     * @param dependencias consumidores que precisam processar cada evento antes deste
+     * @return processador do consumidor, para declarar dependências e consultar seu progresso
+     */
+    public synchronized ProcessadorEventos adicionarConsumidor(String nome, ConsumidorEventos consumidor,
+                                                               ProcessadorEventos... dependencias) {
+        if (iniciado) {
+            throw new IllegalStateException("Consumidores devem ser adicionados antes de iniciar o barramento");
+        }
+        for (ProcessadorEventos dependencia : dependencias) {
+            if (!consumidores.contains(dependencia)) {
+                throw new IllegalArgumentException("Dependência não pertence a este barramento: " + dependencia.getNome());
+            }
+        }
+        ProcessadorEventos processador = new ProcessadorEventos(nome, this, consumidor, dependencias.clone());
+        consumidores.add(processador);
+        return processador;
+    }
+
+    /**
+     * Inicia uma thread (daemon) por consumidor. A partir daqui o barramento aceita publicações.
+     */
+    public synchronized void iniciar() {
+        if (iniciado) {
+            throw new IllegalStateException("Barramento já iniciado");
+        }
+        ativos = consumidores.toArray(new ProcessadorEventos[0]);
+        for (ProcessadorEventos processador : ativos) {
+            processador.iniciar();
+        }
+        iniciado = true;
+    }
+
+    /**
+     * Reserva {@code quantidade} sequências consecutivas, esperando se o anel não tiver espaço.
+     * Cada sequência reservada deve ser preenchida ({@link #get(long)}) e publicada
+     * ({@link #publicar(long, int)}); uma reserva não publicada trava os consumidores.
+     *
+     * @param quantidade sequências a reservar (entre 1 e a capacidade)
+     * @return primeira sequência reservada
+     */
+    public long reservar(int quantidade) {
+        if (quantidade < 1 || quantidade > eventos.length) {
+            throw new IllegalArgumentException("Quantidade fora do intervalo [1, " + eventos.length + "]: " + quantidade);
+        }
+        reservasEmAndamento.incrementAndGet();
+        try {
+            if (!iniciado || encerrado) {
+                throw new IllegalStateException(encerrado ? "Barramento encerrado" : "Barramento não iniciado");
+            }
+            long inicio = aguardarEspaco(quantidade);
+            if (inicio < 0) {
+                throw new IllegalStateException("Barramento encerrado");
+            }
+            return inicio;
+        } finally {
+            reservasEmAndamento.decrementAndGet();
+        }
+    }
+
+    /**
+     * Como {@link #reservar(int)}, mas com o barramento não iniciado ou encerrado descarta os
+     * eventos (contados em {@link EstatisticasBarramento#getDescartados()}) em vez de lançar exceção.
+     *
+     * @param quantidade sequências a reservar (entre 1 e a capacidade)
+     * @return primeira sequência reservada, ou -1 se os eventos foram descartados
+     */
+    public long tentarReservar(int quantidade) {
+        if (quantidade < 1 || quantidade > eventos.length) {
+            throw new IllegalArgumentException("Quantidade fora do intervalo [1, " + eventos.length + "]: " + quantidade);
+        }
+        reservasEmAndamento.incrementAndGet();
+        try {
+            long inicio = iniciado && !encerrado ? aguardarEspaco(quantidade) : -1;
+            if (inicio < 0) {
+                descartados.add(quantidade);
+            }
+            return inicio;
+        } finally {
+            reservasEmAndamento.decrementAndGet();
+        }
+    }
+
+    /**
+     * Reserva as sequências quando houver espaço no anel.
+     * Deve ser chamado com a reserva contada em {@code reservasEmAndamento}.
+     *
+     * @return primeira sequência reservada, ou -1 se o barramento foi encerrado durante a espera
+     */
+    private long aguardarEspaco(int quantidade) {
+        long inicioEspera = 0;
+        while (true) {
+            if (encerrado) {
+                // Os consumidores podem já ter parado: o espaço nunca seria liberado
+                if (inicioEspera != 0) {
+                    nanosEsperaProdutores.add(System.nanoTime() - inicioEspera);
+                }
+                return -1;
+            }
+            long atual = cursor.get();
+            long proxima = atual + quantidade;
+            // A posição de proxima só pode ser reescrita depois que todos leram a volta anterior
+            long exigida = proxima - eventos.length;
+            if (exigida > consumidaCache) {
+                long consumida = menorSequencia(atual);
+                consumidaCache = consumida;
+                if (exigida > consumida) {
+                    if (inicioEspera == 0) {
+                        inicioEspera = System.nanoTime();
+                        esperasProdutores.increment();
+                    }
+                    LockSupport.parkNanos(PAUSA_NANOS);
+                    continue;
+                }
+            }
+            if (cursor.compareAndSet(atual, proxima)) {
+                if (inicioEspera != 0) {
+                    nanosEsperaProdutores.add(System.nanoTime() - inicioEspera);
+                }
+                return atual + 1;
+            }
+        }
+    }
+
+    /**
+     * @param sequencia sequência reservada (ou já publicada)
+     * @return posição do anel correspondente
+     */
+    public EventoTransacao get(long sequencia) {
+        return eventos[(int) sequencia & mascara];
+    }
+
+    /**
+     * Torna visíveis aos consumidores as sequências reservadas e já preenchidas.
+     *
+     * @param inicio primeira sequência
+     * @param quantidade quantidade de sequências
+     */
+    public void publicar(long inicio, int quantidade) {
+        for (long s = inicio; s < inicio + quantidade; s++) {
+            DISPONIVEIS.setRelease(disponiveis, (int) s & mascara, (int) (s >>> bitsIndice));
+        }
+    }
+
+    /**
+     * Publica uma transação: reserva uma posição, copia os campos e a publica. Com o barramento
+     * não iniciado ou encerrado, o evento é descartado ({@link #tentarReservar(int)}).
+     *
+     * @param t transação registrada
+     * @return true se publicada; false se descartada
+     */
+    public boolean publicar(Transaction t) {
+        long sequencia = tentarReservar(1);
+        if (sequencia < 0) {
+            return false;
+        }
+        get(sequencia).preencher(t);
+        publicar(sequencia, 1);
+        return true;
+    }
+
+    /**
+     * Espera os consumidores processarem tudo o que foi reservado até o momento da chamada.
+     */
+    public void aguardarConsumo() {
+        if (!iniciado) {
+            throw new IllegalStateException("Barramento não iniciado");
+        }
+        long alvo = cursor.get();
+        while (menorSequencia(alvo) < alvo) {
+            LockSupport.parkNanos(PAUSA_NANOS);
+        }
+    }
+
+    /**
+     * Recusa novas publicações, espera as reservas em andamento terminarem e os consumidores
+     * esvaziarem o anel, e encerra suas threads. Produtores esperando espaço desistem.
+     */
+    @Override
+    public void close() {
+        boolean esvaziar = iniciado && !encerrado;
+        encerrado = true;
+        // Depois disso o cursor não avança mais: o esvaziamento cobre toda sequência reservada
+        while (reservasEmAndamento.get() > 0) {
+            LockSupport.parkNanos(PAUSA_NANOS);
+        }
+        if (esvaziar) {
+            aguardarConsumo();
+        }
+        try {
+            for (ProcessadorEventos processador : ativos) {
+                processador.encerrar();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return última sequência reservada (-1 se nenhuma)
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    public int getCapacidade() {
+        return eventos.length;
+    }
+
+    /**
+     * @return contrapressão dos produtores e progresso/atraso de cada consumidor neste instante
+     */
+    public EstatisticasBarramento getEstatisticas() {
+        long atual = cursor.get();
+        List<EstatisticasConsumidor> porConsumidor = new ArrayList<>();
+        for (ProcessadorEventos processador : ativos) {
+            porConsumidor.add(processador.estatisticas(atual));
+        }
+        return new EstatisticasBarramento(eventos.length, atual + 1, esperasProdutores.sum(),
+                nanosEsperaProdutores.sum(), descartados.sum(), porConsumidor);
+    }
+
+    /**
+     * Maior sequência publicada, em sequência contínua, entre {@code inicio} e {@code limite}.
+     *
+     * @return {@code inicio - 1} se {@code inicio} ainda não foi publicada
+     */
+    long maiorPublicada(long inicio, long limite) {
+        for (long s = inicio; s <= limite; s++) {
+            if ((int) DISPONIVEIS.getAcquire(disponiveis, (int) s & mascara) != (int) (s >>> bitsIndice)) {
+                return s - 1;
+            }
+        }
+        return limite;
+    }
+
+    /**
+     * Menor sequência já processada entre os consumidores; sem consumidores, o próprio cursor.
+     */
+    private long menorSequencia(long atual) {
+        long menor = atual;
+        for (ProcessadorEventos processador : ativos) {
+            menor = Math.min(menor, processador.getSequencia());
+        }
+        return menor;
+    }
+}
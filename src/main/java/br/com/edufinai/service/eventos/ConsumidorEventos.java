@@ -0,0 +1,20 @@
+package br.com.edufinai.service.eventos;
+
+/**
+ * Consumidor de um {@link BarramentoEventos}, executado em uma thread própria.
+ *
+ * O barramento entrega os eventos em lotes: todos os eventos já publicados quando o consumidor
+ * fica livre são passados em sequência, e o último do lote chega com {@code fimDoLote} true.
+ * Consumidores que acumulam trabalho (ex.: avaliar cada usuário tocado uma única vez) devem
+ * concluí-lo nesse momento.
+ */
+@FunctionalInterface
+public interface ConsumidorEventos {
+
+    /**
+     * @param evento posição do anel com a transação (não guardar a referência)
+     * @param sequencia número sequencial do evento no barramento, a partir de 0
+     * @param fimDoLote true se não há outro evento disponível no momento
+     */
+    void aoReceber(EventoTransacao evento, long sequencia, boolean fimDoLote);
+}
@@ -0,0 +1,82 @@
+package br.com.edufinai.service.eventos;
+
+import java.util.List;
+
+/**
+ * Métricas de um {@link BarramentoEventos}: eventos publicados, contrapressão sofrida pelos
+ * produtores (esperas por espaço no anel) e o progresso de cada consumidor.
+ */
+public class EstatisticasBarramento {
+
+    private final int capacidade;
+    private final long publicados;
+    private final long esperasProdutores;
+    private final long nanosEsperaProdutores;
+    private final long descartados;
+    private final List<EstatisticasConsumidor> consumidores;
+
+    EstatisticasBarramento(int capacidade, long publicados, long esperasProdutores, long nanosEsperaProdutores,
+                           long descartados, List<EstatisticasConsumidor> consumidores) {
+        this.capacidade = capacidade;
+        this.publicados = publicados;
+        this.esperasProdutores = esperasProdutores;
+        this.nanosEsperaProdutores = nanosEsperaProdutores;
+        this.descartados = descartados;
+        this.consumidores = List.copyOf(consumidores);
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    /**
+     * @return sequências reservadas pelos produtores desde a criação
+     */
+    public long getPublicados() {
+        return publicados;
+    }
+
+    /**
+     * @return reservas que encontraram o anel cheio e precisaram esperar
+     */
+    public long getEsperasProdutores() {
+        return esperasProdutores;
+    }
+
+    public long getNanosEsperaProdutores() {
+        return nanosEsperaProdutores;
+    }
+
+    /**
+     * @return eventos descartados por terem sido publicados com o barramento não iniciado ou encerrado
+     */
+    public long getDescartados() {
+        return descartados;
+    }
+
+    public List<EstatisticasConsumidor> getConsumidores() {
+        return consumidores;
+    }
+
+    /**
+     * @return maior atraso atual entre os consumidores
+     */
+    public long getAtrasoMaximo() {
+        long maior = 0;
+        for (EstatisticasConsumidor consumidor : consumidores) {
+            maior = Math.max(maior, consumidor.getAtraso());
+        }
+        return maior;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder(String.format(
+                "EstatisticasBarramento{capacidade=%d, publicados=%d, esperasProdutores=%d (%.1f ms), descartados=%d}",
+                capacidade, publicados, esperasProdutores, nanosEsperaProdutores / 1e6, descartados));
+        for (EstatisticasConsumidor consumidor : consumidores) {
+            texto.append("\n  ").append(consumidor);
+        }
+        return texto.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.edufinai.service.eventos;
+
+/**
+ * Progresso de um consumidor do {@link BarramentoEventos} em um instante.
+ *
+ * Atraso: eventos já reservados pelos produtores e ainda não processados pelo consumidor.
+ * O atraso máximo é o maior observado no início de um lote desde a criação do barramento.
+ */
+public class EstatisticasConsumidor {
+
+    private final String nome;
+    private final long sequencia;
+    private final long atraso;
+    private final long atrasoMaximo;
+    private final long processados;
+    private final long lotes;
+    private final long falhas;
+
+    EstatisticasConsumidor(String nome, long sequencia, long atraso, long atrasoMaximo, long processados,
+                           long lotes, long falhas) {
+        this.nome = nome;
+        this.sequencia = sequencia;
+        this.atraso = atraso;
+        this.atrasoMaximo = atrasoMaximo;
+        this.processados = processados;
+        this.lotes = lotes;
+        this.falhas = falhas;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * @return última sequência processada (-1 se nenhuma)
+     */
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    public long getAtraso() {
+        return atraso;
+    }
+
+    public long getAtrasoMaximo() {
+        return atrasoMaximo;
+    }
+
+    public long getProcessados() {
+        return processados;
+    }
+
+    public long getLotes() {
+        return lotes;
+    }
+
+    /**
+     * @return eventos em que o consumidor lançou exceção
+     */
+    public long getFalhas() {
+        return falhas;
+    }
+
+    public double getTamanhoMedioLote() {
+        return lotes == 0 ? 0 : (double) processados / lotes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{processados=%d, atraso=%d, atrasoMaximo=%d, lotes=%d (%.1f eventos/lote), falhas=%d}",
+                nome, processados, atraso, atrasoMaximo, lotes, getTamanhoMedioLote(), falhas);
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.edufinai.service.eventos;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Posição do {@link BarramentoEventos}: uma transação registrada, como os consumidores a veem.
+ *
+ * Observações:
+ * - As posições são criadas uma única vez, com o barramento, e reescritas a cada volta do anel;
+ *   publicar uma transação não aloca objetos.
+ * - Um consumidor não deve guardar a referência do evento depois de
+ *   {@link ConsumidorEventos#aoReceber} retornar: a posição será reaproveitada. Para guardar o
+ *   lançamento, copie os campos necessários ou use {@link #paraTransaction()}.
+ */
+public class EventoTransacao {
+
+    private Long id;
+    private Long userId;
+    private Long accountId;
+    private Long categoryId;
+    private TransactionType tipo;
+    private long centavos;
+    private LocalDate data;
+    private String descricao;
+
+    EventoTransacao() {
+    }
+
+    /**
+     * Copia os campos de uma transação para esta posição. Usado pelos produtores entre
+     * {@link BarramentoEventos#reservar(int)} e {@link BarramentoEventos#publicar(long, int)}.
+     *
+     * @param t transação registrada
+     * @param centavos valor da transação em centavos, já calculado pelo produtor
+     */
+    public void preencher(Transaction t, long centavos) {
+        this.id = t.getId();
+        this.userId = t.getUserId();
+        this.accountId = t.getAccountId();
+        this.categoryId = t.getCategoryId();
+        this.tipo = t.getType();
+        this.centavos = centavos;
+        this.data = t.getDate();
+        this.descricao = t.getDescription();
+    }
+
+    /**
+     * Copia os campos de uma transação para esta posição, convertendo o valor para centavos.
+     *
+     * @param t transação registrada
+     */
+    public void preencher(Transaction t) {
+        preencher(t, ColumnarTransactionStore.paraCentavos(t.getAmount()));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public TransactionType getTipo() {
+        return tipo;
+    }
+
+    /**
+     * @return valor em centavos
+     */
+    public long getCentavos() {
+        return centavos;
+    }
+
+    public BigDecimal getValor() {
+        return ColumnarTransactionStore.deCentavos(centavos);
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    /**
+     * @return cópia independente do evento como {@link Transaction}
+     */
+    public Transaction paraTransaction() {
+        return new Transaction(id, userId, accountId, categoryId, tipo, getValor(), data, descricao);
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.edufinai.service.eventos;
+
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.model.gamification.GamificationEngine;
+import br.com.edufinai.model.gamification.Notification;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Consumidor que gera notificações de despesas altas (valor a partir de um limite) no
+ * motor de gamificação do usuário.
+ *
+ * As notificações de um lote são acumuladas e entregues aos motores no fim do lote.
+ */
+public class NotificadorTransacoes implements ConsumidorEventos {
+
+    private final long limiteCentavos;
+    private final Function<Long, GamificationEngine> motores;
+    private final List<GamificationEngine> destinos = new ArrayList<>();
+    private final List<Notification> pendentes = new ArrayList<>();
+
+    /**
+     * @param limite menor valor de despesa que gera notificação
+     * @param motores motor de gamificação de cada usuário, ou null para usuários sem gamificação
+     */
+    public NotificadorTransacoes(BigDecimal limite, Function<Long, GamificationEngine> motores) {
+        if (limite.signum() <= 0) {
+            throw new IllegalArgumentException("O limite de notificação deve ser positivo: " + limite);
+        }
+        this.limiteCentavos = ColumnarTransactionStore.paraCentavos(limite);
+        this.motores = motores;
+    }
+
+    @Override
+    public void aoReceber(EventoTransacao evento, long sequencia, boolean fimDoLote) {
+        if (evento.getTipo() == TransactionType.EXPENSE && evento.getCentavos() >= limiteCentavos) {
+            GamificationEngine motor = motores.apply(evento.getUserId());
+            if (motor != null) {
+                destinos.add(motor);
+                pendentes.add(new Notification(null, evento.getUserId(), "💸 Despesa alta: R$ " + evento.getValor()
+                        + (evento.getDescricao() == null ? "" : " em " + evento.getDescricao())
+                        + " (" + evento.getData() + ")"));
+            }
+        }
+        if (fimDoLote && !pendentes.isEmpty()) {
+            try {
+                for (int i = 0; i < pendentes.size(); i++) {
+                    destinos.get(i).addNotification(pendentes.get(i));
+                }
+            } finally {
+                destinos.clear();
+                pendentes.clear();
+            }
+        }
+    }
+}
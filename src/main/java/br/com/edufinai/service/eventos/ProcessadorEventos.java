@@ -0,0 +1,138 @@
+package br.com.edufinai.service.eventos;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thread de um consumidor do {@link BarramentoEventos}: acompanha a sequência já processada,
+ * espera novos eventos e os entrega em lotes ao {@link ConsumidorEventos}.
+ *
+ * Como funciona:
+ * - O limite de cada lote é o cursor do barramento (sem dependências) ou a menor sequência
+ *   processada pelas dependências; dentro dele, vale o maior trecho contínuo já publicado.
+ * - Depois do lote, a sequência do consumidor avança de uma vez, liberando as posições para
+ *   os produtores e para os consumidores que dependem deste.
+ * - Sem eventos, o consumidor gira brevemente, cede a CPU e por fim dorme em pausas curtas,
+ *   sem exigir que os produtores o acordem.
+ *
+ * Os contadores são escritos só pela thread do consumidor e lidos por {@link #estatisticas(long)}.
+ */
+public class ProcessadorEventos {
+
+    private static final int GIROS = 100;
+    private static final int CESSOES = 100;
+    private static final long PAUSA_NANOS = 50_000;
+
+    private final String nome;
+    private final BarramentoEventos barramento;
+    private final ConsumidorEventos consumidor;
+    private final ProcessadorEventos[] dependencias;
+    private final AtomicLong sequencia = new AtomicLong(-1);
+
+    private volatile boolean ativo = true;
+    private volatile long processados;
+    private volatile long lotes;
+    private volatile long atrasoMaximo;
+    private volatile long falhas;
+    private volatile RuntimeException ultimaFalha;
+    private Thread thread;
+
+    ProcessadorEventos(String nome, BarramentoEventos barramento, ConsumidorEventos consumidor,
+                       ProcessadorEventos[] dependencias) {
+        this.nome = nome;
+        this.barramento = barramento;
+        this.consumidor = consumidor;
+        this.dependencias = dependencias;
+    }
+
+    void iniciar() {
+        thread = new Thread(this::executar, "eventos-" + nome);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void encerrar() throws InterruptedException {
+        ativo = false;
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    private void executar() {
+        long proxima = sequencia.get() + 1;
+        int ocioso = 0;
+        while (true) {
+            long disponivel = barramento.maiorPublicada(proxima, limite());
+            if (disponivel < proxima) {
+                if (!ativo) {
+                    return;
+                }
+                ocioso = esperar(ocioso);
+                continue;
+            }
+            ocioso = 0;
+            long atraso = barramento.getCursor() - proxima + 1;
+            if (atraso > atrasoMaximo) {
+                atrasoMaximo = atraso;
+            }
+            for (long s = proxima; s <= disponivel; s++) {
+                try {
+                    consumidor.aoReceber(barramento.get(s), s, s == disponivel);
+                } catch (RuntimeException e) {
+                    falhas++;
+                    ultimaFalha = e;
+                }
+            }
+            processados += disponivel - proxima + 1;
+            lotes++;
+            sequencia.lazySet(disponivel);
+            proxima = disponivel + 1;
+        }
+    }
+
+    private long limite() {
+        if (dependencias.length == 0) {
+            return barramento.getCursor();
+        }
+        long menor = Long.MAX_VALUE;
+        for (ProcessadorEventos dependencia : dependencias) {
+            menor = Math.min(menor, dependencia.getSequencia());
+        }
+        return menor;
+    }
+
+    private static int esperar(int ocioso) {
+        if (ocioso < GIROS) {
+            Thread.onSpinWait();
+        } else if (ocioso < GIROS + CESSOES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PAUSA_NANOS);
+        }
+        return ocioso + 1;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * @return última sequência processada (-1 se nenhuma)
+     */
+    public long getSequencia() {
+        return sequencia.get();
+    }
+
+    /**
+     * @return exceção mais recente lançada pelo consumidor, ou null
+     */
+    public RuntimeException getUltimaFalha() {
+        return ultimaFalha;
+    }
+
+    EstatisticasConsumidor estatisticas(long cursor) {
+        long processada = sequencia.get();
+        return new EstatisticasConsumidor(nome, processada, Math.max(0, cursor - processada), atrasoMaximo,
+                processados, lotes, falhas);
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.edufinai.service.eventos;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consumidor que mantém o saldo acumulado de cada usuário (receitas - despesas, em centavos),
+ * atualizado de forma assíncrona a partir do {@link BarramentoEventos}.
+ *
+ * Observações:
+ * - O barramento só publica transações registradas depois de configurado; o histórico anterior
+ *   (inclusive o reproduzido do log) entra pelos saldos iniciais
+ *   ({@link #SaldosUsuarios(Map)}), lidos antes de configurar o barramento no serviço
+ *   para que nenhuma transação fique de fora nem seja contada duas vezes.
+ * - Investimentos não entram no saldo, como em {@link br.com.edufinai.service.ResumoMensal}.
+ * - Só a thread do consumidor escreve; leituras de outras threads veem o saldo até o último
+ *   evento processado (o atraso aparece nas estatísticas do barramento).
+ */
+public class SaldosUsuarios implements ConsumidorEventos {
+
+    private final ConcurrentHashMap<Long, AtomicLong> saldos = new ConcurrentHashMap<>();
+
+    /**
+     * Cria o consumidor com todos os saldos em zero.
+     */
+    public SaldosUsuarios() {
+    }
+
+    /**
+     * Cria o consumidor partindo dos saldos já registrados.
+     *
+     * @param iniciaisCentavos saldo de cada usuário antes do primeiro evento, em centavos
+     */
+    public SaldosUsuarios(Map<Long, Long> iniciaisCentavos) {
+        iniciaisCentavos.forEach((userId, saldo) -> {
+            if (saldo != 0) {
+                saldos.put(userId, new AtomicLong(saldo));
+            }
+        });
+    }
+
+    @Override
+    public void aoReceber(EventoTransacao evento, long sequencia, boolean fimDoLote) {
+        long variacao = switch (evento.getTipo()) {
+            case INCOME -> evento.getCentavos();
+            case EXPENSE -> -evento.getCentavos();
+            case INVESTMENT -> 0;
+        };
+        if (variacao == 0) {
+            return;
+        }
+        AtomicLong saldo = saldos.get(evento.getUserId());
+        if (saldo == null) {
+            saldo = saldos.computeIfAbsent(evento.getUserId(), u -> new AtomicLong());
+        }
+        saldo.set(saldo.get() + variacao);
+    }
+
+    /**
+     * @param userId usuário
+     * @return saldo em centavos (0 se o usuário não tiver receitas nem despesas)
+     */
+    public long getSaldoCentavos(Long userId) {
+        AtomicLong saldo = saldos.get(userId);
+        return saldo == null ? 0 : saldo.get();
+    }
+
+    /**
+     * @param userId usuário
+     * @return saldo acumulado do usuário
+     */
+    public BigDecimal getSaldo(Long userId) {
+        return BigDecimal.valueOf(getSaldoCentavos(userId), 2);
+    }
+}
@@ -0,0 +1,494 @@
+package br.com.edufinai.service.exporter;
+
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+import br.com.edufinai.service.storage.VisitanteLinhas;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Exportador do histórico de transações em NDJSON ou CSV, em fluxo contínuo para um canal.
+ *
+ * Responsabilidades:
+ * - Ler as transações direto das colunas ({@link GerenciadorFinanceiroService#percorrerTransacoes}),
+ *   sem montar uma {@link br.com.edufinai.model.Transaction} nem uma {@code String} por linha.
+ * - Escrever números, valores e datas como bytes ASCII em um buffer reaproveitado, entregue
+ *   ao canal sempre que enche.
+ * - Opcionalmente, comprimir a saída em gzip ({@link Deflater} sobre o mesmo buffer).
+ * - Informar linhas, bytes e vazão da exportação ({@link ResultadoExportacao}).
+ *
+ * Observações:
+ * - A memória usada não depende do tamanho do histórico: um buffer de texto, um de saída
+ *   comprimida e um cache de descrições já codificadas, todos de tamanho fixo.
+ * - O histórico completo sai na ordem de {@link GerenciadorFinanceiroService#getTransacoes()};
+ *   o de um usuário, em ordem de (data, id).
+ * - O CSV usa o formato do {@link br.com.edufinai.service.importer.ExtratoImporter} (valor com
+ *   ponto decimal), de modo que uma exportação pode ser importada de volta — exceto por
+ *   descrições com quebra de linha e ids negativos, que o importador não aceita.
+ * - O canal não é fechado; as variantes com {@link Path} gravam em um temporário e o
+ *   renomeiam ao final, sem deixar arquivo parcial em caso de falha.
+ */
+public class ExtratoExporter {
+
+    /** Tamanho padrão do buffer de texto (e do buffer de saída comprimida). */
+    public static final int TAMANHO_BUFFER_PADRAO = 256 * 1024;
+
+    /** Bytes reservados por linha para os campos fixos (ids, valor, data, tipo e nomes dos campos). */
+    private static final int MAXIMO_CAMPOS_FIXOS = 256;
+    private static final int ENTRADAS_CACHE_DESCRICOES = 1 << 14;
+    private static final byte[] CABECALHO_GZIP = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private static final TransactionType[] TIPOS = TransactionType.values();
+    private static final byte[][] NOMES_TIPO = new byte[TIPOS.length][];
+    private static final byte[] NULL = bytes("null");
+    private static final byte[] JSON_ID = bytes("{\"id\":");
+    private static final byte[] JSON_USER_ID = bytes(",\"userId\":");
+    private static final byte[] JSON_ACCOUNT_ID = bytes(",\"accountId\":");
+    private static final byte[] JSON_CATEGORY_ID = bytes(",\"categoryId\":");
+    private static final byte[] JSON_TYPE = bytes(",\"type\":\"");
+    private static final byte[] JSON_AMOUNT = bytes("\",\"amount\":");
+    private static final byte[] JSON_DATE = bytes(",\"date\":\"");
+    private static final byte[] JSON_DESCRIPTION = bytes("\",\"description\":");
+    private static final byte[] CAMPOS_CSV = bytes("id;userId;accountId;categoryId;type;amount;date;description");
+
+    static {
+        for (TransactionType tipo : TIPOS) {
+            NOMES_TIPO[tipo.ordinal()] = bytes(tipo.name());
+        }
+    }
+
+    private final GerenciadorFinanceiroService service;
+    private FormatoExportacao formato = FormatoExportacao.NDJSON;
+    private boolean gzip;
+    private int nivelCompressao = Deflater.BEST_SPEED;
+    private int tamanhoBuffer = TAMANHO_BUFFER_PADRAO;
+    private byte delimitador = ';';
+    private boolean cabecalho = true;
+
+    /**
+     * @param service serviço de onde as transações são lidas
+     */
+    public ExtratoExporter(GerenciadorFinanceiroService service) {
+        this.service = service;
+    }
+
+    public void setFormato(FormatoExportacao formato) {
+        if (formato == null) {
+            throw new IllegalArgumentException("Formato de exportação obrigatório");
+        }
+        this.formato = formato;
+    }
+
+    /**
+     * @param gzip true para comprimir a saída no formato gzip
+     */
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    /**
+     * @param nivelCompressao nível do {@link Deflater}, de 0 a 9 (padrão 1, o mais rápido)
+     */
+    public void setNivelCompressao(int nivelCompressao) {
+        if (nivelCompressao < Deflater.NO_COMPRESSION || nivelCompressao > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Nível de compressão inválido: " + nivelCompressao);
+        }
+        this.nivelCompressao = nivelCompressao;
+    }
+
+    /**
+     * @param tamanhoBuffer bytes de texto acumulados antes de cada escrita no canal
+     */
+    public void setTamanhoBuffer(int tamanhoBuffer) {
+        if (tamanhoBuffer < 4 * MAXIMO_CAMPOS_FIXOS) {
+            throw new IllegalArgumentException("Tamanho de buffer muito pequeno: " + tamanhoBuffer);
+        }
+        this.tamanhoBuffer = tamanhoBuffer;
+    }
+
+    /**
+     * @param delimitador separador de campos do CSV (ex.: ';' ou ',')
+     */
+    public void setDelimitador(char delimitador) {
+        if (delimitador == '"' || delimitador == '\n' || delimitador == '\r' || delimitador > 0x7f) {
+            throw new IllegalArgumentException("Delimitador inválido: " + delimitador);
+        }
+        this.delimitador = (byte) delimitador;
+    }
+
+    /**
+     * @param cabecalho true para escrever a linha de nomes dos campos no CSV
+     */
+    public void setCabecalho(boolean cabecalho) {
+        this.cabecalho = cabecalho;
+    }
+
+    /**
+     * Exporta o histórico completo de todos os usuários.
+     *
+     * @param destino canal de saída (arquivo, socket, resposta HTTP...), que não é fechado
+     * @return resumo da exportação
+     * @throws IOException se o canal falhar
+     */
+    public ResultadoExportacao exportar(WritableByteChannel destino) throws IOException {
+        Escrita escrita = new Escrita(destino);
+        service.percorrerTransacoes(escrita);
+        return escrita.finalizar();
+    }
+
+    /**
+     * Exporta o histórico de um usuário, em ordem de (data, id).
+     *
+     * @param userId id do usuário
+     * @param destino canal de saída, que não é fechado
+     * @return resumo da exportação
+     * @throws IOException se o canal falhar
+     */
+    public ResultadoExportacao exportar(Long userId, WritableByteChannel destino) throws IOException {
+        Escrita escrita = new Escrita(destino);
+        service.percorrerTransacoes(userId, escrita);
+        return escrita.finalizar();
+    }
+
+    /**
+     * Exporta o histórico completo para um arquivo, substituído apenas ao final.
+     *
+     * @param arquivo arquivo de destino
+     * @return resumo da exportação
+     * @throws IOException se o arquivo não puder ser gravado
+     */
+    public ResultadoExportacao exportar(Path arquivo) throws IOException {
+        return exportarArquivo(arquivo, null);
+    }
+
+    /**
+     * Exporta o histórico de um usuário para um arquivo, substituído apenas ao final.
+     *
+     * @param userId id do usuário
+     * @param arquivo arquivo de destino
+     * @return resumo da exportação
+     * @throws IOException se o arquivo não puder ser gravado
+     */
+    public ResultadoExportacao exportar(Long userId, Path arquivo) throws IOException {
+        return exportarArquivo(arquivo, userId);
+    }
+
+    private ResultadoExportacao exportarArquivo(Path arquivo, Long userId) throws IOException {
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try {
+            ResultadoExportacao resultado;
+            try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                resultado = userId == null ? exportar(canal) : exportar(userId, canal);
+            }
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return resultado;
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Estado de uma exportação: buffers, compressão e cache de descrições.
+     * Uma instância por chamada, de modo que o exportador pode ser reutilizado.
+     */
+    private class Escrita implements VisitanteLinhas {
+
+        private final WritableByteChannel destino;
+        private final FormatoExportacao formato = ExtratoExporter.this.formato;
+        private final byte delimitador = ExtratoExporter.this.delimitador;
+        private final byte[] buffer = new byte[tamanhoBuffer];
+        private int posicao;
+        private final Deflater deflater;
+        private final CRC32 crc;
+        private final byte[] comprimido;
+        /** Cache de mapeamento direto: a descrição (por identidade) e seus bytes já escapados. */
+        private final String[] descricoes = new String[ENTRADAS_CACHE_DESCRICOES];
+        private final byte[][] descricoesCodificadas = new byte[ENTRADAS_CACHE_DESCRICOES][];
+        private final long inicio = System.nanoTime();
+        private long linhas;
+        private long bytesGerados;
+        private long bytesEscritos;
+
+        Escrita(WritableByteChannel destino) throws IOException {
+            this.destino = destino;
+            if (gzip) {
+                deflater = new Deflater(nivelCompressao, true);
+                crc = new CRC32();
+                comprimido = new byte[tamanhoBuffer];
+                escreverNoCanal(CABECALHO_GZIP, CABECALHO_GZIP.length);
+            } else {
+                deflater = null;
+                crc = null;
+                comprimido = null;
+            }
+            if (formato == FormatoExportacao.CSV && cabecalho) {
+                anexar(CAMPOS_CSV);
+                anexar((byte) '\n');
+            }
+        }
+
+        @Override
+        public void visitar(ColumnarTransactionStore colunas, int linha) throws IOException {
+            if (posicao > buffer.length - MAXIMO_CAMPOS_FIXOS) {
+                descarregar();
+            }
+            byte[] descricao = descricao(colunas, linha);
+            if (formato == FormatoExportacao.NDJSON) {
+                anexar(JSON_ID);
+                anexarId(colunas.id(linha));
+                anexar(JSON_USER_ID);
+                anexarId(colunas.userId(linha));
+                anexar(JSON_ACCOUNT_ID);
+                anexarId(colunas.accountId(linha));
+                anexar(JSON_CATEGORY_ID);
+                anexarId(colunas.categoryId(linha));
+                anexar(JSON_TYPE);
+                anexar(NOMES_TIPO[colunas.tipo(linha).ordinal()]);
+                anexar(JSON_AMOUNT);
+                anexarCentavos(colunas.valorCentavos(linha));
+                anexar(JSON_DATE);
+                anexarData(colunas.diaEpoca(linha));
+                anexar(JSON_DESCRIPTION);
+                anexarLongo(descricao);
+                anexar((byte) '}');
+            } else {
+                anexarId(colunas.id(linha));
+                anexar(delimitador);
+                anexarId(colunas.userId(linha));
+                anexar(delimitador);
+                anexarId(colunas.accountId(linha));
+                anexar(delimitador);
+                anexarId(colunas.categoryId(linha));
+                anexar(delimitador);
+                anexar(NOMES_TIPO[colunas.tipo(linha).ordinal()]);
+                anexar(delimitador);
+                anexarCentavos(colunas.valorCentavos(linha));
+                anexar(delimitador);
+                anexarData(colunas.diaEpoca(linha));
+                anexar(delimitador);
+                anexarLongo(descricao);
+            }
+            anexar((byte) '\n');
+            linhas++;
+        }
+
+        /**
+         * @return bytes da descrição já escapados para o formato (JSON: com aspas ou {@code null})
+         */
+        private byte[] descricao(ColumnarTransactionStore colunas, int linha) {
+            String texto = colunas.descricao(linha);
+            if (texto == null) {
+                return formato == FormatoExportacao.NDJSON ? NULL : new byte[0];
+            }
+            // Textos iguais de partições diferentes são objetos distintos; a identidade evita compará-los
+            int entrada = colunas.descricaoId(linha) & (ENTRADAS_CACHE_DESCRICOES - 1);
+            if (descricoes[entrada] != texto) {
+                descricoes[entrada] = texto;
+                descricoesCodificadas[entrada] = formato == FormatoExportacao.NDJSON
+                        ? escaparJson(texto) : escaparCsv(texto, delimitador);
+            }
+            return descricoesCodificadas[entrada];
+        }
+
+        private void anexar(byte valor) {
+            buffer[posicao++] = valor;
+        }
+
+        private void anexar(byte[] valor) {
+            System.arraycopy(valor, 0, buffer, posicao, valor.length);
+            posicao += valor.length;
+        }
+
+        /** Anexa um trecho de tamanho arbitrário, descarregando o buffer quantas vezes for preciso. */
+        private void anexarLongo(byte[] valor) throws IOException {
+            int copiados = 0;
+            while (copiados < valor.length) {
+                // Mantém espaço para o fechamento da linha
+                int espaco = buffer.length - 2 - posicao;
+                if (espaco <= 0) {
+                    descarregar();
+                    continue;
+                }
+                int n = Math.min(espaco, valor.length - copiados);
+                System.arraycopy(valor, copiados, buffer, posicao, n);
+                posicao += n;
+                copiados += n;
+            }
+        }
+
+        private void anexarId(long valor) {
+            if (valor == ColumnarTransactionStore.NULO) {
+                if (formato == FormatoExportacao.NDJSON) {
+                    anexar(NULL);
+                }
+                return;
+            }
+            anexarLong(valor);
+        }
+
+        private void anexarLong(long valor) {
+            if (valor < 0) {
+                anexar((byte) '-');
+                // Long.MIN_VALUE é o valor reservado para nulo e não chega aqui
+                valor = -valor;
+            }
+            int digitos = 1;
+            for (long limite = 10; digitos < 19 && valor >= limite; limite *= 10) {
+                digitos++;
+            }
+            for (int i = posicao + digitos - 1; i >= posicao; i--) {
+                buffer[i] = (byte) ('0' + valor % 10);
+                valor /= 10;
+            }
+            posicao += digitos;
+        }
+
+        /** Escreve centavos como {@code 1234.56} (mesmo formato de {@link java.math.BigDecimal#toPlainString()}). */
+        private void anexarCentavos(long centavos) {
+            if (centavos < 0) {
+                anexar((byte) '-');
+                centavos = -centavos;
+            }
+            anexarLong(centavos / 100);
+            int resto = (int) (centavos % 100);
+            anexar((byte) '.');
+            anexar((byte) ('0' + resto / 10));
+            anexar((byte) ('0' + resto % 10));
+        }
+
+        /** Escreve dias desde 1970-01-01 como {@code yyyy-MM-dd}, sem criar um {@link LocalDate}. */
+        private void anexarData(int diaEpoca) {
+            // Conversão de dias para data civil (algoritmo de H. Hinnant, calendário gregoriano proléptico)
+            long z = diaEpoca + 719_468L;
+            long era = (z >= 0 ? z : z - 146_096) / 146_097;
+            long diaEra = z - era * 146_097;
+            long anoEra = (diaEra - diaEra / 1_460 + diaEra / 36_524 - diaEra / 146_096) / 365;
+            long diaAno = diaEra - (365 * anoEra + anoEra / 4 - anoEra / 100);
+            long mp = (5 * diaAno + 2) / 153;
+            int dia = (int) (diaAno - (153 * mp + 2) / 5 + 1);
+            int mes = (int) (mp < 10 ? mp + 3 : mp - 9);
+            long ano = anoEra + era * 400 + (mes <= 2 ? 1 : 0);
+            if (ano < 0 || ano > 9_999) {
+                anexar(bytes(LocalDate.ofEpochDay(diaEpoca).toString()));
+                return;
+            }
+            int a = (int) ano;
+            anexar((byte) ('0' + a / 1000));
+            anexar((byte) ('0' + a / 100 % 10));
+            anexar((byte) ('0' + a / 10 % 10));
+            anexar((byte) ('0' + a % 10));
+            anexar((byte) '-');
+            anexar((byte) ('0' + mes / 10));
+            anexar((byte) ('0' + mes % 10));
+            anexar((byte) '-');
+            anexar((byte) ('0' + dia / 10));
+            anexar((byte) ('0' + dia % 10));
+        }
+
+        /** Entrega o texto acumulado ao canal (comprimido, se for o caso) e esvazia o buffer. */
+        private void descarregar() throws IOException {
+            if (posicao == 0) {
+                return;
+            }
+            bytesGerados += posicao;
+            if (deflater == null) {
+                escreverNoCanal(buffer, posicao);
+            } else {
+                crc.update(buffer, 0, posicao);
+                deflater.setInput(buffer, 0, posicao);
+                while (!deflater.needsInput()) {
+                    escreverNoCanal(comprimido, deflater.deflate(comprimido));
+                }
+            }
+            posicao = 0;
+        }
+
+        private void escreverNoCanal(byte[] dados, int tamanho) throws IOException {
+            ByteBuffer saida = ByteBuffer.wrap(dados, 0, tamanho);
+            while (saida.hasRemaining()) {
+                destino.write(saida);
+            }
+            bytesEscritos += tamanho;
+        }
+
+        ResultadoExportacao finalizar() throws IOException {
+            descarregar();
+            if (deflater != null) {
+                try {
+                    deflater.finish();
+                    while (!deflater.finished()) {
+                        escreverNoCanal(comprimido, deflater.deflate(comprimido));
+                    }
+                    // Rodapé gzip: CRC-32 e tamanho original (módulo 2^32), little-endian
+                    byte[] rodape = new byte[8];
+                    escreverInt(rodape, 0, (int) crc.getValue());
+                    escreverInt(rodape, 4, (int) bytesGerados);
+                    escreverNoCanal(rodape, rodape.length);
+                } finally {
+                    deflater.end();
+                }
+            }
+            return new ResultadoExportacao(linhas, bytesGerados, bytesEscritos, System.nanoTime() - inicio);
+        }
+    }
+
+    private static void escreverInt(byte[] destino, int posicao, int valor) {
+        for (int i = 0; i < 4; i++) {
+            destino[posicao + i] = (byte) (valor >>> (8 * i));
+        }
+    }
+
+    /** Texto como string JSON, entre aspas, com aspas, barras e caracteres de controle escapados. */
+    static byte[] escaparJson(String texto) {
+        StringBuilder escapado = new StringBuilder(texto.length() + 2).append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"' -> escapado.append("\\\"");
+                case '\\' -> escapado.append("\\\\");
+                case '\n' -> escapado.append("\\n");
+                case '\r' -> escapado.append("\\r");
+                case '\t' -> escapado.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        escapado.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escapado.append(c);
+                    }
+                }
+            }
+        }
+        return bytes(escapado.append('"').toString());
+    }
+
+    /**
+     * Texto como campo CSV: entre aspas (com aspas duplicadas) se contiver o delimitador, aspas,
+     * quebras de linha ou espaços nas pontas, que o importador descartaria.
+     */
+    static byte[] escaparCsv(String texto, byte delimitador) {
+        boolean aspas = !texto.isEmpty() && (Character.isWhitespace(texto.charAt(0))
+                || Character.isWhitespace(texto.charAt(texto.length() - 1)));
+        for (int i = 0; i < texto.length() && !aspas; i++) {
+            char c = texto.charAt(i);
+            aspas = c == delimitador || c == '"' || c == '\n' || c == '\r';
+        }
+        return bytes(aspas ? '"' + texto.replace("\"", "\"\"") + '"' : texto);
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.edufinai.service.exporter;
+
+/**
+ * Formatos de saída do {@link ExtratoExporter}.
+ */
+public enum FormatoExportacao {
+
+    /**
+     * Um objeto JSON por linha, com os campos de {@link br.com.edufinai.model.Transaction}:
+     * <pre>
+     * {"id":100,"userId":1,"accountId":1,"categoryId":10,"type":"EXPENSE","amount":250.00,"date":"2025-09-06","description":"Restaurante"}
+     * </pre>
+     */
+    NDJSON,
+
+    /**
+     * CSV no formato lido pelo {@link br.com.edufinai.service.importer.ExtratoImporter}:
+     * <pre>
+     * id;userId;accountId;categoryId;type;amount;date;description
+     * 100;1;1;10;EXPENSE;250.00;2025-09-06;Restaurante
+     * </pre>
+     */
+    CSV
+}
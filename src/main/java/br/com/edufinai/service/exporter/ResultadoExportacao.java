@@ -0,0 +1,61 @@
+package br.com.edufinai.service.exporter;
+
+/**
+ * Resumo de uma execução do {@link ExtratoExporter}: linhas, bytes e vazão.
+ */
+public class ResultadoExportacao {
+
+    private final long linhas;
+    private final long bytesGerados;
+    private final long bytesEscritos;
+    private final long duracaoNanos;
+
+    ResultadoExportacao(long linhas, long bytesGerados, long bytesEscritos, long duracaoNanos) {
+        this.linhas = linhas;
+        this.bytesGerados = bytesGerados;
+        this.bytesEscritos = bytesEscritos;
+        this.duracaoNanos = duracaoNanos;
+    }
+
+    public long getLinhas() {
+        return linhas;
+    }
+
+    /**
+     * @return bytes de texto gerados (antes da compressão)
+     */
+    public long getBytesGerados() {
+        return bytesGerados;
+    }
+
+    /**
+     * @return bytes entregues ao destino (depois da compressão, se houver)
+     */
+    public long getBytesEscritos() {
+        return bytesEscritos;
+    }
+
+    public long getDuracaoNanos() {
+        return duracaoNanos;
+    }
+
+    /**
+     * @return transações exportadas por segundo
+     */
+    public double getLinhasPorSegundo() {
+        return duracaoNanos == 0 ? 0 : linhas * 1e9 / duracaoNanos;
+    }
+
+    /**
+     * @return megabytes de texto gerados por segundo (antes da compressão)
+     */
+    public double getMegabytesPorSegundo() {
+        return duracaoNanos == 0 ? 0 : bytesGerados / (1024.0 * 1024.0) * 1e9 / duracaoNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResultadoExportacao{linhas=%d, gerados=%d bytes, escritos=%d bytes, %.0f linhas/s, %.1f MB/s}",
+                linhas, bytesGerados, bytesEscritos, getLinhasPorSegundo(), getMegabytesPorSegundo());
+    }
+}
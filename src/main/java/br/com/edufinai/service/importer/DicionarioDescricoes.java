@@ -0,0 +1,73 @@
+package br.com.edufinai.service.importer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cache de descrições indexado pelos bytes UTF-8 lidos do arquivo.
+ *
+ * Observações:
+ * - Descrições repetidas ("Uber", "Mercado") devolvem a mesma {@code String},
+ *   sem decodificar os bytes novamente.
+ * - Tabela de endereçamento aberto com capacidade fixa; quando cheia, as
+ *   descrições novas são apenas decodificadas, sem entrar no cache.
+ */
+class DicionarioDescricoes {
+
+    private static final int CAPACIDADE = 1 << 16;
+    private static final int MAX_ENTRADAS = CAPACIDADE / 2;
+
+    private final byte[][] chaves = new byte[CAPACIDADE][];
+    private final int[] hashes = new int[CAPACIDADE];
+    private final String[] valores = new String[CAPACIDADE];
+    private int entradas;
+
+    /**
+     * Retorna a descrição correspondente aos bytes {@code [inicio, fim)} do buffer.
+     *
+     * @param buf buffer com o conteúdo do arquivo
+     * @param inicio posição inicial (inclusiva)
+     * @param fim posição final (exclusiva)
+     * @return descrição decodificada, ou null se o intervalo for vazio
+     */
+    String obter(ByteBuffer buf, int inicio, int fim) {
+        int tamanho = fim - inicio;
+        if (tamanho <= 0) {
+            return null;
+        }
+        int hash = 1;
+        for (int i = inicio; i < fim; i++) {
+            hash = 31 * hash + buf.get(i);
+        }
+        int mascara = CAPACIDADE - 1;
+        int slot = (hash ^ (hash >>> 16)) & mascara;
+        while (chaves[slot] != null) {
+            if (hashes[slot] == hash && iguais(chaves[slot], buf, inicio, tamanho)) {
+                return valores[slot];
+            }
+            slot = (slot + 1) & mascara;
+        }
+        byte[] bytes = new byte[tamanho];
+        buf.get(inicio, bytes, 0, tamanho);
+        String texto = new String(bytes, StandardCharsets.UTF_8);
+        if (entradas < MAX_ENTRADAS) {
+            chaves[slot] = bytes;
+            hashes[slot] = hash;
+            valores[slot] = texto;
+            entradas++;
+        }
+        return texto;
+    }
+
+    private static boolean iguais(byte[] chave, ByteBuffer buf, int inicio, int tamanho) {
+        if (chave.length != tamanho) {
+            return false;
+        }
+        for (int i = 0; i < tamanho; i++) {
+            if (chave[i] != buf.get(inicio + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,678 @@
+package br.com.edufinai.service.importer;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.ResultadoLote;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Importador de extratos bancários (CSV e OFX) em fluxo contínuo.
+ *
+ * Responsabilidades:
+ * - Ler o arquivo por janelas mapeadas em memória ({@link FileChannel#map}), sem carregá-lo inteiro.
+ * - Interpretar números, datas e tipos diretamente dos bytes, sem criar uma {@code String} por campo.
+ * - Registrar as transações no {@link GerenciadorFinanceiroService} em lotes.
+ * - Contabilizar registros rejeitados e a vazão da importação ({@link ResultadoImportacao}).
+ * - Gravar um checkpoint após cada lote, permitindo retomar a importação após uma falha.
+ *
+ * Formato CSV esperado (uma transação por linha, delimitador configurável, padrão ';'):
+ * <pre>
+ * id;userId;accountId;categoryId;type;amount;date;description
+ * 100;1;1;10;EXPENSE;250,00;2025-09-06;Restaurante
+ * </pre>
+ * - id, accountId e categoryId podem ficar vazios.
+ * - type aceita INCOME/EXPENSE/INVESTMENT ou RECEITA/DESPESA/INVESTIMENTO; se vazio,
+ *   valores negativos viram despesa e positivos, receita.
+ * - amount aceita '.' ou ',' como separador decimal; o último separador é o decimal.
+ * - date aceita yyyy-MM-dd ou dd/MM/yyyy.
+ *
+ * Formato OFX: cada bloco {@code <STMTTRN>} vira uma transação do usuário/conta informados,
+ * usando TRNAMT (sinal define receita/despesa), DTPOSTED, FITID (quando numérico) e MEMO/NAME.
+ *
+ * Retomada:
+ * - O checkpoint fica em {@code <arquivo>.checkpoint} e guarda a posição do último lote confirmado.
+ * - Se o checkpoint existir, a próxima importação do mesmo arquivo continua a partir dele.
+ * - Ao terminar com sucesso, o checkpoint é removido.
+ * - Reimportar um extrato (ou repetir o lote que estava em andamento na falha) não duplica
+ *   lançamentos: o serviço descarta transações já registradas e elas aparecem em
+ *   {@link ResultadoImportacao#getDuplicadas()}.
+ */
+public class ExtratoImporter {
+
+    /** Quantidade padrão de transações por lote enviado ao serviço. */
+    public static final int TAMANHO_LOTE_PADRAO = 10_000;
+
+    private static final long TAMANHO_JANELA_PADRAO = 64L * 1024 * 1024;
+    private static final String SUFIXO_CHECKPOINT = ".checkpoint";
+    private static final int CAMPOS_CSV = 8;
+
+    private static final byte[][] NOMES_TIPO = {
+            bytes("INCOME"), bytes("RECEITA"),
+            bytes("EXPENSE"), bytes("DESPESA"),
+            bytes("INVESTMENT"), bytes("INVESTIMENTO")
+    };
+    private static final TransactionType[] TIPOS_POR_NOME = {
+            TransactionType.INCOME, TransactionType.INCOME,
+            TransactionType.EXPENSE, TransactionType.EXPENSE,
+            TransactionType.INVESTMENT, TransactionType.INVESTMENT
+    };
+
+    private final GerenciadorFinanceiroService service;
+    private final DicionarioDescricoes descricoes = new DicionarioDescricoes();
+    private int tamanhoLote = TAMANHO_LOTE_PADRAO;
+    private long tamanhoJanela = TAMANHO_JANELA_PADRAO;
+    private byte delimitador = ';';
+    private boolean cabecalho = true;
+    private int maxRejeicoesDetalhadas = 1000;
+
+    /**
+     * Cria um importador que registra as transações no serviço informado.
+     *
+     * @param service serviço que receberá os lotes importados
+     */
+    public ExtratoImporter(GerenciadorFinanceiroService service) {
+        this.service = service;
+    }
+
+    /**
+     * Define quantas transações são acumuladas antes de cada envio ao serviço
+     * (e, portanto, a frequência do checkpoint).
+     *
+     * @param tamanhoLote transações por lote (maior que zero)
+     */
+    public void setTamanhoLote(int tamanhoLote) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("Tamanho do lote deve ser positivo: " + tamanhoLote);
+        }
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Define o tamanho de cada janela mapeada em memória.
+     * Um registro nunca pode ser maior que a janela.
+     *
+     * @param tamanhoJanela tamanho em bytes (maior que zero, até {@link Integer#MAX_VALUE})
+     */
+    public void setTamanhoJanela(long tamanhoJanela) {
+        if (tamanhoJanela <= 0 || tamanhoJanela > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tamanho de janela inválido: " + tamanhoJanela);
+        }
+        this.tamanhoJanela = tamanhoJanela;
+    }
+
+    /**
+     * @param delimitador separador de campos do CSV (ex.: ';' ou ',')
+     */
+    public void setDelimitador(char delimitador) {
+        this.delimitador = (byte) delimitador;
+    }
+
+    /**
+     * @param cabecalho true se a primeira linha do CSV for um cabeçalho a ser ignorado
+     */
+    public void setCabecalho(boolean cabecalho) {
+        this.cabecalho = cabecalho;
+    }
+
+    /**
+     * @param maxRejeicoesDetalhadas quantas rejeições guardar com motivo no resultado
+     */
+    public void setMaxRejeicoesDetalhadas(int maxRejeicoesDetalhadas) {
+        this.maxRejeicoesDetalhadas = maxRejeicoesDetalhadas;
+    }
+
+    /**
+     * Importa um extrato CSV, retomando do checkpoint se houver um.
+     *
+     * @param arquivo caminho do arquivo CSV
+     * @return resumo da importação
+     * @throws IOException se o arquivo não puder ser lido ou o checkpoint gravado
+     */
+    public ResultadoImportacao importarCsv(Path arquivo) throws IOException {
+        return importar(arquivo, new LeitorCsv());
+    }
+
+    /**
+     * Importa um extrato OFX, retomando do checkpoint se houver um.
+     *
+     * @param arquivo caminho do arquivo OFX
+     * @param userId usuário dono das transações
+     * @param accountId conta à qual o extrato pertence (pode ser null)
+     * @return resumo da importação
+     * @throws IOException se o arquivo não puder ser lido ou o checkpoint gravado
+     */
+    public ResultadoImportacao importarOfx(Path arquivo, Long userId, Long accountId) throws IOException {
+        return importar(arquivo, new LeitorOfx(userId, accountId));
+    }
+
+    /**
+     * Retorna o caminho do checkpoint usado para o arquivo informado.
+     *
+     * @param arquivo arquivo de extrato
+     * @return caminho {@code <arquivo>.checkpoint}
+     */
+    public static Path caminhoCheckpoint(Path arquivo) {
+        return arquivo.resolveSibling(arquivo.getFileName() + SUFIXO_CHECKPOINT);
+    }
+
+    private ResultadoImportacao importar(Path arquivo, Leitor leitor) throws IOException {
+        Path checkpoint = caminhoCheckpoint(arquivo);
+        Properties estado = lerCheckpoint(checkpoint);
+        long posicao = Long.parseLong(estado.getProperty("posicao", "0"));
+        leitor.registro = Long.parseLong(estado.getProperty("registro", "0"));
+        ResultadoImportacao resultado = new ResultadoImportacao(!estado.isEmpty(),
+                Long.parseLong(estado.getProperty("importadas", "0")),
+                Long.parseLong(estado.getProperty("rejeitadas", "0")),
+                maxRejeicoesDetalhadas);
+
+        long inicio = System.nanoTime();
+        long posicaoInicial = posicao;
+        List<Transaction> lote = new ArrayList<>(tamanhoLote);
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanhoArquivo = canal.size();
+            while (posicao < tamanhoArquivo) {
+                long fimJanela = Math.min(tamanhoArquivo, posicao + tamanhoJanela);
+                boolean ultimaJanela = fimJanela == tamanhoArquivo;
+                MappedByteBuffer buf = canal.map(FileChannel.MapMode.READ_ONLY, posicao, fimJanela - posicao);
+                int limite = buf.limit();
+                int pos = 0;
+                while (pos < limite) {
+                    int fim = leitor.fimRegistro(buf, pos, limite, ultimaJanela);
+                    if (fim < 0) {
+                        break; // registro continua na próxima janela
+                    }
+                    leitor.ler(buf, pos, fim, lote, resultado);
+                    pos = fim;
+                    if (lote.size() >= tamanhoLote && leitor.emFronteira()) {
+                        confirmar(lote, resultado, checkpoint, posicao + pos, leitor.registro);
+                    }
+                }
+                if (pos == 0) {
+                    throw new IOException("Registro na posição " + posicao + " de " + arquivo
+                            + " é maior que a janela de mapeamento (" + tamanhoJanela + " bytes)");
+                }
+                posicao += pos;
+            }
+            confirmar(lote, resultado, checkpoint, posicao, leitor.registro);
+        }
+        Files.deleteIfExists(checkpoint);
+        resultado.finalizar(posicao - posicaoInicial, System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    private void confirmar(List<Transaction> lote, ResultadoImportacao resultado, Path checkpoint,
+                           long posicao, long registro) throws IOException {
+        if (!lote.isEmpty()) {
+            ResultadoLote confirmado = service.registerTransactions(lote);
+            resultado.somarImportadas((int) confirmado.getRegistradas());
+            resultado.somarDuplicadas(confirmado.getDuplicadas());
+            for (ResultadoLote.Rejeicao rejeicao : confirmado.getRejeicoes()) {
+                // O lote não guarda o número de cada registro; informa o último registro do lote
+                resultado.rejeitar(registro, "No lote encerrado neste registro: " + rejeicao.getMotivo());
+            }
+            lote.clear();
+        }
+        Properties estado = new Properties();
+        estado.setProperty("posicao", Long.toString(posicao));
+        estado.setProperty("registro", Long.toString(registro));
+        estado.setProperty("importadas", Long.toString(resultado.getImportadas()));
+        estado.setProperty("rejeitadas", Long.toString(resultado.getRejeitadas()));
+        Path temporario = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temporario)) {
+            estado.store(out, "Checkpoint de importação do EduFinAI");
+        }
+        Files.move(temporario, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Properties lerCheckpoint(Path checkpoint) throws IOException {
+        Properties estado = new Properties();
+        if (Files.exists(checkpoint)) {
+            try (InputStream in = Files.newInputStream(checkpoint)) {
+                estado.load(in);
+            }
+        }
+        return estado;
+    }
+
+    /**
+     * Estratégia de leitura de um formato de extrato.
+     * Um "registro" é a menor unidade que o leitor consome de uma vez.
+     */
+    private abstract static class Leitor {
+        /** Contador de registros, persistido no checkpoint. */
+        long registro;
+
+        /**
+         * @return posição logo após o registro que começa em {@code inicio},
+         *         ou -1 se ele não terminar dentro da janela atual
+         */
+        abstract int fimRegistro(ByteBuffer buf, int inicio, int limite, boolean ultimaJanela);
+
+        abstract void ler(ByteBuffer buf, int inicio, int fim, List<Transaction> lote, ResultadoImportacao resultado);
+
+        /**
+         * @return true se é seguro gravar um checkpoint neste ponto do arquivo
+         */
+        boolean emFronteira() {
+            return true;
+        }
+    }
+
+    /**
+     * Leitor de CSV: um registro por linha.
+     */
+    private class LeitorCsv extends Leitor {
+        private final int[] inicios = new int[CAMPOS_CSV];
+        private final int[] fins = new int[CAMPOS_CSV];
+        private final boolean[] comAspas = new boolean[CAMPOS_CSV];
+
+        @Override
+        int fimRegistro(ByteBuffer buf, int inicio, int limite, boolean ultimaJanela) {
+            for (int i = inicio; i < limite; i++) {
+                if (buf.get(i) == '\n') {
+                    return i + 1;
+                }
+            }
+            return ultimaJanela ? limite : -1;
+        }
+
+        @Override
+        void ler(ByteBuffer buf, int inicio, int fim, List<Transaction> lote, ResultadoImportacao resultado) {
+            registro++;
+            while (fim > inicio && (buf.get(fim - 1) == '\n' || buf.get(fim - 1) == '\r')) {
+                fim--;
+            }
+            if (fim == inicio || (registro == 1 && cabecalho)) {
+                return;
+            }
+            try {
+                separarCampos(buf, inicio, fim);
+                long centavos = lerCentavos(buf, inicios[5], fins[5]);
+                TransactionType tipo = lerTipo(buf, inicios[4], fins[4], centavos);
+                String descricao = descricoes.obter(buf, inicios[7], fins[7]);
+                if (comAspas[7] && descricao != null) {
+                    descricao = descricao.replace("\"\"", "\"");
+                }
+                lote.add(new Transaction(
+                        lerIdOpcional(buf, inicios[0], fins[0]),
+                        lerId(buf, inicios[1], fins[1], "userId"),
+                        lerIdOpcional(buf, inicios[2], fins[2]),
+                        lerIdOpcional(buf, inicios[3], fins[3]),
+                        tipo,
+                        BigDecimal.valueOf(Math.abs(centavos), 2),
+                        lerData(buf, inicios[6], fins[6]),
+                        descricao));
+            } catch (RegistroInvalido e) {
+                resultado.rejeitar(registro, e.getMessage());
+            }
+        }
+
+        private void separarCampos(ByteBuffer buf, int inicio, int fim) throws RegistroInvalido {
+            int campo = 0;
+            int i = inicio;
+            while (true) {
+                if (campo == CAMPOS_CSV) {
+                    throw new RegistroInvalido("mais de " + CAMPOS_CSV + " campos");
+                }
+                if (i < fim && buf.get(i) == '"') {
+                    int j = i + 1;
+                    while (true) {
+                        if (j >= fim) {
+                            throw new RegistroInvalido("aspas não fechadas no campo " + (campo + 1));
+                        }
+                        if (buf.get(j) == '"') {
+                            if (j + 1 < fim && buf.get(j + 1) == '"') {
+                                j += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        j++;
+                    }
+                    inicios[campo] = i + 1;
+                    fins[campo] = j;
+                    comAspas[campo] = true;
+                    i = j + 1;
+                    if (i < fim && buf.get(i) != delimitador) {
+                        throw new RegistroInvalido("conteúdo após aspas no campo " + (campo + 1));
+                    }
+                } else {
+                    int j = i;
+                    while (j < fim && buf.get(j) != delimitador) {
+                        j++;
+                    }
+                    inicios[campo] = aparar(buf, i, j, true);
+                    fins[campo] = aparar(buf, i, j, false);
+                    comAspas[campo] = false;
+                    i = j;
+                }
+                campo++;
+                if (i >= fim) {
+                    break;
+                }
+                i++; // pula o delimitador
+            }
+            if (campo != CAMPOS_CSV) {
+                throw new RegistroInvalido("esperados " + CAMPOS_CSV + " campos, encontrados " + campo);
+            }
+        }
+
+        private TransactionType lerTipo(ByteBuffer buf, int inicio, int fim, long centavos) throws RegistroInvalido {
+            if (inicio == fim) {
+                return centavos < 0 ? TransactionType.EXPENSE : TransactionType.INCOME;
+            }
+            for (int n = 0; n < NOMES_TIPO.length; n++) {
+                if (igualIgnorandoCaixa(NOMES_TIPO[n], buf, inicio, fim)) {
+                    return TIPOS_POR_NOME[n];
+                }
+            }
+            throw new RegistroInvalido("tipo de transação desconhecido");
+        }
+    }
+
+    /**
+     * Leitor de OFX (SGML ou XML): um registro por elemento {@code <TAG>valor};
+     * as transações são emitidas ao fechar cada {@code </STMTTRN>}.
+     */
+    private class LeitorOfx extends Leitor {
+        private final Long userId;
+        private final Long accountId;
+        private boolean aberto;
+        private boolean temValor;
+        private long centavos;
+        private LocalDate data;
+        private Long fitId;
+        private String descricao;
+        private String erro;
+
+        LeitorOfx(Long userId, Long accountId) {
+            this.userId = userId;
+            this.accountId = accountId;
+        }
+
+        @Override
+        int fimRegistro(ByteBuffer buf, int inicio, int limite, boolean ultimaJanela) {
+            for (int i = inicio + 1; i < limite; i++) {
+                if (buf.get(i) == '<') {
+                    return i;
+                }
+            }
+            return ultimaJanela ? limite : -1;
+        }
+
+        @Override
+        void ler(ByteBuffer buf, int inicio, int fim, List<Transaction> lote, ResultadoImportacao resultado) {
+            if (buf.get(inicio) != '<') {
+                return; // cabeçalho SGML ou espaço entre elementos
+            }
+            int fimTag = inicio + 1;
+            while (fimTag < fim && buf.get(fimTag) != '>') {
+                fimTag++;
+            }
+            if (fimTag == fim) {
+                return;
+            }
+            int inicioValor = aparar(buf, fimTag + 1, fim, true);
+            int fimValor = aparar(buf, fimTag + 1, fim, false);
+            int tag = inicio + 1;
+
+            if (tagIgual("STMTTRN", buf, tag, fimTag)) {
+                aberto = true;
+                temValor = false;
+                data = null;
+                fitId = null;
+                descricao = null;
+                erro = null;
+            } else if (!aberto) {
+                return;
+            } else if (tagIgual("/STMTTRN", buf, tag, fimTag)) {
+                aberto = false;
+                registro++;
+                emitir(lote, resultado);
+            } else if (erro != null) {
+                return;
+            } else {
+                try {
+                    if (tagIgual("TRNAMT", buf, tag, fimTag)) {
+                        centavos = lerCentavos(buf, inicioValor, fimValor);
+                        temValor = true;
+                    } else if (tagIgual("DTPOSTED", buf, tag, fimTag)) {
+                        data = lerDataCompacta(buf, inicioValor, fimValor);
+                    } else if (tagIgual("FITID", buf, tag, fimTag)) {
+                        fitId = somenteDigitos(buf, inicioValor, fimValor) ? lerIdOpcional(buf, inicioValor, fimValor) : null;
+                    } else if (tagIgual("MEMO", buf, tag, fimTag)
+                            || (descricao == null && tagIgual("NAME", buf, tag, fimTag))) {
+                        descricao = descricoes.obter(buf, inicioValor, fimValor);
+                    }
+                } catch (RegistroInvalido e) {
+                    erro = e.getMessage();
+                }
+            }
+        }
+
+        private void emitir(List<Transaction> lote, ResultadoImportacao resultado) {
+            if (erro == null && !temValor) {
+                erro = "TRNAMT ausente";
+            }
+            if (erro == null && data == null) {
+                erro = "DTPOSTED ausente";
+            }
+            if (erro != null) {
+                resultado.rejeitar(registro, erro);
+                return;
+            }
+            lote.add(new Transaction(fitId, userId, accountId, null,
+                    centavos < 0 ? TransactionType.EXPENSE : TransactionType.INCOME,
+                    BigDecimal.valueOf(Math.abs(centavos), 2), data, descricao));
+        }
+
+        @Override
+        boolean emFronteira() {
+            return !aberto;
+        }
+    }
+
+    // --- Interpretação de campos diretamente dos bytes ---
+
+    private static Long lerIdOpcional(ByteBuffer buf, int inicio, int fim) throws RegistroInvalido {
+        return inicio == fim ? null : lerId(buf, inicio, fim, "id");
+    }
+
+    private static Long lerId(ByteBuffer buf, int inicio, int fim, String campo) throws RegistroInvalido {
+        if (inicio == fim) {
+            throw new RegistroInvalido(campo + " ausente");
+        }
+        if (fim - inicio > 18 || !somenteDigitos(buf, inicio, fim)) {
+            throw new RegistroInvalido(campo + " inválido");
+        }
+        long valor = 0;
+        for (int i = inicio; i < fim; i++) {
+            valor = valor * 10 + (buf.get(i) - '0');
+        }
+        return valor;
+    }
+
+    /**
+     * Lê um valor monetário em centavos. O último '.' ou ',' é o separador decimal;
+     * separadores anteriores são tratados como separadores de milhar. Casas além da
+     * segunda são arredondadas HALF_UP, como no armazenamento colunar.
+     */
+    private static long lerCentavos(ByteBuffer buf, int inicio, int fim) throws RegistroInvalido {
+        if (inicio == fim) {
+            throw new RegistroInvalido("valor ausente");
+        }
+        int i = inicio;
+        boolean negativo = false;
+        if (buf.get(i) == '-' || buf.get(i) == '+') {
+            negativo = buf.get(i) == '-';
+            i++;
+        }
+        int separadorDecimal = -1;
+        for (int j = fim - 1; j >= i; j--) {
+            byte c = buf.get(j);
+            if (c == '.' || c == ',') {
+                separadorDecimal = j;
+                break;
+            }
+        }
+        long inteiro = 0;
+        long fracao = 0;
+        int casas = 0;
+        int arredondamento = 0;
+        int digitos = 0;
+        for (; i < fim; i++) {
+            byte c = buf.get(i);
+            if (c >= '0' && c <= '9') {
+                digitos++;
+                int d = c - '0';
+                if (separadorDecimal < 0 || i < separadorDecimal) {
+                    if (inteiro > (Long.MAX_VALUE / 100 - 9) / 10) {
+                        throw new RegistroInvalido("valor fora do intervalo suportado");
+                    }
+                    inteiro = inteiro * 10 + d;
+                } else if (casas < 2) {
+                    fracao = fracao * 10 + d;
+                    casas++;
+                } else if (casas == 2) {
+                    arredondamento = d >= 5 ? 1 : 0;
+                    casas++;
+                }
+            } else if ((c != '.' && c != ',') || (i > separadorDecimal && separadorDecimal >= 0)) {
+                throw new RegistroInvalido("valor inválido");
+            }
+        }
+        if (digitos == 0) {
+            throw new RegistroInvalido("valor inválido");
+        }
+        if (casas == 1) {
+            fracao *= 10;
+        }
+        long centavos = inteiro * 100 + fracao + arredondamento;
+        return negativo ? -centavos : centavos;
+    }
+
+    /** Lê datas nos formatos yyyy-MM-dd ou dd/MM/yyyy. */
+    private static LocalDate lerData(ByteBuffer buf, int inicio, int fim) throws RegistroInvalido {
+        if (fim - inicio != 10) {
+            throw new RegistroInvalido("data inválida");
+        }
+        if (buf.get(inicio + 4) == '-' && buf.get(inicio + 7) == '-') {
+            return criarData(numero(buf, inicio, 4), numero(buf, inicio + 5, 2), numero(buf, inicio + 8, 2));
+        }
+        if (buf.get(inicio + 2) == '/' && buf.get(inicio + 5) == '/') {
+            return criarData(numero(buf, inicio + 6, 4), numero(buf, inicio + 3, 2), numero(buf, inicio, 2));
+        }
+        throw new RegistroInvalido("data inválida");
+    }
+
+    /** Lê datas OFX (yyyyMMdd seguido opcionalmente de hora e fuso). */
+    private static LocalDate lerDataCompacta(ByteBuffer buf, int inicio, int fim) throws RegistroInvalido {
+        if (fim - inicio < 8) {
+            throw new RegistroInvalido("DTPOSTED inválido");
+        }
+        return criarData(numero(buf, inicio, 4), numero(buf, inicio + 4, 2), numero(buf, inicio + 6, 2));
+    }
+
+    private static LocalDate criarData(int ano, int mes, int dia) throws RegistroInvalido {
+        try {
+            return LocalDate.of(ano, mes, dia);
+        } catch (DateTimeException e) {
+            throw new RegistroInvalido("data inexistente");
+        }
+    }
+
+    private static int numero(ByteBuffer buf, int inicio, int digitos) throws RegistroInvalido {
+        int valor = 0;
+        for (int i = inicio; i < inicio + digitos; i++) {
+            byte c = buf.get(i);
+            if (c < '0' || c > '9') {
+                throw new RegistroInvalido("data inválida");
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+
+    private static boolean somenteDigitos(ByteBuffer buf, int inicio, int fim) {
+        if (inicio == fim) {
+            return false;
+        }
+        for (int i = inicio; i < fim; i++) {
+            byte c = buf.get(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int aparar(ByteBuffer buf, int inicio, int fim, boolean esquerda) {
+        if (esquerda) {
+            while (inicio < fim && buf.get(inicio) <= ' ' && buf.get(inicio) >= 0) {
+                inicio++;
+            }
+            return inicio;
+        }
+        while (fim > inicio && buf.get(fim - 1) <= ' ' && buf.get(fim - 1) >= 0) {
+            fim--;
+        }
+        return fim;
+    }
+
+    private static boolean tagIgual(String nome, ByteBuffer buf, int inicio, int fim) {
+        if (fim - inicio != nome.length()) {
+            return false;
+        }
+        for (int i = 0; i < nome.length(); i++) {
+            if ((buf.get(inicio + i) & 0xDF) != nome.charAt(i) && buf.get(inicio + i) != nome.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean igualIgnorandoCaixa(byte[] esperado, ByteBuffer buf, int inicio, int fim) {
+        if (fim - inicio != esperado.length) {
+            return false;
+        }
+        for (int i = 0; i < esperado.length; i++) {
+            if ((buf.get(inicio + i) & 0xDF) != esperado[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Rejeição de um registro. Sem stack trace, pois é usada como controle de fluxo
+     * em arquivos com muitas linhas inválidas.
+     */
+    private static class RegistroInvalido extends Exception {
+        RegistroInvalido(String motivo) {
+            super(motivo, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.edufinai.service.importer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resumo de uma execução do {@link ExtratoImporter}.
+ *
+ * Responsabilidades:
+ * - Contar registros importados, rejeitados e duplicados (já registrados no serviço, ex.:
+ *   extrato importado de novo).
+ * - Guardar o motivo de cada rejeição (até um limite configurável).
+ * - Informar a vazão da importação (registros/s e MB/s).
+ *
+ * Observações:
+ * - Em uma importação retomada, os contadores incluem o que já havia sido
+ *   importado antes da falha; a vazão considera apenas a execução atual.
+ */
+public class ResultadoImportacao {
+
+    /**
+     * Registro do extrato que não pôde ser importado.
+     */
+    public static class Rejeicao {
+        private final long registro;
+        private final String motivo;
+
+        public Rejeicao(long registro, String motivo) {
+            this.registro = registro;
+            this.motivo = motivo;
+        }
+
+        /**
+         * @return número da linha (CSV) ou da transação (OFX) no arquivo, começando em 1
+         */
+        public long getRegistro() {
+            return registro;
+        }
+
+        public String getMotivo() {
+            return motivo;
+        }
+
+        @Override
+        public String toString() {
+            return "Registro " + registro + ": " + motivo;
+        }
+    }
+
+    private final boolean retomada;
+    private final int maxRejeicoesDetalhadas;
+    private final List<Rejeicao> rejeicoes = new ArrayList<>();
+    private long importadas;
+    private long rejeitadas;
+    private long importadasNestaExecucao;
+    private long duplicadas;
+    private long bytesLidos;
+    private long duracaoNanos;
+
+    ResultadoImportacao(boolean retomada, long importadas, long rejeitadas, int maxRejeicoesDetalhadas) {
+        this.retomada = retomada;
+        this.importadas = importadas;
+        this.rejeitadas = rejeitadas;
+        this.maxRejeicoesDetalhadas = maxRejeicoesDetalhadas;
+    }
+
+    void somarImportadas(int quantidade) {
+        importadas += quantidade;
+        importadasNestaExecucao += quantidade;
+    }
+
+    void somarDuplicadas(long quantidade) {
+        duplicadas += quantidade;
+    }
+
+    void rejeitar(long registro, String motivo) {
+        rejeitadas++;
+        if (rejeicoes.size() < maxRejeicoesDetalhadas) {
+            rejeicoes.add(new Rejeicao(registro, motivo));
+        }
+    }
+
+    void finalizar(long bytesLidos, long duracaoNanos) {
+        this.bytesLidos = bytesLidos;
+        this.duracaoNanos = duracaoNanos;
+    }
+
+    /**
+     * @return true se a importação continuou de um checkpoint deixado por uma execução anterior
+     */
+    public boolean isRetomada() {
+        return retomada;
+    }
+
+    public long getImportadas() {
+        return importadas;
+    }
+
+    public long getRejeitadas() {
+        return rejeitadas;
+    }
+
+    /**
+     * @return registros ignorados nesta execução por já estarem registrados no serviço
+     */
+    public long getDuplicadas() {
+        return duplicadas;
+    }
+
+    /**
+     * @return detalhes das primeiras rejeições (limitado para não crescer com arquivos muito ruins)
+     */
+    public List<Rejeicao> getRejeicoes() {
+        return Collections.unmodifiableList(rejeicoes);
+    }
+
+    public long getBytesLidos() {
+        return bytesLidos;
+    }
+
+    public long getDuracaoNanos() {
+        return duracaoNanos;
+    }
+
+    /**
+     * @return registros importados por segundo nesta execução
+     */
+    public double getRegistrosPorSegundo() {
+        return duracaoNanos == 0 ? 0 : importadasNestaExecucao * 1e9 / duracaoNanos;
+    }
+
+    /**
+     * @return megabytes do arquivo processados por segundo nesta execução
+     */
+    public double getMegabytesPorSegundo() {
+        return duracaoNanos == 0 ? 0 : bytesLidos / (1024.0 * 1024.0) * 1e9 / duracaoNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResultadoImportacao{importadas=%d, rejeitadas=%d, duplicadas=%d, retomada=%s, %.0f registros/s, %.1f MB/s}",
+                importadas, rejeitadas, duplicadas, retomada, getRegistrosPorSegundo(), getMegabytesPorSegundo());
+    }
+}
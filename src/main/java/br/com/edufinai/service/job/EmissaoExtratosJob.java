@@ -0,0 +1,308 @@
+package br.com.edufinai.service.job;
+
+import br.com.edufinai.model.User;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Emissão em massa dos extratos mensais de todos os usuários.
+ *
+ * Responsabilidades:
+ * - Obter a lista de usuários em uma única passada pelas partições do serviço
+ *   ({@link GerenciadorFinanceiroService#getUsuarios()}), sem varrer transações.
+ * - Renderizar um arquivo de extrato por usuário, em paralelo, em um {@link ForkJoinPool}
+ *   com paralelismo configurável.
+ * - Informar o progresso a um {@link OuvinteProgresso} (a cada intervalo configurado e ao final).
+ * - Registrar em um checkpoint os usuários concluídos, para que uma execução interrompida
+ *   possa ser retomada sem reemitir o que já foi gravado.
+ *
+ * Como funciona:
+ * - Os usuários pendentes são divididos recursivamente até blocos de {@link #setUsuariosPorTarefa(int)}.
+ * - Cada extrato é escrito mês a mês em um arquivo temporário e renomeado atomicamente
+ *   ({@code extrato-<userId>-<de>_<ate>.txt}); um arquivo final nunca fica pela metade, e o
+ *   temporário de um extrato que falhou é apagado.
+ * - Ao terminar um bloco, seus usuários são anexados ao checkpoint
+ *   ({@code .emissao-<de>_<ate>.checkpoint}, um {@code long} por usuário).
+ * - Se todos os extratos forem emitidos, o checkpoint é removido; havendo falhas, ele é mantido
+ *   e uma nova execução tenta apenas os usuários que faltam.
+ *
+ * Observações:
+ * - O checkpoint é gravado sem fsync: sobrevive à queda do processo, não à do sistema operacional.
+ *   No pior caso, alguns extratos são reemitidos.
+ */
+public class EmissaoExtratosJob {
+
+    /**
+     * Recebe o progresso da emissão. Pode ser chamado de várias threads.
+     */
+    @FunctionalInterface
+    public interface OuvinteProgresso {
+        /**
+         * @param concluidos usuários processados até agora (incluindo os de execuções anteriores)
+         * @param total total de usuários da emissão
+         */
+        void progresso(long concluidos, long total);
+    }
+
+    private final GerenciadorFinanceiroService service;
+    private int paralelismo = Runtime.getRuntime().availableProcessors();
+    private int usuariosPorTarefa = 64;
+    private long intervaloProgresso = 1_000;
+    private OuvinteProgresso ouvinte;
+    private LongFunction<User> usuarios = EmissaoExtratosJob::usuarioSemCadastro;
+
+    public EmissaoExtratosJob(GerenciadorFinanceiroService service) {
+        this.service = service;
+    }
+
+    /**
+     * Emite os extratos de todos os usuários com transações.
+     *
+     * @param de primeiro mês do extrato (inclusive), ou null para desde o início
+     * @param ate último mês do extrato (inclusive), ou null para até o fim
+     * @param diretorio diretório de saída (criado se não existir)
+     * @return resumo da emissão
+     * @throws IOException se o diretório ou o checkpoint não puderem ser usados
+     */
+    public ResultadoEmissao emitir(YearMonth de, YearMonth ate, Path diretorio) throws IOException {
+        long inicio = System.nanoTime();
+        Files.createDirectories(diretorio);
+        Path checkpoint = caminhoCheckpoint(diretorio, de, ate);
+        long[] concluidos = lerCheckpoint(checkpoint);
+
+        long[] todos = service.getUsuarios();
+        long[] pendentes = new long[todos.length];
+        int quantidadePendentes = 0;
+        for (long userId : todos) {
+            if (Arrays.binarySearch(concluidos, userId) < 0) {
+                pendentes[quantidadePendentes++] = userId;
+            }
+        }
+        ResultadoEmissao resultado = new ResultadoEmissao(todos.length, todos.length - quantidadePendentes);
+
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try (FileChannel canal = FileChannel.open(checkpoint, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            Emissao emissao = new Emissao(de, ate, diretorio, canal, resultado, todos.length);
+            pool.invoke(new Tarefa(emissao, pendentes, 0, quantidadePendentes));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+        if (resultado.getQuantidadeFalhas() == 0) {
+            Files.deleteIfExists(checkpoint);
+        }
+        resultado.finalizar(System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    /**
+     * @param diretorio diretório de saída da emissão
+     * @param userId id do usuário
+     * @param de primeiro mês (ou null)
+     * @param ate último mês (ou null)
+     * @return caminho do arquivo de extrato do usuário
+     */
+    public static Path caminhoExtrato(Path diretorio, long userId, YearMonth de, YearMonth ate) {
+        return diretorio.resolve("extrato-" + userId + "-" + intervalo(de, ate) + ".txt");
+    }
+
+    /**
+     * @param diretorio diretório de saída da emissão
+     * @param de primeiro mês (ou null)
+     * @param ate último mês (ou null)
+     * @return caminho do checkpoint da emissão
+     */
+    public static Path caminhoCheckpoint(Path diretorio, YearMonth de, YearMonth ate) {
+        return diretorio.resolve(".emissao-" + intervalo(de, ate) + ".checkpoint");
+    }
+
+    private static String intervalo(YearMonth de, YearMonth ate) {
+        return (de == null ? "inicio" : de.toString()) + "_" + (ate == null ? "fim" : ate.toString());
+    }
+
+    /**
+     * Lê os usuários concluídos; um registro final incompleto (queda durante a gravação) é ignorado.
+     */
+    private static long[] lerCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return new long[0];
+        }
+        ByteBuffer conteudo = ByteBuffer.wrap(Files.readAllBytes(checkpoint));
+        long[] concluidos = new long[conteudo.remaining() / Long.BYTES];
+        conteudo.asLongBuffer().get(concluidos);
+        Arrays.sort(concluidos);
+        return concluidos;
+    }
+
+    private static User usuarioSemCadastro(long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setName("Usuário " + userId);
+        return user;
+    }
+
+    /**
+     * @param paralelismo quantidade de threads do {@link ForkJoinPool} (padrão: processadores disponíveis)
+     */
+    public void setParalelismo(int paralelismo) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("Paralelismo deve ser positivo");
+        }
+        this.paralelismo = paralelismo;
+    }
+
+    /**
+     * @param usuariosPorTarefa tamanho dos blocos de usuários (e de cada gravação no checkpoint)
+     */
+    public void setUsuariosPorTarefa(int usuariosPorTarefa) {
+        if (usuariosPorTarefa < 1) {
+            throw new IllegalArgumentException("Usuários por tarefa deve ser positivo");
+        }
+        this.usuariosPorTarefa = usuariosPorTarefa;
+    }
+
+    /**
+     * @param ouvinte ouvinte de progresso (null para nenhum)
+     * @param intervalo a cada quantos usuários concluídos o ouvinte é chamado
+     */
+    public void setOuvinteProgresso(OuvinteProgresso ouvinte, long intervalo) {
+        if (intervalo < 1) {
+            throw new IllegalArgumentException("Intervalo de progresso deve ser positivo");
+        }
+        this.ouvinte = ouvinte;
+        this.intervaloProgresso = intervalo;
+    }
+
+    /**
+     * @param usuarios obtém o cadastro (nome) de cada usuário; o padrão usa "Usuário &lt;id&gt;"
+     */
+    public void setUsuarios(LongFunction<User> usuarios) {
+        this.usuarios = usuarios;
+    }
+
+    /**
+     * Estado compartilhado pelas tarefas de uma emissão.
+     */
+    private class Emissao {
+        private final YearMonth de;
+        private final YearMonth ate;
+        private final Path diretorio;
+        private final FileChannel checkpoint;
+        private final ResultadoEmissao resultado;
+        private final long total;
+        private final AtomicLong processados;
+
+        Emissao(YearMonth de, YearMonth ate, Path diretorio, FileChannel checkpoint, ResultadoEmissao resultado,
+                long total) {
+            this.de = de;
+            this.ate = ate;
+            this.diretorio = diretorio;
+            this.checkpoint = checkpoint;
+            this.resultado = resultado;
+            this.total = total;
+            this.processados = new AtomicLong(resultado.getJaConcluidos());
+        }
+
+        /**
+         * Emite o extrato de um usuário.
+         *
+         * @return true se o extrato foi gravado
+         */
+        boolean emitir(long userId) {
+            Path destino = caminhoExtrato(diretorio, userId, de, ate);
+            Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+            try {
+                try (Writer escritor = Files.newBufferedWriter(temporario, StandardCharsets.UTF_8)) {
+                    service.generateMonthlyReport(usuarios.apply(userId), de, ate, escritor);
+                }
+                Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return true;
+            } catch (IOException | RuntimeException e) {
+                // Sem o extrato parcial: uma falha por usuário não deve deixar um .tmp para trás
+                try {
+                    Files.deleteIfExists(temporario);
+                } catch (IOException ignorada) {
+                    e.addSuppressed(ignorada);
+                }
+                resultado.falhar(userId, e.toString());
+                return false;
+            }
+        }
+
+        /**
+         * Anexa ao checkpoint os usuários concluídos de um bloco e notifica o progresso.
+         */
+        void concluir(long[] bloco, int emitidos, int processadosNoBloco) {
+            ByteBuffer registros = ByteBuffer.allocate(emitidos * Long.BYTES);
+            registros.asLongBuffer().put(bloco, 0, emitidos);
+            try {
+                synchronized (checkpoint) {
+                    while (registros.hasRemaining()) {
+                        checkpoint.write(registros);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            resultado.somarEmitidos(emitidos);
+            long agora = processados.addAndGet(processadosNoBloco);
+            if (ouvinte != null && (agora == total
+                    || agora / intervaloProgresso != (agora - processadosNoBloco) / intervaloProgresso)) {
+                ouvinte.progresso(agora, total);
+            }
+        }
+    }
+
+    /**
+     * Divide os usuários pendentes ao meio até o tamanho de um bloco.
+     */
+    private class Tarefa extends RecursiveAction {
+        private final Emissao emissao;
+        private final long[] usuariosPendentes;
+        private final int inicio;
+        private final int fim;
+
+        Tarefa(Emissao emissao, long[] usuariosPendentes, int inicio, int fim) {
+            this.emissao = emissao;
+            this.usuariosPendentes = usuariosPendentes;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio > usuariosPorTarefa) {
+                int meio = (inicio + fim) >>> 1;
+                invokeAll(new Tarefa(emissao, usuariosPendentes, inicio, meio),
+                        new Tarefa(emissao, usuariosPendentes, meio, fim));
+                return;
+            }
+            long[] emitidos = new long[fim - inicio];
+            int quantidade = 0;
+            for (int i = inicio; i < fim; i++) {
+                if (emissao.emitir(usuariosPendentes[i])) {
+                    emitidos[quantidade++] = usuariosPendentes[i];
+                }
+            }
+            emissao.concluir(emitidos, quantidade, fim - inicio);
+        }
+    }
+}
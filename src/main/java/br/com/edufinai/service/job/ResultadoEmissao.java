@@ -0,0 +1,128 @@
+package br.com.edufinai.service.job;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resumo de uma execução do {@link EmissaoExtratosJob}.
+ *
+ * Responsabilidades:
+ * - Contar extratos emitidos, usuários já concluídos em uma execução anterior e falhas.
+ * - Guardar o motivo das primeiras falhas.
+ * - Informar a vazão da emissão (extratos/s).
+ *
+ * Observações:
+ * - Atualizado concorrentemente pelas tarefas da emissão; os métodos são thread-safe.
+ */
+public class ResultadoEmissao {
+
+    /** Quantidade máxima de falhas detalhadas guardadas. */
+    public static final int MAX_FALHAS_DETALHADAS = 100;
+
+    /**
+     * Usuário cujo extrato não pôde ser emitido.
+     */
+    public static class Falha {
+        private final long userId;
+        private final String motivo;
+
+        public Falha(long userId, String motivo) {
+            this.userId = userId;
+            this.motivo = motivo;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public String getMotivo() {
+            return motivo;
+        }
+
+        @Override
+        public String toString() {
+            return "Usuário " + userId + ": " + motivo;
+        }
+    }
+
+    private final long usuarios;
+    private final long jaConcluidos;
+    private final List<Falha> falhas = new ArrayList<>();
+    private long emitidos;
+    private long quantidadeFalhas;
+    private long duracaoNanos;
+
+    ResultadoEmissao(long usuarios, long jaConcluidos) {
+        this.usuarios = usuarios;
+        this.jaConcluidos = jaConcluidos;
+    }
+
+    synchronized void somarEmitidos(int quantidade) {
+        emitidos += quantidade;
+    }
+
+    synchronized void falhar(long userId, String motivo) {
+        quantidadeFalhas++;
+        if (falhas.size() < MAX_FALHAS_DETALHADAS) {
+            falhas.add(new Falha(userId, motivo));
+        }
+    }
+
+    synchronized void finalizar(long duracaoNanos) {
+        this.duracaoNanos = duracaoNanos;
+    }
+
+    /**
+     * @return usuários com transações no início da execução
+     */
+    public long getUsuarios() {
+        return usuarios;
+    }
+
+    /**
+     * @return usuários pulados por já constarem no checkpoint de uma execução interrompida
+     */
+    public long getJaConcluidos() {
+        return jaConcluidos;
+    }
+
+    public synchronized long getEmitidos() {
+        return emitidos;
+    }
+
+    public synchronized long getQuantidadeFalhas() {
+        return quantidadeFalhas;
+    }
+
+    /**
+     * @return detalhes das primeiras falhas (até {@link #MAX_FALHAS_DETALHADAS})
+     */
+    public synchronized List<Falha> getFalhas() {
+        return Collections.unmodifiableList(new ArrayList<>(falhas));
+    }
+
+    /**
+     * @return true se a execução continuou de um checkpoint deixado por uma execução anterior
+     */
+    public boolean isRetomada() {
+        return jaConcluidos > 0;
+    }
+
+    public synchronized long getDuracaoNanos() {
+        return duracaoNanos;
+    }
+
+    /**
+     * @return extratos emitidos por segundo nesta execução
+     */
+    public synchronized double getExtratosPorSegundo() {
+        return duracaoNanos == 0 ? 0 : emitidos * 1e9 / duracaoNanos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ResultadoEmissao{usuarios=%d, emitidos=%d, jaConcluidos=%d, falhas=%d, %.0f extratos/s}",
+                usuarios, emitidos, jaConcluidos, quantidadeFalhas, getExtratosPorSegundo());
+    }
+}
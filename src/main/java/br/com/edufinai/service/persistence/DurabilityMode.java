@@ -0,0 +1,27 @@
+package br.com.edufinai.service.persistence;
+
+/**
+ * Define quando uma transação registrada é considerada durável no {@link TransactionJournal}.
+ *
+ * Usado para equilibrar segurança e vazão:
+ * - {@link #SYNC}: cada registro é gravado e sincronizado (fsync) individualmente.
+ * - {@link #BATCHED}: registros concorrentes são agrupados e sincronizados juntos (group commit).
+ * - {@link #ASYNC}: o registro retorna antes da sincronização; uma falha pode perder os últimos milissegundos.
+ */
+public enum DurabilityMode {
+    /**
+     * Um fsync por transação; quem registra só retorna após a gravação em disco.
+     */
+    SYNC,
+
+    /**
+     * Group commit: um fsync por lote; quem registra espera o lote do seu registro ser sincronizado.
+     */
+    BATCHED,
+
+    /**
+     * O registro é enfileirado e quem registra retorna imediatamente;
+     * a gravação e o fsync ocorrem em segundo plano.
+     */
+    ASYNC
+}
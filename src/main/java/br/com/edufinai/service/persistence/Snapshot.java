@@ -0,0 +1,61 @@
+package br.com.edufinai.service.persistence;
+
+import br.com.edufinai.model.gamification.Challenge;
+import br.com.edufinai.model.gamification.Goal;
+import br.com.edufinai.model.gamification.Reward;
+import br.com.edufinai.service.EstadoServico;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Conteúdo de um snapshot lido do disco pelo {@link SnapshotManager}.
+ *
+ * Responsabilidades:
+ * - Reunir o estado do serviço financeiro e da gamificação em um mesmo LSN.
+ * - Identificar o arquivo de origem, útil para diagnóstico.
+ */
+public class Snapshot {
+
+    private final Path arquivo;
+    private final EstadoServico estado;
+    private final List<Goal> goals;
+    private final List<Challenge> challenges;
+    private final List<Reward> rewards;
+
+    public Snapshot(Path arquivo, EstadoServico estado, List<Goal> goals, List<Challenge> challenges,
+                    List<Reward> rewards) {
+        this.arquivo = arquivo;
+        this.estado = estado;
+        this.goals = goals;
+        this.challenges = challenges;
+        this.rewards = rewards;
+    }
+
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    /**
+     * @return LSN do último registro do log refletido neste snapshot
+     */
+    public long getLsn() {
+        return estado.getLsn();
+    }
+
+    public EstadoServico getEstado() {
+        return estado;
+    }
+
+    public List<Goal> getGoals() {
+        return goals;
+    }
+
+    public List<Challenge> getChallenges() {
+        return challenges;
+    }
+
+    public List<Reward> getRewards() {
+        return rewards;
+    }
+}
@@ -0,0 +1,705 @@
+package br.com.edufinai.service.persistence;
+
+import br.com.edufinai.model.gamification.Challenge;
+import br.com.edufinai.model.gamification.GamificationEngine;
+import br.com.edufinai.model.gamification.Goal;
+import br.com.edufinai.model.gamification.Reward;
+import br.com.edufinai.service.EstadoServico;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.ResumoMensal;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Gerencia snapshots binários compactos do estado do EduFinAI.
+ *
+ * Responsabilidades:
+ * - Gravar periodicamente (ou sob demanda) o estado do {@link GerenciadorFinanceiroService}
+ *   (transações, resumos e índice) e do {@link GamificationEngine} (metas, desafios e recompensas).
+ * - Carregar o snapshot mais recente via arquivo mapeado em memória.
+ * - Descartar segmentos do {@link TransactionJournal} já cobertos pelos snapshots mantidos.
+ *
+ * Recuperação:
+ * - {@link #restaurar(TransactionJournal, GamificationEngine)} carrega o último snapshot válido
+ *   e reproduz apenas o trecho do log posterior a ele. O tempo de inicialização passa a
+ *   depender do intervalo entre snapshots, e não do tamanho do histórico.
+ * - Sem snapshot válido, o log inteiro só é reproduzido se ainda começar no LSN 1; se o início
+ *   já foi descartado, a recuperação falha em vez de subir com o histórico incompleto.
+ *
+ * Formato ({@code snapshot-<lsn>.snap}, big-endian):
+ * <pre>
+ * int magia | int versão | long lsn (menor entre as partições) | int partições
+ * por partição:
+ * long lsn
+ * colunas: int linhas | descrições | long[] ids, userIds, accountIds, categoryIds, centavos
+ *          | int[] diasEpoca | byte[] tipos | int[] descricaoIds
+ * resumos: int usuários | (long userId | int meses | (int ano | int mês | long × 3 | int qtd)*)*
+ * índice:  int usuários | (long userId | int meses | (int ano | int mês | int n | int[n])*)*
+ * gamificação: metas | desafios | recompensas
+ * rodapé: int crc32c (de tudo que vem antes) | int magia
+ * </pre>
+ *
+ * Observações:
+ * - O arquivo é gravado em um temporário e renomeado atomicamente; um snapshot
+ *   incompleto ou corrompido é ignorado em favor do anterior.
+ * - Snapshots da versão 2 (sem o LSN por partição) continuam legíveis: todas as partições
+ *   recebem o LSN do cabeçalho.
+ */
+public class SnapshotManager implements Closeable {
+
+    /** Quantidade de snapshots mantidos em disco por padrão. */
+    public static final int SNAPSHOTS_MANTIDOS = 2;
+
+    private static final int MAGIA = 0x45465331; // "EFS1"
+    private static final int VERSAO = 3;
+    private static final int VERSAO_SEM_LSN_POR_PARTICAO = 2;
+    private static final String PREFIXO = "snapshot-";
+    private static final String SUFIXO = ".snap";
+    private static final int TAMANHO_BUFFER = 1 << 20;
+    private static final long TAMANHO_JANELA = 1L << 30;
+
+    private final Path diretorio;
+    private final int mantidos;
+    private ScheduledExecutorService agendador;
+
+    public SnapshotManager(Path diretorio) throws IOException {
+        this(diretorio, SNAPSHOTS_MANTIDOS);
+    }
+
+    /**
+     * @param diretorio diretório dos snapshots
+     * @param mantidos quantos snapshots manter (pelo menos 1)
+     * @throws IOException se o diretório não puder ser criado
+     */
+    public SnapshotManager(Path diretorio, int mantidos) throws IOException {
+        if (mantidos < 1) {
+            throw new IllegalArgumentException("É preciso manter ao menos um snapshot");
+        }
+        this.diretorio = diretorio;
+        this.mantidos = mantidos;
+        Files.createDirectories(diretorio);
+    }
+
+    /**
+     * Grava um snapshot do serviço e do motor de gamificação.
+     *
+     * Como funciona:
+     * - Captura o estado do serviço ({@link GerenciadorFinanceiroService#capturarEstado()}).
+     * - Garante que o log está sincronizado até o LSN capturado.
+     * - Grava o arquivo, remove snapshots excedentes e descarta os segmentos do log
+     *   cobertos pelo snapshot mais antigo mantido.
+     *
+     * @param service serviço financeiro
+     * @param engine motor de gamificação (pode ser null)
+     * @return caminho do snapshot gravado
+     * @throws IOException se a gravação falhar
+     */
+    public synchronized Path salvar(GerenciadorFinanceiroService service, GamificationEngine engine) throws IOException {
+        EstadoServico estado = service.capturarEstado();
+        List<Goal> goals = engine == null ? List.of() : engine.getGoals();
+        List<Challenge> challenges = engine == null ? List.of() : engine.getChallenges();
+        List<Reward> rewards = engine == null ? List.of() : new ArrayList<>(engine.getRewards());
+        TransactionJournal journal = service.getJournal();
+        if (journal != null) {
+            journal.sincronizar();
+        }
+
+        Path destino = diretorio.resolve(String.format("%s%020d%s", PREFIXO, estado.getLsn(), SUFIXO));
+        Path temporario = diretorio.resolve(destino.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Saida saida = new Saida(canal);
+            saida.putInt(MAGIA);
+            saida.putInt(VERSAO);
+            saida.putLong(estado.getLsn());
+            saida.putInt(estado.getParticoes().size());
+            for (EstadoServico.Particao particao : estado.getParticoes()) {
+                saida.putLong(particao.getLsn());
+                gravarColunas(saida, particao.getColunas());
+                gravarResumos(saida, particao.getResumos());
+                gravarIndice(saida, particao.getIndice());
+            }
+            gravarGamificacao(saida, goals, challenges, rewards);
+            saida.finalizar();
+            canal.force(true);
+        }
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        List<Path> existentes = listar();
+        for (int i = mantidos; i < existentes.size(); i++) {
+            Files.deleteIfExists(existentes.get(i));
+        }
+        if (journal != null) {
+            journal.rotacionar();
+            List<Path> restantes = listar();
+            journal.descartarAte(lsnDe(restantes.get(restantes.size() - 1)));
+        }
+        return destino;
+    }
+
+    /**
+     * Agenda snapshots periódicos em uma thread de segundo plano.
+     * Falhas são reportadas na saída de erro e a próxima execução tenta novamente.
+     *
+     * @param service serviço financeiro
+     * @param engine motor de gamificação (pode ser null)
+     * @param intervalo intervalo entre snapshots
+     * @return tarefa agendada (pode ser cancelada)
+     */
+    public synchronized ScheduledFuture<?> agendar(GerenciadorFinanceiroService service, GamificationEngine engine,
+                                                   Duration intervalo) {
+        if (agendador == null) {
+            agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "snapshot-" + diretorio.getFileName());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        long periodo = intervalo.toMillis();
+        return agendador.scheduleWithFixedDelay(() -> {
+            try {
+                salvar(service, engine);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("❌ Falha ao gravar snapshot em " + diretorio + ": " + e.getMessage());
+            }
+        }, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Carrega o snapshot válido mais recente.
+     *
+     * @return snapshot carregado, ou vazio se não houver nenhum válido
+     * @throws IOException se o diretório não puder ser lido
+     */
+    public Optional<Snapshot> carregarUltimo() throws IOException {
+        for (Path arquivo : listar()) {
+            try {
+                return Optional.of(carregar(arquivo));
+            } catch (SnapshotInvalidoException e) {
+                System.err.println("⚠️ Snapshot ignorado (" + arquivo.getFileName() + "): " + e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Reconstrói serviço e gamificação: carrega o último snapshot (se houver) e reproduz
+     * o trecho do log posterior a ele. Sem snapshot, reproduz o log inteiro, desde que ele
+     * ainda comece no LSN 1.
+     *
+     * @param journal log de transações já aberto
+     * @param engine motor de gamificação a restaurar (pode ser null)
+     * @return serviço pronto para uso
+     * @throws IOException se snapshot ou log não puderem ser lidos, ou se não houver snapshot
+     *                     válido e o início do log já tiver sido descartado
+     */
+    public GerenciadorFinanceiroService restaurar(TransactionJournal journal, GamificationEngine engine) throws IOException {
+        Optional<Snapshot> snapshot = carregarUltimo();
+        if (snapshot.isEmpty()) {
+            long primeiroLsn = journal.getPrimeiroLsn();
+            if (primeiroLsn != 1) {
+                throw new IOException("Nenhum snapshot válido em " + diretorio + ", mas o log só contém registros a partir do LSN "
+                        + primeiroLsn + ": o snapshot que cobria os anteriores está ausente");
+            }
+            return new GerenciadorFinanceiroService(journal);
+        }
+        if (engine != null) {
+            engine.restaurar(snapshot.get().getGoals(), snapshot.get().getChallenges(), snapshot.get().getRewards());
+        }
+        return new GerenciadorFinanceiroService(journal, snapshot.get().getEstado());
+    }
+
+    /**
+     * Interrompe os snapshots agendados.
+     */
+    @Override
+    public synchronized void close() {
+        if (agendador != null) {
+            agendador.shutdown();
+            agendador = null;
+        }
+    }
+
+    /**
+     * @return snapshots existentes, do mais recente para o mais antigo
+     */
+    private List<Path> listar() throws IOException {
+        TreeMap<Long, Path> porLsn = new TreeMap<>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, PREFIXO + "*" + SUFIXO)) {
+            for (Path arquivo : arquivos) {
+                porLsn.put(lsnDe(arquivo), arquivo);
+            }
+        }
+        return new ArrayList<>(porLsn.descendingMap().values());
+    }
+
+    private static long lsnDe(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        return Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length()));
+    }
+
+    // --- Gravação ---
+
+    private static void gravarColunas(Saida saida, ColumnarTransactionStore.Colunas c) throws IOException {
+        int linhas = c.getTamanho();
+        saida.putInt(linhas);
+        saida.putInt(c.getQuantidadeDescricoes());
+        for (int i = 0; i < c.getQuantidadeDescricoes(); i++) {
+            saida.putString(c.getDescricoes()[i]);
+        }
+        saida.putLongs(c.getIds(), linhas);
+        saida.putLongs(c.getUserIds(), linhas);
+        saida.putLongs(c.getAccountIds(), linhas);
+        saida.putLongs(c.getCategoryIds(), linhas);
+        saida.putLongs(c.getCentavos(), linhas);
+        saida.putInts(c.getDiasEpoca(), linhas);
+        saida.putBytes(c.getTipos(), linhas);
+        saida.putInts(c.getDescricaoIds(), linhas);
+    }
+
+    private static void gravarResumos(Saida saida, Map<Long, NavigableMap<YearMonth, ResumoMensal>> resumos)
+            throws IOException {
+        saida.putInt(resumos.size());
+        for (Map.Entry<Long, NavigableMap<YearMonth, ResumoMensal>> usuario : resumos.entrySet()) {
+            saida.putLong(usuario.getKey());
+            saida.putInt(usuario.getValue().size());
+            for (ResumoMensal r : usuario.getValue().values()) {
+                saida.putInt(r.getMes().getYear());
+                saida.putInt(r.getMes().getMonthValue());
+                saida.putLong(r.getReceitasCentavos());
+                saida.putLong(r.getDespesasCentavos());
+                saida.putLong(r.getInvestimentosCentavos());
+                saida.putInt(r.getQuantidade());
+            }
+        }
+    }
+
+    private static void gravarIndice(Saida saida, Map<Long, NavigableMap<YearMonth, int[]>> indice) throws IOException {
+        saida.putInt(indice.size());
+        for (Map.Entry<Long, NavigableMap<YearMonth, int[]>> usuario : indice.entrySet()) {
+            saida.putLong(usuario.getKey());
+            saida.putInt(usuario.getValue().size());
+            for (Map.Entry<YearMonth, int[]> mes : usuario.getValue().entrySet()) {
+                saida.putInt(mes.getKey().getYear());
+                saida.putInt(mes.getKey().getMonthValue());
+                saida.putInt(mes.getValue().length);
+                saida.putInts(mes.getValue(), mes.getValue().length);
+            }
+        }
+    }
+
+    private static void gravarGamificacao(Saida saida, List<Goal> goals, List<Challenge> challenges,
+                                          List<Reward> rewards) throws IOException {
+        saida.putInt(goals.size());
+        for (Goal g : goals) {
+            saida.putLongOpcional(g.getId());
+            saida.putLongOpcional(g.getUserId());
+            saida.putString(g.getTitle());
+            saida.putDecimal(g.getTargetAmount());
+            saida.putData(g.getDeadline());
+            saida.putBoolean(g.isAchieved());
+        }
+        saida.putInt(challenges.size());
+        for (Challenge c : challenges) {
+            saida.putLongOpcional(c.getId());
+            saida.putString(c.getTitle());
+            saida.putString(c.getDescription());
+            saida.putData(c.getStartDate());
+            saida.putData(c.getEndDate());
+            saida.putDecimal(c.getValue());
+            saida.putBoolean(c.isCompleted());
+        }
+        saida.putInt(rewards.size());
+        for (Reward r : rewards) {
+            saida.putLongOpcional(r.getId());
+            saida.putLongOpcional(r.getUserId());
+            saida.putString(r.getDescription());
+            saida.putDecimal(r.getValue());
+            saida.putBoolean(r.isRedeemed());
+        }
+    }
+
+    // --- Leitura ---
+
+    private Snapshot carregar(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            Entrada entrada = new Entrada(canal);
+            if (entrada.getInt() != MAGIA) {
+                throw new SnapshotInvalidoException("cabeçalho desconhecido");
+            }
+            int versao = entrada.getInt();
+            if (versao != VERSAO && versao != VERSAO_SEM_LSN_POR_PARTICAO) {
+                throw new SnapshotInvalidoException("versão desconhecida: " + versao);
+            }
+            long lsn = entrada.getLong();
+            int quantidadeParticoes = entrada.getInt();
+            List<EstadoServico.Particao> particoes = new ArrayList<>(quantidadeParticoes);
+            for (int i = 0; i < quantidadeParticoes; i++) {
+                long lsnParticao = versao == VERSAO ? entrada.getLong() : lsn;
+                ColumnarTransactionStore.Colunas colunas = lerColunas(entrada);
+                Map<Long, NavigableMap<YearMonth, ResumoMensal>> resumos = lerResumos(entrada);
+                Map<Long, NavigableMap<YearMonth, int[]>> indice = lerIndice(entrada);
+                particoes.add(new EstadoServico.Particao(lsnParticao, colunas, resumos, indice));
+            }
+
+            List<Goal> goals = new ArrayList<>();
+            for (int i = entrada.getInt(); i > 0; i--) {
+                Goal g = new Goal(entrada.getLongOpcional(), entrada.getLongOpcional(), entrada.getString(),
+                        entrada.getDecimal(), entrada.getData());
+                g.setAchieved(entrada.getBoolean());
+                goals.add(g);
+            }
+            List<Challenge> challenges = new ArrayList<>();
+            for (int i = entrada.getInt(); i > 0; i--) {
+                Challenge c = new Challenge(entrada.getLongOpcional(), entrada.getString(), entrada.getString(),
+                        entrada.getData(), entrada.getData());
+                c.setValue(entrada.getDecimal());
+                c.setCompleted(entrada.getBoolean());
+                challenges.add(c);
+            }
+            List<Reward> rewards = new ArrayList<>();
+            for (int i = entrada.getInt(); i > 0; i--) {
+                Reward r = new Reward(entrada.getLongOpcional(), entrada.getLongOpcional(), entrada.getString(),
+                        entrada.getDecimal());
+                r.setRedeemed(entrada.getBoolean());
+                rewards.add(r);
+            }
+            entrada.verificarRodape();
+            return new Snapshot(arquivo, new EstadoServico(particoes), goals, challenges, rewards);
+        } catch (RuntimeException e) {
+            // Tamanhos absurdos ou leitura além do fim: arquivo corrompido
+            throw new SnapshotInvalidoException("conteúdo inválido (" + e + ")");
+        }
+    }
+
+    private static ColumnarTransactionStore.Colunas lerColunas(Entrada entrada) throws IOException {
+        int linhas = entrada.getInt();
+        int quantidadeDescricoes = entrada.getInt();
+        String[] descricoes = new String[quantidadeDescricoes];
+        for (int i = 0; i < quantidadeDescricoes; i++) {
+            descricoes[i] = entrada.getString();
+        }
+        long[] ids = entrada.getLongs(linhas);
+        long[] userIds = entrada.getLongs(linhas);
+        long[] accountIds = entrada.getLongs(linhas);
+        long[] categoryIds = entrada.getLongs(linhas);
+        long[] centavos = entrada.getLongs(linhas);
+        int[] diasEpoca = entrada.getInts(linhas);
+        byte[] tipos = entrada.getBytes(linhas);
+        int[] descricaoIds = entrada.getInts(linhas);
+        return new ColumnarTransactionStore.Colunas(linhas, ids, userIds, accountIds, categoryIds, centavos,
+                diasEpoca, tipos, descricaoIds, descricoes, quantidadeDescricoes);
+    }
+
+    private static Map<Long, NavigableMap<YearMonth, ResumoMensal>> lerResumos(Entrada entrada) throws IOException {
+        int usuarios = entrada.getInt();
+        Map<Long, NavigableMap<YearMonth, ResumoMensal>> resumos = new HashMap<>(usuarios * 2);
+        for (int u = 0; u < usuarios; u++) {
+            long userId = entrada.getLong();
+            NavigableMap<YearMonth, ResumoMensal> meses = new TreeMap<>();
+            for (int m = entrada.getInt(); m > 0; m--) {
+                YearMonth mes = YearMonth.of(entrada.getInt(), entrada.getInt());
+                meses.put(mes, new ResumoMensal(mes, entrada.getLong(), entrada.getLong(), entrada.getLong(),
+                        entrada.getInt()));
+            }
+            resumos.put(userId, meses);
+        }
+        return resumos;
+    }
+
+    private static Map<Long, NavigableMap<YearMonth, int[]>> lerIndice(Entrada entrada) throws IOException {
+        int usuarios = entrada.getInt();
+        Map<Long, NavigableMap<YearMonth, int[]>> indice = new HashMap<>(usuarios * 2);
+        for (int u = 0; u < usuarios; u++) {
+            long userId = entrada.getLong();
+            NavigableMap<YearMonth, int[]> meses = new TreeMap<>();
+            for (int m = entrada.getInt(); m > 0; m--) {
+                YearMonth mes = YearMonth.of(entrada.getInt(), entrada.getInt());
+                meses.put(mes, entrada.getInts(entrada.getInt()));
+            }
+            indice.put(userId, meses);
+        }
+        return indice;
+    }
+
+    /**
+     * Snapshot que não pode ser usado (incompleto, corrompido ou de versão desconhecida).
+     */
+    private static class SnapshotInvalidoException extends IOException {
+        SnapshotInvalidoException(String motivo) {
+            super(motivo);
+        }
+    }
+
+    /**
+     * Escrita sequencial com buffer direto, calculando o CRC32C do conteúdo.
+     */
+    private static class Saida {
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+        private final CRC32C crc = new CRC32C();
+
+        Saida(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        void putInt(int valor) throws IOException {
+            garantir(4);
+            buffer.putInt(valor);
+        }
+
+        void putLong(long valor) throws IOException {
+            garantir(8);
+            buffer.putLong(valor);
+        }
+
+        void putBoolean(boolean valor) throws IOException {
+            garantir(1);
+            buffer.put((byte) (valor ? 1 : 0));
+        }
+
+        void putLongOpcional(Long valor) throws IOException {
+            putBoolean(valor != null);
+            putLong(valor == null ? 0 : valor);
+        }
+
+        void putData(LocalDate data) throws IOException {
+            putLongOpcional(data == null ? null : data.toEpochDay());
+        }
+
+        void putString(String texto) throws IOException {
+            if (texto == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            putBytes(bytes, bytes.length);
+        }
+
+        void putDecimal(BigDecimal valor) throws IOException {
+            putString(valor == null ? null : valor.toPlainString());
+        }
+
+        void putLongs(long[] valores, int quantidade) throws IOException {
+            int i = 0;
+            while (i < quantidade) {
+                garantir(8);
+                int n = Math.min(quantidade - i, buffer.remaining() / 8);
+                buffer.asLongBuffer().put(valores, i, n);
+                buffer.position(buffer.position() + n * 8);
+                i += n;
+            }
+        }
+
+        void putInts(int[] valores, int quantidade) throws IOException {
+            int i = 0;
+            while (i < quantidade) {
+                garantir(4);
+                int n = Math.min(quantidade - i, buffer.remaining() / 4);
+                buffer.asIntBuffer().put(valores, i, n);
+                buffer.position(buffer.position() + n * 4);
+                i += n;
+            }
+        }
+
+        void putBytes(byte[] valores, int quantidade) throws IOException {
+            int i = 0;
+            while (i < quantidade) {
+                garantir(1);
+                int n = Math.min(quantidade - i, buffer.remaining());
+                buffer.put(valores, i, n);
+                i += n;
+            }
+        }
+
+        void finalizar() throws IOException {
+            descarregar();
+            buffer.putInt((int) crc.getValue());
+            buffer.putInt(MAGIA);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+        }
+
+        private void garantir(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                descarregar();
+            }
+        }
+
+        private void descarregar() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Leitura sequencial sobre janelas mapeadas em memória. O CRC32C do arquivo é
+     * verificado antes de qualquer interpretação do conteúdo.
+     */
+    private static class Entrada {
+        private final FileChannel canal;
+        private final long tamanhoConteudo;
+        private MappedByteBuffer janela;
+        private long inicioJanela;
+
+        Entrada(FileChannel canal) throws IOException {
+            this.canal = canal;
+            long tamanho = canal.size();
+            if (tamanho < 8) {
+                throw new SnapshotInvalidoException("arquivo truncado");
+            }
+            this.tamanhoConteudo = tamanho - 8;
+            verificarCrc();
+            mapear(0);
+        }
+
+        private void verificarCrc() throws IOException {
+            ByteBuffer rodape = ByteBuffer.allocate(8);
+            canal.read(rodape, tamanhoConteudo);
+            rodape.flip();
+            int crcEsperado = rodape.getInt();
+            if (rodape.getInt() != MAGIA) {
+                throw new SnapshotInvalidoException("rodapé ausente (gravação incompleta)");
+            }
+            CRC32C crc = new CRC32C();
+            for (long pos = 0; pos < tamanhoConteudo; pos += TAMANHO_JANELA) {
+                crc.update(canal.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(TAMANHO_JANELA, tamanhoConteudo - pos)));
+            }
+            if ((int) crc.getValue() != crcEsperado) {
+                throw new SnapshotInvalidoException("CRC não confere");
+            }
+        }
+
+        void verificarRodape() throws IOException {
+            if (inicioJanela + janela.position() != tamanhoConteudo) {
+                throw new SnapshotInvalidoException("bytes sobrando após o conteúdo");
+            }
+        }
+
+        private void mapear(long posicao) throws IOException {
+            inicioJanela = posicao;
+            janela = canal.map(FileChannel.MapMode.READ_ONLY, posicao, Math.min(TAMANHO_JANELA, tamanhoConteudo - posicao));
+        }
+
+        private void garantir(int bytes) throws IOException {
+            if (janela.remaining() < bytes) {
+                long posicao = inicioJanela + janela.position();
+                if (tamanhoConteudo - posicao < bytes) {
+                    throw new SnapshotInvalidoException("fim inesperado do conteúdo");
+                }
+                mapear(posicao);
+            }
+        }
+
+        int getInt() throws IOException {
+            garantir(4);
+            return janela.getInt();
+        }
+
+        long getLong() throws IOException {
+            garantir(8);
+            return janela.getLong();
+        }
+
+        boolean getBoolean() throws IOException {
+            garantir(1);
+            return janela.get() != 0;
+        }
+
+        Long getLongOpcional() throws IOException {
+            boolean presente = getBoolean();
+            long valor = getLong();
+            return presente ? valor : null;
+        }
+
+        LocalDate getData() throws IOException {
+            Long dia = getLongOpcional();
+            return dia == null ? null : LocalDate.ofEpochDay(dia);
+        }
+
+        String getString() throws IOException {
+            int tamanho = getInt();
+            if (tamanho < 0) {
+                return null;
+            }
+            return new String(getBytes(tamanho), StandardCharsets.UTF_8);
+        }
+
+        BigDecimal getDecimal() throws IOException {
+            String texto = getString();
+            return texto == null ? null : new BigDecimal(texto);
+        }
+
+        long[] getLongs(int quantidade) throws IOException {
+            long[] valores = new long[quantidade];
+            int i = 0;
+            while (i < quantidade) {
+                garantir(8);
+                int n = Math.min(quantidade - i, janela.remaining() / 8);
+                janela.asLongBuffer().get(valores, i, n);
+                janela.position(janela.position() + n * 8);
+                i += n;
+            }
+            return valores;
+        }
+
+        int[] getInts(int quantidade) throws IOException {
+            int[] valores = new int[quantidade];
+            int i = 0;
+            while (i < quantidade) {
+                garantir(4);
+                int n = Math.min(quantidade - i, janela.remaining() / 4);
+                janela.asIntBuffer().get(valores, i, n);
+                janela.position(janela.position() + n * 4);
+                i += n;
+            }
+            return valores;
+        }
+
+        byte[] getBytes(int quantidade) throws IOException {
+            byte[] valores = new byte[quantidade];
+            int i = 0;
+            while (i < quantidade) {
+                garantir(1);
+                int n = Math.min(quantidade - i, janela.remaining());
+                janela.get(valores, i, n);
+                i += n;
+            }
+            return valores;
+        }
+    }
+}
@@ -0,0 +1,731 @@
+package br.com.edufinai.service.persistence;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Log de escrita antecipada (write-ahead log) das transações registradas.
+ *
+ * Responsabilidades:
+ * - Anexar cada transação a arquivos binários somente-anexação antes de ela ser aplicada em memória.
+ * - Agrupar gravações concorrentes em um único fsync por lote (group commit).
+ * - Reproduzir o conteúdo do log na inicialização, reconstruindo o estado do serviço.
+ * - Dividir o log em segmentos, para que os já cobertos por um snapshot possam ser descartados.
+ *
+ * Organização em disco:
+ * - Um diretório com segmentos {@code journal-<primeiroLsn>.wal}, em ordem de LSN.
+ * - Um novo segmento é iniciado quando o atual passa de {@link #TAMANHO_SEGMENTO_PADRAO}
+ *   ou quando {@link #rotacionar()} é chamado.
+ *
+ * Formato de cada registro (big-endian):
+ * <pre>
+ * int tamanho | int crc32c | long lsn | long id | long userId | long accountId | long categoryId
+ * | byte tipo | long centavos | int diaEpoca | short bytesDescricao | byte[] descricao (UTF-8)
+ * </pre>
+ * O {@code tamanho} cobre tudo após o crc; o crc cobre os mesmos bytes. Ids nulos usam
+ * {@link ColumnarTransactionStore#NULO} e descrições nulas, tamanho -1.
+ *
+ * Observações:
+ * - Na abertura, apenas o último segmento é validado; um registro final incompleto ou
+ *   corrompido (queda durante a gravação) é descartado. Nos demais segmentos, já encerrados
+ *   com fsync, tamanho ou CRC inválido é corrupção: a reprodução falha em vez de parar ali.
+ * - Cada registro recebe um número de sequência crescente (LSN), começando em 1.
+ * - Uma falha de gravação ou de fsync marca o log como falho ({@link #getFalha()}): toda operação
+ *   seguinte lança a mesma exceção. Nos modos {@link DurabilityMode#BATCHED} e
+ *   {@link DurabilityMode#ASYNC}, os registros do lote perdido já podem ter sido aplicados em
+ *   memória por quem os anexou; o serviço precisa ser reconstruído a partir do snapshot e do log.
+ * - A criação de cada segmento é sincronizada também no diretório, para que o arquivo novo
+ *   não desapareça em uma queda.
+ * - Thread-safe: vários produtores podem anexar ao mesmo tempo.
+ */
+public class TransactionJournal implements Closeable {
+
+    /** Tamanho a partir do qual um segmento é encerrado e outro é iniciado. */
+    public static final long TAMANHO_SEGMENTO_PADRAO = 64L * 1024 * 1024;
+
+    /** Maior descrição gravável, em bytes UTF-8 (o tamanho é gravado como {@code short}). */
+    public static final int MAX_DESCRICAO = Short.MAX_VALUE;
+
+    private static final String PREFIXO = "journal-";
+    private static final String SUFIXO = ".wal";
+    private static final int CABECALHO = 8;
+    private static final int TAMANHO_FIXO = 8 * 5 + 1 + 8 + 4 + 2;
+    private static final TransactionType[] TIPOS = TransactionType.values();
+    private static final long INTERVALO_ASYNC_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final Path diretorio;
+    private final DurabilityMode modo;
+    private final long tamanhoSegmento;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition temDados = lock.newCondition();
+    private final Condition sincronizado = lock.newCondition();
+    private final Condition rotacionado = lock.newCondition();
+
+    /** Segmentos existentes: primeiro LSN → arquivo. */
+    private final TreeMap<Long, Path> segmentos = new TreeMap<>();
+    private FileChannel canal;
+
+    private ByteBuffer atual = ByteBuffer.allocate(1 << 20);
+    private ByteBuffer reserva = ByteBuffer.allocate(1 << 20);
+    private int registrosPendentes;
+    private final CRC32C crc = new CRC32C();
+
+    private long ultimoLsn;
+    private volatile long lsnDuravel;
+    private long lotes;
+    private long registrosGravados;
+    private long rotacoesSolicitadas;
+    private long rotacoesFeitas;
+    private IOException falha;
+    private boolean fechado;
+    private final Thread gravador;
+
+    /**
+     * Abre (ou cria) o log no diretório informado, com segmentos de tamanho padrão.
+     *
+     * @param diretorio diretório dos segmentos do log
+     * @param modo modo de durabilidade das gravações
+     * @throws IOException se o diretório ou os segmentos não puderem ser abertos
+     */
+    public TransactionJournal(Path diretorio, DurabilityMode modo) throws IOException {
+        this(diretorio, modo, TAMANHO_SEGMENTO_PADRAO);
+    }
+
+    /**
+     * Abre (ou cria) o log no diretório informado.
+     * O último segmento é validado e um final corrompido é truncado.
+     *
+     * @param diretorio diretório dos segmentos do log
+     * @param modo modo de durabilidade das gravações
+     * @param tamanhoSegmento tamanho aproximado, em bytes, de cada segmento
+     * @throws IOException se o diretório ou os segmentos não puderem ser abertos
+     */
+    public TransactionJournal(Path diretorio, DurabilityMode modo, long tamanhoSegmento) throws IOException {
+        this.diretorio = diretorio;
+        this.modo = modo;
+        this.tamanhoSegmento = tamanhoSegmento;
+        Files.createDirectories(diretorio);
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, PREFIXO + "*" + SUFIXO)) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                segmentos.put(Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length())), arquivo);
+            }
+        }
+        if (segmentos.isEmpty()) {
+            segmentos.put(1L, caminhoSegmento(1));
+        }
+        long primeiroLsn = segmentos.lastKey();
+        this.ultimoLsn = primeiroLsn - 1;
+        this.canal = FileChannel.open(segmentos.lastEntry().getValue(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fimValido = percorrer(canal, 0, null);
+        if (fimValido < canal.size()) {
+            canal.truncate(fimValido);
+            canal.force(true);
+        }
+        sincronizarDiretorio();
+        canal.position(fimValido);
+        this.lsnDuravel = ultimoLsn;
+
+        if (modo == DurabilityMode.SYNC) {
+            this.gravador = null;
+        } else {
+            this.gravador = new Thread(this::gravarLotes, "journal-" + diretorio.getFileName());
+            this.gravador.setDaemon(true);
+            this.gravador.start();
+        }
+    }
+
+    /**
+     * Anexa uma transação ao log e retorna seu LSN.
+     * No modo {@link DurabilityMode#SYNC} a transação já está em disco ao retornar;
+     * nos demais, use {@link #aguardarDurabilidade(long)} quando necessário.
+     *
+     * Campos inválidos são rejeitados antes de reservar o LSN: o log fica como estava.
+     *
+     * @param t transação a registrar
+     * @return número de sequência (LSN) atribuído ao registro
+     * @throws NullPointerException se a transação não tiver usuário, tipo, valor ou data
+     * @throws ArithmeticException se o valor ou a data não couberem no registro
+     */
+    public long anexar(Transaction t) {
+        byte[] descricao = t.getDescription() == null ? null : t.getDescription().getBytes(StandardCharsets.UTF_8);
+        if (descricao != null && descricao.length > MAX_DESCRICAO) {
+            throw new IllegalArgumentException("Descrição excede " + MAX_DESCRICAO + " bytes");
+        }
+        long userId = t.getUserId();
+        byte tipo = (byte) t.getType().ordinal();
+        long centavos = ColumnarTransactionStore.paraCentavos(t.getAmount());
+        int dia = Math.toIntExact(t.getDate().toEpochDay());
+        lock.lock();
+        try {
+            verificarAberto();
+            long lsn = ++ultimoLsn;
+            boolean estavaVazio = atual.position() == 0;
+            codificar(lsn, t, userId, tipo, centavos, dia, descricao);
+            registrosPendentes++;
+            if (modo == DurabilityMode.SYNC) {
+                gravar(atual, registrosPendentes);
+                registrosPendentes = 0;
+                lsnDuravel = lsn;
+                if (canal.position() >= tamanhoSegmento) {
+                    try {
+                        iniciarSegmento(lsn + 1);
+                    } catch (IOException e) {
+                        // O registro já está em disco; a falha aparece na próxima operação
+                        falha = e;
+                    }
+                }
+            } else if (estavaVazio) {
+                temDados.signal();
+            }
+            return lsn;
+        } catch (IOException e) {
+            falha = e;
+            throw new UncheckedIOException("Falha ao gravar no log " + diretorio, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bloqueia até que o registro com o LSN informado esteja sincronizado em disco.
+     * No modo {@link DurabilityMode#ASYNC} retorna imediatamente.
+     *
+     * @param lsn LSN retornado por {@link #anexar(Transaction)}
+     * @throws UncheckedIOException se o lote do registro não pôde ser gravado; o log fica marcado
+     *                              como falho e o registro não deve ser considerado confirmado
+     */
+    public void aguardarDurabilidade(long lsn) {
+        if (modo == DurabilityMode.ASYNC || lsnDuravel >= lsn) {
+            return;
+        }
+        esperarGravacao(lsn);
+    }
+
+    /**
+     * Bloqueia até que todos os registros anexados até agora estejam em disco,
+     * independentemente do modo de durabilidade.
+     */
+    public void sincronizar() {
+        long lsn = getUltimoLsn();
+        if (lsnDuravel < lsn) {
+            esperarGravacao(lsn);
+        }
+    }
+
+    private void esperarGravacao(long lsn) {
+        lock.lock();
+        try {
+            while (lsnDuravel < lsn) {
+                if (falha != null) {
+                    throw new UncheckedIOException("Falha ao gravar no log " + diretorio, falha);
+                }
+                sincronizado.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reproduz, em ordem, as transações com LSN maior que {@code aposLsn}.
+     * Segmentos inteiramente anteriores a {@code aposLsn} nem são abertos.
+     * Deve ser chamado na inicialização, antes de novas gravações.
+     *
+     * @param aposLsn LSN a partir do qual reproduzir (0 para o log inteiro)
+     * @param destino consumidor que aplica cada transação
+     * @throws IOException se algum segmento não puder ser lido ou estiver corrompido antes do último
+     */
+    public void reproduzir(long aposLsn, Consumer<Transaction> destino) throws IOException {
+        reproduzir(aposLsn, (t, lsn) -> destino.accept(t));
+    }
+
+    /**
+     * Como {@link #reproduzir(long, Consumer)}, entregando também o LSN de cada registro.
+     *
+     * @param aposLsn LSN a partir do qual reproduzir (0 para o log inteiro)
+     * @param destino consumidor que recebe cada transação e o seu LSN
+     * @throws IOException se algum segmento não puder ser lido ou estiver corrompido antes do último
+     */
+    public void reproduzir(long aposLsn, ObjLongConsumer<Transaction> destino) throws IOException {
+        List<Path> arquivos;
+        lock.lock();
+        try {
+            Long inicio = segmentos.floorKey(aposLsn + 1);
+            arquivos = new ArrayList<>(segmentos.tailMap(inicio == null ? segmentos.firstKey() : inicio, true).values());
+        } finally {
+            lock.unlock();
+        }
+        for (int i = 0; i < arquivos.size(); i++) {
+            Path arquivo = arquivos.get(i);
+            try (FileChannel leitura = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+                long fimValido = percorrer(leitura, aposLsn, destino);
+                // Só o último segmento pode terminar em um registro interrompido pela queda
+                if (fimValido < leitura.size() && i < arquivos.size() - 1) {
+                    throw new IOException("Segmento " + arquivo.getFileName() + " corrompido na posição " + fimValido
+                            + " de " + leitura.size() + " bytes; os registros seguintes não podem ser reproduzidos");
+                }
+            }
+        }
+    }
+
+    /**
+     * Encerra o segmento atual (se tiver registros) e inicia um novo.
+     * Registros pendentes são gravados no segmento antigo antes da troca.
+     */
+    public void rotacionar() {
+        lock.lock();
+        try {
+            verificarAberto();
+            if (modo == DurabilityMode.SYNC) {
+                if (canal.position() > 0) {
+                    iniciarSegmento(ultimoLsn + 1);
+                }
+                return;
+            }
+            long pedido = ++rotacoesSolicitadas;
+            temDados.signal();
+            while (rotacoesFeitas < pedido) {
+                if (falha != null) {
+                    throw new UncheckedIOException("Falha ao rotacionar o log " + diretorio, falha);
+                }
+                rotacionado.awaitUninterruptibly();
+            }
+        } catch (IOException e) {
+            falha = e;
+            throw new UncheckedIOException("Falha ao rotacionar o log " + diretorio, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove os segmentos cujos registros têm todos LSN menor ou igual ao informado
+     * (tipicamente o LSN de um snapshot já gravado). O segmento atual nunca é removido.
+     *
+     * @param lsn LSN coberto pelo snapshot
+     * @return quantidade de segmentos removidos
+     * @throws IOException se algum arquivo não puder ser removido
+     */
+    public int descartarAte(long lsn) throws IOException {
+        List<Path> remover = new ArrayList<>();
+        lock.lock();
+        try {
+            Long proximo;
+            while (segmentos.size() > 1 && (proximo = segmentos.higherKey(segmentos.firstKey())) != null
+                    && proximo - 1 <= lsn) {
+                remover.add(segmentos.pollFirstEntry().getValue());
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Path arquivo : remover) {
+            Files.deleteIfExists(arquivo);
+        }
+        return remover.size();
+    }
+
+    /**
+     * @return LSN inicial do segmento mais antigo mantido (1 enquanto nenhum segmento foi descartado)
+     */
+    public long getPrimeiroLsn() {
+        lock.lock();
+        try {
+            return segmentos.firstKey();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return falha de gravação que marcou o log como falho, ou null se ele está saudável
+     */
+    public IOException getFalha() {
+        lock.lock();
+        try {
+            return falha;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return LSN do último registro anexado
+     */
+    public long getUltimoLsn() {
+        lock.lock();
+        try {
+            return ultimoLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return LSN do último registro sincronizado em disco
+     */
+    public long getLsnDuravel() {
+        return lsnDuravel;
+    }
+
+    /**
+     * @return quantidade de fsyncs realizados (um por lote)
+     */
+    public long getLotes() {
+        lock.lock();
+        try {
+            return lotes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return quantidade de registros gravados em disco nesta execução
+     */
+    public long getRegistrosGravados() {
+        lock.lock();
+        try {
+            return registrosGravados;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return quantidade de segmentos existentes no diretório do log
+     */
+    public int getQuantidadeSegmentos() {
+        lock.lock();
+        try {
+            return segmentos.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public DurabilityMode getModo() {
+        return modo;
+    }
+
+    /**
+     * Grava o que estiver pendente, sincroniza e fecha o segmento atual.
+     *
+     * @throws IOException se a gravação final falhar
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (fechado) {
+                return;
+            }
+            fechado = true;
+            temDados.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (gravador != null) {
+            try {
+                gravador.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        canal.close();
+        if (falha != null) {
+            throw falha;
+        }
+    }
+
+    /**
+     * Laço da thread gravadora: troca o buffer em uso por um vazio, grava o lote
+     * acumulado com um único fsync, acorda quem estava esperando e, se necessário,
+     * inicia um novo segmento.
+     */
+    private void gravarLotes() {
+        while (true) {
+            ByteBuffer lote;
+            long lsnLote;
+            int registros;
+            long rotacaoPedida;
+            lock.lock();
+            try {
+                while (atual.position() == 0 && rotacoesFeitas == rotacoesSolicitadas && !fechado) {
+                    temDados.awaitUninterruptibly();
+                }
+                if (atual.position() == 0 && rotacoesFeitas == rotacoesSolicitadas) {
+                    return;
+                }
+                lote = atual;
+                atual = reserva;
+                reserva = lote;
+                lsnLote = ultimoLsn;
+                registros = registrosPendentes;
+                registrosPendentes = 0;
+                rotacaoPedida = rotacoesSolicitadas;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                if (lote.position() > 0) {
+                    gravar(lote, registros);
+                }
+                boolean rotacionar = rotacaoPedida > rotacoesFeitas || canal.position() >= tamanhoSegmento;
+                if (rotacionar && canal.position() > 0) {
+                    iniciarSegmento(lsnLote + 1);
+                }
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    falha = e;
+                    sincronizado.signalAll();
+                    rotacionado.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+
+            lock.lock();
+            try {
+                lsnDuravel = lsnLote;
+                sincronizado.signalAll();
+                if (rotacaoPedida > rotacoesFeitas) {
+                    rotacoesFeitas = rotacaoPedida;
+                    rotacionado.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (modo == DurabilityMode.ASYNC) {
+                // Sem ninguém esperando, vale acumular lotes maiores entre os fsyncs
+                LockSupport.parkNanos(INTERVALO_ASYNC_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Grava o conteúdo do buffer e sincroniza. Conta um lote e deixa o buffer vazio.
+     * Só é chamado por uma thread por vez (a gravadora, ou quem segura o lock no modo SYNC).
+     */
+    private void gravar(ByteBuffer buffer, int registros) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        canal.force(false);
+        buffer.clear();
+        lock.lock();
+        try {
+            lotes++;
+            registrosGravados += registros;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fecha o segmento atual e abre um novo cujo primeiro registro terá o LSN informado.
+     * Mesmas regras de concorrência de {@link #gravar(ByteBuffer, int)}.
+     */
+    private void iniciarSegmento(long primeiroLsn) throws IOException {
+        Path arquivo = caminhoSegmento(primeiroLsn);
+        FileChannel novo = FileChannel.open(arquivo, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            sincronizarDiretorio();
+        } catch (IOException e) {
+            novo.close();
+            throw e;
+        }
+        canal.force(true);
+        canal.close();
+        lock.lock();
+        try {
+            canal = novo;
+            segmentos.put(primeiroLsn, arquivo);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sincroniza o diretório, tornando durável a criação (ou remoção) de segmentos.
+     * Sistemas que não permitem abrir diretórios (Windows) já persistem a entrada com o arquivo.
+     */
+    private void sincronizarDiretorio() throws IOException {
+        FileChannel canalDiretorio;
+        try {
+            canalDiretorio = FileChannel.open(diretorio, StandardOpenOption.READ);
+        } catch (AccessDeniedException e) {
+            return;
+        }
+        try (canalDiretorio) {
+            canalDiretorio.force(true);
+        }
+    }
+
+    private Path caminhoSegmento(long primeiroLsn) {
+        return diretorio.resolve(String.format("%s%020d%s", PREFIXO, primeiroLsn, SUFIXO));
+    }
+
+    private void codificar(long lsn, Transaction t, long userId, byte tipo, long centavos, int dia, byte[] descricao) {
+        int tamanho = TAMANHO_FIXO + (descricao == null ? 0 : descricao.length);
+        garantirEspaco(CABECALHO + tamanho);
+        ByteBuffer b = atual;
+        int inicio = b.position();
+        b.putInt(tamanho);
+        b.putInt(0); // crc preenchido abaixo
+        b.putLong(lsn);
+        b.putLong(paraColuna(t.getId()));
+        b.putLong(userId);
+        b.putLong(paraColuna(t.getAccountId()));
+        b.putLong(paraColuna(t.getCategoryId()));
+        b.put(tipo);
+        b.putLong(centavos);
+        b.putInt(dia);
+        if (descricao == null) {
+            b.putShort((short) -1);
+        } else {
+            b.putShort((short) descricao.length);
+            b.put(descricao);
+        }
+        crc.reset();
+        crc.update(b.array(), b.arrayOffset() + inicio + CABECALHO, tamanho);
+        b.putInt(inicio + 4, (int) crc.getValue());
+    }
+
+    private void garantirEspaco(int bytes) {
+        if (atual.remaining() < bytes) {
+            ByteBuffer maior = ByteBuffer.allocate(Math.max(atual.capacity() * 2, atual.position() + bytes));
+            atual.flip();
+            maior.put(atual);
+            atual = maior;
+        }
+    }
+
+    /**
+     * Percorre um segmento desde o início validando os registros.
+     *
+     * @param segmento canal do segmento
+     * @param aposLsn só entrega ao destino registros com LSN maior que este valor
+     * @param destino consumidor das transações (null apenas valida)
+     * @return posição logo após o último registro válido
+     */
+    private long percorrer(FileChannel segmento, long aposLsn, ObjLongConsumer<Transaction> destino) throws IOException {
+        ByteBuffer leitura = ByteBuffer.allocate(1 << 20);
+        long posicao = 0;
+        long tamanhoArquivo = segmento.size();
+        long lsn = 0;
+        CRC32C verificacao = new CRC32C();
+        while (true) {
+            leitura.clear();
+            int lidos = segmento.read(leitura, posicao);
+            if (lidos <= 0) {
+                break;
+            }
+            leitura.flip();
+            int consumido = 0;
+            while (leitura.remaining() >= CABECALHO) {
+                int inicio = leitura.position();
+                int tamanho = leitura.getInt(inicio);
+                if (tamanho < TAMANHO_FIXO || tamanho > TAMANHO_FIXO + MAX_DESCRICAO) {
+                    return finalizarLeitura(posicao + consumido, lsn);
+                }
+                if (leitura.remaining() < CABECALHO + tamanho) {
+                    if (CABECALHO + tamanho > leitura.capacity()) {
+                        leitura = ByteBuffer.allocate(CABECALHO + tamanho);
+                    }
+                    break; // registro cruza o fim do buffer; relê a partir dele
+                }
+                verificacao.reset();
+                verificacao.update(leitura.array(), inicio + CABECALHO, tamanho);
+                if ((int) verificacao.getValue() != leitura.getInt(inicio + 4)) {
+                    return finalizarLeitura(posicao + consumido, lsn);
+                }
+                leitura.position(inicio + CABECALHO);
+                lsn = leitura.getLong();
+                if (destino != null && lsn > aposLsn) {
+                    destino.accept(decodificar(leitura), lsn);
+                }
+                leitura.position(inicio + CABECALHO + tamanho);
+                consumido += CABECALHO + tamanho;
+            }
+            if (consumido == 0 && posicao + lidos >= tamanhoArquivo) {
+                break; // sobra incompleta no fim do arquivo
+            }
+            posicao += consumido;
+        }
+        return finalizarLeitura(posicao, lsn);
+    }
+
+    private long finalizarLeitura(long fimValido, long lsn) {
+        if (lsn > ultimoLsn) {
+            ultimoLsn = lsn;
+        }
+        return fimValido;
+    }
+
+    private static Transaction decodificar(ByteBuffer b) {
+        Long id = deColuna(b.getLong());
+        long userId = b.getLong();
+        Long accountId = deColuna(b.getLong());
+        Long categoryId = deColuna(b.getLong());
+        TransactionType tipo = TIPOS[b.get()];
+        long centavos = b.getLong();
+        LocalDate data = LocalDate.ofEpochDay(b.getInt());
+        short bytesDescricao = b.getShort();
+        String descricao = null;
+        if (bytesDescricao >= 0) {
+            descricao = new String(b.array(), b.position(), bytesDescricao, StandardCharsets.UTF_8);
+        }
+        return new Transaction(id, userId, accountId, categoryId, tipo,
+                ColumnarTransactionStore.deCentavos(centavos), data, descricao);
+    }
+
+    private static long paraColuna(Long valor) {
+        return valor == null ? ColumnarTransactionStore.NULO : valor;
+    }
+
+    private static Long deColuna(long valor) {
+        return valor == ColumnarTransactionStore.NULO ? null : valor;
+    }
+
+    private void verificarAberto() throws IOException {
+        if (fechado) {
+            throw new IllegalStateException("Log " + diretorio + " está fechado");
+        }
+        if (falha != null) {
+            throw falha;
+        }
+    }
+}
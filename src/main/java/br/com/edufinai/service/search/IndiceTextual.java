@@ -0,0 +1,214 @@
+package br.com.edufinai.service.search;
+
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+import br.com.edufinai.service.storage.IntList;
+import br.com.edufinai.service.storage.StringPool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Índice invertido das descrições de um {@link ColumnarTransactionStore}, por usuário.
+ *
+ * Responsabilidades:
+ * - Manter, para cada usuário e termo, as linhas do armazenamento cuja descrição contém o termo
+ *   ({@link ListaPostagens}, comprimidas por delta + varint).
+ * - Responder consultas com vários termos (todos obrigatórios) e prefixos ("merc*").
+ *
+ * Como funciona:
+ * - Os termos vêm do {@link Tokenizador}: sem acentos, em minúsculas, sem palavras vazias.
+ * - Cada descrição distinta do {@link StringPool} é quebrada em termos uma única vez; as linhas
+ *   seguintes com a mesma descrição reaproveitam os ids de termo já calculados.
+ * - O dicionário de termos é ordenado, então um prefixo vira um intervalo do dicionário; as
+ *   postagens dos termos do intervalo são unidas e depois intersectadas com os demais termos,
+ *   começando pelo termo mais raro.
+ *
+ * Observações:
+ * - A manutenção é incremental: cada linha anexada ao armazenamento é incluída com
+ *   {@link #adicionar(int)}, em ordem crescente de linha.
+ * - Não é thread-safe; o dono do índice controla o acesso (ex.: bloqueio da partição).
+ */
+public class IndiceTextual {
+
+    private static final int[] VAZIO = new int[0];
+
+    private final ColumnarTransactionStore transactions;
+    private final TreeMap<String, Integer> termos = new TreeMap<>();
+    private final Map<Long, Map<Integer, ListaPostagens>> postagensPorUsuario = new HashMap<>();
+    private int[][] termosPorDescricao = new int[64][];
+
+    /**
+     * @param transactions armazenamento cujas descrições serão indexadas
+     */
+    public IndiceTextual(ColumnarTransactionStore transactions) {
+        this.transactions = transactions;
+    }
+
+    /**
+     * Inclui a descrição de uma linha do armazenamento no índice do usuário dela.
+     *
+     * @param linha linha maior que todas as já indexadas
+     */
+    public void adicionar(int linha) {
+        int[] ids = termosDaDescricao(transactions.descricaoId(linha));
+        if (ids.length == 0) {
+            return;
+        }
+        Map<Integer, ListaPostagens> postagens = postagensPorUsuario
+                .computeIfAbsent(transactions.userId(linha), id -> new HashMap<>());
+        for (int termoId : ids) {
+            postagens.computeIfAbsent(termoId, id -> new ListaPostagens()).adicionar(linha);
+        }
+    }
+
+    /**
+     * Busca as transações do usuário cuja descrição contém todos os termos da consulta.
+     * Um termo terminado em {@code *} casa com qualquer termo que comece por ele.
+     *
+     * @param userId id do usuário
+     * @param consulta termos separados por espaço (ex.: "mercado pao*")
+     * @return linhas encontradas, em ordem crescente (vazio se a consulta não tiver termos)
+     */
+    public int[] buscar(long userId, String consulta) {
+        Map<Integer, ListaPostagens> postagens = postagensPorUsuario.get(userId);
+        if (postagens == null || consulta == null) {
+            return VAZIO;
+        }
+        List<int[]> listas = new ArrayList<>();
+        for (String palavra : consulta.trim().split("\\s+")) {
+            boolean prefixo = palavra.endsWith("*");
+            List<String> partes = Tokenizador.fragmentos(palavra);
+            for (int i = 0; i < partes.size(); i++) {
+                String parte = partes.get(i);
+                if (prefixo && i == partes.size() - 1) {
+                    listas.add(prefixo(postagens, parte));
+                } else if (Tokenizador.indexavel(parte)) {
+                    Integer termoId = termos.get(parte);
+                    ListaPostagens lista = termoId == null ? null : postagens.get(termoId);
+                    listas.add(lista == null ? VAZIO : decodificar(lista));
+                } else {
+                    continue;
+                }
+                if (listas.get(listas.size() - 1).length == 0) {
+                    return VAZIO;
+                }
+            }
+        }
+        if (listas.isEmpty()) {
+            return VAZIO;
+        }
+        listas.sort((a, b) -> Integer.compare(a.length, b.length));
+        int[] resultado = listas.get(0);
+        for (int i = 1; i < listas.size() && resultado.length > 0; i++) {
+            resultado = intersectar(resultado, listas.get(i));
+        }
+        return resultado;
+    }
+
+    /**
+     * @return quantidade de termos distintos no dicionário
+     */
+    public int getTermos() {
+        return termos.size();
+    }
+
+    /**
+     * @return bytes ocupados pelas listas de postagens comprimidas
+     */
+    public long getBytesPostagens() {
+        long bytes = 0;
+        for (Map<Integer, ListaPostagens> postagens : postagensPorUsuario.values()) {
+            for (ListaPostagens lista : postagens.values()) {
+                bytes += lista.getBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @return ids dos termos distintos da descrição, calculados na primeira vez que ela aparece
+     */
+    private int[] termosDaDescricao(int descricaoId) {
+        if (descricaoId == StringPool.NULO) {
+            return VAZIO;
+        }
+        if (descricaoId >= termosPorDescricao.length) {
+            termosPorDescricao = Arrays.copyOf(termosPorDescricao,
+                    Math.max(descricaoId + 1, termosPorDescricao.length * 2));
+        }
+        int[] ids = termosPorDescricao[descricaoId];
+        if (ids == null) {
+            ids = Tokenizador.termos(transactions.getDescricoes().get(descricaoId)).stream()
+                    .distinct()
+                    .mapToInt(termo -> termos.computeIfAbsent(termo, t -> termos.size()))
+                    .toArray();
+            termosPorDescricao[descricaoId] = ids;
+        }
+        return ids;
+    }
+
+    /**
+     * @return união ordenada das postagens do usuário para os termos que começam com {@code prefixo}
+     */
+    private int[] prefixo(Map<Integer, ListaPostagens> postagens, String prefixo) {
+        IntList linhas = new IntList();
+        int listas = 0;
+        for (Integer termoId : termos.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false).values()) {
+            ListaPostagens lista = postagens.get(termoId);
+            if (lista != null) {
+                lista.copiarPara(linhas);
+                listas++;
+            }
+        }
+        int[] resultado = linhas.toArray();
+        if (listas < 2) {
+            return resultado;
+        }
+        // Uma descrição pode ter vários termos com o mesmo prefixo: ordena e remove repetições
+        Arrays.sort(resultado);
+        int tamanho = 0;
+        for (int i = 0; i < resultado.length; i++) {
+            if (tamanho == 0 || resultado[tamanho - 1] != resultado[i]) {
+                resultado[tamanho++] = resultado[i];
+            }
+        }
+        return Arrays.copyOf(resultado, tamanho);
+    }
+
+    private static int[] decodificar(ListaPostagens lista) {
+        IntList linhas = new IntList(lista.getQuantidade());
+        lista.copiarPara(linhas);
+        return linhas.toArray();
+    }
+
+    /**
+     * Interseção de duas listas crescentes. Quando uma é bem menor, cada elemento dela é
+     * procurado na maior por busca exponencial, em vez de percorrer a maior inteira.
+     */
+    private static int[] intersectar(int[] menor, int[] maior) {
+        int[] resultado = new int[menor.length];
+        int tamanho = 0;
+        int j = 0;
+        for (int linha : menor) {
+            int passo = 1;
+            while (j + passo < maior.length && maior[j + passo] < linha) {
+                passo <<= 1;
+            }
+            int encontrado = Arrays.binarySearch(maior, j, Math.min(j + passo + 1, maior.length), linha);
+            if (encontrado >= 0) {
+                resultado[tamanho++] = linha;
+                j = encontrado + 1;
+            } else {
+                j = -encontrado - 1;
+            }
+            if (j >= maior.length) {
+                break;
+            }
+        }
+        return Arrays.copyOf(resultado, tamanho);
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.edufinai.service.search;
+
+import br.com.edufinai.service.storage.IntList;
+
+import java.util.Arrays;
+
+/**
+ * Lista de postagens (linhas do armazenamento) de um termo, comprimida por delta + varint.
+ *
+ * Como funciona:
+ * - As linhas chegam em ordem crescente (o armazenamento é somente-anexação), então cada uma
+ *   é gravada como a diferença para a anterior, em 7 bits por byte. Linhas próximas ocupam
+ *   1 byte; o caso típico fica entre 1 e 3 bytes por postagem, contra 4 de um {@code int[]}.
+ *
+ * Observações:
+ * - Não é thread-safe; o dono do índice controla o acesso.
+ */
+public class ListaPostagens {
+
+    private byte[] dados = new byte[4];
+    private int bytes;
+    private int quantidade;
+    private int ultima = -1;
+
+    /**
+     * @param linha linha maior que todas as já adicionadas (repetições da última são ignoradas)
+     */
+    public void adicionar(int linha) {
+        if (linha <= ultima) {
+            if (linha == ultima) {
+                return;
+            }
+            throw new IllegalArgumentException("Postagens devem ser crescentes: " + linha + " após " + ultima);
+        }
+        int delta = linha - ultima;
+        ultima = linha;
+        if (bytes + 5 > dados.length) {
+            dados = Arrays.copyOf(dados, Math.max(bytes + 5, dados.length * 2));
+        }
+        while ((delta & ~0x7F) != 0) {
+            dados[bytes++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        dados[bytes++] = (byte) delta;
+        quantidade++;
+    }
+
+    /**
+     * Decodifica todas as postagens no destino, em ordem crescente.
+     */
+    public void copiarPara(IntList destino) {
+        int linha = -1;
+        int posicao = 0;
+        while (posicao < bytes) {
+            int delta = 0;
+            int deslocamento = 0;
+            byte b;
+            do {
+                b = dados[posicao++];
+                delta |= (b & 0x7F) << deslocamento;
+                deslocamento += 7;
+            } while (b < 0);
+            linha += delta;
+            destino.add(linha);
+        }
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    /**
+     * @return bytes usados pelas postagens comprimidas
+     */
+    public int getBytes() {
+        return bytes;
+    }
+}
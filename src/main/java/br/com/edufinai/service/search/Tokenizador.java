@@ -0,0 +1,94 @@
+package br.com.edufinai.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Quebra descrições em termos de busca, sem distinção de acentos e maiúsculas.
+ *
+ * Como funciona:
+ * - Termos são sequências de letras e dígitos; o restante separa termos.
+ * - Cada caractere é convertido para minúsculas e tem o acento removido
+ *   ("Café" → "cafe", "AÇÃO" → "acao") por uma tabela pré-calculada para o bloco latino.
+ * - Acentos combinantes (texto já decomposto) são ignorados, sem quebrar o termo.
+ * - Termos de uma letra e palavras vazias comuns em português ("de", "da", "para"...) são descartados.
+ */
+public final class Tokenizador {
+
+    /** Palavras muito frequentes que não ajudam a distinguir lançamentos. */
+    private static final Set<String> PALAVRAS_VAZIAS = Set.of(
+            "as", "os", "de", "da", "do", "das", "dos", "em", "no", "na", "nos", "nas",
+            "um", "uma", "para", "pra", "por", "com", "ao", "aos");
+
+    private static final char LIMITE_TABELA = 'ɐ';
+
+    /** Caractere sem acento, em minúsculas, para cada caractere do bloco latino. */
+    private static final char[] DOBRA = new char[LIMITE_TABELA];
+
+    static {
+        for (char c = 0; c < LIMITE_TABELA; c++) {
+            String decomposto = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            DOBRA[c] = Character.toLowerCase(decomposto.charAt(0));
+        }
+    }
+
+    private Tokenizador() {
+    }
+
+    /**
+     * @param texto descrição ou consulta (pode ser null)
+     * @return termos normalizados, na ordem em que aparecem (pode haver repetições)
+     */
+    public static List<String> termos(String texto) {
+        return quebrar(texto, true);
+    }
+
+    /**
+     * Como {@link #termos(String)}, mas sem descartar termos curtos nem palavras vazias
+     * (usado nos prefixos de consultas, em que "d*" ou "de*" são válidos).
+     */
+    public static List<String> fragmentos(String texto) {
+        return quebrar(texto, false);
+    }
+
+    /**
+     * @return o caractere em minúsculas e sem acento
+     */
+    public static char normalizar(char c) {
+        return c < LIMITE_TABELA ? DOBRA[c] : Character.toLowerCase(c);
+    }
+
+    /**
+     * @param termo termo já normalizado
+     * @return se o termo entra no índice (duas letras ou mais e fora da lista de palavras vazias)
+     */
+    public static boolean indexavel(String termo) {
+        return termo.length() > 1 && !PALAVRAS_VAZIAS.contains(termo);
+    }
+
+    private static List<String> quebrar(String texto, boolean descartar) {
+        List<String> termos = new ArrayList<>();
+        if (texto == null) {
+            return termos;
+        }
+        StringBuilder termo = new StringBuilder(16);
+        for (int i = 0; i <= texto.length(); i++) {
+            char c = i < texto.length() ? texto.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                termo.append(normalizar(c));
+            } else if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                // Acento combinante de texto já decomposto ("e" + "\u0301"): ignorado
+                continue;
+            } else if (termo.length() > 0) {
+                String normalizado = termo.toString();
+                if (!descartar || indexavel(normalizado)) {
+                    termos.add(normalizado);
+                }
+                termo.setLength(0);
+            }
+        }
+        return termos;
+    }
+}
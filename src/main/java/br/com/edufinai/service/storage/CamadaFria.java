@@ -0,0 +1,135 @@
+package br.com.edufinai.service.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Política de rebaixamento de um {@link ColumnarTransactionStore} para segmentos em disco.
+ *
+ * Responsabilidades:
+ * - Manter as colunas em heap dentro de um orçamento de bytes: ao ultrapassá-lo, as linhas
+ *   mais antigas são seladas ({@link ColumnarTransactionStore#selar(int, Path)}) até restar
+ *   metade do orçamento, de modo que cada linha é copiada no máximo uma vez por rebaixamento.
+ * - Nomear os arquivos de segmento e limpar os de execuções anteriores.
+ *
+ * Observações:
+ * - As linhas são seladas na ordem de registro: com lançamentos chegando em ordem cronológica,
+ *   os meses antigos vão para o disco e os recentes ficam em heap.
+ * - O orçamento cobre apenas as colunas (~49 bytes por linha). Os índices por linha (duplicatas,
+ *   segmentos por mês, postagens textuais) e os agregados por usuário e mês continuam em heap.
+ * - Os segmentos são uma extensão da memória, não persistência: a durabilidade continua a cargo
+ *   do log e dos snapshots, e os arquivos são apagados ao configurar a camada novamente.
+ * - Falhas de gravação (ex.: disco cheio) não interrompem registros: o arquivo incompleto é
+ *   apagado, a falha é contada ({@link #getFalhas()}, {@link #getUltimaFalha()}) e as linhas
+ *   permanecem em heap. A próxima tentativa só acontece depois de mais
+ *   {@link #INTERVALO_MINIMO_FALHA} linhas registradas, intervalo que dobra a cada falha seguida
+ *   (até metade do orçamento em linhas), para que um disco cheio não custe uma gravação grande
+ *   a cada registro.
+ */
+public class CamadaFria {
+
+    private static final String PREFIXO = "segmento-";
+    private static final String SUFIXO = ".seg";
+
+    /** Linhas registradas entre uma falha e a próxima tentativa (dobra a cada falha seguida). */
+    public static final int INTERVALO_MINIMO_FALHA = 1_024;
+
+    private final Path diretorio;
+    private final long orcamentoBytes;
+    private final long intervaloMaximoFalha;
+    private long falhas;
+    private IOException ultimaFalha;
+    /** Tamanho do armazenamento a partir do qual se tenta de novo (0 sem falha pendente). */
+    private long proximaTentativa;
+    private long intervaloFalha;
+
+    /**
+     * @param diretorio diretório exclusivo dos segmentos (criado se não existir)
+     * @param orcamentoBytes bytes de heap permitidos para as colunas
+     * @throws IOException se o diretório não puder ser criado ou limpo
+     */
+    public CamadaFria(Path diretorio, long orcamentoBytes) throws IOException {
+        if (orcamentoBytes < ColumnarTransactionStore.BYTES_POR_LINHA * 2L) {
+            throw new IllegalArgumentException("Orçamento de heap muito pequeno: " + orcamentoBytes + " bytes");
+        }
+        this.diretorio = Files.createDirectories(diretorio);
+        this.orcamentoBytes = orcamentoBytes;
+        this.intervaloMaximoFalha = Math.max(INTERVALO_MINIMO_FALHA,
+                orcamentoBytes / 2 / ColumnarTransactionStore.BYTES_POR_LINHA);
+        try (DirectoryStream<Path> antigos = Files.newDirectoryStream(diretorio, PREFIXO + "*" + SUFIXO)) {
+            for (Path antigo : antigos) {
+                Files.deleteIfExists(antigo);
+            }
+        }
+    }
+
+    /**
+     * Sela as linhas mais antigas do armazenamento se as colunas em heap passarem do orçamento.
+     * Depois de uma falha, não faz nada até o armazenamento crescer o intervalo de espera.
+     * Quem chama deve ter acesso exclusivo ao armazenamento.
+     *
+     * @param store armazenamento a verificar
+     * @return linhas seladas nesta chamada
+     */
+    public int verificar(ColumnarTransactionStore store) {
+        long quentes = store.size() - store.getLinhasSeladas();
+        if (quentes * ColumnarTransactionStore.BYTES_POR_LINHA <= orcamentoBytes || store.size() < proximaTentativa) {
+            return 0;
+        }
+        int ate = (int) (store.size() - orcamentoBytes / 2 / ColumnarTransactionStore.BYTES_POR_LINHA);
+        int seladas = 0;
+        Path arquivo = null;
+        try {
+            while (store.getLinhasSeladas() < ate) {
+                int inicio = store.getLinhasSeladas();
+                int fim = (int) Math.min(ate, (long) inicio + SegmentoFrio.MAXIMO_LINHAS);
+                arquivo = diretorio.resolve(String.format("%s%010d-%010d%s", PREFIXO, inicio, fim, SUFIXO));
+                seladas += store.selar(fim, arquivo);
+            }
+            proximaTentativa = 0;
+            intervaloFalha = 0;
+        } catch (IOException | UncheckedIOException e) {
+            registrarFalha(store, arquivo, e instanceof IOException io ? io : ((UncheckedIOException) e).getCause());
+        }
+        return seladas;
+    }
+
+    private void registrarFalha(ColumnarTransactionStore store, Path arquivo, IOException e) {
+        falhas++;
+        ultimaFalha = e;
+        intervaloFalha = intervaloFalha == 0 ? INTERVALO_MINIMO_FALHA : Math.min(intervaloFalha * 2, intervaloMaximoFalha);
+        proximaTentativa = store.size() + intervaloFalha;
+        if (arquivo != null) {
+            try {
+                Files.deleteIfExists(arquivo);
+            } catch (IOException ignorada) {
+                e.addSuppressed(ignorada);
+            }
+        }
+    }
+
+    public Path getDiretorio() {
+        return diretorio;
+    }
+
+    public long getOrcamentoBytes() {
+        return orcamentoBytes;
+    }
+
+    /**
+     * @return rebaixamentos que falharam desde a criação
+     */
+    public long getFalhas() {
+        return falhas;
+    }
+
+    /**
+     * @return exceção do último rebaixamento que falhou, ou null se nenhum falhou
+     */
+    public IOException getUltimaFalha() {
+        return ultimaFalha;
+    }
+}
@@ -0,0 +1,508 @@
+package br.com.edufinai.service.storage;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Armazenamento colunar de transações, baseado em arrays de tipos primitivos.
+ *
+ * Responsabilidades:
+ * - Guardar cada campo de {@link Transaction} em uma coluna própria:
+ *   ids em {@code long[]}, valor em centavos ({@code long}), data em dias desde a época ({@code int}),
+ *   tipo em {@code byte} e descrição como id de um {@link StringPool}.
+ * - Permitir varreduras rápidas por coluna, sem criar objetos por linha.
+ * - Expor cada linha como uma {@link Transaction} leve (flyweight) para quem já usa o modelo.
+ *
+ * Observações:
+ * - Cada linha ocupa cerca de 49 bytes, contra mais de 150 bytes de um {@link Transaction}
+ *   com seus objetos {@code Long}, {@link BigDecimal}, {@link LocalDate} e {@code String}.
+ * - O armazenamento é somente-anexação: linhas nunca são alteradas depois de gravadas.
+ * - Valores com mais de duas casas decimais são arredondados (HALF_UP) para centavos.
+ * - Ids nulos são representados pelo valor reservado {@link #NULO}.
+ * - As linhas mais antigas podem ser seladas em segmentos imutáveis mapeados em memória
+ *   ({@link #selar(int, Path)}), fora do heap. Os números de linha não mudam: as linhas
+ *   seladas continuam acessíveis pelos mesmos métodos, apenas lidas do arquivo.
+ * - Não é thread-safe; a sincronização fica a cargo de quem o utiliza.
+ *   {@link #instantaneo()} fornece uma visão imutável que pode ser lida sem bloqueio.
+ */
+public class ColumnarTransactionStore {
+
+    /** Valor reservado para representar ids nulos nas colunas {@code long}. */
+    public static final long NULO = Long.MIN_VALUE;
+
+    /** Bytes de heap ocupados por linha nas colunas (sem contar a folga de capacidade). */
+    public static final int BYTES_POR_LINHA = 49;
+
+    private static final TransactionType[] TIPOS = TransactionType.values();
+    private static final SegmentoFrio[] SEM_SEGMENTOS = new SegmentoFrio[0];
+    private static final int CAPACIDADE_INICIAL = 1024;
+
+    private final StringPool descricoes;
+
+    private long[] ids = new long[CAPACIDADE_INICIAL];
+    private long[] userIds = new long[CAPACIDADE_INICIAL];
+    private long[] accountIds = new long[CAPACIDADE_INICIAL];
+    private long[] categoryIds = new long[CAPACIDADE_INICIAL];
+    private long[] centavos = new long[CAPACIDADE_INICIAL];
+    private int[] diasEpoca = new int[CAPACIDADE_INICIAL];
+    private byte[] tipos = new byte[CAPACIDADE_INICIAL];
+    private int[] descricaoIds = new int[CAPACIDADE_INICIAL];
+    private int tamanho;
+    /** Segmentos selados, em ordem, cobrindo as linhas {@code [0, base)}. */
+    private SegmentoFrio[] segmentos = SEM_SEGMENTOS;
+    /** Primeira linha guardada nos arrays de heap (a linha {@code l} fica na posição {@code l - base}). */
+    private int base;
+    private final boolean somenteLeitura;
+
+    /**
+     * Colunas de um armazenamento em um dado instante, usadas para snapshots.
+     * Os arrays podem ter capacidade maior que {@link #tamanho}; apenas as
+     * posições {@code [0, tamanho)} são válidas.
+     */
+    public static class Colunas {
+        private final int tamanho;
+        private final long[] ids;
+        private final long[] userIds;
+        private final long[] accountIds;
+        private final long[] categoryIds;
+        private final long[] centavos;
+        private final int[] diasEpoca;
+        private final byte[] tipos;
+        private final int[] descricaoIds;
+        private final String[] descricoes;
+        private final int quantidadeDescricoes;
+
+        public Colunas(int tamanho, long[] ids, long[] userIds, long[] accountIds, long[] categoryIds,
+                       long[] centavos, int[] diasEpoca, byte[] tipos, int[] descricaoIds,
+                       String[] descricoes, int quantidadeDescricoes) {
+            this.tamanho = tamanho;
+            this.ids = ids;
+            this.userIds = userIds;
+            this.accountIds = accountIds;
+            this.categoryIds = categoryIds;
+            this.centavos = centavos;
+            this.diasEpoca = diasEpoca;
+            this.tipos = tipos;
+            this.descricaoIds = descricaoIds;
+            this.descricoes = descricoes;
+            this.quantidadeDescricoes = quantidadeDescricoes;
+        }
+
+        public int getTamanho() {
+            return tamanho;
+        }
+
+        public long[] getIds() {
+            return ids;
+        }
+
+        public long[] getUserIds() {
+            return userIds;
+        }
+
+        public long[] getAccountIds() {
+            return accountIds;
+        }
+
+        public long[] getCategoryIds() {
+            return categoryIds;
+        }
+
+        public long[] getCentavos() {
+            return centavos;
+        }
+
+        public int[] getDiasEpoca() {
+            return diasEpoca;
+        }
+
+        public byte[] getTipos() {
+            return tipos;
+        }
+
+        public int[] getDescricaoIds() {
+            return descricaoIds;
+        }
+
+        public String[] getDescricoes() {
+            return descricoes;
+        }
+
+        public int getQuantidadeDescricoes() {
+            return quantidadeDescricoes;
+        }
+    }
+
+    public ColumnarTransactionStore() {
+        this(new StringPool());
+    }
+
+    /**
+     * Recria um armazenamento a partir das colunas de um snapshot.
+     * Os arrays passam a pertencer ao novo armazenamento (sem cópia).
+     *
+     * @param colunas colunas lidas do snapshot
+     */
+    public ColumnarTransactionStore(Colunas colunas) {
+        this.somenteLeitura = false;
+        this.descricoes = new StringPool(colunas.getDescricoes(), colunas.getQuantidadeDescricoes());
+        this.ids = colunas.getIds();
+        this.userIds = colunas.getUserIds();
+        this.accountIds = colunas.getAccountIds();
+        this.categoryIds = colunas.getCategoryIds();
+        this.centavos = colunas.getCentavos();
+        this.diasEpoca = colunas.getDiasEpoca();
+        this.tipos = colunas.getTipos();
+        this.descricaoIds = colunas.getDescricaoIds();
+        this.tamanho = colunas.getTamanho();
+        if (ids.length == 0) {
+            crescer();
+        }
+    }
+
+    /**
+     * Cria um armazenamento que compartilha o pool de descrições informado.
+     *
+     * @param descricoes pool de strings usado para as descrições
+     */
+    public ColumnarTransactionStore(StringPool descricoes) {
+        this.descricoes = descricoes;
+        this.somenteLeitura = false;
+    }
+
+    private ColumnarTransactionStore(ColumnarTransactionStore origem) {
+        this.somenteLeitura = true;
+        this.descricoes = origem.descricoes.instantaneo();
+        this.ids = origem.ids;
+        this.userIds = origem.userIds;
+        this.accountIds = origem.accountIds;
+        this.categoryIds = origem.categoryIds;
+        this.centavos = origem.centavos;
+        this.diasEpoca = origem.diasEpoca;
+        this.tipos = origem.tipos;
+        this.descricaoIds = origem.descricaoIds;
+        this.tamanho = origem.tamanho;
+        this.segmentos = origem.segmentos;
+        this.base = origem.base;
+    }
+
+    /**
+     * Retorna uma cópia lógica, somente leitura, das linhas gravadas até agora.
+     * Nenhum array é copiado: pelo mesmo motivo de {@link #capturar()}, as linhas
+     * {@code [0, size())} do instante da chamada nunca mudam.
+     *
+     * @return armazenamento imutável com as linhas atuais
+     */
+    public ColumnarTransactionStore instantaneo() {
+        return new ColumnarTransactionStore(this);
+    }
+
+    /**
+     * Anexa uma transação ao final do armazenamento.
+     * Usuário, tipo, valor e data devem estar preenchidos.
+     *
+     * @param t transação a copiar para as colunas
+     * @return índice da linha gravada
+     */
+    public int append(Transaction t) {
+        return append(paraColuna(t.getId()), t.getUserId(), paraColuna(t.getAccountId()),
+                paraColuna(t.getCategoryId()), t.getType(), paraCentavos(t.getAmount()),
+                t.getDate().toEpochDay(), descricoes.intern(t.getDescription()));
+    }
+
+    /**
+     * Anexa uma linha já decomposta em valores primitivos.
+     *
+     * @param id id da transação ou {@link #NULO}
+     * @param userId id do usuário
+     * @param accountId id da conta ou {@link #NULO}
+     * @param categoryId id da categoria ou {@link #NULO}
+     * @param tipo tipo da transação
+     * @param valorCentavos valor em centavos
+     * @param diaEpoca data em dias desde 1970-01-01
+     * @param descricaoId id da descrição no {@link StringPool}
+     * @return índice da linha gravada
+     */
+    public int append(long id, long userId, long accountId, long categoryId, TransactionType tipo,
+                      long valorCentavos, long diaEpoca, int descricaoId) {
+        if (somenteLeitura) {
+            throw new UnsupportedOperationException("Armazenamento somente leitura");
+        }
+        int posicao = tamanho - base;
+        if (posicao == ids.length) {
+            crescer();
+        }
+        ids[posicao] = id;
+        userIds[posicao] = userId;
+        accountIds[posicao] = accountId;
+        categoryIds[posicao] = categoryId;
+        centavos[posicao] = valorCentavos;
+        diasEpoca[posicao] = Math.toIntExact(diaEpoca);
+        tipos[posicao] = (byte) tipo.ordinal();
+        descricaoIds[posicao] = descricaoId;
+        return tamanho++;
+    }
+
+    /**
+     * Captura as colunas atuais sem copiá-las. Como o armazenamento é somente-anexação
+     * e o crescimento sempre cria arrays novos, as linhas {@code [0, tamanho)} capturadas
+     * permanecem válidas mesmo com gravações posteriores.
+     * Com linhas seladas, as colunas são montadas em arrays novos (cópia temporária no heap).
+     *
+     * @return colunas no instante da chamada
+     */
+    public Colunas capturar() {
+        if (base == 0) {
+            return new Colunas(tamanho, ids, userIds, accountIds, categoryIds, centavos, diasEpoca, tipos,
+                    descricaoIds, descricoes.textos(), descricoes.size());
+        }
+        long[] todosIds = new long[tamanho];
+        long[] todosUserIds = new long[tamanho];
+        long[] todosAccountIds = new long[tamanho];
+        long[] todosCategoryIds = new long[tamanho];
+        long[] todosCentavos = new long[tamanho];
+        int[] todosDias = new int[tamanho];
+        int[] todasDescricoes = new int[tamanho];
+        byte[] todosTipos = new byte[tamanho];
+        for (SegmentoFrio segmento : segmentos) {
+            segmento.copiarPara(todosIds, todosUserIds, todosAccountIds, todosCategoryIds, todosCentavos, todosDias,
+                    todasDescricoes, todosTipos);
+        }
+        int quentes = tamanho - base;
+        System.arraycopy(ids, 0, todosIds, base, quentes);
+        System.arraycopy(userIds, 0, todosUserIds, base, quentes);
+        System.arraycopy(accountIds, 0, todosAccountIds, base, quentes);
+        System.arraycopy(categoryIds, 0, todosCategoryIds, base, quentes);
+        System.arraycopy(centavos, 0, todosCentavos, base, quentes);
+        System.arraycopy(diasEpoca, 0, todosDias, base, quentes);
+        System.arraycopy(descricaoIds, 0, todasDescricoes, base, quentes);
+        System.arraycopy(tipos, 0, todosTipos, base, quentes);
+        return new Colunas(tamanho, todosIds, todosUserIds, todosAccountIds, todosCategoryIds, todosCentavos,
+                todosDias, todosTipos, todasDescricoes, descricoes.textos(), descricoes.size());
+    }
+
+    /**
+     * Sela as linhas {@code [getLinhasSeladas(), ate)} em um segmento imutável gravado em
+     * {@code arquivo} e mapeado em memória, liberando-as do heap.
+     *
+     * Como funciona:
+     * - As colunas das linhas seladas são gravadas com largura fixa; as linhas restantes são
+     *   copiadas para arrays novos. Visões de {@link #instantaneo()} já entregues continuam
+     *   lendo os arrays antigos, que o coletor libera quando elas deixam de ser usadas.
+     * - Se a gravação falhar, nada muda.
+     *
+     * @param ate linha seguinte à última a selar
+     * @param arquivo arquivo do segmento (substituído se existir)
+     * @return quantidade de linhas seladas (0 se {@code ate} não passar das já seladas)
+     * @throws IllegalArgumentException se {@code ate} passar do tamanho ou a faixa exceder
+     *                                  {@link SegmentoFrio#MAXIMO_LINHAS} linhas
+     * @throws IOException se o segmento não puder ser gravado
+     */
+    public int selar(int ate, Path arquivo) throws IOException {
+        if (somenteLeitura) {
+            throw new UnsupportedOperationException("Armazenamento somente leitura");
+        }
+        if (ate > tamanho) {
+            throw new IllegalArgumentException("Linha " + ate + " além do tamanho " + tamanho);
+        }
+        if (ate <= base) {
+            return 0;
+        }
+        int quantidade = ate - base;
+        SegmentoFrio segmento = SegmentoFrio.gravar(arquivo, base, quantidade, ids, userIds, accountIds,
+                categoryIds, centavos, diasEpoca, descricaoIds, tipos);
+        int quentes = tamanho - ate;
+        int capacidade = Math.max(CAPACIDADE_INICIAL, quentes + (quentes >> 1));
+        ids = Arrays.copyOfRange(ids, quantidade, quantidade + capacidade);
+        userIds = Arrays.copyOfRange(userIds, quantidade, quantidade + capacidade);
+        accountIds = Arrays.copyOfRange(accountIds, quantidade, quantidade + capacidade);
+        categoryIds = Arrays.copyOfRange(categoryIds, quantidade, quantidade + capacidade);
+        centavos = Arrays.copyOfRange(centavos, quantidade, quantidade + capacidade);
+        diasEpoca = Arrays.copyOfRange(diasEpoca, quantidade, quantidade + capacidade);
+        tipos = Arrays.copyOfRange(tipos, quantidade, quantidade + capacidade);
+        descricaoIds = Arrays.copyOfRange(descricaoIds, quantidade, quantidade + capacidade);
+        segmentos = Arrays.copyOf(segmentos, segmentos.length + 1);
+        segmentos[segmentos.length - 1] = segmento;
+        base = ate;
+        return quantidade;
+    }
+
+    /**
+     * @return quantidade de linhas seladas em segmentos (as linhas {@code [0, getLinhasSeladas())})
+     */
+    public int getLinhasSeladas() {
+        return base;
+    }
+
+    /**
+     * @return quantidade de segmentos selados
+     */
+    public int getSegmentos() {
+        return segmentos.length;
+    }
+
+    private void crescer() {
+        int novaCapacidade = Math.max(CAPACIDADE_INICIAL, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, novaCapacidade);
+        userIds = Arrays.copyOf(userIds, novaCapacidade);
+        accountIds = Arrays.copyOf(accountIds, novaCapacidade);
+        categoryIds = Arrays.copyOf(categoryIds, novaCapacidade);
+        centavos = Arrays.copyOf(centavos, novaCapacidade);
+        diasEpoca = Arrays.copyOf(diasEpoca, novaCapacidade);
+        tipos = Arrays.copyOf(tipos, novaCapacidade);
+        descricaoIds = Arrays.copyOf(descricaoIds, novaCapacidade);
+    }
+
+    /**
+     * @return quantidade de linhas gravadas
+     */
+    public int size() {
+        return tamanho;
+    }
+
+    public long id(int linha) {
+        return linha >= base ? ids[linha - base] : segmento(linha).id(linha);
+    }
+
+    public long userId(int linha) {
+        return linha >= base ? userIds[linha - base] : segmento(linha).userId(linha);
+    }
+
+    public long accountId(int linha) {
+        return linha >= base ? accountIds[linha - base] : segmento(linha).accountId(linha);
+    }
+
+    public long categoryId(int linha) {
+        return linha >= base ? categoryIds[linha - base] : segmento(linha).categoryId(linha);
+    }
+
+    public long valorCentavos(int linha) {
+        return linha >= base ? centavos[linha - base] : segmento(linha).valorCentavos(linha);
+    }
+
+    public int diaEpoca(int linha) {
+        return linha >= base ? diasEpoca[linha - base] : segmento(linha).diaEpoca(linha);
+    }
+
+    public TransactionType tipo(int linha) {
+        return TIPOS[linha >= base ? tipos[linha - base] : segmento(linha).tipo(linha)];
+    }
+
+    public int descricaoId(int linha) {
+        return linha >= base ? descricaoIds[linha - base] : segmento(linha).descricaoId(linha);
+    }
+
+    public String descricao(int linha) {
+        return descricoes.get(descricaoId(linha));
+    }
+
+    /**
+     * @return segmento selado que contém a linha (que deve ser menor que {@link #base})
+     */
+    private SegmentoFrio segmento(int linha) {
+        if (linha < 0) {
+            throw new IndexOutOfBoundsException("Linha " + linha + " negativa");
+        }
+        int baixo = 0;
+        int alto = segmentos.length - 1;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (segmentos[meio].fim() <= linha) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return segmentos[baixo];
+    }
+
+    /**
+     * @return pool de descrições compartilhado por este armazenamento
+     */
+    public StringPool getDescricoes() {
+        return descricoes;
+    }
+
+    /**
+     * Retorna uma {@link Transaction} que lê os campos diretamente das colunas.
+     * A visão é criada sob demanda e não copia os dados da linha.
+     *
+     * @param linha índice da linha
+     * @return visão da transação gravada na linha
+     */
+    public Transaction get(int linha) {
+        if (linha < 0 || linha >= tamanho) {
+            throw new IndexOutOfBoundsException("Linha " + linha + " fora do intervalo [0, " + tamanho + ")");
+        }
+        return new TransactionView(this, linha);
+    }
+
+    /**
+     * Retorna uma lista somente leitura com todas as linhas, na ordem de gravação.
+     * A lista acompanha novas gravações e cria as visões sob demanda.
+     *
+     * @return lista de visões sobre o armazenamento
+     */
+    public List<Transaction> asList() {
+        return new Visao();
+    }
+
+    /**
+     * Converte um valor monetário para centavos, arredondando HALF_UP quando necessário.
+     *
+     * @param valor valor em reais
+     * @return valor em centavos
+     * @throws ArithmeticException se o valor não couber em {@code long} ou coincidir com {@link #NULO}
+     */
+    public static long paraCentavos(BigDecimal valor) {
+        long centavos = valor.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        if (centavos == NULO) {
+            throw new ArithmeticException("Valor reservado: " + valor);
+        }
+        return centavos;
+    }
+
+    /**
+     * Converte centavos de volta para {@link BigDecimal} com duas casas decimais.
+     *
+     * @param centavos valor em centavos
+     * @return valor em reais
+     */
+    public static BigDecimal deCentavos(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    /**
+     * @param valor id possivelmente nulo
+     * @return o próprio id, ou {@link #NULO}
+     */
+    public static long paraColuna(Long valor) {
+        return valor == null ? NULO : valor;
+    }
+
+    static Long deColuna(long valor) {
+        return valor == NULO ? null : valor;
+    }
+
+    private class Visao extends AbstractList<Transaction> implements RandomAccess {
+        @Override
+        public Transaction get(int index) {
+            return ColumnarTransactionStore.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return tamanho;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.edufinai.service.storage;
+
+import java.util.Arrays;
+
+/**
+ * Lista crescente de inteiros primitivos, usada para guardar índices de linhas
+ * sem o custo de objetos {@code Integer}.
+ */
+public class IntList {
+
+    private int[] valores;
+    private int tamanho;
+
+    public IntList() {
+        this(8);
+    }
+
+    public IntList(int capacidadeInicial) {
+        this.valores = new int[Math.max(1, capacidadeInicial)];
+    }
+
+    /**
+     * Cria uma lista que passa a usar o array informado (sem cópia).
+     *
+     * @param valores valores iniciais
+     * @param tamanho quantidade de posições válidas
+     */
+    public IntList(int[] valores, int tamanho) {
+        this.valores = valores.length == 0 ? new int[1] : valores;
+        this.tamanho = tamanho;
+    }
+
+    public void add(int valor) {
+        if (tamanho == valores.length) {
+            valores = Arrays.copyOf(valores, tamanho + (tamanho >> 1) + 1);
+        }
+        valores[tamanho++] = valor;
+    }
+
+    /**
+     * Insere um valor na posição informada, deslocando os seguintes uma posição à direita.
+     *
+     * @param indice posição de inserção, entre 0 e {@link #size()}
+     * @param valor valor a inserir
+     */
+    public void inserir(int indice, int valor) {
+        if (indice < 0 || indice > tamanho) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " fora do intervalo [0, " + tamanho + "]");
+        }
+        if (tamanho == valores.length) {
+            valores = Arrays.copyOf(valores, tamanho + (tamanho >> 1) + 1);
+        }
+        System.arraycopy(valores, indice, valores, indice + 1, tamanho - indice);
+        valores[indice] = valor;
+        tamanho++;
+    }
+
+    public int get(int indice) {
+        if (indice >= tamanho) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " fora do intervalo [0, " + tamanho + ")");
+        }
+        return valores[indice];
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    /**
+     * Esvazia a lista mantendo a capacidade, para reaproveitá-la.
+     */
+    public void limpar() {
+        tamanho = 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(valores, tamanho);
+    }
+}
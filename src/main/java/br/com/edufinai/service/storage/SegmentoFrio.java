@@ -0,0 +1,195 @@
+package br.com.edufinai.service.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Faixa de linhas do {@link ColumnarTransactionStore} selada em um arquivo imutável e
+ * mapeado em memória.
+ *
+ * Formato (ordem de bytes nativa; o arquivo é descartável e só é lido pelo próprio processo):
+ * <pre>
+ * int magia | int versão | int primeira linha | int linhas
+ * long[] ids | long[] userIds | long[] accountIds | long[] categoryIds | long[] centavos
+ * | int[] diasEpoca | int[] descricaoIds | byte[] tipos
+ * </pre>
+ *
+ * Observações:
+ * - As colunas têm largura fixa, então a linha {@code i} é lida direto pela posição, sem
+ *   decodificação; as páginas ficam no cache do sistema operacional, fora do heap.
+ * - O mapeamento é liberado pelo coletor de lixo quando o segmento deixa de ser referenciado.
+ */
+class SegmentoFrio {
+
+    /** Maior quantidade de linhas por segmento (cerca de 800 MB, abaixo do limite de 2 GB de um mapeamento). */
+    static final int MAXIMO_LINHAS = 1 << 24;
+
+    private static final int MAGIA = 0x45465346; // "EFSF"
+    private static final int VERSAO = 1;
+    private static final int CABECALHO = 16;
+    private static final int TAMANHO_BUFFER = 1 << 20;
+
+    private final int inicio;
+    private final int linhas;
+    private final LongBuffer ids;
+    private final LongBuffer userIds;
+    private final LongBuffer accountIds;
+    private final LongBuffer categoryIds;
+    private final LongBuffer centavos;
+    private final IntBuffer diasEpoca;
+    private final IntBuffer descricaoIds;
+    private final ByteBuffer tipos;
+
+    private SegmentoFrio(MappedByteBuffer mapa, int inicio, int linhas) {
+        this.inicio = inicio;
+        this.linhas = linhas;
+        int posicao = CABECALHO;
+        this.ids = fatia(mapa, posicao, linhas * 8L).asLongBuffer();
+        this.userIds = fatia(mapa, posicao += linhas * 8, linhas * 8L).asLongBuffer();
+        this.accountIds = fatia(mapa, posicao += linhas * 8, linhas * 8L).asLongBuffer();
+        this.categoryIds = fatia(mapa, posicao += linhas * 8, linhas * 8L).asLongBuffer();
+        this.centavos = fatia(mapa, posicao += linhas * 8, linhas * 8L).asLongBuffer();
+        this.diasEpoca = fatia(mapa, posicao += linhas * 8, linhas * 4L).asIntBuffer();
+        this.descricaoIds = fatia(mapa, posicao += linhas * 4, linhas * 4L).asIntBuffer();
+        this.tipos = fatia(mapa, posicao + linhas * 4, linhas);
+    }
+
+    /**
+     * Grava as primeiras {@code linhas} posições das colunas em um arquivo e o mapeia.
+     *
+     * @param arquivo arquivo a criar (substituído se existir)
+     * @param inicio número da primeira linha gravada
+     * @param linhas quantidade de linhas, até {@link #MAXIMO_LINHAS}
+     * @return segmento mapeado
+     * @throws IOException se a gravação ou o mapeamento falhar
+     */
+    static SegmentoFrio gravar(Path arquivo, int inicio, int linhas, long[] ids, long[] userIds, long[] accountIds,
+                               long[] categoryIds, long[] centavos, int[] diasEpoca, int[] descricaoIds,
+                               byte[] tipos) throws IOException {
+        if (linhas < 1 || linhas > MAXIMO_LINHAS) {
+            throw new IllegalArgumentException("Quantidade de linhas inválida para um segmento: " + linhas);
+        }
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER).order(ByteOrder.nativeOrder());
+            buffer.putInt(MAGIA).putInt(VERSAO).putInt(inicio).putInt(linhas);
+            for (long[] coluna : new long[][]{ids, userIds, accountIds, categoryIds, centavos}) {
+                for (int i = 0; i < linhas; ) {
+                    int n = Math.min(linhas - i, buffer.remaining() / 8);
+                    buffer.asLongBuffer().put(coluna, i, n);
+                    buffer.position(buffer.position() + n * 8);
+                    i += n;
+                    garantir(canal, buffer, 8);
+                }
+            }
+            for (int[] coluna : new int[][]{diasEpoca, descricaoIds}) {
+                for (int i = 0; i < linhas; ) {
+                    int n = Math.min(linhas - i, buffer.remaining() / 4);
+                    buffer.asIntBuffer().put(coluna, i, n);
+                    buffer.position(buffer.position() + n * 4);
+                    i += n;
+                    garantir(canal, buffer, 4);
+                }
+            }
+            for (int i = 0; i < linhas; ) {
+                int n = Math.min(linhas - i, buffer.remaining());
+                buffer.put(tipos, i, n);
+                i += n;
+                garantir(canal, buffer, 1);
+            }
+            descarregar(canal, buffer);
+            long tamanho = canal.position();
+            return new SegmentoFrio(canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanho), inicio, linhas);
+        }
+    }
+
+    /**
+     * Descarrega o buffer se não houver espaço para mais um valor de {@code bytes} bytes.
+     */
+    private static void garantir(FileChannel canal, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            descarregar(canal, buffer);
+        }
+    }
+
+    private static void descarregar(FileChannel canal, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static ByteBuffer fatia(MappedByteBuffer mapa, int posicao, long tamanho) {
+        return mapa.duplicate().position(posicao).limit(Math.toIntExact(posicao + tamanho)).slice()
+                .order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * @return número da primeira linha do segmento
+     */
+    int inicio() {
+        return inicio;
+    }
+
+    /**
+     * @return número da linha seguinte à última do segmento
+     */
+    int fim() {
+        return inicio + linhas;
+    }
+
+    long id(int linha) {
+        return ids.get(linha - inicio);
+    }
+
+    long userId(int linha) {
+        return userIds.get(linha - inicio);
+    }
+
+    long accountId(int linha) {
+        return accountIds.get(linha - inicio);
+    }
+
+    long categoryId(int linha) {
+        return categoryIds.get(linha - inicio);
+    }
+
+    long valorCentavos(int linha) {
+        return centavos.get(linha - inicio);
+    }
+
+    int diaEpoca(int linha) {
+        return diasEpoca.get(linha - inicio);
+    }
+
+    byte tipo(int linha) {
+        return tipos.get(linha - inicio);
+    }
+
+    int descricaoId(int linha) {
+        return descricaoIds.get(linha - inicio);
+    }
+
+    /**
+     * Copia as colunas do segmento para arrays de heap, a partir da posição {@link #inicio()}.
+     */
+    void copiarPara(long[] ids, long[] userIds, long[] accountIds, long[] categoryIds, long[] centavos,
+                    int[] diasEpoca, int[] descricaoIds, byte[] tipos) {
+        this.ids.get(0, ids, inicio, linhas);
+        this.userIds.get(0, userIds, inicio, linhas);
+        this.accountIds.get(0, accountIds, inicio, linhas);
+        this.categoryIds.get(0, categoryIds, inicio, linhas);
+        this.centavos.get(0, centavos, inicio, linhas);
+        this.diasEpoca.get(0, diasEpoca, inicio, linhas);
+        this.descricaoIds.get(0, descricaoIds, inicio, linhas);
+        this.tipos.get(0, tipos, inicio, linhas);
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.edufinai.service.storage;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pool de strings deduplicadas usado pelo armazenamento colunar.
+ *
+ * Responsabilidades:
+ * - Atribuir um id inteiro estável a cada texto distinto (ex.: descrições de transações).
+ * - Devolver o texto original a partir do id.
+ *
+ * Observações:
+ * - Descrições se repetem muito ("Salário", "Uber", "Mercado"), por isso cada texto
+ *   distinto é guardado uma única vez e as linhas armazenam apenas o id (4 bytes).
+ * - O id {@link #NULO} representa ausência de texto.
+ */
+public class StringPool {
+
+    /** Id reservado para textos nulos. */
+    public static final int NULO = -1;
+
+    private final Map<String, Integer> ids;
+    private String[] textos;
+    private int tamanho;
+
+    public StringPool() {
+        this.ids = new HashMap<>();
+        this.textos = new String[64];
+    }
+
+    /**
+     * Recria um pool a partir dos textos de um snapshot, preservando os ids.
+     *
+     * @param textos textos na ordem dos ids
+     * @param tamanho quantidade de textos válidos no array
+     */
+    public StringPool(String[] textos, int tamanho) {
+        this.ids = new HashMap<>();
+        this.textos = Arrays.copyOf(textos, Math.max(64, tamanho));
+        this.tamanho = tamanho;
+        for (int id = 0; id < tamanho; id++) {
+            ids.put(textos[id], id);
+        }
+    }
+
+    private StringPool(Map<String, Integer> ids, String[] textos, int tamanho) {
+        this.ids = ids;
+        this.textos = textos;
+        this.tamanho = tamanho;
+    }
+
+    /**
+     * Retorna uma visão somente leitura dos textos existentes, sem cópia.
+     * Textos adicionados depois não aparecem na visão.
+     *
+     * @return pool imutável com os ids {@code [0, size())} atuais
+     */
+    public StringPool instantaneo() {
+        return new StringPool(null, textos, tamanho);
+    }
+
+    /**
+     * Retorna o id do texto, adicionando-o ao pool caso ainda não exista.
+     *
+     * @param texto texto a deduplicar (pode ser null)
+     * @return id do texto no pool, ou {@link #NULO}
+     */
+    public int intern(String texto) {
+        if (texto == null) {
+            return NULO;
+        }
+        if (ids == null) {
+            throw new UnsupportedOperationException("Pool somente leitura");
+        }
+        Integer id = ids.get(texto);
+        if (id != null) {
+            return id;
+        }
+        if (tamanho == textos.length) {
+            textos = Arrays.copyOf(textos, tamanho * 2);
+        }
+        textos[tamanho] = texto;
+        ids.put(texto, tamanho);
+        return tamanho++;
+    }
+
+    /**
+     * Retorna o texto associado ao id.
+     *
+     * @param id id obtido em {@link #intern(String)}
+     * @return texto original, ou null para {@link #NULO}
+     */
+    public String get(int id) {
+        return id == NULO ? null : textos[id];
+    }
+
+    /**
+     * Retorna o array interno de textos. Como o pool só cresce (e cresce copiando),
+     * as posições {@code [0, size())} observadas no momento da chamada nunca mudam.
+     *
+     * @return array de textos indexado pelo id
+     */
+    public String[] textos() {
+        return textos;
+    }
+
+    /**
+     * @return quantidade de textos distintos no pool
+     */
+    public int size() {
+        return tamanho;
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.edufinai.service.storage;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * {@link Transaction} leve que lê seus campos de uma linha do {@link ColumnarTransactionStore}.
+ *
+ * Observações:
+ * - Guarda apenas a referência ao armazenamento e o índice da linha.
+ * - Os objetos {@code Long}, {@link BigDecimal} e {@link LocalDate} são criados a cada leitura.
+ */
+class TransactionView extends Transaction {
+
+    private final ColumnarTransactionStore store;
+    private final int linha;
+
+    TransactionView(ColumnarTransactionStore store, int linha) {
+        super(null, null, null, null, null, null, null, null);
+        this.store = store;
+        this.linha = linha;
+    }
+
+    @Override
+    public Long getId() {
+        return ColumnarTransactionStore.deColuna(store.id(linha));
+    }
+
+    @Override
+    public Long getUserId() {
+        return store.userId(linha);
+    }
+
+    @Override
+    public Long getAccountId() {
+        return ColumnarTransactionStore.deColuna(store.accountId(linha));
+    }
+
+    @Override
+    public Long getCategoryId() {
+        return ColumnarTransactionStore.deColuna(store.categoryId(linha));
+    }
+
+    @Override
+    public TransactionType getType() {
+        return store.tipo(linha);
+    }
+
+    @Override
+    public BigDecimal getAmount() {
+        return ColumnarTransactionStore.deCentavos(store.valorCentavos(linha));
+    }
+
+    @Override
+    public LocalDate getDate() {
+        return LocalDate.ofEpochDay(store.diaEpoca(linha));
+    }
+
+    @Override
+    public String getDescription() {
+        return store.descricao(linha);
+    }
+}
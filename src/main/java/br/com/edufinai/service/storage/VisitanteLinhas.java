@@ -0,0 +1,22 @@
+package br.com.edufinai.service.storage;
+
+import java.io.IOException;
+
+/**
+ * Recebe linhas de um {@link ColumnarTransactionStore} uma a uma, sem que uma
+ * {@link br.com.edufinai.model.Transaction} seja montada para cada linha.
+ *
+ * Observações:
+ * - As colunas informadas são uma visão imutável: podem ser lidas sem bloqueio,
+ *   mas não devem ser guardadas além da chamada se a memória importar.
+ */
+@FunctionalInterface
+public interface VisitanteLinhas {
+
+    /**
+     * @param colunas visão das colunas que contém a linha
+     * @param linha número da linha em {@code colunas}
+     * @throws IOException se o destino dos dados falhar
+     */
+    void visitar(ColumnarTransactionStore colunas, int linha) throws IOException;
+}
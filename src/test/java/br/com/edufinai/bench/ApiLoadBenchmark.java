@@ -0,0 +1,181 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.EdufinaiApiApplication;
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Teste de carga local da API HTTP: sobe a aplicação em uma porta livre, abre milhares de
+ * conexões simultâneas (um cliente em thread virtual por conexão) e mede vazão e latência
+ * (p50/p99/p99,9) de uma mistura de relatórios mensais e registros de transações.
+ *
+ * Por padrão, a medição é feita duas vezes: com as requisições atendidas em threads virtuais
+ * ({@code spring.threads.virtual.enabled=true}, o padrão da aplicação) e no pool de
+ * threads de plataforma do Tomcat, para comparação. Para comparar sem a influência do JIT
+ * aquecido pela primeira rodada, informe um único modo e execute um processo por modo.
+ * O cliente roda no mesmo processo: com poucos núcleos, ele disputa CPU com o servidor.
+ *
+ * Execução (após {@code mvn test-compile}, com o classpath de teste do Maven):
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(cat cp.txt) br.com.edufinai.bench.ApiLoadBenchmark [conexoes] [segundos] [usuarios] [virtuais|plataforma]
+ * </pre>
+ */
+public class ApiLoadBenchmark {
+
+    private static final int MESES = 24;
+    private static final int PERCENTUAL_ESCRITAS = 20;
+    private static final Duration AQUECIMENTO = Duration.ofSeconds(5);
+
+    /** Ids das transações enviadas (sem id, reenvios com o mesmo conteúdo seriam duplicatas). */
+    private static final AtomicLong proximoId = new AtomicLong(1L << 40);
+
+    public static void main(String[] args) throws Exception {
+        int conexoes = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int segundos = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int usuarios = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+        // O devtools reiniciaria o main em outro classloader; só a propriedade de sistema o desativa a tempo
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        String modo = args.length > 3 ? args[3] : "ambos";
+        for (boolean virtuais : new boolean[]{true, false}) {
+            if (modo.equals(virtuais ? "plataforma" : "virtuais")) {
+                continue;
+            }
+            ConfigurableApplicationContext contexto = SpringApplication.run(EdufinaiApiApplication.class,
+                    "--server.port=0", "--spring.threads.virtual.enabled=" + virtuais,
+                    "--logging.level.root=WARN");
+            try {
+                popular(contexto.getBean(GerenciadorFinanceiroService.class), usuarios);
+                String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+                executar(base, conexoes, usuarios, AQUECIMENTO, null);
+                System.out.printf("%s, %,d conexões:%n", virtuais ? "threads virtuais" : "threads de plataforma", conexoes);
+                executar(base, conexoes, usuarios, Duration.ofSeconds(segundos), "  ");
+            } finally {
+                contexto.close();
+            }
+        }
+    }
+
+    private static void popular(GerenciadorFinanceiroService service, int usuarios) {
+        List<Transaction> lote = new ArrayList<>();
+        for (long userId = 0; userId < usuarios; userId++) {
+            for (int mes = 0; mes < MESES; mes++) {
+                LocalDate data = LocalDate.of(2023, 1, 5).plusMonths(mes);
+                lote.add(new Transaction(null, userId, 1L, 1L, TransactionType.INCOME, new BigDecimal("3000.00"), data, "Salário"));
+                lote.add(new Transaction(null, userId, 1L, 2L, TransactionType.EXPENSE, new BigDecimal("1234.56"), data, "Aluguel"));
+            }
+        }
+        service.registerTransactions(lote);
+    }
+
+    /**
+     * Mantém {@code conexoes} clientes enviando requisições em sequência pelo tempo indicado.
+     *
+     * @param prefixo prefixo das linhas do resultado, ou null para não imprimir (aquecimento)
+     */
+    private static void executar(String base, int conexoes, int usuarios, Duration duracao, String prefixo)
+            throws Exception {
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(clientes)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .build()) {
+            long fim = System.nanoTime() + duracao.toNanos();
+            List<Future<long[]>> resultados = new ArrayList<>(conexoes);
+            for (int c = 0; c < conexoes; c++) {
+                long semente = c;
+                resultados.add(clientes.submit(() -> cliente(http, base, usuarios, semente, fim)));
+            }
+            long erros = 0;
+            long[][] porCliente = new long[conexoes][];
+            int total = 0;
+            for (int c = 0; c < conexoes; c++) {
+                porCliente[c] = resultados.get(c).get();
+                // Última posição guarda a quantidade de erros; as demais, latências em nanos
+                erros += porCliente[c][porCliente[c].length - 1];
+                total += porCliente[c].length - 1;
+            }
+            if (prefixo == null) {
+                return;
+            }
+            long[] latencias = new long[total];
+            int posicao = 0;
+            for (long[] cliente : porCliente) {
+                System.arraycopy(cliente, 0, latencias, posicao, cliente.length - 1);
+                posicao += cliente.length - 1;
+            }
+            Arrays.sort(latencias);
+            System.out.printf("%s%,9.0f requisições/s | p50 %7.2f ms | p99 %7.2f ms | p99,9 %7.2f ms | máx %7.2f ms | erros %,d%n",
+                    prefixo, total / (double) duracao.toSeconds(), percentil(latencias, 0.50), percentil(latencias, 0.99),
+                    percentil(latencias, 0.999), latencias.length == 0 ? 0 : latencias[latencias.length - 1] / 1e6, erros);
+        }
+    }
+
+    private static long[] cliente(HttpClient http, String base, int usuarios, long semente, long fim) {
+        SplittableRandom aleatorio = new SplittableRandom(semente);
+        long[] latencias = new long[1024];
+        int quantidade = 0;
+        long erros = 0;
+        while (System.nanoTime() < fim) {
+            long userId = aleatorio.nextInt(usuarios);
+            HttpRequest requisicao;
+            if (aleatorio.nextInt(100) < PERCENTUAL_ESCRITAS) {
+                String corpo = "{\"id\":" + proximoId.getAndIncrement() + ",\"accountId\":1,\"categoryId\":3,"
+                        + "\"type\":\"EXPENSE\",\"amount\":9.90,\"date\":\"2024-12-20\",\"description\":\"Streaming\"}";
+                requisicao = HttpRequest.newBuilder(URI.create(base + "/api/usuarios/" + userId + "/transacoes"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                        .build();
+            } else {
+                requisicao = HttpRequest.newBuilder(URI.create(base + "/api/usuarios/" + userId + "/relatorio?nome=Cliente"))
+                        .GET()
+                        .build();
+            }
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<byte[]> resposta = http.send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+                if (resposta.statusCode() >= 300) {
+                    erros++;
+                    continue;
+                }
+            } catch (Exception e) {
+                erros++;
+                continue;
+            }
+            if (quantidade == latencias.length) {
+                latencias = Arrays.copyOf(latencias, quantidade * 2);
+            }
+            latencias[quantidade++] = System.nanoTime() - inicio;
+        }
+        long[] resultado = Arrays.copyOf(latencias, quantidade + 1);
+        resultado[quantidade] = erros;
+        return resultado;
+    }
+
+    private static double percentil(long[] ordenadas, double fracao) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        return ordenadas[(int) Math.min(ordenadas.length - 1, (long) (fracao * ordenadas.length))] / 1e6;
+    }
+}
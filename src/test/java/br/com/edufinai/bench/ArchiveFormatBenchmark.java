@@ -0,0 +1,235 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.archive.TransactionArchiveReader;
+import br.com.edufinai.service.archive.TransactionArchiveWriter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Compara o arquivo de transações ({@link TransactionArchiveWriter}/{@link TransactionArchiveReader})
+ * com serialização Java e JSON em tamanho, tempo de gravação e vazão de leitura, além de uma
+ * leitura filtrada (um usuário, um ano) que pula blocos pelos rodapés.
+ *
+ * Observações:
+ * - {@link Transaction} não é {@link Serializable}; a serialização Java usa uma cópia local com
+ *   os mesmos campos, com {@code reset()} a cada 1.000 objetos.
+ * - O projeto não tem biblioteca JSON fora do Spring Web; o JSON (uma transação por linha)
+ *   é escrito e lido por um codificador mínimo local, sem reflexão — o que favorece o JSON.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.ArchiveFormatBenchmark [transacoes]
+ * </pre>
+ */
+public class ArchiveFormatBenchmark {
+
+    private static final String[] DESCRICOES = {"Supermercado", "Uber *Viagem", "Salário", "Aluguel", "Farmácia",
+            "Restaurante", "Netflix.com", "Posto Ipiranga", "Padaria", "Pix recebido"};
+
+    public static void main(String[] args) throws Exception {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<Transaction> transacoes = gerar(quantidade);
+        Path diretorio = Files.createTempDirectory("edufinai-arquivo");
+        Path arquivo = diretorio.resolve("transacoes.efa");
+        Path serializado = diretorio.resolve("transacoes.ser");
+        Path json = diretorio.resolve("transacoes.ndjson");
+
+        for (int rodada = 0; rodada < 3; rodada++) {
+            long inicio = System.nanoTime();
+            TransactionArchiveWriter.gravar(arquivo, transacoes);
+            long gravacao = System.nanoTime() - inicio;
+            inicio = System.nanoTime();
+            long lidas;
+            try (TransactionArchiveReader reader = new TransactionArchiveReader(arquivo)) {
+                lidas = contar(reader);
+            }
+            imprimir("arquivo (blocos)", arquivo, quantidade, gravacao, System.nanoTime() - inicio, lidas);
+
+            inicio = System.nanoTime();
+            gravarSerializado(serializado, transacoes);
+            gravacao = System.nanoTime() - inicio;
+            inicio = System.nanoTime();
+            lidas = lerSerializado(serializado);
+            imprimir("serialização Java", serializado, quantidade, gravacao, System.nanoTime() - inicio, lidas);
+
+            inicio = System.nanoTime();
+            gravarJson(json, transacoes);
+            gravacao = System.nanoTime() - inicio;
+            inicio = System.nanoTime();
+            lidas = lerJson(json);
+            imprimir("JSON (NDJSON)", json, quantidade, gravacao, System.nanoTime() - inicio, lidas);
+
+            try (TransactionArchiveReader reader = new TransactionArchiveReader(arquivo)) {
+                inicio = System.nanoTime();
+                long[] encontradas = new long[1];
+                for (long userId = 0; userId < 100; userId++) {
+                    reader.ler(userId, LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31), t -> encontradas[0]++);
+                }
+                System.out.printf("leitura filtrada (100 usuários × 1 ano): %,.2f ms/consulta | %,d transações"
+                                + " | blocos lidos %,d, ignorados %,d%n", (System.nanoTime() - inicio) / 1e6 / 100,
+                        encontradas[0], reader.getBlocosLidos(), reader.getBlocosIgnorados());
+            }
+            System.out.println();
+        }
+    }
+
+    private static long contar(TransactionArchiveReader reader) throws IOException {
+        long[] soma = new long[1];
+        reader.ler(t -> soma[0] += t.getDescription() == null ? 0 : 1);
+        return soma[0];
+    }
+
+    private static void imprimir(String nome, Path arquivo, int quantidade, long nanosGravacao, long nanosLeitura,
+                                 long lidas) throws IOException {
+        if (lidas != quantidade) {
+            throw new IllegalStateException(nome + ": lidas " + lidas + " de " + quantidade);
+        }
+        long bytes = Files.size(arquivo);
+        System.out.printf("%-18s: %,13d bytes (%5.1f bytes/transação) | gravação %,7.0f ms | leitura %,11.0f transações/s%n",
+                nome, bytes, (double) bytes / quantidade, nanosGravacao / 1e6, quantidade * 1e9 / nanosLeitura);
+    }
+
+    // --- Serialização Java ---
+
+    /** Cópia serializável de {@link Transaction}. */
+    private static class TransacaoSerializavel implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final Long id;
+        private final Long userId;
+        private final Long accountId;
+        private final Long categoryId;
+        private final TransactionType type;
+        private final BigDecimal amount;
+        private final LocalDate date;
+        private final String description;
+
+        TransacaoSerializavel(Transaction t) {
+            this.id = t.getId();
+            this.userId = t.getUserId();
+            this.accountId = t.getAccountId();
+            this.categoryId = t.getCategoryId();
+            this.type = t.getType();
+            this.amount = t.getAmount();
+            this.date = t.getDate();
+            this.description = t.getDescription();
+        }
+
+        Transaction paraTransacao() {
+            return new Transaction(id, userId, accountId, categoryId, type, amount, date, description);
+        }
+    }
+
+    private static void gravarSerializado(Path arquivo, List<Transaction> transacoes) throws IOException {
+        try (ObjectOutputStream saida = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(arquivo)))) {
+            saida.writeInt(transacoes.size());
+            for (int i = 0; i < transacoes.size(); i++) {
+                saida.writeObject(new TransacaoSerializavel(transacoes.get(i)));
+                // Sem reset periódico o stream guarda referência a todos os objetos gravados
+                if (i % 1_000 == 999) {
+                    saida.reset();
+                }
+            }
+        }
+    }
+
+    private static long lerSerializado(Path arquivo) throws IOException, ClassNotFoundException {
+        long lidas = 0;
+        try (ObjectInputStream entrada = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(arquivo)))) {
+            for (int i = entrada.readInt(); i > 0; i--) {
+                Transaction t = ((TransacaoSerializavel) entrada.readObject()).paraTransacao();
+                lidas += t.getDescription() == null ? 0 : 1;
+            }
+        }
+        return lidas;
+    }
+
+    // --- JSON ---
+
+    private static void gravarJson(Path arquivo, List<Transaction> transacoes) throws IOException {
+        try (BufferedWriter saida = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            for (Transaction t : transacoes) {
+                saida.write("{\"id\":" + t.getId() + ",\"userId\":" + t.getUserId() + ",\"accountId\":" + t.getAccountId()
+                        + ",\"categoryId\":" + t.getCategoryId() + ",\"type\":\"" + t.getType() + "\",\"amount\":"
+                        + t.getAmount().toPlainString() + ",\"date\":\"" + t.getDate() + "\",\"description\":\""
+                        + t.getDescription().replace("\\", "\\\\").replace("\"", "\\\"") + "\"}");
+                saida.newLine();
+            }
+        }
+    }
+
+    private static long lerJson(Path arquivo) throws IOException {
+        long lidas = 0;
+        try (BufferedReader entrada = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = entrada.readLine()) != null) {
+                Transaction t = new Transaction(longOpcional(campo(linha, "id")), Long.valueOf(campo(linha, "userId")),
+                        longOpcional(campo(linha, "accountId")), longOpcional(campo(linha, "categoryId")),
+                        TransactionType.valueOf(texto(campo(linha, "type"))), new BigDecimal(campo(linha, "amount")),
+                        LocalDate.parse(texto(campo(linha, "date"))), texto(campo(linha, "description"))
+                        .replace("\\\"", "\"").replace("\\\\", "\\"));
+                lidas += t.getDescription() == null ? 0 : 1;
+            }
+        }
+        return lidas;
+    }
+
+    /**
+     * @return valor bruto do campo (números sem aspas, textos com aspas), sem validar o JSON
+     */
+    private static String campo(String linha, String nome) {
+        int inicio = linha.indexOf("\"" + nome + "\":") + nome.length() + 3;
+        int fim = inicio;
+        if (linha.charAt(inicio) == '"') {
+            fim++;
+            while (linha.charAt(fim) != '"' || linha.charAt(fim - 1) == '\\') {
+                fim++;
+            }
+            fim++;
+        } else {
+            while (linha.charAt(fim) != ',' && linha.charAt(fim) != '}') {
+                fim++;
+            }
+        }
+        return linha.substring(inicio, fim);
+    }
+
+    private static String texto(String bruto) {
+        return bruto.substring(1, bruto.length() - 1);
+    }
+
+    private static Long longOpcional(String bruto) {
+        return bruto.equals("null") ? null : Long.valueOf(bruto);
+    }
+
+    private static List<Transaction> gerar(int quantidade) {
+        SplittableRandom aleatorio = new SplittableRandom(17);
+        TransactionType[] tipos = TransactionType.values();
+        List<Transaction> transacoes = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            long userId = aleatorio.nextInt(1_000);
+            transacoes.add(new Transaction((long) i, userId, userId * 3 + aleatorio.nextInt(3),
+                    (long) aleatorio.nextInt(20), tipos[aleatorio.nextInt(tipos.length)],
+                    BigDecimal.valueOf(aleatorio.nextInt(500_000), 2),
+                    LocalDate.of(2015, 1, 1).plusDays(aleatorio.nextInt(3_650)),
+                    DESCRICOES[aleatorio.nextInt(DESCRICOES.length)]));
+        }
+        return transacoes;
+    }
+}
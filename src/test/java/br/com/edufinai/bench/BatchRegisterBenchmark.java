@@ -0,0 +1,132 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.ResultadoLote;
+import br.com.edufinai.service.persistence.DurabilityMode;
+import br.com.edufinai.service.persistence.TransactionJournal;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara o registro transação a transação ({@link GerenciadorFinanceiroService#registerTransaction(Transaction)})
+ * com o pipeline em lote ({@link GerenciadorFinanceiroService#registerTransactions(java.util.Collection)})
+ * e confere que ambos produzem os mesmos resumos mensais.
+ *
+ * Cenários:
+ * - intercalado: cada lote tem uma transação de cada um de 10.000 usuários (pior caso para o lote);
+ * - extrato: cada lote traz o histórico de poucos usuários, como em uma importação de extratos;
+ * - extrato com log: o mesmo, com {@link TransactionJournal} em {@link DurabilityMode#BATCHED}.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.BatchRegisterBenchmark [transacoes] [tamanhoLote]
+ * </pre>
+ */
+public class BatchRegisterBenchmark {
+
+    private static final int RODADAS = 3;
+    private static final int USUARIOS = 10_000;
+    private static final String[] DESCRICOES = {"Mercado", "Aluguel", "Salário", "Farmácia", "Uber"};
+
+    public static void main(String[] args) throws Exception {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int tamanhoLote = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+
+        comparar("intercalado", gerar(quantidade, false), tamanhoLote, null);
+        comparar("extrato", gerar(quantidade, true), tamanhoLote, null);
+        comparar("extrato com log", gerar(quantidade / 50, true), tamanhoLote, DurabilityMode.BATCHED);
+    }
+
+    private static void comparar(String cenario, List<Transaction> transacoes, int tamanhoLote, DurabilityMode modo)
+            throws Exception {
+        int quantidade = transacoes.size();
+        double melhorLinha = 0;
+        double melhorLote = 0;
+        ResultadoLote ultimo = null;
+        for (int rodada = 0; rodada < RODADAS; rodada++) {
+            System.gc();
+            try (Ambiente ambiente = new Ambiente(modo)) {
+                long inicio = System.nanoTime();
+                for (Transaction t : transacoes) {
+                    ambiente.service.registerTransaction(t);
+                }
+                melhorLinha = Math.max(melhorLinha, quantidade * 1e9 / (System.nanoTime() - inicio));
+
+                try (Ambiente emLote = new Ambiente(modo)) {
+                    System.gc();
+                    inicio = System.nanoTime();
+                    for (int i = 0; i < quantidade; i += tamanhoLote) {
+                        ultimo = emLote.service.registerTransactions(
+                                transacoes.subList(i, Math.min(quantidade, i + tamanhoLote)));
+                    }
+                    melhorLote = Math.max(melhorLote, quantidade * 1e9 / (System.nanoTime() - inicio));
+                    conferir(ambiente.service, emLote.service);
+                }
+            }
+        }
+        System.out.printf("%-16s linha a linha: %,11.0f transações/s | lotes de %,d: %,11.0f transações/s (%.1fx)%n",
+                cenario, melhorLinha, tamanhoLote, melhorLote, melhorLote / melhorLinha);
+        System.out.println("                 último lote: " + ultimo);
+    }
+
+    private static void conferir(GerenciadorFinanceiroService a, GerenciadorFinanceiroService b) {
+        for (long userId = 0; userId < USUARIOS; userId++) {
+            if (!a.getResumosMensais(userId).toString().equals(b.getResumosMensais(userId).toString())) {
+                throw new IllegalStateException("Resumos divergentes para o usuário " + userId);
+            }
+        }
+    }
+
+    /**
+     * @param agrupado true para transações em sequência por usuário (extratos), false para intercaladas
+     */
+    private static List<Transaction> gerar(int quantidade, boolean agrupado) {
+        List<Transaction> transacoes = new ArrayList<>(quantidade);
+        int porUsuario = Math.max(1, quantidade / USUARIOS);
+        for (int i = 0; i < quantidade; i++) {
+            long userId = agrupado ? i / porUsuario % USUARIOS : i % USUARIOS;
+            int sequencia = agrupado ? i % porUsuario : i / USUARIOS;
+            transacoes.add(new Transaction((long) i, userId, 1L, (long) (i % 20),
+                    i % 4 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE,
+                    BigDecimal.valueOf(500 + i % 90_000, 2), LocalDate.of(2024, 1, 1).plusDays(sequencia % 730),
+                    DESCRICOES[i % DESCRICOES.length]));
+        }
+        return transacoes;
+    }
+
+    /**
+     * Serviço em memória ou com log em um diretório temporário.
+     */
+    private static class Ambiente implements AutoCloseable {
+        private final Path diretorio;
+        private final TransactionJournal journal;
+        private final GerenciadorFinanceiroService service;
+
+        Ambiente(DurabilityMode modo) throws Exception {
+            if (modo == null) {
+                diretorio = null;
+                journal = null;
+                service = new GerenciadorFinanceiroService();
+            } else {
+                diretorio = Files.createTempDirectory("batch-benchmark");
+                journal = new TransactionJournal(diretorio, modo);
+                service = new GerenciadorFinanceiroService(journal);
+            }
+        }
+
+        @Override
+        public void close() throws Exception {
+            if (journal != null) {
+                journal.close();
+                JournalBenchmark.apagar(diretorio);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara memória por linha e velocidade de varredura entre {@code ArrayList<Transaction>}
+ * e {@link ColumnarTransactionStore}.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -Xmx4g -cp target/classes:target/test-classes br.com.edufinai.bench.ColumnarStoreBenchmark [linhas]
+ * </pre>
+ */
+public class ColumnarStoreBenchmark {
+
+    private static final String[] DESCRICOES = {"Salário", "Restaurante", "Uber", "Mercado", "Aluguel", "Farmácia"};
+    private static final TransactionType[] TIPOS = TransactionType.values();
+
+    public static void main(String[] args) {
+        int linhas = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        long antes = memoriaUsada();
+        List<Transaction> lista = new ArrayList<>();
+        for (int i = 0; i < linhas; i++) {
+            lista.add(novaTransacao(i));
+        }
+        long memoriaLista = memoriaUsada() - antes;
+        System.out.printf("ArrayList<Transaction>: %.1f bytes/linha%n", (double) memoriaLista / linhas);
+        medirVarredura("ArrayList<Transaction>", linhas, () -> somarReceitas(lista));
+        lista.clear();
+
+        antes = memoriaUsada();
+        ColumnarTransactionStore store = new ColumnarTransactionStore();
+        for (int i = 0; i < linhas; i++) {
+            store.append(novaTransacao(i));
+        }
+        long memoriaColunar = memoriaUsada() - antes;
+        System.out.printf("ColumnarTransactionStore: %.1f bytes/linha%n", (double) memoriaColunar / linhas);
+        medirVarredura("ColumnarTransactionStore", linhas, () -> somarReceitas(store));
+    }
+
+    private static Transaction novaTransacao(int i) {
+        // Valores criados a cada linha, como aconteceria ao receber transações de fora
+        return new Transaction((long) i, (long) (i % 10_000), (long) (i % 7), (long) (i % 20),
+                TIPOS[i % TIPOS.length], BigDecimal.valueOf(1000 + i % 50_000, 2),
+                LocalDate.ofEpochDay(18_000 + i % 3_000), new String(DESCRICOES[i % DESCRICOES.length]));
+    }
+
+    private static long somarReceitas(List<Transaction> lista) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Transaction t : lista) {
+            if (t.getType() == TransactionType.INCOME) {
+                total = total.add(t.getAmount());
+            }
+        }
+        return total.unscaledValue().longValue();
+    }
+
+    private static long somarReceitas(ColumnarTransactionStore store) {
+        long total = 0;
+        for (int i = 0, n = store.size(); i < n; i++) {
+            if (store.tipo(i) == TransactionType.INCOME) {
+                total += store.valorCentavos(i);
+            }
+        }
+        return total;
+    }
+
+    private static void medirVarredura(String nome, int linhas, java.util.function.LongSupplier varredura) {
+        long verificacao = 0;
+        for (int i = 0; i < 5; i++) {
+            verificacao += varredura.getAsLong(); // aquecimento
+        }
+        int repeticoes = 10;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < repeticoes; i++) {
+            verificacao += varredura.getAsLong();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("%s: %.1f milhões de linhas/s (verificação %d)%n",
+                nome, linhas * (double) repeticoes / segundos / 1e6, verificacao);
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Mede a vazão de {@link GerenciadorFinanceiroService#registerTransaction(Transaction)} em memória
+ * com 1, 2, 4, ... threads produtoras, cada uma registrando transações de usuários próprios.
+ * Compara o serviço particionado com uma única partição (equivalente a um bloqueio global).
+ *
+ * As transações são criadas antes da medição, para que a alocação não domine o resultado,
+ * e cada configuração reporta a melhor de {@value #RODADAS} rodadas.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.ConcurrentIngestionBenchmark [maxThreads] [transacoesPorThread]
+ * </pre>
+ */
+public class ConcurrentIngestionBenchmark {
+
+    /** Cada configuração é medida algumas vezes e a melhor rodada é reportada. */
+    private static final int RODADAS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int porThread = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        System.out.printf("Processadores disponíveis: %d%n", Runtime.getRuntime().availableProcessors());
+
+        // Aquecimento do JIT
+        medir(GerenciadorFinanceiroService.PARTICOES_PADRAO, 2, porThread / 4);
+
+        for (int particoes : new int[]{1, GerenciadorFinanceiroService.PARTICOES_PADRAO}) {
+            double base = 0;
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                double vazao = 0;
+                for (int rodada = 0; rodada < RODADAS; rodada++) {
+                    vazao = Math.max(vazao, medir(particoes, threads, porThread));
+                }
+                if (threads == 1) {
+                    base = vazao;
+                }
+                System.out.printf("%3d partições, %2d threads: %,12.0f transações/s (%.2fx)%n",
+                        particoes, threads, vazao, vazao / base);
+            }
+        }
+    }
+
+    private static double medir(int particoes, int threads, int porThread) throws InterruptedException {
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService(particoes);
+        List<List<Transaction>> cargas = new ArrayList<>();
+        for (int p = 0; p < threads; p++) {
+            List<Transaction> carga = new ArrayList<>(porThread);
+            for (int i = 0; i < porThread; i++) {
+                long userId = p * 1_000L + i % 1_000;
+                carga.add(new Transaction((long) p * porThread + i, userId, 1L, 10L,
+                        i % 3 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE,
+                        BigDecimal.valueOf(1_000 + i % 50_000, 2), LocalDate.of(2025, 1, 1).plusDays(i % 365),
+                        "Mercado"));
+            }
+            cargas.add(carga);
+        }
+
+        System.gc();
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> produtores = new ArrayList<>();
+        for (List<Transaction> carga : cargas) {
+            Thread produtor = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (Transaction t : carga) {
+                    service.registerTransaction(t);
+                }
+            });
+            produtores.add(produtor);
+            produtor.start();
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Thread produtor : produtores) {
+            produtor.join();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        int esperado = threads * porThread;
+        if (service.getTransacoes().size() != esperado) {
+            throw new IllegalStateException("Esperadas " + esperado + " transações, encontradas "
+                    + service.getTransacoes().size());
+        }
+        return esperado / segundos;
+    }
+}
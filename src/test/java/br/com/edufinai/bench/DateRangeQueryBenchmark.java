@@ -0,0 +1,82 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Compara a consulta "despesas dos últimos 90 dias de um usuário" feita com
+ * {@link GerenciadorFinanceiroService#streamTransacoes(Long, LocalDate, LocalDate, TransactionType, Long)}
+ * com o filtro sobre {@link GerenciadorFinanceiroService#getTransacoes()}, única opção antes do índice por data.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.DateRangeQueryBenchmark [usuarios] [transacoesPorMes]
+ * </pre>
+ */
+public class DateRangeQueryBenchmark {
+
+    private static final int ANOS = 10;
+    private static final int CONSULTAS = 100_000;
+    private static final LocalDate INICIO = LocalDate.of(2015, 1, 1);
+
+    public static void main(String[] args) {
+        int usuarios = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int transacoesPorMes = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        TransactionType[] tipos = TransactionType.values();
+        List<Transaction> lote = new ArrayList<>();
+        long id = 0;
+        for (long userId = 0; userId < usuarios; userId++) {
+            for (int mes = 0; mes < ANOS * 12; mes++) {
+                for (int i = 0; i < transacoesPorMes; i++) {
+                    // Datas fora de ordem dentro do mês, como em importações de extrato
+                    lote.add(new Transaction(id++, userId, 1L, (long) aleatorio.nextInt(8),
+                            tipos[aleatorio.nextInt(tipos.length)], new BigDecimal("42.00"),
+                            INICIO.plusMonths(mes).plusDays(aleatorio.nextInt(28)), "Compra"));
+                }
+            }
+            service.registerTransactions(lote);
+            lote.clear();
+        }
+        System.out.printf("%,d usuários, %,d transações%n", usuarios, (long) usuarios * ANOS * 12 * transacoesPorMes);
+
+        for (int rodada = 0; rodada < 2; rodada++) {
+            medir("streamTransacoes", CONSULTAS, usuarios, (userId, ate) ->
+                    service.streamTransacoes(userId, ate.minusDays(89), ate, TransactionType.EXPENSE, null).count());
+            medir("filtro de getTransacoes()", 20, usuarios, (userId, ate) -> {
+                LocalDate de = ate.minusDays(89);
+                return service.getTransacoes().stream()
+                        .filter(t -> t.getUserId().equals(userId) && t.getType() == TransactionType.EXPENSE)
+                        .filter(t -> !t.getDate().isBefore(de) && !t.getDate().isAfter(ate))
+                        .count();
+            });
+            System.out.println();
+        }
+    }
+
+    private interface Consulta {
+        long executar(Long userId, LocalDate ate);
+    }
+
+    private static void medir(String nome, int consultas, int usuarios, Consulta consulta) {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        long encontradas = 0;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < consultas; i++) {
+            encontradas += consulta.executar((long) aleatorio.nextInt(usuarios),
+                    INICIO.plusDays(90 + aleatorio.nextInt(ANOS * 365 - 90)));
+        }
+        long nanos = System.nanoTime() - inicio;
+        System.out.printf("%-26s: %,12.2f µs/consulta | %,.1f transações/consulta%n",
+                nome, nanos / 1e3 / consultas, (double) encontradas / consultas);
+    }
+}
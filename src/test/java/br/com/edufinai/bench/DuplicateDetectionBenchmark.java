@@ -0,0 +1,75 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.ResultadoLote;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Mede a detecção de duplicatas em importações: a carga inicial de um extrato (transações
+ * novas, resolvidas pelo filtro de Bloom) e a reimportação do mesmo extrato (todas duplicadas,
+ * confirmadas pela tabela exata), com e sem id, além da taxa de falsos positivos e da memória.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.DuplicateDetectionBenchmark [transacoes]
+ * </pre>
+ */
+public class DuplicateDetectionBenchmark {
+
+    private static final int TAMANHO_LOTE = 10_000;
+
+    public static void main(String[] args) {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        for (boolean comId : new boolean[]{true, false}) {
+            List<Transaction> extrato = gerar(quantidade, comId);
+            GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+            Medicao carga = importar(service, extrato);
+            Medicao reimportacao = importar(service, extrato);
+            System.out.printf("%s | carga: %,10.0f transações/s (%,d registradas) | reimportação: %,10.0f transações/s (%,d duplicadas)%n",
+                    comId ? "com id" : "sem id", quantidade * 1e9 / carga.nanos, carga.registradas,
+                    quantidade * 1e9 / reimportacao.nanos, reimportacao.duplicadas);
+            System.out.println("         " + service.getEstatisticasDuplicatas());
+        }
+    }
+
+    /** Totais dos lotes de uma importação. */
+    private static class Medicao {
+        private long registradas;
+        private long duplicadas;
+        private long nanos;
+    }
+
+    private static Medicao importar(GerenciadorFinanceiroService service, List<Transaction> extrato) {
+        Medicao medicao = new Medicao();
+        for (int inicio = 0; inicio < extrato.size(); inicio += TAMANHO_LOTE) {
+            ResultadoLote lote = service.registerTransactions(
+                    extrato.subList(inicio, Math.min(extrato.size(), inicio + TAMANHO_LOTE)));
+            medicao.registradas += lote.getRegistradas();
+            medicao.duplicadas += lote.getDuplicadas();
+            medicao.nanos += lote.getDuracaoNanos();
+        }
+        return medicao;
+    }
+
+    private static List<Transaction> gerar(int quantidade, boolean comId) {
+        SplittableRandom aleatorio = new SplittableRandom(11);
+        TransactionType[] tipos = TransactionType.values();
+        List<Transaction> extrato = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            long userId = i % 20_000;
+            // Sem id, o conteúdo precisa variar: valor único por usuário garante lançamentos distintos
+            extrato.add(new Transaction(comId ? (long) i : null, userId, 1L, (long) aleatorio.nextInt(20),
+                    tipos[aleatorio.nextInt(tipos.length)], BigDecimal.valueOf(i / 20_000 + 1, 2),
+                    LocalDate.of(2020, 1, 1).plusDays(aleatorio.nextInt(1_500)), "Compra " + (i % 500)));
+        }
+        return extrato;
+    }
+}
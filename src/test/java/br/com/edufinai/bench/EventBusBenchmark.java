@@ -0,0 +1,108 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.model.gamification.GamificationEngine;
+import br.com.edufinai.model.gamification.Goal;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.eventos.AvaliadorGamificacao;
+import br.com.edufinai.service.eventos.BarramentoEventos;
+import br.com.edufinai.service.eventos.NotificadorTransacoes;
+import br.com.edufinai.service.eventos.ProcessadorEventos;
+import br.com.edufinai.service.eventos.SaldosUsuarios;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Mede o custo do {@link BarramentoEventos} no caminho de escrita: vazão de
+ * {@link GerenciadorFinanceiroService#registerTransaction} com várias threads produtoras, sem
+ * barramento e com os consumidores de saldos, gamificação e notificações, além do atraso dos
+ * consumidores e das esperas por espaço no anel.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.EventBusBenchmark [transacoes] [threads] [capacidade]
+ * </pre>
+ */
+public class EventBusBenchmark {
+
+    private static final int USUARIOS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int capacidade = args.length > 2 ? Integer.parseInt(args[2]) : BarramentoEventos.CAPACIDADE_PADRAO;
+
+        for (int rodada = 0; rodada < 2; rodada++) {
+            for (boolean comBarramento : new boolean[]{false, true}) {
+                GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+                BarramentoEventos barramento = comBarramento ? iniciar(service, capacidade) : null;
+                long inicio = System.nanoTime();
+                registrar(service, quantidade, threads);
+                long nanosEscrita = System.nanoTime() - inicio;
+                if (barramento != null) {
+                    barramento.aguardarConsumo();
+                }
+                long nanosTotal = System.nanoTime() - inicio;
+                System.out.printf("%s | %-14s | escrita: %,10.0f transações/s | até consumir tudo: %,10.0f transações/s%n",
+                        rodada == 0 ? "aquecimento" : "medição    ", comBarramento ? "com barramento" : "sem barramento",
+                        quantidade * 1e9 / nanosEscrita, quantidade * 1e9 / nanosTotal);
+                if (barramento != null) {
+                    if (rodada == 1) {
+                        System.out.println(barramento.getEstatisticas());
+                    }
+                    barramento.close();
+                }
+            }
+        }
+    }
+
+    private static BarramentoEventos iniciar(GerenciadorFinanceiroService service, int capacidade) {
+        ConcurrentHashMap<Long, GamificationEngine> motores = new ConcurrentHashMap<>();
+        // Um usuário a cada 100 tem gamificação, com uma meta atingível
+        for (long userId = 0; userId < USUARIOS; userId += 100) {
+            GamificationEngine motor = new GamificationEngine();
+            motor.addGoal(new Goal("Reserva", new BigDecimal("1000.00")));
+            motores.put(userId, motor);
+        }
+        SaldosUsuarios saldos = new SaldosUsuarios();
+        BarramentoEventos barramento = new BarramentoEventos(capacidade);
+        ProcessadorEventos processadorSaldos = barramento.adicionarConsumidor("saldos", saldos);
+        barramento.adicionarConsumidor("gamificacao", new AvaliadorGamificacao(saldos, motores::get), processadorSaldos);
+        barramento.adicionarConsumidor("notificacoes", new NotificadorTransacoes(new BigDecimal("9000.00"), motores::get));
+        barramento.iniciar();
+        service.configurarBarramento(barramento);
+        return barramento;
+    }
+
+    private static void registrar(GerenciadorFinanceiroService service, int quantidade, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int produtor = t;
+            tarefas.add(executor.submit(() -> {
+                SplittableRandom aleatorio = new SplittableRandom(produtor);
+                TransactionType[] tipos = TransactionType.values();
+                for (long i = produtor; i < quantidade; i += threads) {
+                    service.registerTransaction(new Transaction(i, (long) aleatorio.nextInt(USUARIOS), 1L,
+                            (long) aleatorio.nextInt(10), tipos[aleatorio.nextInt(tipos.length)],
+                            BigDecimal.valueOf(aleatorio.nextInt(1_000_000), 2),
+                            LocalDate.of(2024, 1, 1).plusDays(aleatorio.nextInt(365)), "Compra"));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,154 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.exporter.ExtratoExporter;
+import br.com.edufinai.service.exporter.FormatoExportacao;
+import br.com.edufinai.service.exporter.ResultadoExportacao;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Mede a vazão da exportação do histórico ({@link ExtratoExporter}) em NDJSON e CSV, com e
+ * sem gzip, e o pico de heap durante a exportação, comparado ao caminho ingênuo de
+ * materializar {@link GerenciadorFinanceiroService#getTransacoes()} e montar o texto inteiro
+ * em memória. A saída vai para um canal que descarta os bytes, para não medir o disco.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.ExportBenchmark [transacoes]
+ * </pre>
+ */
+public class ExportBenchmark {
+
+    private static final int USUARIOS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        GerenciadorFinanceiroService service = carregar(quantidade);
+        System.out.printf("%,d transações carregadas, heap usado %,d MB%n", quantidade, usado() >> 20);
+
+        ExtratoExporter exporter = new ExtratoExporter(service);
+        for (FormatoExportacao formato : FormatoExportacao.values()) {
+            for (boolean gzip : new boolean[]{false, true}) {
+                exporter.setFormato(formato);
+                exporter.setGzip(gzip);
+                // Primeira passada aquece o JIT; a segunda é a medida
+                exporter.exportar(new Descarte());
+                AmostradorHeap amostrador = AmostradorHeap.iniciar();
+                ResultadoExportacao resultado = exporter.exportar(new Descarte());
+                long pico = amostrador.parar();
+                System.out.printf("%-6s %-8s | %,9.1f MB/s de texto | %,11.0f linhas/s | %,6d MB escritos | pico de heap %,6d MB%n",
+                        formato, gzip ? "gzip" : "sem gzip", resultado.getMegabytesPorSegundo(),
+                        resultado.getLinhasPorSegundo(), resultado.getBytesEscritos() >> 20, pico >> 20);
+            }
+        }
+
+        AmostradorHeap amostrador = AmostradorHeap.iniciar();
+        try {
+            long inicio = System.nanoTime();
+            StringBuilder texto = new StringBuilder();
+            for (Transaction transacao : service.getTransacoes()) {
+                texto.append(transacao).append('\n');
+            }
+            byte[] bytes = texto.toString().getBytes(StandardCharsets.UTF_8);
+            long nanos = System.nanoTime() - inicio;
+            long pico = amostrador.parar();
+            System.out.printf("ingênuo (getTransacoes + toString) | %,9.1f MB/s de texto | pico de heap %,6d MB%n",
+                    bytes.length / 1e6 / (nanos / 1e9), pico >> 20);
+        } catch (OutOfMemoryError e) {
+            long pico = amostrador.parar();
+            System.out.printf("ingênuo (getTransacoes + toString) | OutOfMemoryError após %,d MB de heap%n", pico >> 20);
+        }
+    }
+
+    private static GerenciadorFinanceiroService carregar(int quantidade) {
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        SplittableRandom aleatorio = new SplittableRandom(5);
+        TransactionType[] tipos = TransactionType.values();
+        String[] descricoes = {"Mercado", "Café", "Aluguel", "Salário", "Farmácia \"24h\"", "Uber; centro"};
+        List<Transaction> lote = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            lote.add(new Transaction((long) i, (long) aleatorio.nextInt(USUARIOS), 1L, (long) aleatorio.nextInt(10),
+                    tipos[aleatorio.nextInt(tipos.length)], BigDecimal.valueOf(aleatorio.nextInt(1_000_000), 2),
+                    LocalDate.of(2015, 1, 1).plusDays(aleatorio.nextInt(3_650)),
+                    descricoes[aleatorio.nextInt(descricoes.length)] + " " + aleatorio.nextInt(200)));
+            if (lote.size() == 10_000) {
+                service.registerTransactions(lote);
+                lote.clear();
+            }
+        }
+        service.registerTransactions(lote);
+        return service;
+    }
+
+    private static long usado() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /** Canal que aceita e descarta todos os bytes. */
+    private static class Descarte implements WritableByteChannel {
+        @Override
+        public int write(ByteBuffer origem) {
+            int bytes = origem.remaining();
+            origem.position(origem.limit());
+            return bytes;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /** Amostra o heap usado em uma thread à parte e devolve o pico acima da linha de base. */
+    private static class AmostradorHeap extends Thread {
+        private final long base;
+        private volatile boolean ativo = true;
+        private long pico;
+
+        private AmostradorHeap(long base) {
+            this.base = base;
+            setDaemon(true);
+        }
+
+        static AmostradorHeap iniciar() {
+            AmostradorHeap amostrador = new AmostradorHeap(usado());
+            amostrador.start();
+            return amostrador;
+        }
+
+        @Override
+        public void run() {
+            Runtime runtime = Runtime.getRuntime();
+            while (ativo) {
+                pico = Math.max(pico, runtime.totalMemory() - runtime.freeMemory());
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        long parar() throws InterruptedException {
+            ativo = false;
+            join();
+            return Math.max(0, pico - base);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.importer.ExtratoImporter;
+import br.com.edufinai.service.importer.ResultadoImportacao;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Mede a vazão do {@link ExtratoImporter} sobre um CSV sintético.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -Xmx4g -cp target/classes:target/test-classes br.com.edufinai.bench.ExtratoImporterBenchmark [linhas]
+ * </pre>
+ */
+public class ExtratoImporterBenchmark {
+
+    private static final String[] DESCRICOES = {"Salário", "Restaurante", "Uber", "Mercado", "Aluguel", "Farmácia"};
+    private static final String[] TIPOS = {"INCOME", "EXPENSE", "INVESTMENT"};
+
+    public static void main(String[] args) throws IOException {
+        int linhas = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        Path arquivo = Files.createTempFile("extrato-benchmark", ".csv");
+        try {
+            gerarCsv(arquivo, linhas);
+            System.out.printf("Arquivo: %d linhas, %.1f MB%n", linhas, Files.size(arquivo) / (1024.0 * 1024.0));
+
+            ExtratoImporter importer = new ExtratoImporter(new GerenciadorFinanceiroService());
+            ResultadoImportacao resultado = importer.importarCsv(arquivo);
+            System.out.println(resultado);
+        } finally {
+            Files.deleteIfExists(arquivo);
+            Files.deleteIfExists(ExtratoImporter.caminhoCheckpoint(arquivo));
+        }
+    }
+
+    private static void gerarCsv(Path arquivo, int linhas) throws IOException {
+        LocalDate inicio = LocalDate.of(2015, 1, 1);
+        try (BufferedWriter out = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            out.write("id;userId;accountId;categoryId;type;amount;date;description\n");
+            for (int i = 0; i < linhas; i++) {
+                out.write(i + ";" + (i % 5_000) + ";" + (i % 7) + ";" + (i % 20) + ";" + TIPOS[i % 3] + ";"
+                        + (i % 100_000) / 100 + "," + String.format("%02d", i % 100) + ";"
+                        + inicio.plusDays(i % 3_650) + ";" + DESCRICOES[i % DESCRICOES.length] + "\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.model.User;
+import br.com.edufinai.repository.BancoDados;
+import br.com.edufinai.repository.TransactionRepository;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+/**
+ * Mede o {@link TransactionRepository} com H2 embarcado em modo arquivo:
+ * - gravação uma a uma (um commit por transação) contra {@code salvarTodos} com vários tamanhos de lote;
+ * - relatório mensal agregado no banco ({@code GROUP BY}) contra a leitura das transações
+ *   com soma em Java, tendo o relatório em memória do {@link GerenciadorFinanceiroService} como referência.
+ *
+ * Execução (após {@code mvn test-compile}; o H2 está no classpath de teste):
+ * <pre>
+ * java -cp target/classes:target/test-classes:h2.jar br.com.edufinai.bench.H2PersistenceBenchmark [transacoes] [usuarios]
+ * </pre>
+ */
+public class H2PersistenceBenchmark {
+
+    private static final int INDIVIDUAIS = 20_000;
+    private static final int RELATORIOS = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int usuarios = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        List<Transaction> transacoes = gerar(quantidade, usuarios);
+        Path diretorio = Files.createTempDirectory("edufinai-h2");
+
+        try (BancoDados banco = BancoDados.emArquivo(diretorio.resolve("individual"))) {
+            TransactionRepository repositorio = new TransactionRepository(banco);
+            long inicio = System.nanoTime();
+            for (Transaction t : transacoes.subList(0, INDIVIDUAIS)) {
+                repositorio.salvar(t);
+            }
+            imprimirGravacao("uma a uma", INDIVIDUAIS, System.nanoTime() - inicio);
+        }
+        for (int tamanhoLote : new int[]{1, 100, 1_000, 10_000}) {
+            try (BancoDados banco = BancoDados.emArquivo(diretorio.resolve("lote-" + tamanhoLote))) {
+                TransactionRepository repositorio = new TransactionRepository(banco);
+                repositorio.setTamanhoLote(tamanhoLote);
+                long inicio = System.nanoTime();
+                repositorio.salvarTodos(transacoes);
+                imprimirGravacao("lote de " + tamanhoLote, quantidade, System.nanoTime() - inicio);
+            }
+        }
+
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        service.registerTransactions(transacoes);
+        try (BancoDados banco = BancoDados.emArquivo(diretorio.resolve("lote-1000"))) {
+            TransactionRepository repositorio = new TransactionRepository(banco);
+            for (int rodada = 0; rodada < 2; rodada++) {
+                medirRelatorio("GROUP BY no H2", usuarios, user -> repositorio.gerarRelatorioMensal(user).length());
+                medirRelatorio("linhas somadas em Java", usuarios, user -> somarEmJava(repositorio, user.getId()));
+                medirRelatorio("serviço em memória", usuarios, user -> service.generateMonthlyReport(user).length());
+                System.out.println();
+            }
+        }
+    }
+
+    private interface Relatorio {
+        int gerar(User user) throws SQLException;
+    }
+
+    private static void medirRelatorio(String nome, int usuarios, Relatorio relatorio) throws SQLException {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        User user = new User();
+        user.setName("Cliente");
+        long total = 0;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < RELATORIOS; i++) {
+            user.setId((long) aleatorio.nextInt(usuarios));
+            total += relatorio.gerar(user);
+        }
+        long nanos = System.nanoTime() - inicio;
+        if (total == 0) {
+            throw new IllegalStateException("Nenhum relatório gerado");
+        }
+        System.out.printf("%-24s: %,9.1f µs/relatório%n", nome, nanos / 1e3 / RELATORIOS);
+    }
+
+    /** Alternativa sem pushdown: traz todas as transações do usuário e soma por mês em Java. */
+    private static int somarEmJava(TransactionRepository repositorio, Long userId) throws SQLException {
+        TreeMap<YearMonth, long[]> meses = new TreeMap<>();
+        for (Transaction t : repositorio.buscarPorPeriodo(userId, LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31))) {
+            long[] totais = meses.computeIfAbsent(YearMonth.from(t.getDate()), m -> new long[TransactionType.values().length]);
+            totais[t.getType().ordinal()] += ColumnarTransactionStore.paraCentavos(t.getAmount());
+        }
+        return meses.size();
+    }
+
+    private static void imprimirGravacao(String nome, int quantidade, long nanos) {
+        System.out.printf("gravação %-14s: %,10.0f transações/s%n", nome, quantidade * 1e9 / nanos);
+    }
+
+    private static List<Transaction> gerar(int quantidade, int usuarios) {
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        TransactionType[] tipos = TransactionType.values();
+        List<Transaction> transacoes = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            transacoes.add(new Transaction((long) i, (long) aleatorio.nextInt(usuarios), 1L, (long) aleatorio.nextInt(8),
+                    tipos[aleatorio.nextInt(tipos.length)], BigDecimal.valueOf(aleatorio.nextInt(100_000), 2),
+                    LocalDate.of(2015, 1, 1).plusDays(aleatorio.nextInt(3_650)), "Compra " + aleatorio.nextInt(100)));
+        }
+        return transacoes;
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.persistence.DurabilityMode;
+import br.com.edufinai.service.persistence.TransactionJournal;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Mede a vazão de {@link GerenciadorFinanceiroService#registerTransaction(Transaction)} com
+ * {@link TransactionJournal} em cada {@link DurabilityMode}, com vários produtores concorrentes,
+ * e o tempo de reprodução do log na inicialização.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.JournalBenchmark [threads] [transacoesPorThread]
+ * </pre>
+ */
+public class JournalBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int porThread = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+
+        for (DurabilityMode modo : DurabilityMode.values()) {
+            int quantidade = modo == DurabilityMode.SYNC ? Math.max(1, porThread / 10) : porThread;
+            Path diretorio = Files.createTempDirectory("journal-benchmark");
+            try {
+                executar(diretorio, modo, threads, quantidade);
+            } finally {
+                apagar(diretorio);
+            }
+        }
+    }
+
+    private static void executar(Path diretorio, DurabilityMode modo, int threads, int porThread) throws Exception {
+        long total = (long) threads * porThread;
+        try (TransactionJournal journal = new TransactionJournal(diretorio, modo)) {
+            GerenciadorFinanceiroService service = new GerenciadorFinanceiroService(journal);
+            List<Thread> produtores = new ArrayList<>();
+            long inicio = System.nanoTime();
+            for (int p = 0; p < threads; p++) {
+                final long userId = p;
+                Thread produtor = new Thread(() -> {
+                    for (int i = 0; i < porThread; i++) {
+                        service.registerTransaction(new Transaction(userId * 1_000_000 + i, userId, 1L, 10L,
+                                TransactionType.EXPENSE, new BigDecimal("42.50"),
+                                LocalDate.of(2025, 1, 1).plusDays(i % 365), "Mercado"));
+                    }
+                });
+                produtores.add(produtor);
+                produtor.start();
+            }
+            for (Thread produtor : produtores) {
+                produtor.join();
+            }
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            journal.aguardarDurabilidade(journal.getUltimoLsn());
+            System.out.printf("%-7s %d threads: %,.0f transações/s, %,d fsyncs (%.1f transações por fsync)%n",
+                    modo, threads, total / segundos, journal.getLotes(),
+                    (double) journal.getRegistrosGravados() / Math.max(1, journal.getLotes()));
+        }
+
+        long inicio = System.nanoTime();
+        try (TransactionJournal journal = new TransactionJournal(diretorio, modo)) {
+            GerenciadorFinanceiroService recuperado = new GerenciadorFinanceiroService(journal);
+            System.out.printf("        reprodução de %,d transações: %.0f ms%n",
+                    recuperado.getTransacoes().size(), (System.nanoTime() - inicio) / 1e6);
+        }
+    }
+
+    static void apagar(Path diretorio) throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+        Files.deleteIfExists(diretorio);
+    }
+}
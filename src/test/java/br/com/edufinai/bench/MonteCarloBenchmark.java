@@ -0,0 +1,63 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.service.ResultadoMonteCarlo;
+import br.com.edufinai.service.SimulacaoMonteCarlo;
+
+import java.util.SplittableRandom;
+
+/**
+ * Mede a {@link SimulacaoMonteCarlo} com 100 mil trajetórias de 120 meses e confere que a mesma
+ * semente produz o mesmo resultado com 1 thread e com todos os processadores.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.MonteCarloBenchmark [trajetorias] [meses]
+ * </pre>
+ */
+public class MonteCarloBenchmark {
+
+    private static final int MESES_HISTORICO = 24;
+    private static final double INFLACAO = 0.045;
+    private static final long OBJETIVO_CENTAVOS = 5_000_000;
+
+    public static void main(String[] args) {
+        int trajetorias = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int meses = args.length > 1 ? Integer.parseInt(args[1]) : 120;
+        int processadores = Runtime.getRuntime().availableProcessors();
+
+        // Histórico com receita em torno de 5.000,00 e despesas variando entre 2.500,00 e 4.500,00
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        long[] receitas = new long[MESES_HISTORICO];
+        long[] despesas = new long[MESES_HISTORICO];
+        for (int m = 0; m < MESES_HISTORICO; m++) {
+            receitas[m] = 480_000 + aleatorio.nextLong(40_000);
+            despesas[m] = 250_000 + aleatorio.nextLong(200_000);
+        }
+
+        SimulacaoMonteCarlo simulacao = new SimulacaoMonteCarlo();
+        simulacao.setTrajetorias(trajetorias);
+        for (int rodada = 0; rodada < 5; rodada++) {
+            simulacao.setParalelismo(1);
+            ResultadoMonteCarlo sequencial = simulacao.simular(receitas, despesas, 0, meses, INFLACAO, OBJETIVO_CENTAVOS);
+            simulacao.setParalelismo(processadores);
+            ResultadoMonteCarlo paralelo = simulacao.simular(receitas, despesas, 0, meses, INFLACAO, OBJETIVO_CENTAVOS);
+            System.out.printf("%s | 1 thread: %7.1f ms | %d threads: %7.1f ms | %,.0f passos/s | resultados iguais: %s%n",
+                    rodada < 2 ? "aquecimento" : "medição    ", sequencial.getDuracaoNanos() / 1e6, processadores,
+                    paralelo.getDuracaoNanos() / 1e6, (double) trajetorias * meses * 1e9 / paralelo.getDuracaoNanos(),
+                    iguais(sequencial, paralelo));
+            if (rodada == 4) {
+                System.out.println(paralelo);
+            }
+        }
+    }
+
+    private static boolean iguais(ResultadoMonteCarlo a, ResultadoMonteCarlo b) {
+        for (double percentil = 1; percentil <= 100; percentil++) {
+            if (!a.getSaldo(percentil).equals(b.getSaldo(percentil))
+                    || a.getMesesParaObjetivo(percentil) != b.getMesesParaObjetivo(percentil)) {
+                return false;
+            }
+        }
+        return a.getProbabilidadeObjetivo() == b.getProbabilidadeObjetivo();
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.CursorTransacoes;
+import br.com.edufinai.service.DirecaoPaginacao;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.PaginaTransacoes;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mede o custo de ler uma página de 50 transações em profundidades crescentes do histórico
+ * de um usuário, com {@link GerenciadorFinanceiroService#paginarTransacoes} (cursor) e com
+ * deslocamento ({@code skip/limit} sobre o histórico inteiro do usuário).
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.PaginationBenchmark [transacoes]
+ * </pre>
+ */
+public class PaginationBenchmark {
+
+    private static final int TAMANHO_PAGINA = 50;
+    private static final int REPETICOES = 200;
+
+    public static void main(String[] args) {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        List<Transaction> lote = new ArrayList<>();
+        LocalDate inicio = LocalDate.of(2000, 1, 1);
+        for (long id = 0; id < quantidade; id++) {
+            lote.add(new Transaction(id, 1L, 1L, 1L, TransactionType.EXPENSE, new BigDecimal("10.00"),
+                    inicio.plusDays(id / 50), "Compra"));
+        }
+        service.registerTransactions(lote);
+        lote.clear();
+
+        // Cursores em profundidades conhecidas, a partir da transação mais recente
+        int[] profundidades = {0, quantidade / 100, quantidade / 10, quantidade / 2, quantidade - TAMANHO_PAGINA};
+        CursorTransacoes[] cursores = new CursorTransacoes[profundidades.length];
+        CursorTransacoes cursor = null;
+        int lidas = 0;
+        for (int i = 0; i < profundidades.length; i++) {
+            while (lidas < profundidades[i]) {
+                int tamanho = Math.min(GerenciadorFinanceiroService.TAMANHO_MAXIMO_PAGINA, profundidades[i] - lidas);
+                PaginaTransacoes pagina = service.paginarTransacoes(1L, cursor, tamanho, DirecaoPaginacao.PARA_TRAS);
+                cursor = pagina.getCursorFim();
+                lidas += pagina.getTransacoes().size();
+            }
+            cursores[i] = cursor;
+        }
+
+        for (int rodada = 0; rodada < 2; rodada++) {
+            for (int i = 0; i < profundidades.length; i++) {
+                long inicioCursor = System.nanoTime();
+                long soma = 0;
+                for (int r = 0; r < REPETICOES; r++) {
+                    soma += service.paginarTransacoes(1L, cursores[i], TAMANHO_PAGINA, DirecaoPaginacao.PARA_TRAS)
+                            .getTransacoes().size();
+                }
+                double microsCursor = (System.nanoTime() - inicioCursor) / 1e3 / REPETICOES;
+
+                int repeticoesDeslocamento = Math.max(1, REPETICOES / 20);
+                int deslocamento = profundidades[i];
+                long inicioDeslocamento = System.nanoTime();
+                for (int r = 0; r < repeticoesDeslocamento; r++) {
+                    soma += service.streamTransacoes(1L, null, null)
+                            .skip(quantidade - deslocamento - TAMANHO_PAGINA)
+                            .limit(TAMANHO_PAGINA).count();
+                }
+                double microsDeslocamento = (System.nanoTime() - inicioDeslocamento) / 1e3 / repeticoesDeslocamento;
+                if (soma == 0) {
+                    throw new IllegalStateException("Nenhuma transação lida");
+                }
+                System.out.printf("profundidade %,9d: cursor %,9.2f µs/página | deslocamento %,12.2f µs/página%n",
+                        profundidades[i], microsCursor, microsDeslocamento);
+            }
+            System.out.println();
+        }
+    }
+}
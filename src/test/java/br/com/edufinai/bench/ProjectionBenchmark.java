@@ -0,0 +1,86 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.service.ProjetorSaldos;
+import br.com.edufinai.service.ResultadoProjecao;
+import br.com.edufinai.service.ResumoMensal;
+import br.com.edufinai.service.SimuladorFinanceiro;
+import br.com.edufinai.service.TotaisUsuarios;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Compara a projeção noturna de todos os usuários feita usuário a usuário com o
+ * {@link SimuladorFinanceiro} (BigDecimal sobre os resumos mensais) com a projeção em lote do
+ * {@link ProjetorSaldos} (centavos em {@code long}, em paralelo), conferindo que os resultados são iguais.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.ProjectionBenchmark [usuarios] [mesesHistorico]
+ * </pre>
+ */
+public class ProjectionBenchmark {
+
+    private static final int MESES = 6;
+    private static final double INFLACAO = 0.06;
+    private static final long OBJETIVO_CENTAVOS = 500_000;
+
+    public static void main(String[] args) {
+        int usuarios = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int mesesHistorico = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+
+        // Resumos mensais de cada usuário e os totais correspondentes
+        SplittableRandom aleatorio = new SplittableRandom(3);
+        List<List<ResumoMensal>> resumos = new ArrayList<>(usuarios);
+        long[] ids = new long[usuarios];
+        long[] receitas = new long[usuarios];
+        long[] despesas = new long[usuarios];
+        for (int u = 0; u < usuarios; u++) {
+            List<ResumoMensal> meses = new ArrayList<>(mesesHistorico);
+            for (int m = 0; m < mesesHistorico; m++) {
+                long receita = aleatorio.nextLong(1_000_000);
+                long despesa = aleatorio.nextLong(1_000_000);
+                meses.add(new ResumoMensal(YearMonth.of(2024, 1).plusMonths(m), receita, despesa, 0, 2));
+                receitas[u] += receita;
+                despesas[u] += despesa;
+            }
+            ids[u] = u;
+            resumos.add(meses);
+        }
+        TotaisUsuarios totais = new TotaisUsuarios(ids, receitas, despesas);
+        BigDecimal objetivo = BigDecimal.valueOf(OBJETIVO_CENTAVOS, 2);
+
+        SimuladorFinanceiro simulador = new SimuladorFinanceiro();
+        ProjetorSaldos projetor = new ProjetorSaldos();
+        for (int rodada = 0; rodada < 2; rodada++) {
+            long inicio = System.nanoTime();
+            BigDecimal[] ajustados = new BigDecimal[usuarios];
+            int[] mesesObjetivo = new int[usuarios];
+            for (int u = 0; u < usuarios; u++) {
+                BigDecimal projetado = simulador.projetarSaldoFuturo(resumos.get(u), MESES);
+                ajustados[u] = simulador.ajustarPorInflacao(projetado, INFLACAO, MESES);
+                mesesObjetivo[u] = simulador.estimarMesesParaObjetivo(objetivo, resumos.get(u));
+            }
+            long nanosEscalar = System.nanoTime() - inicio;
+
+            projetor.setParalelismo(1);
+            ResultadoProjecao sequencial = projetor.projetar(totais, MESES, INFLACAO, OBJETIVO_CENTAVOS);
+            projetor.setParalelismo(Runtime.getRuntime().availableProcessors());
+            ResultadoProjecao paralelo = projetor.projetar(totais, MESES, INFLACAO, OBJETIVO_CENTAVOS);
+
+            int divergencias = 0;
+            for (int u = 0; u < usuarios; u++) {
+                if (!ajustados[u].equals(paralelo.getSaldoAjustado(u)) || mesesObjetivo[u] != paralelo.mesesParaObjetivo(u)) {
+                    divergencias++;
+                }
+            }
+            System.out.printf("%s | escalar (BigDecimal): %,12.0f usuários/s | lote 1 thread: %,12.0f usuários/s | lote %d threads: %,12.0f usuários/s | divergências: %d%n",
+                    rodada == 0 ? "aquecimento" : "medição    ", usuarios * 1e9 / nanosEscalar,
+                    sequencial.getUsuariosPorSegundo(), Runtime.getRuntime().availableProcessors(),
+                    paralelo.getUsuariosPorSegundo(), divergencias);
+        }
+    }
+}
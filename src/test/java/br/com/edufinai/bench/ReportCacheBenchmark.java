@@ -0,0 +1,89 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.model.User;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.cache.CacheRelatorios;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Mede a vazão de {@link GerenciadorFinanceiroService#generateMonthlyReport(User)} com o
+ * {@link CacheRelatorios} em várias capacidades, sob uma carga com usuários "quentes"
+ * (distribuição enviesada) e uma escrita a cada {@code leiturasPorEscrita} leituras.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.ReportCacheBenchmark [usuarios] [leiturasPorEscrita]
+ * </pre>
+ */
+public class ReportCacheBenchmark {
+
+    private static final int ANOS = 10;
+    private static final int REQUISICOES = 300_000;
+
+    /** Ids das escritas durante a medição (sem id, escritas repetidas seriam descartadas como duplicatas). */
+    private static long proximoId = 1L << 40;
+
+    public static void main(String[] args) {
+        int usuarios = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int leiturasPorEscrita = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        List<Transaction> lote = new ArrayList<>();
+        for (long userId = 0; userId < usuarios; userId++) {
+            for (int mes = 0; mes < ANOS * 12; mes++) {
+                LocalDate data = LocalDate.of(2015, 1, 10).plusMonths(mes);
+                lote.add(new Transaction(null, userId, 1L, 1L, TransactionType.INCOME, new BigDecimal("3000.00"), data, "Salário"));
+                lote.add(new Transaction(null, userId, 1L, 2L, TransactionType.EXPENSE, new BigDecimal("1234.56"), data, "Aluguel"));
+            }
+            service.registerTransactions(lote);
+            lote.clear();
+        }
+
+        for (int capacidade : new int[]{0, usuarios / 100, usuarios / 10, usuarios}) {
+            CacheRelatorios cache = service.getCacheRelatorios();
+            cache.setCapacidade(capacidade);
+            cache.limpar();
+            executar(service, usuarios, leiturasPorEscrita, REQUISICOES / 5);
+            long acertos = cache.getAcertos();
+            long falhas = cache.getFalhas();
+            long despejos = cache.getDespejos();
+
+            long inicio = System.nanoTime();
+            executar(service, usuarios, leiturasPorEscrita, REQUISICOES);
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            long consultas = cache.getAcertos() - acertos + cache.getFalhas() - falhas;
+            System.out.printf("capacidade %,6d: %,9.0f relatórios/s | taxa de acerto %5.1f%% | despejos %,d | %s%n",
+                    capacidade, REQUISICOES / segundos, 100.0 * (cache.getAcertos() - acertos) / consultas,
+                    cache.getDespejos() - despejos, cache);
+        }
+    }
+
+    private static void executar(GerenciadorFinanceiroService service, int usuarios, int leiturasPorEscrita,
+                                 int requisicoes) {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        User user = new User();
+        user.setName("Cliente");
+        long caracteres = 0;
+        for (int i = 0; i < requisicoes; i++) {
+            // Usuários de id baixo são bem mais frequentes (aproximação de uma distribuição de Zipf)
+            long userId = (long) (usuarios * Math.pow(aleatorio.nextDouble(), 4));
+            if (i % leiturasPorEscrita == 0) {
+                service.registerTransaction(new Transaction(proximoId++, userId, 1L, 3L, TransactionType.EXPENSE,
+                        new BigDecimal("9.90"), LocalDate.of(2024, 12, 20), "Streaming"));
+            } else {
+                user.setId(userId);
+                caracteres += service.generateMonthlyReport(user).length();
+            }
+        }
+        if (caracteres == 0) {
+            throw new IllegalStateException("Nenhum relatório gerado");
+        }
+    }
+}
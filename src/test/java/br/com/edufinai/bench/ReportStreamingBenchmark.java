@@ -0,0 +1,80 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.model.User;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara a memória alocada por {@link GerenciadorFinanceiroService#generateMonthlyReport(User)}
+ * (relatório montado em uma String) com a versão que escreve em um {@link OutputStream},
+ * para muitos usuários com longo histórico, como em uma emissão de extratos em massa.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.ReportStreamingBenchmark [usuarios] [anos]
+ * </pre>
+ */
+public class ReportStreamingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int usuarios = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int anos = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        List<Transaction> lote = new ArrayList<>();
+        for (long userId = 0; userId < usuarios; userId++) {
+            for (int mes = 0; mes < anos * 12; mes++) {
+                LocalDate data = LocalDate.of(2000, 1, 5).plusMonths(mes);
+                lote.add(new Transaction(null, userId, 1L, 1L, TransactionType.INCOME, new BigDecimal("3000.00"), data, "Salário"));
+                lote.add(new Transaction(null, userId, 1L, 2L, TransactionType.EXPENSE, new BigDecimal("1234.56"), data, "Aluguel"));
+            }
+            service.registerTransactions(lote);
+            lote.clear();
+        }
+        User user = new User();
+        user.setName("Cliente");
+        OutputStream descarte = OutputStream.nullOutputStream();
+
+        for (int rodada = 0; rodada < 3; rodada++) {
+            long antes = alocado();
+            long inicio = System.nanoTime();
+            long caracteres = 0;
+            long maior = 0;
+            for (long userId = 0; userId < usuarios; userId++) {
+                user.setId(userId);
+                String relatorio = service.generateMonthlyReport(user);
+                caracteres += relatorio.length();
+                maior = Math.max(maior, relatorio.length());
+                descarte.write(relatorio.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            }
+            long tempoString = System.nanoTime() - inicio;
+            long alocadoString = alocado() - antes;
+
+            antes = alocado();
+            inicio = System.nanoTime();
+            for (long userId = 0; userId < usuarios; userId++) {
+                user.setId(userId);
+                service.generateMonthlyReport(user, descarte);
+            }
+            long tempoStream = System.nanoTime() - inicio;
+            long alocadoStream = alocado() - antes;
+
+            System.out.printf("String: %,6.0f ms, %,7.1f MB alocados (maior relatório: %,d caracteres) | "
+                            + "OutputStream: %,6.0f ms, %,7.1f MB alocados (%d usuários, %,d caracteres)%n",
+                    tempoString / 1e6, alocadoString / 1e6, maior, tempoStream / 1e6, alocadoStream / 1e6,
+                    usuarios, caracteres);
+        }
+    }
+
+    private static long alocado() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
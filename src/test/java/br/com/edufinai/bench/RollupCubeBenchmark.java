@@ -0,0 +1,118 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.Granularidade;
+import br.com.edufinai.service.RollupCube;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Compara a latência de consultas analíticas respondidas pelo {@link RollupCube} com a
+ * varredura das transações do usuário ({@link GerenciadorFinanceiroService#getTransacoes(Long, YearMonth)}).
+ *
+ * Consultas medidas:
+ * - Despesas por categoria em um mês (drill-down).
+ * - Aportes em investimento por trimestre ao longo de todo o histórico (roll-up).
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.RollupCubeBenchmark [usuarios] [transacoesPorMes]
+ * </pre>
+ */
+public class RollupCubeBenchmark {
+
+    private static final int ANOS = 10;
+    private static final int CATEGORIAS = 12;
+    private static final int CONSULTAS = 200_000;
+    private static final YearMonth INICIO = YearMonth.of(2015, 1);
+
+    public static void main(String[] args) {
+        int usuarios = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int transacoesPorMes = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        TransactionType[] tipos = TransactionType.values();
+        List<Transaction> lote = new ArrayList<>();
+        long id = 0;
+        for (long userId = 0; userId < usuarios; userId++) {
+            for (int mes = 0; mes < ANOS * 12; mes++) {
+                LocalDate primeiroDia = INICIO.plusMonths(mes).atDay(1);
+                for (int i = 0; i < transacoesPorMes; i++) {
+                    lote.add(new Transaction(id++, userId, 1L, (long) aleatorio.nextInt(CATEGORIAS),
+                            tipos[aleatorio.nextInt(tipos.length)], BigDecimal.valueOf(aleatorio.nextInt(1, 500_000), 2),
+                            primeiroDia.plusDays(aleatorio.nextInt(28)), "Compra"));
+                }
+            }
+            service.registerTransactions(lote);
+            lote.clear();
+        }
+        System.out.printf("%,d usuários, %,d transações%n", usuarios, (long) usuarios * ANOS * 12 * transacoesPorMes);
+
+        RollupCube cubo = service.getCubo();
+        for (int rodada = 0; rodada < 2; rodada++) {
+            medir("cubo      | despesas por categoria no mês", CONSULTAS, usuarios, (userId, mes) ->
+                    cubo.porCategoria(userId, Granularidade.MES, mes, TransactionType.EXPENSE).size());
+            medir("varredura | despesas por categoria no mês", CONSULTAS / 10, usuarios, (userId, mes) ->
+                    despesasPorCategoria(service, userId, mes).size());
+            medir("cubo      | investimento por trimestre   ", CONSULTAS, usuarios, (userId, mes) ->
+                    cubo.serie(userId, Granularidade.TRIMESTRE, TransactionType.INVESTMENT, null, null).size());
+            medir("varredura | investimento por trimestre   ", CONSULTAS / 1_000, usuarios, (userId, mes) ->
+                    investimentoPorTrimestre(service, userId).size());
+            System.out.println();
+        }
+    }
+
+    private interface Consulta {
+        int executar(Long userId, YearMonth mes);
+    }
+
+    private static void medir(String nome, int consultas, int usuarios, Consulta consulta) {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        long resultados = 0;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < consultas; i++) {
+            resultados += consulta.executar((long) aleatorio.nextInt(usuarios),
+                    INICIO.plusMonths(aleatorio.nextInt(ANOS * 12)));
+        }
+        long nanos = System.nanoTime() - inicio;
+        if (resultados == 0) {
+            throw new IllegalStateException("Consulta sem resultados: " + nome);
+        }
+        System.out.printf("%s: %,10.2f µs/consulta%n", nome, nanos / 1e3 / consultas);
+    }
+
+    private static Map<Long, BigDecimal> despesasPorCategoria(GerenciadorFinanceiroService service, Long userId,
+                                                              YearMonth mes) {
+        Map<Long, BigDecimal> totais = new HashMap<>();
+        for (Transaction t : service.getTransacoes(userId, mes)) {
+            if (t.getType() == TransactionType.EXPENSE) {
+                totais.merge(t.getCategoryId(), t.getAmount(), BigDecimal::add);
+            }
+        }
+        return totais;
+    }
+
+    private static Map<YearMonth, BigDecimal> investimentoPorTrimestre(GerenciadorFinanceiroService service,
+                                                                        Long userId) {
+        Map<YearMonth, BigDecimal> totais = new HashMap<>();
+        for (int mes = 0; mes < ANOS * 12; mes++) {
+            YearMonth atual = INICIO.plusMonths(mes);
+            for (Transaction t : service.getTransacoes(userId, atual)) {
+                if (t.getType() == TransactionType.INVESTMENT) {
+                    totais.merge(Granularidade.TRIMESTRE.periodo(atual), t.getAmount(), BigDecimal::add);
+                }
+            }
+        }
+        return totais;
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.SimuladorFinanceiro;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Compara a projeção sazonal a partir das estatísticas mantidas a cada registro
+ * ({@link GerenciadorFinanceiroService#getEstatisticasSazonais(Long)}) com o recálculo das
+ * mesmas médias por mês do calendário varrendo o histórico de transações do usuário.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.SeasonalProjectionBenchmark [usuarios] [transacoesPorUsuario]
+ * </pre>
+ */
+public class SeasonalProjectionBenchmark {
+
+    private static final YearMonth INICIO = YearMonth.of(2025, 1);
+    private static final int MESES = 12;
+
+    public static void main(String[] args) {
+        int usuarios = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int porUsuario = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+        // Cinco anos de histórico, com despesas maiores em dezembro
+        SplittableRandom aleatorio = new SplittableRandom(11);
+        List<Transaction> transacoes = new ArrayList<>(usuarios * porUsuario);
+        long id = 0;
+        for (int u = 0; u < usuarios; u++) {
+            for (int i = 0; i < porUsuario; i++) {
+                LocalDate data = LocalDate.of(2020, 1, 1).plusDays(aleatorio.nextInt(5 * 365));
+                boolean receita = aleatorio.nextInt(3) == 0;
+                long centavos = aleatorio.nextLong(50_000) * (!receita && data.getMonthValue() == 12 ? 3 : 1);
+                transacoes.add(new Transaction(id++, (long) u, 1L, null,
+                        receita ? TransactionType.INCOME : TransactionType.EXPENSE,
+                        BigDecimal.valueOf(centavos, 2), data, "lançamento"));
+            }
+        }
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        long inicioRegistro = System.nanoTime();
+        service.registerTransactions(transacoes);
+        System.out.printf("registro: %,.0f transações/s (com estatísticas sazonais)%n",
+                transacoes.size() * 1e9 / (System.nanoTime() - inicioRegistro));
+
+        SimuladorFinanceiro simulador = new SimuladorFinanceiro();
+        for (int rodada = 0; rodada < 5; rodada++) {
+            long inicio = System.nanoTime();
+            long verificacao = 0;
+            for (long u = 0; u < usuarios; u++) {
+                verificacao += simulador.projetarSaldoSazonal(service.getEstatisticasSazonais(u), INICIO, MESES)
+                        .lastEntry().getValue().unscaledValue().longValue();
+            }
+            long nanosIncremental = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            long verificacaoVarredura = 0;
+            for (long u = 0; u < usuarios; u++) {
+                verificacaoVarredura += projetarVarrendo(service.streamTransacoes(u, null, null).toList());
+            }
+            long nanosVarredura = System.nanoTime() - inicio;
+            System.out.printf("%s | incremental: %,10.0f usuários/s | varredura do histórico: %,10.0f usuários/s | saldos iguais: %s%n",
+                    rodada < 2 ? "aquecimento" : "medição    ", usuarios * 1e9 / nanosIncremental,
+                    usuarios * 1e9 / nanosVarredura, verificacao == verificacaoVarredura);
+        }
+    }
+
+    /**
+     * Mesma projeção de {@link SimuladorFinanceiro#projetarSaldoSazonal}, recalculada a partir das
+     * transações (todos os meses do histórico são anteriores a {@link #INICIO} e todos os meses do
+     * calendário têm transações).
+     *
+     * @return saldo acumulado ao final dos meses projetados, em centavos
+     */
+    private static long projetarVarrendo(List<Transaction> transacoes) {
+        int ultimoAno = 0;
+        for (Transaction t : transacoes) {
+            ultimoAno = Math.max(ultimoAno, t.getDate().getYear());
+        }
+        double[] somas = new double[12];
+        double[] pesos = new double[12];
+        boolean[][] anos = new boolean[12][ultimoAno + 1];
+        for (Transaction t : transacoes) {
+            int m = t.getDate().getMonthValue() - 1;
+            int ano = t.getDate().getYear();
+            double peso = Math.pow(0.5, ultimoAno - ano);
+            long centavos = t.getAmount().movePointRight(2).longValueExact();
+            somas[m] += peso * (t.getType() == TransactionType.INCOME ? centavos : -centavos);
+            if (!anos[m][ano]) {
+                anos[m][ano] = true;
+                pesos[m] += peso;
+            }
+        }
+        long acumulado = 0;
+        for (int i = 0; i < MESES; i++) {
+            int m = INICIO.plusMonths(i).getMonthValue() - 1;
+            acumulado += Math.round(somas[m] / pesos[m]);
+        }
+        return acumulado;
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.model.gamification.GamificationEngine;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.persistence.DurabilityMode;
+import br.com.edufinai.service.persistence.SnapshotManager;
+import br.com.edufinai.service.persistence.TransactionJournal;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara o tempo de inicialização do {@link GerenciadorFinanceiroService} reproduzindo o log
+ * inteiro com o de carregar um snapshot e reproduzir apenas um trecho final de tamanho fixo,
+ * para históricos de tamanhos crescentes.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.SnapshotBenchmark [cauda] [historico...]
+ * </pre>
+ */
+public class SnapshotBenchmark {
+
+    private static final String[] DESCRICOES = {"Mercado", "Aluguel", "Salário", "Farmácia", "Tesouro Selic"};
+    private static final TransactionType[] TIPOS = TransactionType.values();
+
+    public static void main(String[] args) throws Exception {
+        int cauda = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int[] historicos = {100_000, 500_000, 2_000_000};
+        if (args.length > 1) {
+            historicos = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                historicos[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+        for (int historico : historicos) {
+            executar(historico, cauda);
+        }
+    }
+
+    private static void executar(int historico, int cauda) throws Exception {
+        Path base = Files.createTempDirectory("snapshot-benchmark");
+        Path diretorioLog = base.resolve("wal");
+        Path diretorioSnapshots = base.resolve("snapshots");
+        try {
+            long gravacao;
+            try (TransactionJournal journal = new TransactionJournal(diretorioLog, DurabilityMode.ASYNC);
+                 SnapshotManager snapshots = new SnapshotManager(diretorioSnapshots)) {
+                GerenciadorFinanceiroService service = new GerenciadorFinanceiroService(journal);
+                registrar(service, 0, historico);
+                long inicio = System.nanoTime();
+                snapshots.salvar(service, new GamificationEngine());
+                gravacao = System.nanoTime() - inicio;
+                registrar(service, historico, cauda);
+                journal.sincronizar();
+            }
+            long bytesSnapshot;
+            try (var arquivos = Files.list(diretorioSnapshots)) {
+                bytesSnapshot = arquivos.mapToLong(p -> p.toFile().length()).sum();
+            }
+
+            // Reprodução completa: mesmo log, sem snapshot. O log anterior ao snapshot foi
+            // descartado, então a comparação usa um log separado com o histórico inteiro.
+            Path logCompleto = base.resolve("wal-completo");
+            try (TransactionJournal journal = new TransactionJournal(logCompleto, DurabilityMode.ASYNC)) {
+                registrar(new GerenciadorFinanceiroService(journal), 0, historico + cauda);
+                journal.sincronizar();
+            }
+
+            System.gc();
+            long inicio = System.nanoTime();
+            int linhasCompletas;
+            try (TransactionJournal journal = new TransactionJournal(logCompleto, DurabilityMode.ASYNC)) {
+                linhasCompletas = new GerenciadorFinanceiroService(journal).getTransacoes().size();
+            }
+            long completa = System.nanoTime() - inicio;
+
+            System.gc();
+            inicio = System.nanoTime();
+            int linhasSnapshot;
+            try (TransactionJournal journal = new TransactionJournal(diretorioLog, DurabilityMode.ASYNC);
+                 SnapshotManager snapshots = new SnapshotManager(diretorioSnapshots)) {
+                linhasSnapshot = snapshots.restaurar(journal, new GamificationEngine()).getTransacoes().size();
+            }
+            long comSnapshot = System.nanoTime() - inicio;
+
+            if (linhasCompletas != linhasSnapshot) {
+                throw new IllegalStateException("Estados divergentes: " + linhasCompletas + " x " + linhasSnapshot);
+            }
+            System.out.printf("%,10d + %,d cauda: reprodução completa %,6.0f ms | snapshot + cauda %,5.0f ms"
+                            + " | gravação do snapshot %,5.0f ms (%,.1f MB)%n",
+                    historico, cauda, completa / 1e6, comSnapshot / 1e6, gravacao / 1e6, bytesSnapshot / 1e6);
+        } finally {
+            for (String sub : new String[]{"wal", "wal-completo", "snapshots"}) {
+                if (Files.exists(base.resolve(sub))) {
+                    JournalBenchmark.apagar(base.resolve(sub));
+                }
+            }
+            Files.deleteIfExists(base);
+        }
+    }
+
+    private static void registrar(GerenciadorFinanceiroService service, int inicio, int quantidade) {
+        List<Transaction> lote = new ArrayList<>(10_000);
+        for (int i = inicio; i < inicio + quantidade; i++) {
+            lote.add(new Transaction((long) i, (long) (i % 5_000), 1L, (long) (i % 20), TIPOS[i % TIPOS.length],
+                    BigDecimal.valueOf(1_000 + i % 100_000, 2), LocalDate.of(2020, 1, 1).plusDays(i % 1_800),
+                    DESCRICOES[i % DESCRICOES.length]));
+            if (lote.size() == 10_000) {
+                service.registerTransactions(lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            service.registerTransactions(lote);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.model.User;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.job.EmissaoExtratosJob;
+import br.com.edufinai.service.job.ResultadoEmissao;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara a emissão de extratos com chamadas sequenciais a
+ * {@link GerenciadorFinanceiroService#generateMonthlyReport(User)} (um arquivo por usuário)
+ * com o {@link EmissaoExtratosJob} em diferentes níveis de paralelismo.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.StatementJobBenchmark [usuarios] [anos]
+ * </pre>
+ */
+public class StatementJobBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int usuarios = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int anos = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        List<Transaction> lote = new ArrayList<>();
+        for (long userId = 0; userId < usuarios; userId++) {
+            for (int mes = 0; mes < anos * 12; mes++) {
+                LocalDate data = LocalDate.of(2020, 1, 10).plusMonths(mes);
+                lote.add(new Transaction(null, userId, 1L, 1L, TransactionType.INCOME, new BigDecimal("3000.00"), data, "Salário"));
+                lote.add(new Transaction(null, userId, 1L, 2L, TransactionType.EXPENSE, new BigDecimal("1234.56"), data, "Aluguel"));
+            }
+            if (lote.size() >= 100_000) {
+                service.registerTransactions(lote);
+                lote.clear();
+            }
+        }
+        service.registerTransactions(lote);
+        service.getCacheRelatorios().setCapacidade(0);
+        System.out.printf("Processadores disponíveis: %d%n", Runtime.getRuntime().availableProcessors());
+
+        for (int rodada = 0; rodada < 2; rodada++) {
+            Path diretorio = Files.createTempDirectory("statement-benchmark");
+            long inicio = System.nanoTime();
+            User user = new User();
+            for (long userId : service.getUsuarios()) {
+                user.setId(userId);
+                user.setName("Usuário " + userId);
+                Files.writeString(diretorio.resolve("extrato-" + userId + ".txt"), service.generateMonthlyReport(user),
+                        StandardCharsets.UTF_8);
+            }
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            System.out.printf("sequencial (generateMonthlyReport):  %,8.0f extratos/s%n", usuarios / segundos);
+            JournalBenchmark.apagar(diretorio);
+
+            int maximo = Math.max(4, Runtime.getRuntime().availableProcessors());
+            for (int paralelismo = 1; paralelismo <= maximo; paralelismo *= 2) {
+                diretorio = Files.createTempDirectory("statement-benchmark");
+                EmissaoExtratosJob job = new EmissaoExtratosJob(service);
+                job.setParalelismo(paralelismo);
+                ResultadoEmissao resultado = job.emitir(null, YearMonth.of(2024, 12), diretorio);
+                System.out.printf("EmissaoExtratosJob, paralelismo %2d: %,8.0f extratos/s (%s)%n",
+                        paralelismo, resultado.getExtratosPorSegundo(), resultado);
+                JournalBenchmark.apagar(diretorio);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.search.Tokenizador;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Compara a busca textual indexada ({@link GerenciadorFinanceiroService#buscarTransacoes(Long, String, int)})
+ * com a varredura linear das descrições em {@link GerenciadorFinanceiroService#getTransacoes()},
+ * única opção antes do índice invertido, para termos exatos e prefixos.
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.TextSearchBenchmark [usuarios] [transacoesPorUsuario]
+ * </pre>
+ */
+public class TextSearchBenchmark {
+
+    private static final int TAMANHO_LOTE = 10_000;
+    private static final int LIMITE = 50;
+
+    private static final String[] ESTABELECIMENTOS = {
+            "Restaurante Sabor Caseiro", "Uber *Viagem", "Uber Eats", "Mercado Pão de Açúcar", "Farmácia São João",
+            "Drogaria Araújo", "Posto Ipiranga", "Padaria Real", "Netflix.com", "Conta de Luz - Cemig",
+            "Aluguel Apartamento", "Salário Empresa", "Academia Smart Fit", "Café Três Corações", "iFood *Restaurante",
+            "Livraria Cultura", "Estacionamento Shopping", "Pix recebido", "Transferência poupança", "Cinema Cinemark"};
+
+    private static final String[] CONSULTAS = {"restaurante", "uber", "farmacia", "sao joao", "merc*", "caf*",
+            "pix", "restaurante ifood"};
+
+    public static void main(String[] args) {
+        int usuarios = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int transacoesPorUsuario = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        SplittableRandom aleatorio = new SplittableRandom(5);
+        List<Transaction> lote = new ArrayList<>(TAMANHO_LOTE);
+        long id = 0;
+        long nanosCarga = 0;
+        for (long userId = 0; userId < usuarios; userId++) {
+            for (int i = 0; i < transacoesPorUsuario; i++) {
+                // Sufixo numérico em parte das descrições, como nos extratos reais ("Uber *Viagem 1234")
+                String descricao = ESTABELECIMENTOS[aleatorio.nextInt(ESTABELECIMENTOS.length)]
+                        + (aleatorio.nextInt(4) == 0 ? " " + aleatorio.nextInt(10_000) : "");
+                lote.add(new Transaction(id++, userId, 1L, 1L, TransactionType.EXPENSE, new BigDecimal("25.00"),
+                        LocalDate.of(2015, 1, 1).plusDays(aleatorio.nextInt(3_650)), descricao));
+                if (lote.size() == TAMANHO_LOTE) {
+                    nanosCarga += service.registerTransactions(lote).getDuracaoNanos();
+                    lote.clear();
+                }
+            }
+        }
+        nanosCarga += service.registerTransactions(lote).getDuracaoNanos();
+        System.out.printf("%,d usuários, %,d transações, carga com índice: %,.0f transações/s%n",
+                usuarios, id, id * 1e9 / nanosCarga);
+
+        for (int rodada = 0; rodada < 2; rodada++) {
+            for (String consulta : CONSULTAS) {
+                medir("índice   '" + consulta + "'", 20_000, usuarios,
+                        userId -> service.buscarTransacoes(userId, consulta, LIMITE).size());
+            }
+            medir("varredura 'restaurante'", 5, usuarios, userId -> service.getTransacoes().stream()
+                    .filter(t -> t.getUserId().equals(userId))
+                    .filter(t -> Tokenizador.termos(t.getDescription()).contains("restaurante"))
+                    .sorted(Comparator.comparing(Transaction::getDate).thenComparing(Transaction::getId).reversed())
+                    .limit(LIMITE)
+                    .collect(Collectors.toList())
+                    .size());
+            System.out.println();
+        }
+    }
+
+    private interface Consulta {
+        int executar(Long userId);
+    }
+
+    private static void medir(String nome, int consultas, int usuarios, Consulta consulta) {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        long encontradas = 0;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < consultas; i++) {
+            encontradas += consulta.executar((long) aleatorio.nextInt(usuarios));
+        }
+        long nanos = System.nanoTime() - inicio;
+        System.out.printf("%-28s: %,12.2f µs/consulta | %,.1f transações/consulta%n",
+                nome, nanos / 1e3 / consultas, (double) encontradas / consultas);
+    }
+}
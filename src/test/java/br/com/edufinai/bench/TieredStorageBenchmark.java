@@ -0,0 +1,94 @@
+package br.com.edufinai.bench;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Mede o heap ocupado à medida que o histórico cresce, com e sem a camada fria
+ * ({@link GerenciadorFinanceiroService#configurarCamadaFria(Path, long)}), e a latência de
+ * consultas por período sobre meses recentes (em heap) e antigos (em segmentos mapeados).
+ *
+ * Execução (após {@code mvn test-compile}):
+ * <pre>
+ * java -cp target/classes:target/test-classes br.com.edufinai.bench.TieredStorageBenchmark [usuarios] [orcamentoMb]
+ * </pre>
+ */
+public class TieredStorageBenchmark {
+
+    private static final int ANOS = 10;
+    private static final int TRANSACOES_POR_MES = 20;
+    private static final int CONSULTAS = 50_000;
+    private static final LocalDate INICIO = LocalDate.of(2015, 1, 1);
+
+    public static void main(String[] args) throws IOException {
+        int usuarios = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        long orcamento = (args.length > 1 ? Long.parseLong(args[1]) : 16) << 20;
+
+        for (boolean camadaFria : new boolean[]{false, true}) {
+            GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+            if (camadaFria) {
+                service.configurarCamadaFria(Files.createTempDirectory("edufinai-frio"), orcamento);
+            }
+            System.out.println(camadaFria ? "com camada fria (" + (orcamento >> 20) + " MB)" : "somente heap");
+            SplittableRandom aleatorio = new SplittableRandom(7);
+            TransactionType[] tipos = TransactionType.values();
+            List<Transaction> lote = new ArrayList<>();
+            long id = 0;
+            // Histórico chega em ordem cronológica: um ano de todos os usuários por vez
+            for (int ano = 0; ano < ANOS; ano++) {
+                for (int mes = ano * 12; mes < (ano + 1) * 12; mes++) {
+                    for (long userId = 0; userId < usuarios; userId++) {
+                        for (int i = 0; i < TRANSACOES_POR_MES; i++) {
+                            lote.add(new Transaction(id++, userId, 1L, (long) aleatorio.nextInt(8),
+                                    tipos[aleatorio.nextInt(tipos.length)], new BigDecimal("42.00"),
+                                    INICIO.plusMonths(mes).plusDays(aleatorio.nextInt(28)), "Compra " + aleatorio.nextInt(50)));
+                        }
+                    }
+                    service.registerTransactions(lote);
+                    lote.clear();
+                }
+                System.out.printf("  %2d anos, %,11d transações: heap usado %,6d MB | %,11d linhas seladas%n",
+                        ano + 1, id, heapUsadoMb(), service.getLinhasSeladas());
+            }
+            medir(service, usuarios, "últimos 90 dias", ANOS * 365 - 90);
+            medir(service, usuarios, "90 dias do 1º ano", 0);
+            System.out.println();
+        }
+    }
+
+    private static void medir(GerenciadorFinanceiroService service, int usuarios, String nome, int deslocamento) {
+        for (int rodada = 0; rodada < 2; rodada++) {
+            SplittableRandom aleatorio = new SplittableRandom(42);
+            long encontradas = 0;
+            long inicio = System.nanoTime();
+            for (int i = 0; i < CONSULTAS; i++) {
+                LocalDate de = INICIO.plusDays(deslocamento + aleatorio.nextInt(90));
+                encontradas += service.streamTransacoes((long) aleatorio.nextInt(usuarios), de, de.plusDays(89),
+                        TransactionType.EXPENSE, null).count();
+            }
+            long nanos = System.nanoTime() - inicio;
+            if (rodada == 1) {
+                System.out.printf("  %-18s: %,8.2f µs/consulta | %,.1f transações/consulta%n",
+                        nome, nanos / 1e3 / CONSULTAS, (double) encontradas / CONSULTAS);
+            }
+        }
+    }
+
+    private static long heapUsadoMb() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return (runtime.totalMemory() - runtime.freeMemory()) >> 20;
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.edufinai.service;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.NavigableMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EstatisticasSazonaisTest {
+
+    @Test
+    void mediaPonderaAnosAnterioresAoAberto() {
+        EstatisticasSazonais estatisticas = new EstatisticasSazonais();
+        estatisticas.adicionar(indice(2022, Month.JANUARY), TransactionType.INCOME, 10_000);
+        estatisticas.adicionar(indice(2023, Month.JANUARY), TransactionType.INCOME, 30_000);
+        estatisticas.adicionar(indice(2024, Month.JANUARY), TransactionType.INCOME, 5_000);
+
+        // 2023 pesa 1 e 2022 pesa 0,5; 2024 ainda está aberto: (300,00 + 0,5 * 100,00) / 1,5
+        assertEquals(new BigDecimal("233.33"), estatisticas.getMediaReceitas(Month.JANUARY));
+        assertEquals(new BigDecimal("0.00"), estatisticas.getMediaDespesas(Month.JANUARY));
+        assertEquals(2, estatisticas.getAnos(Month.JANUARY));
+        assertEquals(2024, estatisticas.getAnoAberto(Month.JANUARY));
+        assertEquals(3, estatisticas.getQuantidade(Month.JANUARY));
+        assertNull(estatisticas.getAnoAberto(Month.FEBRUARY));
+        assertEquals(new BigDecimal("0.00"), estatisticas.getMediaReceitas(Month.FEBRUARY));
+    }
+
+    @Test
+    void lancamentosRetroativosDaoOMesmoResultado() {
+        EstatisticasSazonais emOrdem = new EstatisticasSazonais();
+        EstatisticasSazonais retroativas = new EstatisticasSazonais();
+        int[] anos = {2019, 2020, 2021, 2022, 2023, 2024};
+        long[] despesas = {7_000, 1_100, 25_000, 3_300, 12_345, 999};
+        for (int i = 0; i < anos.length; i++) {
+            emOrdem.adicionar(indice(anos[i], Month.MARCH), TransactionType.EXPENSE, despesas[i]);
+            emOrdem.adicionar(indice(anos[i], Month.MARCH), TransactionType.INCOME, despesas[i] * 2);
+        }
+        // O ano mais recente chega primeiro; os anteriores entram como retroativos
+        for (int i = anos.length - 1; i >= 0; i--) {
+            retroativas.adicionar(indice(anos[i], Month.MARCH), TransactionType.INCOME, despesas[i] * 2);
+            retroativas.adicionar(indice(anos[i], Month.MARCH), TransactionType.EXPENSE, despesas[i]);
+        }
+
+        // Em centavos: (12.345 + 3.300/2 + 25.000/4 + 1.100/8 + 7.000/16) / (1 + 1/2 + 1/4 + 1/8 + 1/16)
+        for (EstatisticasSazonais estatisticas : List.of(emOrdem, retroativas)) {
+            assertEquals(new BigDecimal("107.46"), estatisticas.getMediaDespesas(Month.MARCH));
+            assertEquals(new BigDecimal("214.92"), estatisticas.getMediaReceitas(Month.MARCH));
+            assertEquals(5, estatisticas.getAnos(Month.MARCH));
+            assertEquals(2024, estatisticas.getAnoAberto(Month.MARCH));
+        }
+        assertArrayEquals(emOrdem.saldosEstimadosCentavos(YearMonth.of(2025, 1)),
+                retroativas.saldosEstimadosCentavos(YearMonth.of(2025, 1)));
+    }
+
+    @Test
+    void consolidaVariosAnosDeUmaVez() {
+        EstatisticasSazonais estatisticas = new EstatisticasSazonais();
+        estatisticas.adicionar(indice(2020, Month.FEBRUARY), TransactionType.EXPENSE, 8_000);
+        estatisticas.adicionar(indice(2022, Month.FEBRUARY), TransactionType.EXPENSE, 2_000);
+        estatisticas.adicionar(indice(2025, Month.FEBRUARY), TransactionType.EXPENSE, 100);
+
+        // Antes do aberto (2025), 2022 pesa 1/4 e 2020 pesa 1/16: (500 + 500) / 0,3125
+        assertEquals(new BigDecimal("32.00"), estatisticas.getMediaDespesas(Month.FEBRUARY));
+        assertEquals(2, estatisticas.getAnos(Month.FEBRUARY));
+        assertEquals(2025, estatisticas.getAnoAberto(Month.FEBRUARY));
+    }
+
+    @Test
+    void anoAbertoEntraNaEstimativaDepoisQueOMesTermina() {
+        EstatisticasSazonais estatisticas = new EstatisticasSazonais();
+        estatisticas.adicionar(indice(2022, Month.JANUARY), TransactionType.INCOME, 10_000);
+        estatisticas.adicionar(indice(2023, Month.JANUARY), TransactionType.INCOME, 30_000);
+        estatisticas.adicionar(indice(2024, Month.JANUARY), TransactionType.INCOME, 5_000);
+        estatisticas.adicionar(indice(2024, Month.JANUARY), TransactionType.INVESTMENT, 1_000_000);
+
+        // Janeiro de 2024 em andamento: só os anos anteriores; os meses sem dados usam a média dos observados
+        long[] emAndamento = estatisticas.saldosEstimadosCentavos(YearMonth.of(2024, 1));
+        assertEquals(23_333, emAndamento[0]);
+        assertEquals(23_333, emAndamento[6]);
+
+        // Janeiro de 2024 encerrado: (50,00 + 0,5 * 300,00 + 0,25 * 100,00) / 1,75
+        long[] encerrado = estatisticas.saldosEstimadosCentavos(YearMonth.of(2025, 1));
+        assertEquals(12_857, encerrado[0]);
+
+        NavigableMap<YearMonth, BigDecimal> projecao = new SimuladorFinanceiro()
+                .projetarSaldoSazonal(estatisticas, YearMonth.of(2025, 1), 3);
+        assertEquals(new BigDecimal("128.57"), projecao.get(YearMonth.of(2025, 1)));
+        assertEquals(new BigDecimal("385.71"), projecao.get(YearMonth.of(2025, 3)));
+    }
+
+    @Test
+    void servicoMantemEstatisticasAoRegistrar() {
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        long id = 0;
+        for (int ano = 2022; ano <= 2024; ano++) {
+            long centavos = ano == 2022 ? 10_000 : ano == 2023 ? 30_000 : 5_000;
+            service.registerTransaction(new Transaction(id++, 1L, 1L, null, TransactionType.INCOME,
+                    BigDecimal.valueOf(centavos, 2), LocalDate.of(ano, 1, 15), "salário"));
+        }
+        service.registerTransaction(new Transaction(id, 1L, 1L, null, TransactionType.EXPENSE,
+                new BigDecimal("40.00"), LocalDate.of(2023, 12, 24), "presentes"));
+
+        EstatisticasSazonais estatisticas = service.getEstatisticasSazonais(1L);
+        assertEquals(new BigDecimal("233.33"), estatisticas.getMediaReceitas(Month.JANUARY));
+        assertEquals(2, estatisticas.getAnos(Month.JANUARY));
+        assertEquals(0, estatisticas.getAnos(Month.DECEMBER));
+        assertEquals(2023, estatisticas.getAnoAberto(Month.DECEMBER));
+    }
+
+    private static int indice(int ano, Month mes) {
+        return ano * 12 + mes.ordinal();
+    }
+}
@@ -0,0 +1,191 @@
+package br.com.edufinai.service;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GerenciadorFinanceiroServiceTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2020, 1, 1);
+    private static final int DIAS = 1_500;
+    private static final TransactionType[] TIPOS = TransactionType.values();
+
+    @Test
+    void periodoIgualAFiltroSobreOHistorico() {
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        List<Transaction> registradas = registrar(service, new SplittableRandom(13), 6_000);
+        SplittableRandom aleatorio = new SplittableRandom(31);
+
+        for (int consulta = 0; consulta < 300; consulta++) {
+            long userId = 1 + aleatorio.nextInt(3);
+            LocalDate de = aleatorio.nextInt(8) == 0 ? null : INICIO.plusDays(aleatorio.nextInt(-10, DIAS));
+            LocalDate ate = aleatorio.nextInt(8) == 0 ? null
+                    : (de == null ? INICIO : de).plusDays(aleatorio.nextInt(consulta % 3 == 0 ? 2 : DIAS));
+            TransactionType tipo = aleatorio.nextBoolean() ? null : TIPOS[aleatorio.nextInt(TIPOS.length)];
+            Long categoryId = aleatorio.nextInt(3) == 0 ? (long) (1 + aleatorio.nextInt(3)) : null;
+
+            List<String> esperadas = ordenadas(registradas.stream()
+                    .filter(t -> t.getUserId() == userId)
+                    .filter(t -> de == null || !t.getDate().isBefore(de))
+                    .filter(t -> ate == null || !t.getDate().isAfter(ate))
+                    .filter(t -> tipo == null || t.getType() == tipo)
+                    .filter(t -> categoryId == null || categoryId.equals(t.getCategoryId())));
+            List<String> obtidas = descricoes(service.streamTransacoes(userId, de, ate, tipo, categoryId));
+            assertEquals(esperadas, obtidas, "usuário " + userId + " de " + de + " até " + ate + " tipo " + tipo
+                    + " categoria " + categoryId);
+        }
+    }
+
+    @Test
+    void periodoSemTransacoesOuInvertido() {
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        registrar(service, new SplittableRandom(3), 500);
+
+        assertEquals(0, service.streamTransacoes(1L, LocalDate.of(2010, 1, 1), LocalDate.of(2010, 12, 31)).count());
+        assertEquals(0, service.streamTransacoes(99L, null, null).count());
+        assertThrows(IllegalArgumentException.class,
+                () -> service.streamTransacoes(1L, LocalDate.of(2021, 2, 1), LocalDate.of(2021, 1, 31)));
+    }
+
+    @Test
+    void paginasCobremOHistoricoSemFalhasNemRepeticoes() {
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        List<Transaction> registradas = registrar(service, new SplittableRandom(17), 3_000);
+        List<String> historico = ordenadas(registradas.stream().filter(t -> t.getUserId() == 2L));
+
+        for (int tamanho : new int[]{1, 37, GerenciadorFinanceiroService.TAMANHO_MAXIMO_PAGINA}) {
+            List<String> paraFrente = percorrer(service, tamanho, DirecaoPaginacao.PARA_FRENTE);
+            assertEquals(historico, paraFrente, "tamanho " + tamanho);
+
+            List<String> paraTras = new ArrayList<>(percorrer(service, tamanho, DirecaoPaginacao.PARA_TRAS));
+            Collections.reverse(paraTras);
+            assertEquals(historico, paraTras, "tamanho " + tamanho);
+        }
+    }
+
+    @Test
+    void cursorInicioVoltaParaAPaginaAnterior() {
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        registrar(service, new SplittableRandom(19), 1_000);
+
+        PaginaTransacoes primeira = service.paginarTransacoes(2L, null, 25, DirecaoPaginacao.PARA_TRAS);
+        PaginaTransacoes segunda = service.paginarTransacoes(2L, primeira.getCursorFim(), 25,
+                DirecaoPaginacao.PARA_TRAS);
+        // O token sobrevive à ida e volta como texto (HTTP, CLI)
+        CursorTransacoes voltar = CursorTransacoes.de(segunda.getCursorInicio().toString());
+        PaginaTransacoes anterior = service.paginarTransacoes(2L, voltar, 25, DirecaoPaginacao.PARA_FRENTE);
+
+        List<String> esperada = new ArrayList<>(descricoes(primeira.getTransacoes().stream()));
+        Collections.reverse(esperada);
+        assertEquals(esperada, descricoes(anterior.getTransacoes().stream()));
+        // A primeira página era a mais recente: não há nada depois dela
+        assertFalse(anterior.isTemMais());
+    }
+
+    @Test
+    void registroEntrePaginasNaoRepeteNemPula() {
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        List<Transaction> registradas = registrar(service, new SplittableRandom(23), 2_000);
+
+        List<String> lidas = new ArrayList<>();
+        PaginaTransacoes pagina = service.paginarTransacoes(1L, null, 50, DirecaoPaginacao.PARA_FRENTE);
+        lidas.addAll(descricoes(pagina.getTransacoes().stream()));
+        LocalDate ultimaLida = pagina.getCursorFim().getData();
+        // Uma antes do cursor (não aparece mais) e outra depois (aparece na sua vez)
+        Transaction antes = new Transaction(null, 1L, 1L, null, TransactionType.INCOME, BigDecimal.ONE,
+                INICIO.minusDays(1), "antes do cursor");
+        Transaction depois = new Transaction(null, 1L, 1L, null, TransactionType.INCOME, BigDecimal.ONE,
+                ultimaLida.plusDays(1), "depois do cursor");
+        service.registerTransaction(antes);
+        service.registerTransaction(depois);
+        while (pagina.isTemMais()) {
+            pagina = service.paginarTransacoes(1L, pagina.getCursorFim(), 50, DirecaoPaginacao.PARA_FRENTE);
+            lidas.addAll(descricoes(pagina.getTransacoes().stream()));
+        }
+
+        registradas.add(depois);
+        assertEquals(ordenadas(registradas.stream().filter(t -> t.getUserId() == 1L)), semRepeticoes(lidas));
+    }
+
+    @Test
+    void tamanhoDePaginaForaDoIntervalo() {
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        assertThrows(IllegalArgumentException.class,
+                () -> service.paginarTransacoes(1L, null, 0, DirecaoPaginacao.PARA_FRENTE));
+        assertThrows(IllegalArgumentException.class, () -> service.paginarTransacoes(1L, null,
+                GerenciadorFinanceiroService.TAMANHO_MAXIMO_PAGINA + 1, DirecaoPaginacao.PARA_FRENTE));
+        assertThrows(IllegalArgumentException.class, () -> service.paginarTransacoes(1L, null, 10, null));
+        assertEquals(List.of(), service.paginarTransacoes(1L, null, 10, DirecaoPaginacao.PARA_TRAS).getTransacoes());
+    }
+
+    /**
+     * Lê o histórico do usuário 2 página a página, na direção informada.
+     */
+    private static List<String> percorrer(GerenciadorFinanceiroService service, int tamanho,
+                                          DirecaoPaginacao direcao) {
+        List<String> lidas = new ArrayList<>();
+        CursorTransacoes cursor = null;
+        PaginaTransacoes pagina;
+        do {
+            pagina = service.paginarTransacoes(2L, cursor, tamanho, direcao);
+            assertTrue(pagina.getTransacoes().size() <= tamanho);
+            lidas.addAll(descricoes(pagina.getTransacoes().stream()));
+            cursor = pagina.getCursorFim();
+        } while (pagina.isTemMais());
+        return semRepeticoes(lidas);
+    }
+
+    /**
+     * Registra transações aleatórias de três usuários, com várias no mesmo dia e algumas sem id.
+     * Ids e descrições não se repetem, então nenhuma é descartada como duplicata.
+     *
+     * @return transações registradas, na ordem de registro
+     */
+    private static List<Transaction> registrar(GerenciadorFinanceiroService service, SplittableRandom aleatorio,
+                                               int quantidade) {
+        List<Transaction> registradas = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            // Ids distintos, fora da ordem de registro (100.003 é primo)
+            Long id = aleatorio.nextInt(10) == 0 ? null : i * 7_919L % 100_003;
+            Long categoryId = aleatorio.nextInt(4) == 0 ? null : (long) (1 + aleatorio.nextInt(3));
+            Transaction t = new Transaction(id, (long) (1 + aleatorio.nextInt(3)), 1L, categoryId,
+                    TIPOS[aleatorio.nextInt(TIPOS.length)], BigDecimal.valueOf(aleatorio.nextLong(1, 100_000), 2),
+                    INICIO.plusDays(aleatorio.nextInt(DIAS)), "t" + i);
+            service.registerTransaction(t);
+            registradas.add(t);
+        }
+        return registradas;
+    }
+
+    /**
+     * Ordem do histórico: data, id (sem id primeiro) e ordem de registro.
+     */
+    private static List<String> ordenadas(Stream<Transaction> transacoes) {
+        return descricoes(transacoes.sorted(Comparator.comparing(Transaction::getDate)
+                .thenComparingLong(t -> Objects.requireNonNullElse(t.getId(), Long.MIN_VALUE))));
+    }
+
+    private static List<String> descricoes(Stream<Transaction> transacoes) {
+        return semRepeticoes(transacoes.map(Transaction::getDescription).toList());
+    }
+
+    private static List<String> semRepeticoes(List<String> descricoes) {
+        assertEquals(descricoes.size(), descricoes.stream().distinct().count(), "transação repetida");
+        return descricoes;
+    }
+}
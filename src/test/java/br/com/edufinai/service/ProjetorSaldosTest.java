@@ -0,0 +1,100 @@
+package br.com.edufinai.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProjetorSaldosTest {
+
+    private static final int USUARIOS = 2_000;
+
+    @Test
+    void loteIgualAoEscalarAteOCentavo() {
+        SplittableRandom aleatorio = new SplittableRandom(23);
+        List<List<ResumoMensal>> resumos = new ArrayList<>();
+        long[] ids = new long[USUARIOS];
+        long[] receitas = new long[USUARIOS];
+        long[] despesas = new long[USUARIOS];
+        long[] objetivos = new long[USUARIOS];
+        for (int u = 0; u < USUARIOS; u++) {
+            // O último usuário não tem histórico
+            int meses = u == USUARIOS - 1 ? 0 : 1 + aleatorio.nextInt(24);
+            List<ResumoMensal> historico = new ArrayList<>();
+            for (int m = 0; m < meses; m++) {
+                long receita = aleatorio.nextLong(1_000_000);
+                long despesa = aleatorio.nextLong(1_000_000);
+                historico.add(new ResumoMensal(YearMonth.of(2024, 1).plusMonths(m), receita, despesa, 0, 2));
+                receitas[u] += receita;
+                despesas[u] += despesa;
+            }
+            ids[u] = u;
+            objetivos[u] = aleatorio.nextLong(10_000_000);
+            resumos.add(historico);
+        }
+        TotaisUsuarios totais = new TotaisUsuarios(ids, receitas, despesas);
+
+        SimuladorFinanceiro simulador = new SimuladorFinanceiro();
+        ProjetorSaldos projetor = new ProjetorSaldos();
+        projetor.setUsuariosPorTarefa(128);
+        int[] horizontes = {0, 1, 12, 60, 600};
+        double[] taxas = {0, 0.045, 0.06, 0.1234567, -0.02, 3.5};
+        for (int meses : horizontes) {
+            for (double taxa : taxas) {
+                for (int paralelismo : new int[]{1, 4}) {
+                    projetor.setParalelismo(paralelismo);
+                    ResultadoProjecao resultado = projetor.projetar(totais, meses, taxa, objetivos);
+                    assertEquals(USUARIOS, resultado.size());
+                    for (int u = 0; u < USUARIOS; u++) {
+                        String caso = "usuário " + u + ", " + meses + " meses, taxa " + taxa;
+                        BigDecimal projetado = simulador.projetarSaldoFuturo(resumos.get(u), meses);
+                        assertEquals(0, projetado.compareTo(resultado.getSaldoProjetado(u)), caso);
+                        assertEquals(simulador.ajustarPorInflacao(projetado, taxa, meses),
+                                resultado.getSaldoAjustado(u), caso);
+                        assertEquals(simulador.estimarMesesParaObjetivo(BigDecimal.valueOf(objetivos[u], 2),
+                                resumos.get(u)), resultado.mesesParaObjetivo(u), caso);
+                        assertEquals(u, resultado.userId(u));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void divisaoPeloFatorIgualABigDecimal() {
+        SplittableRandom aleatorio = new SplittableRandom(5);
+        for (double taxa : new double[]{0.045, 0.06, 0.5, -0.02}) {
+            for (int meses : new int[]{1, 7, 120, 1_200}) {
+                BigDecimal fator = SimuladorFinanceiro.fatorInflacao(taxa, meses);
+                ProjetorSaldos.DivisorFator divisor = new ProjetorSaldos.DivisorFator(fator);
+                for (int i = 0; i < 20_000; i++) {
+                    // Valores pequenos, grandes e com quociente muito perto de um inteiro
+                    long centavos = switch (i % 3) {
+                        case 0 -> aleatorio.nextLong(-100_000, 100_000);
+                        case 1 -> aleatorio.nextLong(-(1L << 55), 1L << 55);
+                        default -> fator.multiply(BigDecimal.valueOf(aleatorio.nextLong(-1_000_000, 1_000_000)))
+                                .add(new BigDecimal("0.005")).setScale(2, RoundingMode.DOWN).unscaledValue().longValue();
+                    };
+                    long esperado = BigDecimal.valueOf(centavos, 2).divide(fator, 2, RoundingMode.HALF_UP)
+                            .unscaledValue().longValueExact();
+                    assertEquals(esperado, divisor.dividir(centavos), centavos + " / " + fator);
+                }
+            }
+        }
+    }
+
+    @Test
+    void mesesParaObjetivoArredondaParaCima() {
+        assertEquals(-1, ProjetorSaldos.mesesParaObjetivo(10_000, 0));
+        assertEquals(-1, ProjetorSaldos.mesesParaObjetivo(10_000, -1));
+        assertEquals(0, ProjetorSaldos.mesesParaObjetivo(0, 500));
+        assertEquals(20, ProjetorSaldos.mesesParaObjetivo(10_000, 500));
+        assertEquals(21, ProjetorSaldos.mesesParaObjetivo(10_001, 500));
+    }
+}
@@ -0,0 +1,167 @@
+package br.com.edufinai.service.archive;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionArchiveTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2022, 1, 1);
+    private static final TransactionType[] TIPOS = TransactionType.values();
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void idaEVoltaPreservaTodosOsCampos() throws IOException {
+        List<Transaction> transacoes = gerar(new SplittableRandom(7), 20_000);
+        Path arquivo = diretorio.resolve("completo.efa");
+
+        long tamanho = TransactionArchiveWriter.gravar(arquivo, transacoes);
+
+        assertEquals(Files.size(arquivo), tamanho);
+        try (TransactionArchiveReader reader = new TransactionArchiveReader(arquivo)) {
+            assertEquals(transacoes.size(), reader.getLinhas());
+            List<String> lidas = new ArrayList<>();
+            assertEquals(transacoes.size(), reader.ler(t -> lidas.add(texto(t))));
+            assertEquals(ordenadas(transacoes), lidas);
+            assertEquals(0, reader.getBlocosIgnorados());
+        }
+    }
+
+    @Test
+    void leituraFiltradaPulaBlocosForaDoFiltro() throws IOException {
+        List<Transaction> transacoes = gerar(new SplittableRandom(11), 20_000);
+        Path arquivo = diretorio.resolve("filtrado.efa");
+        try (TransactionArchiveWriter writer = new TransactionArchiveWriter(arquivo, 64)) {
+            for (Transaction t : transacoes.stream().sorted(Comparator.comparing(Transaction::getUserId)
+                    .thenComparing(Transaction::getDate)).toList()) {
+                writer.adicionar(t);
+            }
+        }
+
+        SplittableRandom aleatorio = new SplittableRandom(5);
+        try (TransactionArchiveReader reader = new TransactionArchiveReader(arquivo)) {
+            int blocos = reader.getBlocos().size();
+            for (int consulta = 0; consulta < 50; consulta++) {
+                Long userId = consulta % 5 == 0 ? null : (long) (1 + aleatorio.nextInt(20));
+                LocalDate de = INICIO.plusDays(aleatorio.nextInt(700));
+                LocalDate ate = de.plusDays(aleatorio.nextInt(60));
+                List<String> esperadas = ordenadas(transacoes.stream()
+                        .filter(t -> userId == null || t.getUserId().equals(userId))
+                        .filter(t -> !t.getDate().isBefore(de) && !t.getDate().isAfter(ate))
+                        .toList());
+                long lidosAntes = reader.getBlocosLidos();
+                long ignoradosAntes = reader.getBlocosIgnorados();
+                List<String> lidas = new ArrayList<>();
+                reader.ler(userId, de, ate, t -> lidas.add(texto(t)));
+
+                assertEquals(esperadas, lidas, "usuário " + userId + " de " + de + " até " + ate);
+                long lidos = reader.getBlocosLidos() - lidosAntes;
+                assertEquals(blocos, lidos + reader.getBlocosIgnorados() - ignoradosAntes);
+                if (userId != null) {
+                    // Um usuário ocupa uma fração dos blocos: os demais nem são lidos do disco
+                    assertTrue(lidos < blocos / 10, lidos + " de " + blocos + " blocos lidos");
+                }
+            }
+        }
+    }
+
+    @Test
+    void blocoCorrompidoOuArquivoIncompletoSaoRejeitados() throws IOException {
+        Path arquivo = diretorio.resolve("corrompido.efa");
+        TransactionArchiveWriter.gravar(arquivo, gerar(new SplittableRandom(3), 1_000));
+        byte[] conteudo = Files.readAllBytes(arquivo);
+
+        Path truncado = Files.write(diretorio.resolve("truncado.efa"),
+                Arrays.copyOf(conteudo, conteudo.length - 5));
+        assertThrows(IOException.class, () -> new TransactionArchiveReader(truncado));
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[]{(byte) (conteudo[20] ^ 0x5A)}), 20);
+        }
+        try (TransactionArchiveReader reader = new TransactionArchiveReader(arquivo)) {
+            assertThrows(IOException.class, () -> reader.ler(t -> { }));
+        }
+    }
+
+    @Test
+    void writerRecusaTransacoesForaDeOrdem() throws IOException {
+        try (TransactionArchiveWriter writer = new TransactionArchiveWriter(diretorio.resolve("ordem.efa"))) {
+            writer.adicionar(transacao(1L, 2L, LocalDate.of(2024, 5, 2)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> writer.adicionar(transacao(2L, 2L, LocalDate.of(2024, 5, 1))));
+            assertThrows(IllegalArgumentException.class,
+                    () -> writer.adicionar(transacao(3L, 1L, LocalDate.of(2024, 6, 1))));
+            assertThrows(IllegalArgumentException.class, () -> writer.adicionar(new Transaction(4L, null, null, null,
+                    TransactionType.INCOME, BigDecimal.ONE, LocalDate.of(2024, 6, 1), null)));
+            assertEquals(1, writer.getLinhas());
+        }
+    }
+
+    /**
+     * Transações de 20 usuários ao longo de dois anos, fora de ordem, com campos opcionais nulos,
+     * descrições repetidas e valores de várias grandezas.
+     */
+    private static List<Transaction> gerar(SplittableRandom aleatorio, int quantidade) {
+        String[] descricoes = {"Mercado", "Salário", "Aluguel", "Café ☕", "Farmácia São João", ""};
+        List<Transaction> transacoes = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            long centavos = switch (i % 4) {
+                case 0 -> aleatorio.nextLong(1, 100);
+                case 1 -> aleatorio.nextLong(100, 1_000_000);
+                case 2 -> aleatorio.nextLong(1L << 40, 1L << 50);
+                default -> aleatorio.nextLong(1, 50_000);
+            };
+            transacoes.add(new Transaction(
+                    aleatorio.nextInt(10) == 0 ? null : (long) i * 3,
+                    (long) (1 + aleatorio.nextInt(20)),
+                    aleatorio.nextInt(5) == 0 ? null : (long) aleatorio.nextInt(4),
+                    aleatorio.nextInt(3) == 0 ? null : 100L + aleatorio.nextInt(40),
+                    TIPOS[aleatorio.nextInt(TIPOS.length)],
+                    BigDecimal.valueOf(centavos, 2),
+                    INICIO.plusDays(aleatorio.nextInt(730)),
+                    aleatorio.nextInt(8) == 0 ? null : aleatorio.nextInt(4) == 0 ? "Compra " + i
+                            : descricoes[aleatorio.nextInt(descricoes.length)]));
+        }
+        return transacoes;
+    }
+
+    /**
+     * Ordem do arquivo: usuário, data e, no mesmo dia, a ordem de entrada.
+     */
+    private static List<String> ordenadas(List<Transaction> transacoes) {
+        return transacoes.stream()
+                .sorted(Comparator.comparing(Transaction::getUserId).thenComparing(Transaction::getDate))
+                .map(TransactionArchiveTest::texto)
+                .toList();
+    }
+
+    private static String texto(Transaction t) {
+        return t.getId() + "|" + t.getUserId() + "|" + t.getAccountId() + "|" + t.getCategoryId() + "|" + t.getType()
+                + "|" + t.getAmount().setScale(2).toPlainString() + "|" + t.getDate() + "|" + t.getDescription();
+    }
+
+    private static Transaction transacao(long id, long userId, LocalDate data) {
+        return new Transaction(id, userId, 1L, null, TransactionType.EXPENSE, BigDecimal.TEN, data, "teste");
+    }
+}
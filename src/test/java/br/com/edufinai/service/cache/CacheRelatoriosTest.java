@@ -0,0 +1,109 @@
+package br.com.edufinai.service.cache;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.model.User;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheRelatoriosTest {
+
+    private static final YearMonth JANEIRO = YearMonth.of(2024, 1);
+    private static final YearMonth FEVEREIRO = YearMonth.of(2024, 2);
+    private static final YearMonth MARCO = YearMonth.of(2024, 3);
+
+    @Test
+    void escritaInvalidaSoOsIntervalosQueContemOMes() {
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        CacheRelatorios cache = service.getCacheRelatorios();
+        User user = usuario(1L);
+        registrar(service, 1L, 1, LocalDate.of(2024, 1, 10), "100.00");
+        registrar(service, 1L, 2, LocalDate.of(2024, 3, 10), "50.00");
+
+        String bimestre = service.generateMonthlyReport(user, JANEIRO, FEVEREIRO);
+        String completo = service.generateMonthlyReport(user);
+        assertEquals(0, cache.getAcertos());
+        assertEquals(bimestre, service.generateMonthlyReport(user, JANEIRO, FEVEREIRO));
+        assertEquals(completo, service.generateMonthlyReport(user));
+        assertEquals(2, cache.getAcertos());
+
+        // Março está só no relatório completo; outro usuário não afeta nenhum dos dois
+        registrar(service, 1L, 3, LocalDate.of(2024, 3, 20), "25.00");
+        registrar(service, 2L, 4, LocalDate.of(2024, 1, 5), "10.00");
+        assertEquals(1, cache.getInvalidacoes());
+        assertEquals(bimestre, service.generateMonthlyReport(user, JANEIRO, FEVEREIRO));
+        assertEquals(3, cache.getAcertos());
+
+        String atualizado = service.generateMonthlyReport(user);
+        assertEquals(3, cache.getAcertos());
+        assertNotEquals(completo, atualizado);
+        assertTrue(atualizado.contains("75.00"), atualizado);
+    }
+
+    @Test
+    void usuarioSemIdTemRelatorioSoComCabecalho() {
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        registrar(service, 1L, 1, LocalDate.of(2024, 1, 10), "100.00");
+
+        String relatorio = service.generateMonthlyReport(usuario(null));
+        assertEquals("Relatório mensal de Usuário:\n\n", relatorio);
+        assertEquals(0, service.getCacheRelatorios().getTamanho());
+    }
+
+    @Test
+    void putDescartaRelatorioCalculadoDuranteUmaEscrita() {
+        CacheRelatorios cache = new CacheRelatorios(10);
+        long geracao = cache.geracao(7);
+        cache.invalidar(7, JANEIRO);
+        cache.put(7, null, null, "desatualizado", geracao);
+        assertNull(cache.get(7, null, null));
+
+        cache.put(7, null, null, "atual", cache.geracao(7));
+        assertEquals("atual", cache.get(7, null, null));
+    }
+
+    @Test
+    void despejaOMenosUsadoAcimaDaCapacidade() {
+        CacheRelatorios cache = new CacheRelatorios(2, 1);
+        cache.put(1, null, null, "um", cache.geracao(1));
+        cache.put(2, null, null, "dois", cache.geracao(2));
+        assertEquals("um", cache.get(1, null, null));
+        cache.put(3, null, null, "três", cache.geracao(3));
+
+        assertEquals(2, cache.getTamanho());
+        assertEquals(1, cache.getDespejos());
+        assertNull(cache.get(2, null, null));
+        assertEquals("um", cache.get(1, null, null));
+        assertEquals("três", cache.get(3, null, null));
+    }
+
+    @Test
+    void capacidadeZeroDesativaOCache() {
+        CacheRelatorios cache = new CacheRelatorios(0);
+        cache.put(1, MARCO, MARCO, "texto", cache.geracao(1));
+        assertNull(cache.get(1, MARCO, MARCO));
+        assertEquals(0, cache.getTamanho());
+    }
+
+    private static void registrar(GerenciadorFinanceiroService service, long userId, long id, LocalDate data,
+                                  String valor) {
+        service.registerTransaction(new Transaction(id, userId, 1L, null, TransactionType.INCOME,
+                new BigDecimal(valor), data, "lançamento " + id));
+    }
+
+    private static User usuario(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Usuário");
+        return user;
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.edufinai.service.dedup;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DetectorDuplicatasTest {
+
+    /** Várias vezes a capacidade inicial (4.096): filtro e tabela crescem algumas vezes. */
+    private static final int LINHAS = 40_000;
+    private static final long NULO = ColumnarTransactionStore.NULO;
+
+    private final ColumnarTransactionStore transactions = new ColumnarTransactionStore();
+    private final DetectorDuplicatas detector = new DetectorDuplicatas(transactions);
+    private final int semDescricao = transactions.getDescricoes().intern(null);
+
+    @Test
+    void detectaDuplicatasDepoisDeCrescer() {
+        for (int i = 0; i < LINHAS; i++) {
+            // Metade com id, metade identificada pelo conteúdo
+            long id = i % 2 == 0 ? i : NULO;
+            assertFalse(contem(i % 7, id, TransactionType.EXPENSE, 100 + i, 19_000 + i % 365), "linha " + i);
+            gravar(i % 7, id, TransactionType.EXPENSE, 100 + i, 19_000 + i % 365);
+        }
+
+        for (int i = 0; i < LINHAS; i++) {
+            long id = i % 2 == 0 ? i : NULO;
+            assertTrue(contem(i % 7, id, TransactionType.EXPENSE, 100 + i, 19_000 + i % 365), "linha " + i);
+        }
+        EstatisticasDuplicatas estatisticas = estatisticas();
+        assertEquals(LINHAS, estatisticas.getChaves());
+        assertEquals(LINHAS, estatisticas.getDuplicatas());
+    }
+
+    @Test
+    void falsoPositivoDoFiltroResolvidoPelaTabela() {
+        for (int i = 0; i < LINHAS; i++) {
+            gravar(1, i, TransactionType.INCOME, 100, 19_000);
+        }
+
+        // Mesmo hash de uma chave gravada, colunas diferentes: o filtro diz "talvez" e a tabela decide
+        long chaveExistente = detector.chave(123);
+        assertFalse(detector.contem(chaveExistente, 1, LINHAS + 1, NULO, TransactionType.INCOME, 100, 19_000,
+                semDescricao));
+        assertFalse(detector.contem(chaveExistente, 2, 123, NULO, TransactionType.INCOME, 100, 19_000, semDescricao));
+        assertEquals(2, estatisticas().getFalsosPositivos());
+
+        // Chaves novas: as que passam pelo filtro também são respondidas como novas
+        for (int i = LINHAS; i < 3 * LINHAS; i++) {
+            assertFalse(contem(1, i, TransactionType.INCOME, 100, 19_000), "id " + i);
+        }
+        EstatisticasDuplicatas estatisticas = estatisticas();
+        assertTrue(estatisticas.getFalsosPositivos() > 2);
+        assertEquals(0, estatisticas.getDuplicatas());
+        assertTrue(estatisticas.getTaxaFalsosPositivos() < 0.05, estatisticas.toString());
+    }
+
+    @Test
+    void tipoFazParteDoConteudo() {
+        gravar(1, NULO, TransactionType.EXPENSE, 4_990, 19_500);
+
+        // Estorno da compra: mesmo dia, conta, valor e descrição, mas receita
+        assertFalse(contem(1, NULO, TransactionType.INCOME, 4_990, 19_500));
+        assertTrue(contem(1, NULO, TransactionType.EXPENSE, 4_990, 19_500));
+    }
+
+    @Test
+    void servicoRegistraCompraEEstornoNoMesmoDia() {
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        LocalDate dia = LocalDate.of(2024, 5, 10);
+        BigDecimal valor = new BigDecimal("49.90");
+        assertTrue(service.registerTransaction(new Transaction(null, 1L, 2L, null, TransactionType.EXPENSE, valor, dia,
+                "Loja")));
+        assertTrue(service.registerTransaction(new Transaction(null, 1L, 2L, null, TransactionType.INCOME, valor, dia,
+                "Loja")));
+        assertFalse(service.registerTransaction(new Transaction(null, 1L, 2L, null, TransactionType.INCOME, valor, dia,
+                "Loja")));
+
+        assertEquals(new BigDecimal("0.00"), service.getResumosMensais(1L).firstEntry().getValue().getSaldo());
+    }
+
+    private boolean contem(long userId, long id, TransactionType tipo, long centavos, int dia) {
+        long chave = DetectorDuplicatas.chave(userId, id, 1, tipo, centavos, dia, semDescricao);
+        return detector.contem(chave, userId, id, 1, tipo, centavos, dia, semDescricao);
+    }
+
+    private void gravar(long userId, long id, TransactionType tipo, long centavos, int dia) {
+        long chave = DetectorDuplicatas.chave(userId, id, 1, tipo, centavos, dia, semDescricao);
+        detector.adicionar(chave, transactions.append(id, userId, 1, NULO, tipo, centavos, dia, semDescricao));
+    }
+
+    private EstatisticasDuplicatas estatisticas() {
+        EstatisticasDuplicatas estatisticas = new EstatisticasDuplicatas();
+        detector.somarEm(estatisticas);
+        return estatisticas;
+    }
+}
@@ -0,0 +1,144 @@
+package br.com.edufinai.service.eventos;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BarramentoEventosTest {
+
+    @Test
+    void consumidorRecebeEventoDepoisDasDependencias() {
+        BarramentoEventos barramento = new BarramentoEventos(64);
+        AtomicLong somaSaldos = new AtomicLong();
+        ProcessadorEventos saldos = barramento.adicionarConsumidor("saldos",
+                (evento, sequencia, fimDoLote) -> somaSaldos.addAndGet(evento.getCentavos()));
+        AtomicInteger foraDeOrdem = new AtomicInteger();
+        List<Long> recebidas = new ArrayList<>();
+        barramento.adicionarConsumidor("gamificacao", (evento, sequencia, fimDoLote) -> {
+            if (saldos.getSequencia() < sequencia) {
+                foraDeOrdem.incrementAndGet();
+            }
+            recebidas.add(sequencia);
+        }, saldos);
+        barramento.iniciar();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(barramento.publicar(transacao(i)));
+        }
+        barramento.close();
+
+        assertEquals(0, foraDeOrdem.get());
+        assertEquals(1_000, recebidas.size());
+        for (int i = 0; i < recebidas.size(); i++) {
+            assertEquals(i, recebidas.get(i));
+        }
+        assertEquals(1_000L * 1_001 / 2, somaSaldos.get());
+    }
+
+    @Test
+    void produtorEsperaConsumidorLentoComAnelCheio() throws InterruptedException {
+        BarramentoEventos barramento = new BarramentoEventos(8);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger processados = new AtomicInteger();
+        barramento.adicionarConsumidor("lento", (evento, sequencia, fimDoLote) -> {
+            aguardar(liberar);
+            processados.incrementAndGet();
+        });
+        barramento.iniciar();
+
+        Thread produtor = new Thread(() -> {
+            for (int i = 0; i < 20; i++) {
+                barramento.publicar(transacao(i));
+            }
+        });
+        produtor.start();
+        // O anel de 8 posições enche e o produtor fica esperando o consumidor
+        while (barramento.getEstatisticas().getEsperasProdutores() == 0) {
+            Thread.sleep(1);
+        }
+        assertTrue(produtor.isAlive());
+        assertEquals(7, barramento.getCursor());
+
+        liberar.countDown();
+        produtor.join(10_000);
+        assertFalse(produtor.isAlive());
+        barramento.close();
+        assertEquals(20, processados.get());
+        assertEquals(0, barramento.getEstatisticas().getDescartados());
+    }
+
+    @Test
+    void encerrarComProdutoresBloqueadosDescartaSemTravar() {
+        assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            BarramentoEventos barramento = new BarramentoEventos(4);
+            CountDownLatch liberar = new CountDownLatch(1);
+            AtomicInteger processados = new AtomicInteger();
+            barramento.adicionarConsumidor("travado", (evento, sequencia, fimDoLote) -> {
+                aguardar(liberar);
+                processados.incrementAndGet();
+            });
+            barramento.iniciar();
+
+            int produtores = 4;
+            int porProdutor = 50;
+            AtomicInteger publicados = new AtomicInteger();
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < produtores; p++) {
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < porProdutor; i++) {
+                        if (barramento.publicar(transacao(i))) {
+                            publicados.incrementAndGet();
+                        }
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            while (barramento.getEstatisticas().getEsperasProdutores() < produtores) {
+                Thread.sleep(1);
+            }
+
+            // Encerra com o anel cheio e todos os produtores esperando espaço
+            Thread encerramento = new Thread(barramento::close);
+            encerramento.start();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            liberar.countDown();
+            encerramento.join();
+
+            // Cada evento foi processado ou contado como descartado; nenhum ficou perdido
+            assertEquals(publicados.get(), processados.get());
+            assertEquals(produtores * porProdutor,
+                    processados.get() + barramento.getEstatisticas().getDescartados());
+            assertFalse(barramento.publicar(transacao(0)));
+        });
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Transaction transacao(int i) {
+        return new Transaction((long) i, 1L, 1L, null, TransactionType.INCOME,
+                BigDecimal.valueOf(i + 1, 2), LocalDate.of(2024, 1, 1), "evento " + i);
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.edufinai.service.eventos;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.model.gamification.GamificationEngine;
+import br.com.edufinai.model.gamification.Goal;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.persistence.DurabilityMode;
+import br.com.edufinai.service.persistence.TransactionJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SaldosUsuariosTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void historicoReproduzidoEntraPelosSaldosIniciais() throws IOException {
+        try (TransactionJournal journal = new TransactionJournal(diretorio, DurabilityMode.SYNC,
+                TransactionJournal.TAMANHO_SEGMENTO_PADRAO)) {
+            GerenciadorFinanceiroService service = new GerenciadorFinanceiroService(journal);
+            registrar(service, 1, 1L, TransactionType.INCOME, "3000.00");
+            registrar(service, 2, 1L, TransactionType.EXPENSE, "1200.00");
+            registrar(service, 3, 1L, TransactionType.INVESTMENT, "500.00");
+            registrar(service, 4, 2L, TransactionType.EXPENSE, "80.00");
+        }
+
+        try (TransactionJournal journal = new TransactionJournal(diretorio, DurabilityMode.SYNC,
+                TransactionJournal.TAMANHO_SEGMENTO_PADRAO)) {
+            GerenciadorFinanceiroService service = new GerenciadorFinanceiroService(journal);
+            Map<Long, Long> iniciais = new HashMap<>();
+            for (long userId : service.getUsuarios()) {
+                iniciais.put(userId, service.streamResumosMensais(userId)
+                        .mapToLong(r -> r.getReceitasCentavos() - r.getDespesasCentavos()).sum());
+            }
+            assertEquals(Map.of(1L, 180_000L, 2L, -8_000L), iniciais);
+            SaldosUsuarios saldos = new SaldosUsuarios(iniciais);
+            GamificationEngine engine = new GamificationEngine();
+            Goal reserva = new Goal("Reserva", new BigDecimal("2000.00"));
+            engine.addGoal(reserva);
+            AvaliadorGamificacao avaliador = new AvaliadorGamificacao(saldos, userId -> userId == 1L ? engine : null);
+
+            try (BarramentoEventos barramento = new BarramentoEventos(64)) {
+                ProcessadorEventos processadorSaldos = barramento.adicionarConsumidor("saldos", saldos);
+                barramento.adicionarConsumidor("gamificacao", avaliador, processadorSaldos);
+                barramento.iniciar();
+                service.configurarBarramento(barramento);
+
+                // 1.800,00 do histórico + 250,00 novos: a meta de 2.000,00 é atingida no primeiro evento
+                registrar(service, 5, 1L, TransactionType.INCOME, "250.00");
+                registrar(service, 6, 2L, TransactionType.INCOME, "100.00");
+                barramento.aguardarConsumo();
+
+                assertEquals(new BigDecimal("2050.00"), saldos.getSaldo(1L));
+                assertEquals(new BigDecimal("20.00"), saldos.getSaldo(2L));
+                assertEquals(0, saldos.getSaldoCentavos(3L));
+                assertTrue(reserva.isAchieved());
+                assertEquals(1, avaliador.getMetasAtingidas());
+            }
+        }
+    }
+
+    private static void registrar(GerenciadorFinanceiroService service, long id, long userId, TransactionType tipo,
+                                  String valor) {
+        service.registerTransaction(new Transaction(id, userId, 1L, null, tipo, new BigDecimal(valor),
+                LocalDate.of(2024, 3, (int) id), "lançamento " + id));
+    }
+}
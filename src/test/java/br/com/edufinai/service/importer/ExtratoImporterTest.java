@@ -0,0 +1,142 @@
+package br.com.edufinai.service.importer;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExtratoImporterTest {
+
+    /** Janela pequena: cabem poucos registros e vários atravessam o fim de uma janela. */
+    private static final long JANELA = 256;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void csvComAspasDelimitadorEAspasEscapadas() throws IOException {
+        Path arquivo = escrever("com-aspas.csv", String.join("\n",
+                "id;userId;accountId;categoryId;type;amount;date;description",
+                "1;7;2;;DESPESA;1.234,56;06/09/2025;\"Loja \"\"Central\"\"; filial 2\"",
+                "2;7;;10;;-45.90;2025-09-07;\"\"",
+                "3;7;2;;EXPENSE;abc;2025-09-08;Valor inválido",
+                "4;7;2;;RECEITA;3000;2025-09-10;Salário\r",
+                ""));
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        ExtratoImporter importer = new ExtratoImporter(service);
+
+        ResultadoImportacao resultado = importer.importarCsv(arquivo);
+
+        assertEquals(3, resultado.getImportadas());
+        assertEquals(1, resultado.getRejeitadas());
+        assertEquals(4, resultado.getRejeicoes().get(0).getRegistro());
+        List<Transaction> setembro = service.getTransacoes(7L, YearMonth.of(2025, 9));
+        assertEquals(3, setembro.size());
+        Transaction loja = setembro.get(0);
+        assertEquals("Loja \"Central\"; filial 2", loja.getDescription());
+        assertEquals(TransactionType.EXPENSE, loja.getType());
+        assertEquals(0, new BigDecimal("1234.56").compareTo(loja.getAmount()));
+        assertEquals(LocalDate.of(2025, 9, 6), loja.getDate());
+        Transaction semTipo = setembro.get(1);
+        assertEquals(TransactionType.EXPENSE, semTipo.getType());
+        assertEquals(0, new BigDecimal("45.90").compareTo(semTipo.getAmount()));
+        assertEquals(10L, semTipo.getCategoryId());
+        assertEquals("Salário", setembro.get(2).getDescription());
+        assertFalse(Files.exists(ExtratoImporter.caminhoCheckpoint(arquivo)));
+    }
+
+    @Test
+    void registrosQueAtravessamJanelasSaoLidosInteiros() throws IOException {
+        Path arquivo = escrever("janelas.csv", linhas(500, -1));
+
+        GerenciadorFinanceiroService esperado = new GerenciadorFinanceiroService();
+        new ExtratoImporter(esperado).importarCsv(arquivo);
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        ExtratoImporter importer = new ExtratoImporter(service);
+        importer.setTamanhoJanela(JANELA);
+        importer.setTamanhoLote(7);
+        ResultadoImportacao resultado = importer.importarCsv(arquivo);
+
+        assertEquals(500, resultado.getImportadas());
+        assertEquals(0, resultado.getRejeitadas());
+        assertEquals(Files.size(arquivo), resultado.getBytesLidos());
+        assertEquals(textos(esperado.getTransacoes()), textos(service.getTransacoes()));
+    }
+
+    @Test
+    void retomaDoCheckpointDepoisDeUmaFalha() throws IOException {
+        // O registro 60 não cabe na janela: a importação falha depois do lote confirmado no registro 50
+        Path arquivo = escrever("extrato.csv", linhas(100, 60));
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        ExtratoImporter importer = new ExtratoImporter(service);
+        importer.setTamanhoJanela(JANELA);
+        importer.setTamanhoLote(10);
+
+        assertThrows(IOException.class, () -> importer.importarCsv(arquivo));
+        assertTrue(Files.exists(ExtratoImporter.caminhoCheckpoint(arquivo)));
+        assertEquals(50, service.getTransacoes().size());
+
+        // Corrigido o registro (os bytes anteriores não mudam), a importação continua de onde parou
+        escrever("extrato.csv", linhas(100, -1));
+        ResultadoImportacao retomada = importer.importarCsv(arquivo);
+        assertTrue(retomada.isRetomada());
+        assertEquals(100, retomada.getImportadas());
+        assertEquals(100, service.getTransacoes().size());
+        assertFalse(Files.exists(ExtratoImporter.caminhoCheckpoint(arquivo)));
+    }
+
+    @Test
+    void reimportacaoNaoDuplica() throws IOException {
+        Path arquivo = escrever("repetido.csv", linhas(100, -1));
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        ExtratoImporter importer = new ExtratoImporter(service);
+        importer.setTamanhoLote(30);
+        assertEquals(100, importer.importarCsv(arquivo).getImportadas());
+
+        // Com ou sem id, tudo é reconhecido como já registrado
+        ResultadoImportacao repetida = importer.importarCsv(arquivo);
+        assertFalse(repetida.isRetomada());
+        assertEquals(0, repetida.getImportadas());
+        assertEquals(100, repetida.getDuplicadas());
+        assertEquals(100, service.getTransacoes().size());
+    }
+
+    /**
+     * @param longo registro com descrição maior que a janela (ou -1 para nenhum)
+     */
+    private static String linhas(int quantidade, int longo) {
+        StringBuilder csv = new StringBuilder("id;userId;accountId;categoryId;type;amount;date;description\n");
+        for (int i = 1; i <= quantidade; i++) {
+            // Um terço sem id: na reimportação, a duplicata é reconhecida pelo conteúdo
+            String id = i % 3 == 0 ? "" : Integer.toString(i);
+            String descricao = i == longo ? "x".repeat((int) JANELA) : "\"Compra; item " + i + "\"";
+            csv.append(id).append(';').append(1 + i % 4).append(";2;;EXPENSE;")
+                    .append(i).append(',').append(String.format("%02d", i % 100)).append(';')
+                    .append(LocalDate.of(2024, 1, 1).plusDays(i)).append(';').append(descricao).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private Path escrever(String nome, String conteudo) throws IOException {
+        return Files.writeString(diretorio.resolve(nome), conteudo, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> textos(List<Transaction> transacoes) {
+        return transacoes.stream().map(Transaction::toString).toList();
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.edufinai.service.job;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.model.User;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmissaoExtratosJobTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void falhaAoRenderizarNaoDeixaTemporario() throws IOException {
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        for (long userId = 1; userId <= 3; userId++) {
+            service.registerTransaction(new Transaction(userId, userId, 1L, null, TransactionType.INCOME,
+                    new BigDecimal("10.00"), LocalDate.of(2024, 1, 10), "salário"));
+        }
+        EmissaoExtratosJob job = new EmissaoExtratosJob(service);
+        job.setUsuarios(userId -> userId == 2 ? new UsuarioComFalha() : usuario(userId));
+
+        ResultadoEmissao resultado = job.emitir(null, null, diretorio);
+
+        assertEquals(2, resultado.getEmitidos());
+        assertEquals(1, resultado.getQuantidadeFalhas());
+        assertEquals(2, resultado.getFalhas().get(0).getUserId());
+        assertTrue(Files.exists(EmissaoExtratosJob.caminhoExtrato(diretorio, 1, null, null)));
+        assertFalse(Files.exists(EmissaoExtratosJob.caminhoExtrato(diretorio, 2, null, null)));
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            List<Path> temporarios = arquivos.filter(p -> p.getFileName().toString().endsWith(".tmp")).toList();
+            assertEquals(List.of(), temporarios);
+        }
+    }
+
+    private static User usuario(long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setName("Usuário " + userId);
+        return user;
+    }
+
+    /** Falha ao montar o cabeçalho, depois de o arquivo temporário ter sido criado. */
+    private static class UsuarioComFalha extends User {
+        UsuarioComFalha() {
+            setId(2L);
+        }
+
+        @Override
+        public String getName() {
+            throw new IllegalStateException("cadastro indisponível");
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package br.com.edufinai.service.persistence;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.ResumoMensal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotManagerTest {
+
+    private static final long TAMANHO_SEGMENTO = 512;
+    private static final int USUARIOS = 5;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void restauraSnapshotMaisCaudaDoLog() throws IOException {
+        Path dirJournal = diretorio.resolve("journal");
+        SnapshotManager snapshots = new SnapshotManager(diretorio.resolve("snapshots"));
+        List<List<String>> esperadas;
+        List<NavigableMap<YearMonth, ResumoMensal>> resumosEsperados = new ArrayList<>();
+        try (TransactionJournal journal = new TransactionJournal(dirJournal, DurabilityMode.SYNC, TAMANHO_SEGMENTO)) {
+            GerenciadorFinanceiroService service = new GerenciadorFinanceiroService(journal, 4);
+            registrar(service, 0, 60);
+            snapshots.salvar(service, null);
+            // Cauda: transações posteriores ao snapshot, só no log
+            registrar(service, 60, 90);
+            esperadas = transacoes(service);
+            for (long u = 0; u < USUARIOS; u++) {
+                resumosEsperados.add(service.getResumosMensais(u));
+            }
+        }
+
+        try (TransactionJournal journal = new TransactionJournal(dirJournal, DurabilityMode.SYNC, TAMANHO_SEGMENTO)) {
+            GerenciadorFinanceiroService restaurado = snapshots.restaurar(journal, null);
+            assertEquals(esperadas, transacoes(restaurado));
+            for (int u = 0; u < USUARIOS; u++) {
+                assertMesmosResumos(resumosEsperados.get(u), restaurado.getResumosMensais((long) u));
+            }
+            // O restaurado continua a sequência do log
+            assertTrue(restaurado.registerTransaction(transacao(90)));
+            assertEquals(91, journal.getUltimoLsn());
+        }
+    }
+
+    @Test
+    void restauraAposDescartarInicioDoLog() throws IOException {
+        Path dirJournal = diretorio.resolve("journal");
+        Path dirSnapshots = diretorio.resolve("snapshots");
+        SnapshotManager snapshots = new SnapshotManager(dirSnapshots);
+        List<List<String>> esperadas;
+        try (TransactionJournal journal = new TransactionJournal(dirJournal, DurabilityMode.SYNC, TAMANHO_SEGMENTO)) {
+            GerenciadorFinanceiroService service = new GerenciadorFinanceiroService(journal, 4);
+            registrar(service, 0, 60);
+            snapshots.salvar(service, null);
+            // O salvar descarta os segmentos cobertos pelo snapshot
+            assertTrue(journal.getPrimeiroLsn() > 1);
+            registrar(service, 60, 70);
+            esperadas = transacoes(service);
+        }
+
+        try (TransactionJournal journal = new TransactionJournal(dirJournal, DurabilityMode.SYNC, TAMANHO_SEGMENTO)) {
+            assertEquals(esperadas, transacoes(snapshots.restaurar(journal, null)));
+        }
+
+        // Sem o snapshot, o log sozinho não reconstrói o estado: a restauração falha em vez de perder dados
+        try (Stream<Path> arquivos = Files.list(dirSnapshots)) {
+            for (Path arquivo : arquivos.toList()) {
+                Files.delete(arquivo);
+            }
+        }
+        try (TransactionJournal journal = new TransactionJournal(dirJournal, DurabilityMode.SYNC, TAMANHO_SEGMENTO)) {
+            assertThrows(IOException.class, () -> snapshots.restaurar(journal, null));
+        }
+    }
+
+    @Test
+    void semSnapshotReproduzLogInteiro() throws IOException {
+        Path dirJournal = diretorio.resolve("journal");
+        List<List<String>> esperadas;
+        try (TransactionJournal journal = new TransactionJournal(dirJournal, DurabilityMode.SYNC, TAMANHO_SEGMENTO)) {
+            GerenciadorFinanceiroService service = new GerenciadorFinanceiroService(journal, 4);
+            registrar(service, 0, 30);
+            esperadas = transacoes(service);
+        }
+        try (TransactionJournal journal = new TransactionJournal(dirJournal, DurabilityMode.SYNC, TAMANHO_SEGMENTO)) {
+            SnapshotManager snapshots = new SnapshotManager(diretorio.resolve("snapshots"));
+            assertEquals(esperadas, transacoes(snapshots.restaurar(journal, null)));
+        }
+    }
+
+    private static void registrar(GerenciadorFinanceiroService service, int de, int ate) {
+        for (int i = de; i < ate; i++) {
+            assertTrue(service.registerTransaction(transacao(i)));
+        }
+    }
+
+    /** Transações de cada usuário, como texto (Transaction não define equals; os valores têm escala 2). */
+    private static List<List<String>> transacoes(GerenciadorFinanceiroService service) {
+        List<List<String>> porUsuario = new ArrayList<>();
+        for (long u = 0; u < USUARIOS; u++) {
+            List<String> doUsuario = new ArrayList<>();
+            for (YearMonth mes : service.getResumosMensais(u).keySet()) {
+                service.getTransacoes(u, mes).forEach(t -> doUsuario.add(t.toString()));
+            }
+            porUsuario.add(doUsuario);
+        }
+        return porUsuario;
+    }
+
+    private static void assertMesmosResumos(Map<YearMonth, ResumoMensal> esperados, Map<YearMonth, ResumoMensal> obtidos) {
+        assertEquals(esperados.keySet(), obtidos.keySet());
+        for (YearMonth mes : esperados.keySet()) {
+            ResumoMensal a = esperados.get(mes);
+            ResumoMensal b = obtidos.get(mes);
+            assertEquals(a.getReceitasCentavos(), b.getReceitasCentavos(), mes.toString());
+            assertEquals(a.getDespesasCentavos(), b.getDespesasCentavos(), mes.toString());
+            assertEquals(a.getInvestimentosCentavos(), b.getInvestimentosCentavos(), mes.toString());
+            assertEquals(a.getQuantidade(), b.getQuantidade(), mes.toString());
+        }
+    }
+
+    private static Transaction transacao(int i) {
+        TransactionType tipo = TransactionType.values()[i % TransactionType.values().length];
+        return new Transaction((long) i, (long) (i % USUARIOS), 1L, null, tipo,
+                BigDecimal.valueOf(500 + i * 101L, 2), LocalDate.of(2024, 1, 1).plusDays(i * 7L), "lançamento " + i);
+    }
+}
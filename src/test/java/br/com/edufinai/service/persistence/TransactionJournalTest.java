@@ -0,0 +1,193 @@
+package br.com.edufinai.service.persistence;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionJournalTest {
+
+    /** Segmentos pequenos, para que poucos registros ocupem vários arquivos. */
+    private static final long TAMANHO_SEGMENTO = 512;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void reproduzTodosOsRegistrosEmOrdem() throws IOException {
+        List<Transaction> gravadas = gravar(40);
+
+        try (TransactionJournal journal = new TransactionJournal(diretorio, DurabilityMode.SYNC, TAMANHO_SEGMENTO)) {
+            assertTrue(journal.getQuantidadeSegmentos() > 2);
+            assertEquals(40, journal.getUltimoLsn());
+            List<Long> lsns = new ArrayList<>();
+            List<Transaction> lidas = new ArrayList<>();
+            journal.reproduzir(0, (t, lsn) -> {
+                lsns.add(lsn);
+                lidas.add(t);
+            });
+            assertEquals(gravadas.size(), lidas.size());
+            for (int i = 0; i < gravadas.size(); i++) {
+                assertEquals(i + 1, lsns.get(i));
+                assertMesmaTransacao(gravadas.get(i), lidas.get(i));
+            }
+
+            List<Transaction> cauda = new ArrayList<>();
+            journal.reproduzir(35, t -> cauda.add(t));
+            assertEquals(5, cauda.size());
+            assertMesmaTransacao(gravadas.get(35), cauda.get(0));
+        }
+    }
+
+    @Test
+    void descartaFinalIncompletoDoUltimoSegmento() throws IOException {
+        List<Transaction> gravadas = gravar(20);
+        Path ultimo = segmentos().get(segmentos().size() - 1);
+        long tamanhoValido = Files.size(ultimo);
+        // Registro interrompido no meio: tamanho e parte do conteúdo, sem o restante
+        try (FileChannel canal = FileChannel.open(ultimo, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            canal.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 60, 1, 2, 3, 4, 5, 6, 7}));
+        }
+
+        try (TransactionJournal journal = new TransactionJournal(diretorio, DurabilityMode.SYNC, TAMANHO_SEGMENTO)) {
+            assertEquals(tamanhoValido, Files.size(ultimo));
+            assertEquals(20, journal.getUltimoLsn());
+            assertEquals(21, journal.anexar(transacao(20)));
+            List<Transaction> lidas = new ArrayList<>();
+            journal.reproduzir(0, t -> lidas.add(t));
+            assertEquals(21, lidas.size());
+            assertMesmaTransacao(gravadas.get(19), lidas.get(19));
+        }
+    }
+
+    @Test
+    void falhaComCorrupcaoEmSegmentoIntermediario() throws IOException {
+        gravar(40);
+        List<Path> arquivos = segmentos();
+        assertTrue(arquivos.size() > 2);
+        Path intermediario = arquivos.get(1);
+        try (FileChannel canal = FileChannel.open(intermediario, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            long posicao = canal.size() / 2;
+            canal.read(b, posicao);
+            b.put(0, (byte) (b.get(0) ^ 0xFF)).rewind();
+            canal.write(b, posicao);
+        }
+
+        // A abertura só valida o último segmento; a reprodução encontra a corrupção
+        try (TransactionJournal journal = new TransactionJournal(diretorio, DurabilityMode.SYNC, TAMANHO_SEGMENTO)) {
+            assertEquals(40, journal.getUltimoLsn());
+            List<Transaction> lidas = new ArrayList<>();
+            IOException erro = assertThrows(IOException.class, () -> journal.reproduzir(0, t -> lidas.add(t)));
+            assertTrue(erro.getMessage().contains(intermediario.getFileName().toString()), erro.getMessage());
+            assertTrue(lidas.size() < 40);
+        }
+    }
+
+    @Test
+    void descartaSegmentosCobertos() throws IOException {
+        gravar(40);
+        try (TransactionJournal journal = new TransactionJournal(diretorio, DurabilityMode.SYNC, TAMANHO_SEGMENTO)) {
+            assertEquals(1, journal.getPrimeiroLsn());
+            assertTrue(journal.descartarAte(30) > 0);
+            assertTrue(journal.getPrimeiroLsn() > 1);
+            assertTrue(journal.getPrimeiroLsn() <= 31);
+            List<Transaction> lidas = new ArrayList<>();
+            journal.reproduzir(30, t -> lidas.add(t));
+            assertEquals(10, lidas.size());
+            assertNull(journal.getFalha());
+        }
+    }
+
+    @Test
+    void transacaoInvalidaNaoConsomeLsn() throws IOException {
+        try (TransactionJournal journal = new TransactionJournal(diretorio, DurabilityMode.SYNC, TAMANHO_SEGMENTO)) {
+            assertEquals(1, journal.anexar(transacao(0)));
+            Transaction semUsuario = new Transaction(1L, null, 10L, null, TransactionType.EXPENSE,
+                    BigDecimal.TEN, LocalDate.of(2024, 1, 2), "sem usuário");
+            Transaction semData = new Transaction(2L, 1L, 10L, null, TransactionType.EXPENSE,
+                    BigDecimal.TEN, null, "sem data");
+            Transaction valorGrande = new Transaction(3L, 1L, 10L, null, TransactionType.EXPENSE,
+                    new BigDecimal("1e30"), LocalDate.of(2024, 1, 2), "valor grande");
+            assertThrows(NullPointerException.class, () -> journal.anexar(semUsuario));
+            assertThrows(NullPointerException.class, () -> journal.anexar(semData));
+            assertThrows(ArithmeticException.class, () -> journal.anexar(valorGrande));
+            assertEquals(1, journal.getUltimoLsn());
+            assertEquals(2, journal.anexar(transacao(1)));
+            assertNull(journal.getFalha());
+        }
+
+        // Nenhum resto das tentativas no segmento: os dois registros válidos voltam em ordem
+        try (TransactionJournal journal = new TransactionJournal(diretorio, DurabilityMode.SYNC, TAMANHO_SEGMENTO)) {
+            assertEquals(2, journal.getUltimoLsn());
+            List<Long> lsns = new ArrayList<>();
+            List<Transaction> lidas = new ArrayList<>();
+            journal.reproduzir(0, (t, lsn) -> {
+                lsns.add(lsn);
+                lidas.add(t);
+            });
+            assertEquals(List.of(1L, 2L), lsns);
+            assertMesmaTransacao(transacao(0), lidas.get(0));
+            assertMesmaTransacao(transacao(1), lidas.get(1));
+        }
+    }
+
+    private List<Transaction> gravar(int quantidade) throws IOException {
+        List<Transaction> gravadas = new ArrayList<>();
+        try (TransactionJournal journal = new TransactionJournal(diretorio, DurabilityMode.SYNC, TAMANHO_SEGMENTO)) {
+            for (int i = 0; i < quantidade; i++) {
+                Transaction t = transacao(i);
+                journal.anexar(t);
+                gravadas.add(t);
+            }
+        }
+        return gravadas;
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(p -> p.getFileName().toString().endsWith(".wal")).sorted((a, b) -> Long.compare(
+                    lsnInicial(a), lsnInicial(b))).toList();
+        }
+    }
+
+    private static long lsnInicial(Path segmento) {
+        String nome = segmento.getFileName().toString();
+        return Long.parseLong(nome.substring("journal-".length(), nome.length() - ".wal".length()));
+    }
+
+    private static Transaction transacao(int i) {
+        return new Transaction((long) i, (long) (i % 3), 10L, i % 2 == 0 ? null : 5L,
+                i % 4 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE,
+                BigDecimal.valueOf(1_000 + i * 37L, 2), LocalDate.of(2024, 1, 1).plusDays(i),
+                i % 5 == 0 ? null : "lançamento " + i);
+    }
+
+    private static void assertMesmaTransacao(Transaction esperada, Transaction lida) {
+        assertEquals(esperada.getId(), lida.getId());
+        assertEquals(esperada.getUserId(), lida.getUserId());
+        assertEquals(esperada.getAccountId(), lida.getAccountId());
+        assertEquals(esperada.getCategoryId(), lida.getCategoryId());
+        assertEquals(esperada.getType(), lida.getType());
+        assertEquals(0, esperada.getAmount().compareTo(lida.getAmount()));
+        assertEquals(esperada.getDate(), lida.getDate());
+        assertEquals(esperada.getDescription(), lida.getDescription());
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.edufinai.service.search;
+
+import br.com.edufinai.model.Transaction;
+import br.com.edufinai.model.TransactionType;
+import br.com.edufinai.service.GerenciadorFinanceiroService;
+import br.com.edufinai.service.storage.ColumnarTransactionStore;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IndiceTextualTest {
+
+    private static final String[] PALAVRAS = {
+            "Café", "cafeteria", "Padaria", "pão", "Pães", "farmácia", "Farmacêutico", "drogaria", "mercado",
+            "Mercadinho", "São", "Paulo", "posto", "Combustível", "ÔNIBUS", "de", "da", "para", "a", "Açaí", "acai"};
+
+    @Test
+    void buscaIgualAFiltroSobreAsDescricoes() {
+        ColumnarTransactionStore transactions = new ColumnarTransactionStore();
+        IndiceTextual indice = new IndiceTextual(transactions);
+        SplittableRandom aleatorio = new SplittableRandom(41);
+        List<String> descricoes = new ArrayList<>();
+        for (int linha = 0; linha < 5_000; linha++) {
+            String descricao = aleatorio.nextInt(50) == 0 ? null : frase(aleatorio, 1 + aleatorio.nextInt(4));
+            descricoes.add(descricao);
+            transactions.append(linha, linha % 3, ColumnarTransactionStore.NULO, ColumnarTransactionStore.NULO,
+                    TransactionType.EXPENSE, 100, 19_000, transactions.getDescricoes().intern(descricao));
+            indice.adicionar(linha);
+        }
+
+        for (int i = 0; i < 500; i++) {
+            long userId = aleatorio.nextInt(3);
+            StringBuilder consulta = new StringBuilder();
+            for (int t = 1 + aleatorio.nextInt(2); t > 0; t--) {
+                String palavra = PALAVRAS[aleatorio.nextInt(PALAVRAS.length)];
+                if (aleatorio.nextBoolean()) {
+                    palavra = palavra.substring(0, 1 + aleatorio.nextInt(palavra.length())) + "*";
+                }
+                consulta.append(palavra).append(' ');
+            }
+            String texto = consulta.toString();
+            int[] esperadas = IntStream.range(0, descricoes.size())
+                    .filter(linha -> linha % 3 == userId && casa(descricoes.get(linha), texto))
+                    .toArray();
+            assertArrayEquals(esperadas, indice.buscar(userId, texto), "\"" + texto + "\" do usuário " + userId);
+        }
+    }
+
+    @Test
+    void servicoIgnoraAcentosMaiusculasEPalavrasVazias() {
+        GerenciadorFinanceiroService service = new GerenciadorFinanceiroService();
+        registrar(service, 1, "Café da Manhã", LocalDate.of(2024, 1, 5));
+        registrar(service, 2, "Farmácia São João", LocalDate.of(2024, 1, 6));
+        registrar(service, 3, "FARMACEUTICO de plantão", LocalDate.of(2024, 1, 7));
+        // Texto já decomposto: o acento combinante não quebra o termo
+        registrar(service, 4, "Cafe\u0301 expresso", LocalDate.of(2024, 1, 8));
+
+        assertEquals(List.of(4L, 1L), ids(service.buscarTransacoes(1L, "CAFÉ", 10)));
+        assertEquals(List.of(1L), ids(service.buscarTransacoes(1L, "manha", 10)));
+        assertEquals(List.of(3L, 2L), ids(service.buscarTransacoes(1L, "farm*", 10)));
+        assertEquals(List.of(2L), ids(service.buscarTransacoes(1L, "farmacia sao*", 10)));
+        assertEquals(List.of(3L), ids(service.buscarTransacoes(1L, "farmaceutico de plantao", 10)));
+        assertEquals(List.of(3L), ids(service.buscarTransacoes(1L, "farm*", 1)));
+        assertEquals(List.of(), ids(service.buscarTransacoes(1L, "farmacia cafe", 10)));
+        assertEquals(List.of(), ids(service.buscarTransacoes(2L, "cafe", 10)));
+        assertThrows(IllegalArgumentException.class, () -> service.buscarTransacoes(1L, " ", 10));
+    }
+
+    /**
+     * Referência: todos os termos da consulta precisam aparecer entre os termos da descrição.
+     */
+    private static boolean casa(String descricao, String consulta) {
+        List<String> termos = Tokenizador.termos(descricao);
+        boolean algum = false;
+        for (String palavra : consulta.trim().split("\\s+")) {
+            boolean prefixo = palavra.endsWith("*");
+            List<String> partes = Tokenizador.fragmentos(palavra);
+            for (int i = 0; i < partes.size(); i++) {
+                String parte = partes.get(i);
+                boolean casou;
+                if (prefixo && i == partes.size() - 1) {
+                    casou = termos.stream().anyMatch(termo -> termo.startsWith(parte));
+                } else if (Tokenizador.indexavel(parte)) {
+                    casou = termos.contains(parte);
+                } else {
+                    continue;
+                }
+                if (!casou) {
+                    return false;
+                }
+                algum = true;
+            }
+        }
+        return algum;
+    }
+
+    private static String frase(SplittableRandom aleatorio, int palavras) {
+        StringBuilder frase = new StringBuilder();
+        for (int i = 0; i < palavras; i++) {
+            frase.append(i == 0 ? "" : aleatorio.nextBoolean() ? " " : " - ")
+                    .append(PALAVRAS[aleatorio.nextInt(PALAVRAS.length)]);
+        }
+        return frase.toString();
+    }
+
+    private static void registrar(GerenciadorFinanceiroService service, long id, String descricao, LocalDate data) {
+        service.registerTransaction(new Transaction(id, 1L, 1L, null, TransactionType.EXPENSE,
+                new BigDecimal("10.00"), data, descricao));
+    }
+
+    private static List<Long> ids(List<Transaction> transacoes) {
+        return transacoes.stream().map(Transaction::getId).toList();
+    }
+}
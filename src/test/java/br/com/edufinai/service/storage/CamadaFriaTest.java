@@ -0,0 +1,75 @@
+package br.com.edufinai.service.storage;
+
+import br.com.edufinai.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CamadaFriaTest {
+
+    /** Linhas em heap; metade delas é o teto do intervalo de espera. */
+    private static final int LINHAS = 4 * CamadaFria.INTERVALO_MINIMO_FALHA;
+    private static final long ORCAMENTO = (long) ColumnarTransactionStore.BYTES_POR_LINHA * LINHAS;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void esperaMaisLinhasDepoisDeUmaFalha() throws IOException {
+        Path segmentos = dir.resolve("segmentos");
+        CamadaFria camada = new CamadaFria(segmentos, ORCAMENTO);
+        ColumnarTransactionStore store = new ColumnarTransactionStore();
+        // Um arquivo no lugar do diretório: toda gravação de segmento falha
+        Files.delete(segmentos);
+        Files.writeString(segmentos, "");
+
+        registrar(store, LINHAS + 1);
+        assertEquals(0, camada.verificar(store));
+        assertEquals(1, camada.getFalhas());
+        assertNotNull(camada.getUltimaFalha());
+
+        // Até o intervalo de espera, nenhuma nova tentativa
+        while (store.size() < LINHAS + CamadaFria.INTERVALO_MINIMO_FALHA) {
+            registrar(store, 1);
+            assertEquals(0, camada.verificar(store));
+        }
+        assertEquals(1, camada.getFalhas());
+        registrar(store, 1);
+        assertEquals(0, camada.verificar(store));
+        assertEquals(2, camada.getFalhas());
+
+        // Segunda falha seguida: o intervalo dobra (e chega ao teto)
+        int proxima = store.size() + 2 * CamadaFria.INTERVALO_MINIMO_FALHA;
+        Files.delete(segmentos);
+        Files.createDirectory(segmentos);
+        registrar(store, proxima - store.size() - 1);
+        assertEquals(0, camada.verificar(store));
+        registrar(store, 1);
+        assertEquals(proxima - LINHAS / 2, camada.verificar(store));
+        assertEquals(2, camada.getFalhas());
+        assertEquals(proxima - LINHAS / 2, store.getLinhasSeladas());
+
+        // Depois de um sucesso, volta a selar a cada vez que passa do orçamento
+        registrar(store, LINHAS / 2 + 1);
+        assertEquals(LINHAS / 2 + 1, camada.verificar(store));
+        try (var arquivos = Files.list(segmentos)) {
+            assertTrue(arquivos.allMatch(arquivo -> arquivo.getFileName().toString().endsWith(".seg")));
+        }
+    }
+
+    private static void registrar(ColumnarTransactionStore store, int linhas) {
+        int semDescricao = store.getDescricoes().intern(null);
+        for (int i = 0; i < linhas; i++) {
+            int linha = store.size();
+            store.append(linha, 1, ColumnarTransactionStore.NULO, ColumnarTransactionStore.NULO,
+                    TransactionType.EXPENSE, 100 + linha, 19_000 + linha / 100, semDescricao);
+        }
+    }
+}